@@ -49,6 +49,10 @@ public enum BaseResponseStatus {
     // ===================== Script ERROR =====================
     SCRIPT_NOT_FOUND(HttpStatus.NOT_FOUND, "스크립트를 찾을 수 없습니다."),
 
+    // ===================== Run Log ERROR =====================
+    RUN_LOG_NOT_FOUND(HttpStatus.NOT_FOUND, "실행 기록을 찾을 수 없습니다."),
+    RUN_LOG_READ_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "실행 기록을 읽지 못했습니다."),
+
     // ===================== INTERNAL SERVER ERROR =====================
     INTERNAL_SERVER_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "서버 내부 오류 발생"), 
     
@@ -57,15 +57,17 @@ public class SecurityConfig {
                         "/swagger-ui.html",
                         "/editor/**",
                         "/ws/**",
+                        "/preview/**",
                         "/js/**",
                         "/css/**",
                         "/images/**",
                         "/favicon.ico",
                         "/static/**",
                         "/login.html",
-                        "/projects.html"
+                        "/projects.html",
+                        "/actuator/health"
                     ).permitAll()
-                    .requestMatchers("/admin/**").hasRole("ADMIN")
+                    .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN")
                     .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
@@ -0,0 +1,470 @@
+package com.hackplay.hackplay.config.build;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Spring Boot 실행 JVM 기동 가속 (AppCDS)
+ * boot jar 를 풀어서 의존성 jar 는 템플릿 + 의존성 집합별 공용 디렉터리에, 앱 클래스는 프로젝트별 디렉터리에 두고
+ * -cp 공용 jar... : 앱 클래스 로 실행한다. 공용 jar 만으로 만든 CDS 아카이브는 클래스패스 앞부분이 같으므로
+ * 같은 의존성을 쓰는 모든 학생 실행이 함께 쓴다 (fat jar 의 중첩 jar 는 CDS 로 보관할 수 없어 풀어야 한다).
+ * 아카이브가 없으면 그 실행에서 읽어 들인 클래스 목록을 남기고, 프로세스가 끝나면 백그라운드에서 아카이브를 만든다.
+ * 의존성이 바뀌면 키가 달라지므로 새 디렉터리에서 다시 만들어진다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppCdsCache {
+
+    private static final String LIB_PREFIX = "BOOT-INF/lib/";
+    private static final String CLASSES_PREFIX = "BOOT-INF/classes/";
+    private static final String CLASSPATH_INDEX = "BOOT-INF/classpath.idx";
+    private static final String ARCHIVE = "app.jsa";
+    private static final String LAST_USED = "last-used";
+    private static final String JAR_STAMP = "jar-stamp";
+    private static final long DUMP_TIMEOUT_MINUTES = 5;
+    private static final long VERSION_TIMEOUT_SECONDS = 10;
+
+    // "Started DemoApplication in 2.1 seconds (process running for 2.6)" (Boot 2 는 "JVM running for")
+    private static final Pattern STARTED = Pattern.compile("Started .* \\((?:process|JVM) running for ([0-9.]+)\\)");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${run.cds.enabled:true}")
+    private boolean enabled;
+
+    @Value("${run.cds.base-path:../run-cds}")
+    private String basePath;
+
+    // 이 기간 동안 쓰이지 않은 의존성 집합은 같은 템플릿의 새 집합이 생길 때 지운다
+    @Value("${run.cds.retention-days:14}")
+    private long retentionDays;
+
+    // 아카이브를 만드는 중인 공용 디렉터리 (중복 학습 방지)
+    private final Set<Path> training = ConcurrentHashMap.newKeySet();
+
+    // 실행에 쓰는 java 의 -version 출력 (처음 필요할 때 한 번 실행해 기억)
+    private volatile String javaVersion;
+
+    /** 실행 방식 (CDS 사용 여부) - 시작 완료 시간을 템플릿 / 방식별로 기록한다 */
+    public static final class Launch {
+
+        private final ProcessBuilder processBuilder;
+        private final String template;
+        private final String mode;
+        private final Path classList;
+        private final Path sharedDir;
+        private final List<String> libs;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        Launch(ProcessBuilder processBuilder, String template, String mode, Path classList, Path sharedDir, List<String> libs) {
+            this.processBuilder = processBuilder;
+            this.template = template;
+            this.mode = mode;
+            this.classList = classList;
+            this.sharedDir = sharedDir;
+            this.libs = libs;
+        }
+
+        public ProcessBuilder getProcessBuilder() {
+            return processBuilder;
+        }
+
+        /** shared (아카이브 사용) / training (클래스 목록 수집) / off */
+        public String getMode() {
+            return mode;
+        }
+
+        public boolean isReported() {
+            return reported.get();
+        }
+    }
+
+    /**
+     * boot jar 실행 방법 결정 (풀기 실패 등으로 CDS 를 쓸 수 없으면 java -jar)
+     * @param explodedDir 앱 클래스를 풀어 둘 프로젝트별 디렉터리 (jar 가 바뀔 때만 다시 푼다)
+     */
+    public Launch launch(String template, Path jar, File workDir, Path explodedDir) {
+        String templateKey = sanitize(template);
+        if (enabled) {
+            try {
+                return sharedLaunch(templateKey, jar, workDir, explodedDir);
+            } catch (IOException | RuntimeException e) {
+                log.warn("AppCDS unavailable for {}: {}", jar, e.getMessage());
+            }
+        }
+
+        ProcessBuilder pb = new ProcessBuilder("java", "-jar", jar.toString())
+                .directory(workDir)
+                .redirectErrorStream(true);
+        return new Launch(pb, templateKey, "off", null, null, null);
+    }
+
+    /**
+     * 실행 프로세스 시작 후 호출 - 클래스 목록을 모으는 실행이면 끝난 뒤 아카이브 생성
+     */
+    public void started(Launch launch, Process process) {
+        if (launch.classList == null) {
+            return;
+        }
+        process.onExit().thenRun(() -> Thread.ofVirtual().name("appcds-dump").start(() -> dump(launch)));
+    }
+
+    /**
+     * 출력 한 줄 확인 - Spring Boot 시작 완료 줄이면 JVM 기동부터의 시간을 기록
+     * @return 이번 줄로 기록했으면 true
+     */
+    public boolean recordIfStarted(Launch launch, String line) {
+        if (launch.isReported() || !line.contains("Started ")) {
+            return false;
+        }
+        Matcher matcher = STARTED.matcher(line);
+        if (!matcher.find() || !launch.reported.compareAndSet(false, true)) {
+            return false;
+        }
+
+        double seconds = Double.parseDouble(matcher.group(1));
+        Timer.builder("run.boot.ready")
+                .description("Time from JVM start until Spring Boot reported Started")
+                .tag("template", launch.template)
+                .tag("cds", launch.mode)
+                .register(meterRegistry)
+                .record((long) (seconds * 1000), TimeUnit.MILLISECONDS);
+        log.info("⏱️ Spring Boot ready in {}s (template {}, cds {})", seconds, launch.template, launch.mode);
+        return true;
+    }
+
+    /* ============================================================
+        jar 풀기 - 의존성은 공용 디렉터리로 (한 번만), 앱 클래스는 프로젝트별로
+    ============================================================ */
+    private Launch sharedLaunch(String template, Path jar, File workDir, Path explodedDir) throws IOException {
+        String startClass;
+        List<String> libs;
+        Path sharedDir;
+
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Manifest manifest = jarFile.getManifest();
+            startClass = manifest != null ? manifest.getMainAttributes().getValue("Start-Class") : null;
+            if (startClass == null) {
+                throw new IOException("Start-Class missing (not a Spring Boot jar)");
+            }
+
+            libs = libraryOrder(jarFile);
+            sharedDir = Paths.get(basePath, template, dependencyKey(javaVersion(), jarFile, libs)).toAbsolutePath();
+            if (!Files.isDirectory(sharedDir.resolve("lib"))) {
+                extractLibraries(jarFile, libs, sharedDir);
+                pruneSiblings(sharedDir);
+            }
+            extractClasses(jar, jarFile, explodedDir);
+        }
+        Files.writeString(sharedDir.resolve(LAST_USED), Instant.now().toString());
+
+        // 클래스패스 앞부분(공용 jar)은 아카이브를 만들 때와 글자 그대로 같아야 한다
+        List<String> classpath = new ArrayList<>();
+        for (String lib : libs) {
+            classpath.add(sharedDir.resolve("lib").resolve(lib).toString());
+        }
+        classpath.add(explodedDir.resolve("classes").toAbsolutePath().toString());
+
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        String mode;
+        Path classList = null;
+        Path archive = sharedDir.resolve(ARCHIVE);
+        if (Files.isRegularFile(archive)) {
+            mode = "shared";
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-Xshare:auto");
+            // 클래스패스가 어긋나면 조용히 CDS 없이 실행
+            command.add("-Xlog:cds=off");
+        } else if (training.add(sharedDir)) {
+            mode = "training";
+            classList = sharedDir.resolve("classes-" + UUID.randomUUID() + ".lst");
+            command.add("-XX:DumpLoadedClassList=" + classList);
+        } else {
+            mode = "off";
+        }
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, classpath));
+        command.add(startClass);
+
+        ProcessBuilder pb = new ProcessBuilder(command)
+                .directory(workDir)
+                .redirectErrorStream(true);
+        return new Launch(pb, template, mode, classList, sharedDir, libs);
+    }
+
+    /** classpath.idx 순서 (없으면 이름순) - 같은 의존성이면 늘 같은 순서여야 아카이브를 같이 쓴다 */
+    private List<String> libraryOrder(JarFile jarFile) throws IOException {
+        List<String> libs = new ArrayList<>();
+        ZipEntry index = jarFile.getEntry(CLASSPATH_INDEX);
+        if (index != null) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(jarFile.getInputStream(index), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // - "BOOT-INF/lib/spring-core-6.1.2.jar"
+                    String entry = line.replaceFirst("^-\\s*", "").replace("\"", "").trim();
+                    if (entry.startsWith(LIB_PREFIX) && jarFile.getEntry(entry) != null) {
+                        libs.add(entry.substring(LIB_PREFIX.length()));
+                    }
+                }
+            }
+        }
+
+        if (libs.isEmpty()) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(LIB_PREFIX) && name.endsWith(".jar") && name.indexOf('/', LIB_PREFIX.length()) < 0) {
+                    libs.add(name.substring(LIB_PREFIX.length()));
+                }
+            }
+            libs.sort(null);
+        }
+        return libs;
+    }
+
+    /** 의존성 집합 키 - jar 이름 / 크기 / CRC 와 JVM 버전 (아카이브는 만든 JVM 에서만 쓸 수 있다) */
+    private String dependencyKey(String javaVersion, JarFile jarFile, List<String> libs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(javaVersion.getBytes(StandardCharsets.UTF_8));
+            for (String lib : libs) {
+                ZipEntry entry = jarFile.getEntry(LIB_PREFIX + lib);
+                digest.update((lib + ":" + entry.getSize() + ":" + entry.getCrc() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 실행과 아카이브 생성에 쓰는 PATH 의 java 버전 (java -version 출력 전체 - 빌드 / VM 까지 같아야 아카이브를 쓸 수 있다)
+     * 서버 JVM 과 학생 실행의 java 는 다를 수 있으므로 Runtime.version() 이 아니라 실제로 띄울 java 에 묻는다.
+     */
+    private String javaVersion() throws IOException {
+        String version = javaVersion;
+        if (version != null) {
+            return version;
+        }
+
+        synchronized (this) {
+            if (javaVersion == null) {
+                Process process = new ProcessBuilder("java", "-version")
+                        .redirectErrorStream(true)
+                        .start();
+                try {
+                    // 출력이 몇 줄뿐이라 파이프가 차서 멈추지 않으므로 끝난 뒤에 읽는다
+                    if (!process.waitFor(VERSION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                        process.destroyForcibly();
+                        throw new IOException("java -version timed out");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    process.destroyForcibly();
+                    throw new IOException("Interrupted while running java -version", e);
+                }
+                String output;
+                try (InputStream in = process.getInputStream()) {
+                    output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+                }
+                if (process.exitValue() != 0 || output.isEmpty()) {
+                    throw new IOException("java -version failed (exit " + process.exitValue() + ")");
+                }
+                javaVersion = output;
+                log.info("☕ AppCDS archives keyed on launched JVM: {}", output.lines().findFirst().orElse(output));
+            }
+            return javaVersion;
+        }
+    }
+
+    /**
+     * 공용 jar 풀기 - 임시 디렉터리에 푼 뒤 이름을 바꾸므로 동시에 여러 실행이 와도 반쯤 풀린 디렉터리를 쓰지 않는다
+     * (CDS 는 jar 의 크기 / 수정 시각도 확인하므로 한 번 놓은 jar 는 다시 쓰지 않는다)
+     */
+    private void extractLibraries(JarFile jarFile, List<String> libs, Path sharedDir) throws IOException {
+        Files.createDirectories(sharedDir);
+        Path temp = Files.createTempDirectory(sharedDir, "lib-");
+        try {
+            for (String lib : libs) {
+                try (InputStream in = jarFile.getInputStream(jarFile.getEntry(LIB_PREFIX + lib))) {
+                    Files.copy(in, temp.resolve(lib));
+                }
+            }
+            try {
+                Files.move(temp, sharedDir.resolve("lib"), StandardCopyOption.ATOMIC_MOVE);
+                log.info("📚 Shared Spring Boot libraries prepared: {} ({} jars)", sharedDir, libs.size());
+            } catch (IOException e) {
+                // 다른 실행이 먼저 풀었으면 그것을 쓴다
+                if (!Files.isDirectory(sharedDir.resolve("lib"))) {
+                    throw e;
+                }
+            }
+        } finally {
+            deleteTree(temp);
+        }
+    }
+
+    /** 앱 클래스 / 리소스 풀기 (jar 가 그대로면 건너뜀) */
+    private void extractClasses(Path jar, JarFile jarFile, Path explodedDir) throws IOException {
+        String stamp = Files.size(jar) + ":" + Files.getLastModifiedTime(jar).toMillis();
+        Path stampFile = explodedDir.resolve(JAR_STAMP);
+        Path classes = explodedDir.resolve("classes");
+        if (Files.isDirectory(classes) && Files.isRegularFile(stampFile)
+                && stamp.equals(Files.readString(stampFile, StandardCharsets.UTF_8))) {
+            return;
+        }
+
+        Files.deleteIfExists(stampFile);
+        deleteTree(classes);
+        Files.createDirectories(classes);
+        Path root = classes.toAbsolutePath().normalize();
+
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (!entry.getName().startsWith(CLASSES_PREFIX) || entry.isDirectory()) {
+                continue;
+            }
+            Path target = root.resolve(entry.getName().substring(CLASSES_PREFIX.length())).normalize();
+            if (!target.startsWith(root)) {
+                continue;
+            }
+            Files.createDirectories(target.getParent());
+            try (InputStream in = jarFile.getInputStream(entry)) {
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.writeString(stampFile, stamp);
+    }
+
+    /* ============================================================
+        아카이브 생성 - 모은 클래스 목록으로 공용 jar 만 담은 정적 아카이브
+    ============================================================ */
+    private void dump(Launch launch) {
+        Path sharedDir = launch.sharedDir;
+        Path archive = sharedDir.resolve(ARCHIVE);
+        Path temp = sharedDir.resolve(ARCHIVE + ".tmp");
+        try {
+            if (!Files.isRegularFile(launch.classList) || Files.size(launch.classList) == 0) {
+                return;
+            }
+
+            List<String> classpath = new ArrayList<>();
+            for (String lib : launch.libs) {
+                classpath.add(sharedDir.resolve("lib").resolve(lib).toString());
+            }
+
+            // 목록의 앱 클래스는 공용 jar 에 없으므로 경고만 나고 빠진다
+            Process process = new ProcessBuilder("java", "-Xshare:dump",
+                    "-XX:SharedClassListFile=" + launch.classList,
+                    "-XX:SharedArchiveFile=" + temp,
+                    "-cp", String.join(File.pathSeparator, classpath))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            long startedAt = System.nanoTime();
+            if (!process.waitFor(DUMP_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                log.warn("AppCDS dump timed out for {}", sharedDir);
+                return;
+            }
+            if (process.exitValue() != 0 || !Files.isRegularFile(temp)) {
+                log.warn("AppCDS dump failed for {} (exit {})", sharedDir, process.exitValue());
+                return;
+            }
+
+            Files.move(temp, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("🧊 AppCDS archive ready for template {}: {} ({} KB, {} ms)", launch.template, archive,
+                    Files.size(archive) / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (IOException e) {
+            log.warn("AppCDS dump failed for {}: {}", sharedDir, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            training.remove(sharedDir);
+            try {
+                Files.deleteIfExists(launch.classList);
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    /** 같은 템플릿에서 오래 쓰이지 않은 의존성 집합 정리 */
+    private void pruneSiblings(Path sharedDir) {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(sharedDir.getParent(), Files::isDirectory)) {
+            for (Path sibling : siblings) {
+                if (sibling.equals(sharedDir) || training.contains(sibling)) {
+                    continue;
+                }
+                Path lastUsed = sibling.resolve(LAST_USED);
+                FileTime used = Files.isRegularFile(lastUsed)
+                        ? Files.getLastModifiedTime(lastUsed)
+                        : Files.getLastModifiedTime(sibling);
+                if (used.toInstant().isBefore(cutoff)) {
+                    deleteTree(sibling);
+                    log.info("🧹 Removed unused AppCDS dependency set {}", sibling);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to prune AppCDS cache {}: {}", sharedDir.getParent(), e.getMessage());
+        }
+    }
+
+    private static String sanitize(String template) {
+        return template == null || template.isBlank()
+                ? "default"
+                : template.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted((a, b) -> b.compareTo(a))::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
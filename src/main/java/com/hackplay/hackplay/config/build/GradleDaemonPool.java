@@ -0,0 +1,349 @@
+package com.hackplay.hackplay.config.build;
+
+import com.hackplay.hackplay.config.dependency.DependencyStore;
+import com.hackplay.hackplay.config.process.ProcessShutdown;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 학생 실행이 함께 쓰는 Gradle 데몬 관리
+ * Gradle 클라이언트는 같은 사용자 홈에서 버전 / JDK / 데몬 JVM 옵션이 같은 유휴 데몬이 있으면 거기에 붙는다.
+ * 사용자 홈은 의존성 저장소가 이미 공용으로 지정하므로, 여기서는 그 홈의 gradle.properties 로 데몬 옵션(힙, 유휴 종료 시간)을
+ * 고정해 프로젝트마다 다른 org.gradle.jvmargs 때문에 데몬이 갈라지지 않게 한다 (사용자 홈 설정이 프로젝트 설정보다 우선).
+ * 주기적으로 그 홈의 데몬 프로세스를 훑어 (Gradle 버전, JDK) 별로 세고, 유휴 데몬이 상한을 넘으면 오래 쉰 것부터 내린다.
+ * 바쁜 데몬은 건드리지 않는다 - 동시에 도는 빌드 수는 실행 스케줄러가 이미 제한한다.
+ * 공용 데몬은 실행의 프로세스 트리 밖에 있다. 그래서 데몬에서 돈 빌드(빌드 캐시의 bootJar)의 CPU 는 실행 측정과
+ * 회원의 하루 CPU 시간에 잡히지 않고, 실행을 멈추면 클라이언트만 끝나며 빌드는 데몬이 연결 끊김을 보고 스스로 취소한다.
+ * 앱을 빌드 프로세스의 자식으로 띄우는 bootRun 은 이 틈이 앱 전체로 번지므로 --no-daemon 으로 실행 트리 안에서 돌린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradleDaemonPool {
+
+    private static final String DAEMON_MAIN = "org.gradle.launcher.daemon.bootstrap.GradleDaemon";
+    private static final String WORKER_MAIN = "worker.org.gradle.process.internal.worker.GradleWorkerMain";
+    private static final String WRAPPER_PROPERTIES = "gradle/wrapper/gradle-wrapper.properties";
+    // .../gradle-8.5-bin.zip, .../gradle-8.5-all.zip
+    private static final Pattern DISTRIBUTION = Pattern.compile("gradle-([^/]+?)-(?:bin|all)\\.zip$");
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+    // 한 번의 훑기 사이에 이보다 CPU 를 적게 쓴 데몬은 빌드 중이 아닌 것으로 본다 (유휴 데몬도 GC / 상태 점검으로 조금 쓴다)
+    private static final long IDLE_CPU_MILLIS = 300;
+    // 막 뜬 데몬이 클라이언트를 받기 전에 내려가지 않도록, 연속으로 이만큼 유휴로 보여야 정리 대상
+    private static final int EVICTABLE_AFTER_SWEEPS = 2;
+
+    private final DependencyStore dependencyStore;
+    private final ProcessShutdown processShutdown;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${run.gradle.enabled:true}")
+    private boolean enabled;
+
+    // 데몬 최대 힙 (모든 데몬이 같은 값이어야 서로 바꿔 쓸 수 있다)
+    @Value("${run.gradle.daemon-heap:768m}")
+    private String daemonHeap;
+
+    // 이 시간 동안 빌드가 없으면 데몬이 스스로 끝난다
+    @Value("${run.gradle.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+
+    // (Gradle 버전, JDK) 별로 남겨 둘 유휴 데몬 수
+    @Value("${run.gradle.max-idle-per-key:2}")
+    private int maxIdlePerKey;
+
+    // 노드 전체 데몬 수 상한 (넘으면 유휴 데몬부터 내린다 - 바쁜 데몬만으로 넘으면 그대로 둔다)
+    @Value("${run.gradle.max-daemons:8}")
+    private int maxDaemons;
+
+    // 데몬 pid -> 상태 (훑기 스레드만 고친다)
+    private final Map<Long, Daemon> daemons = new ConcurrentHashMap<>();
+    // 키 -> 유휴 데몬 수 (마지막 훑기 기준)
+    private volatile Map<String, Integer> idleByKey = Map.of();
+
+    private ScheduledExecutorService sweeper;
+    private Counter warmBuilds;
+    private Counter coldBuilds;
+    private Counter evicted;
+
+    /** 데몬 하나의 관찰 상태 */
+    private static final class Daemon {
+        private final ProcessHandle process;
+        private final String key;
+        private long cpuMillis;
+        private int idleSweeps;
+
+        private Daemon(ProcessHandle process, String key, long cpuMillis) {
+            this.process = process;
+            this.key = key;
+            this.cpuMillis = cpuMillis;
+        }
+
+        private boolean isIdle() {
+            return idleSweeps > 0;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        Path home = dependencyStore.gradleUserHome();
+        if (!enabled || home == null) {
+            return;
+        }
+
+        warmBuilds = Counter.builder("run.gradle.builds")
+                .description("Gradle builds started while a compatible idle daemon was available")
+                .tag("daemon", "warm")
+                .register(meterRegistry);
+        coldBuilds = Counter.builder("run.gradle.builds")
+                .description("Gradle builds started without a compatible idle daemon")
+                .tag("daemon", "cold")
+                .register(meterRegistry);
+        evicted = Counter.builder("run.gradle.daemons.evicted")
+                .description("Idle Gradle daemons stopped to stay within the pool limits")
+                .register(meterRegistry);
+        Gauge.builder("run.gradle.daemons", daemons, d -> d.values().stream().filter(Daemon::isIdle).count())
+                .description("Gradle daemons in the shared user home")
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("run.gradle.daemons", daemons, d -> d.values().stream().filter(daemon -> !daemon.isIdle()).count())
+                .description("Gradle daemons in the shared user home")
+                .tag("state", "busy")
+                .register(meterRegistry);
+
+        try {
+            writeDaemonProperties(home);
+        } catch (IOException e) {
+            log.warn("Failed to write shared Gradle properties in {}: {}", home, e.getMessage());
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gradle-daemon-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Gradle 빌드를 공용 데몬에 붙도록 설정 (의존성 저장소가 사용자 홈을 지정한 뒤 호출 - --no-daemon 빌드는 그대로 둔다)
+     * @return 같은 Gradle 버전 / JDK 의 유휴 데몬이 있었으면 true (빌드가 따뜻한 데몬에 붙을 가능성이 높음)
+     */
+    public boolean apply(ProcessBuilder pb, File projectDir) {
+        String command = String.join(" ", pb.command());
+        if (sweeper == null || !new File(projectDir, "gradlew").exists()
+                || !command.contains("./gradlew") || command.contains("--no-daemon")) {
+            return false;
+        }
+
+        Map<String, String> env = pb.environment();
+        // 다른 사용자 홈을 쓰면 공용 데몬을 찾지 못한다 - GRADLE_OPTS 의 -Dorg.gradle.daemon=false 같은 설정도 끼어들지 않게 비운다
+        env.put("GRADLE_USER_HOME", dependencyStore.gradleUserHome().toString());
+        env.remove("GRADLE_OPTS");
+
+        String version = gradleVersion(projectDir);
+        String jdk = clientJdk(env);
+        boolean warm = version != null && jdk != null
+                && idleByKey.getOrDefault(key(version, jdk), 0) > 0;
+        (warm ? warmBuilds : coldBuilds).increment();
+        return warm;
+    }
+
+    /**
+     * 사용자 홈 gradle.properties 에 데몬 옵션 고정 (내용이 같으면 건드리지 않음)
+     */
+    private void writeDaemonProperties(Path home) throws IOException {
+        String content = "# HackPlay 가 관리하는 파일 - 서버가 시작할 때마다 다시 쓴다\n"
+                + "org.gradle.daemon=true\n"
+                + "org.gradle.daemon.idletimeout=" + Duration.ofMinutes(idleTimeoutMinutes).toMillis() + "\n"
+                + "org.gradle.jvmargs=-Xmx" + daemonHeap + " -XX:MaxMetaspaceSize=384m -Dfile.encoding=UTF-8\n";
+
+        Path file = home.resolve("gradle.properties");
+        if (Files.isRegularFile(file) && content.equals(Files.readString(file, StandardCharsets.UTF_8))) {
+            return;
+        }
+        Files.createDirectories(home);
+        Path staging = home.resolve(".gradle.properties.tmp");
+        Files.writeString(staging, content, StandardCharsets.UTF_8);
+        Files.move(staging, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("🐘 Shared Gradle daemons: heap {}, idle timeout {} min", daemonHeap, idleTimeoutMinutes);
+    }
+
+    /**
+     * 공용 홈의 데몬을 훑어 유휴 여부를 갱신하고 상한을 넘는 유휴 데몬 정리 (훑기 스레드)
+     */
+    private void sweep() {
+        try {
+            Path daemonDir = dependencyStore.gradleUserHome().resolve("daemon");
+            Map<Long, Daemon> seen = new HashMap<>();
+            ProcessHandle.allProcesses()
+                    .filter(process -> isDaemonOf(process, daemonDir))
+                    .forEach(process -> seen.put(process.pid(), observe(process)));
+            daemons.keySet().retainAll(seen.keySet());
+            daemons.putAll(seen);
+
+            Map<String, Integer> idle = new HashMap<>();
+            daemons.values().stream()
+                    .filter(Daemon::isIdle)
+                    .forEach(daemon -> idle.merge(daemon.key, 1, Integer::sum));
+            idleByKey = idle;
+
+            evict();
+        } catch (Exception e) {
+            log.warn("Gradle daemon sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 이전 훑기와 비교해 CPU 사용량과 자식 프로세스로 유휴 여부 판단
+     * bootRun 은 데몬이 앱을 자식으로 띄워 두고 빌드를 계속 붙잡으므로, Gradle 워커가 아닌 자식이 있으면 바쁜 것으로 본다.
+     */
+    private Daemon observe(ProcessHandle process) {
+        long cpuMillis = process.info().totalCpuDuration().map(Duration::toMillis).orElse(0L);
+        Daemon daemon = daemons.get(process.pid());
+        if (daemon == null) {
+            return new Daemon(process, key(process), cpuMillis);
+        }
+
+        boolean running = process.children().anyMatch(child -> !arguments(child).contains(WORKER_MAIN));
+        boolean idle = !running && cpuMillis - daemon.cpuMillis < IDLE_CPU_MILLIS;
+        daemon.idleSweeps = idle ? daemon.idleSweeps + 1 : 0;
+        daemon.cpuMillis = cpuMillis;
+        return daemon;
+    }
+
+    /**
+     * 키별 유휴 상한, 그다음 전체 상한을 넘는 만큼 오래 쉰 데몬부터 종료
+     */
+    private void evict() {
+        List<Daemon> candidates = new ArrayList<>(daemons.values().stream()
+                .filter(daemon -> daemon.idleSweeps >= EVICTABLE_AFTER_SWEEPS)
+                .sorted(Comparator.comparingInt((Daemon daemon) -> daemon.idleSweeps).reversed())
+                .toList());
+
+        Map<String, Integer> idle = new HashMap<>(idleByKey);
+        int total = daemons.size();
+        List<Daemon> victims = new ArrayList<>();
+        for (Daemon daemon : candidates) {
+            int idleForKey = idle.getOrDefault(daemon.key, 0);
+            if (idleForKey > maxIdlePerKey || total > maxDaemons) {
+                victims.add(daemon);
+                idle.put(daemon.key, idleForKey - 1);
+                total--;
+            }
+        }
+
+        for (Daemon daemon : victims) {
+            log.info("🐘 Stopping idle Gradle daemon {} ({})", daemon.process.pid(), daemon.key);
+            daemons.remove(daemon.process.pid());
+            processShutdown.terminateTree(daemon.process);
+            evicted.increment();
+        }
+    }
+
+    /** 공용 사용자 홈에서 뜬 Gradle 데몬인지 (데몬은 {홈}/daemon/{버전} 을 작업 디렉터리로 쓴다) */
+    private boolean isDaemonOf(ProcessHandle process, Path daemonDir) {
+        if (!arguments(process).contains(DAEMON_MAIN)) {
+            return false;
+        }
+        try {
+            return Files.readSymbolicLink(Paths.get("/proc", String.valueOf(process.pid()), "cwd")).startsWith(daemonDir);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /** 데몬 명령줄에서 키 계산 - GradleDaemon 다음 인자가 Gradle 버전, 실행 파일이 JDK */
+    private String key(ProcessHandle process) {
+        String[] args = process.info().arguments().orElse(new String[0]);
+        String version = "unknown";
+        for (int i = 0; i < args.length - 1; i++) {
+            if (DAEMON_MAIN.equals(args[i])) {
+                version = args[i + 1];
+                break;
+            }
+        }
+        return key(version, process.info().command().orElse("unknown"));
+    }
+
+    private static String key(String version, String jdk) {
+        return version + " @ " + jdk;
+    }
+
+    private static String arguments(ProcessHandle process) {
+        return String.join(" ", process.info().arguments().orElse(new String[0]));
+    }
+
+    /** 래퍼 설정의 배포판 이름에서 Gradle 버전 (없으면 null) */
+    private static String gradleVersion(File projectDir) {
+        Path file = projectDir.toPath().resolve(WRAPPER_PROPERTIES);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+        Matcher matcher = DISTRIBUTION.matcher(properties.getProperty("distributionUrl", ""));
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 클라이언트가 데몬에 넘길 java 실행 파일 (JAVA_HOME, 없으면 PATH 의 java - 데몬 명령줄과 비교하도록 실제 경로로)
+     */
+    private static String clientJdk(Map<String, String> env) {
+        String javaHome = env.get("JAVA_HOME");
+        Optional<Path> java = javaHome != null
+                ? Optional.of(Paths.get(javaHome, "bin", "java"))
+                : Optional.ofNullable(env.get("PATH")).stream()
+                        .flatMap(path -> Stream.of(path.split(File.pathSeparator)))
+                        .filter(dir -> !dir.isEmpty())
+                        .map(dir -> Paths.get(dir, "java"))
+                        .filter(Files::isExecutable)
+                        .findFirst();
+        try {
+            return java.isPresent() ? java.get().toRealPath().toString() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
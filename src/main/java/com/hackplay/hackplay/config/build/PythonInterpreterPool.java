@@ -0,0 +1,264 @@
+package com.hackplay.hackplay.config.build;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackplay.hackplay.config.process.ProcessControl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 미리 띄워 둔 Python 인터프리터 풀 (템플릿별)
+ * 인터프리터를 띄우고 Flask / Django 등 공통 패키지를 import 해 둔 채 표준 입력에서 실행 요청 한 줄을 기다리게 한다.
+ * 실행이 오면 작업 디렉터리 / 환경 변수 / argv 를 넘기고, 인터프리터는 그 자리에서 스크립트를 __main__ 으로 실행한다
+ * (flask CLI 실행은 python -m flask 와 같이 flask 모듈을 __main__ 으로).
+ * 인터프리터는 한 번만 쓰고 버리므로 실행끼리 상태를 나누지 않으며, 꺼내 가면 백그라운드 스레드가 다시 채운다.
+ * 풀의 인터프리터는 서버의 직접 자식이라 출력 파이프 / 프로세스 트리 종료 / 자원 측정이 일반 실행과 같다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PythonInterpreterPool {
+
+    // createProcessBuilder 가 만드는 "python app.py" / "flask --app app run ..." 형태만 받는다 (셸 문법이 섞이면 일반 실행)
+    private static final Pattern PYTHON_COMMAND = Pattern.compile("(python|flask) [\\w./:-]+( [\\w./:-]+)*");
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // 공통 패키지 import 후 요청 한 줄을 기다렸다가 python <script> 와 같은 모습으로 스크립트 실행
+    // (__main__ 모듈을 직접 만들어 __package__ / __spec__ 이 None 이어야 Flask / Django 리로더가 python <script> 로 다시 띄운다)
+    // 새 인터프리터였다면 프로젝트의 json.py / flask/ 등이 import 되었을 모듈은 시작 전에 sys.modules 에서 버린다
+    private static final String BOOTSTRAP = """
+            import sys
+            startup = set(sys.modules)
+            import importlib, json, os, runpy, types, warnings
+            with warnings.catch_warnings():
+                warnings.simplefilter("ignore")
+                for name in sys.argv[1].split(","):
+                    if name:
+                        try:
+                            importlib.import_module(name)
+                        except Exception:
+                            pass
+            line = sys.stdin.readline()
+            if not line:
+                sys.exit(0)
+            request = json.loads(line)
+            os.chdir(request["cwd"])
+            os.environ.clear()
+            os.environ.update(request["env"])
+            sys.argv = request["argv"]
+            module = request.get("module")
+            sys.path[0] = os.getcwd() if module else os.path.dirname(os.path.abspath(sys.argv[0]))
+            for top in {name.partition(".")[0] for name in sys.modules if name not in startup}:
+                if (os.path.isfile(os.path.join(sys.path[0], top + ".py"))
+                        or os.path.isfile(os.path.join(sys.path[0], top, "__init__.py"))):
+                    for name in [n for n in sys.modules if n == top or n.startswith(top + ".")]:
+                        del sys.modules[name]
+            if module:
+                runpy.run_module(module, run_name="__main__", alter_sys=True)
+                sys.exit(0)
+            script = os.path.abspath(sys.argv[0])
+            main = types.ModuleType("__main__")
+            main.__file__ = sys.argv[0]
+            main.__builtins__ = __builtins__
+            sys.modules["__main__"] = main
+            with open(script, "rb") as source:
+                code = compile(source.read(), sys.argv[0], "exec")
+            exec(code, main.__dict__)
+            """;
+
+    private final ProcessControl processControl;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${run.python.pool.enabled:true}")
+    private boolean enabled;
+
+    // 템플릿당 유지할 유휴 인터프리터 수 (0 이면 풀 미사용 - 실행마다 새로 띄움)
+    @Value("${run.python.pool.size:2}")
+    private int poolSize;
+
+    // createProcessBuilder 의 일반 실행과 같은 인터프리터
+    @Value("${run.python.pool.interpreter:python}")
+    private String interpreter;
+
+    // 미리 import 할 모듈 (없는 모듈은 건너뛴다)
+    @Value("${run.python.pool.preload:flask,jinja2,werkzeug,django,django.core.management,django.core.wsgi,requests}")
+    private String preload;
+
+    /** 템플릿 하나의 유휴 인터프리터 (처음 실행된 템플릿부터 채운다) */
+    private static final class TemplatePool {
+
+        private final String template;
+        private final Queue<Process> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+
+        private TemplatePool(String template) {
+            this.template = template;
+        }
+    }
+
+    private final Map<String, TemplatePool> pools = new ConcurrentHashMap<>();
+    private ExecutorService refiller;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || poolSize <= 0) {
+            return;
+        }
+        hits = Counter.builder("run.python.pool.acquire")
+                .description("Python runs started in a pre-warmed interpreter")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("run.python.pool.acquire")
+                .description("Python runs started cold because the template pool was empty")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("run.python.pool.idle", pools,
+                        p -> p.values().stream().mapToInt(t -> t.idleCount.get()).sum())
+                .description("Idle pre-warmed Python interpreters")
+                .register(meterRegistry);
+
+        refiller = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "python-interpreter-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refiller == null) {
+            return;
+        }
+        refiller.shutdownNow();
+        for (TemplatePool pool : pools.values()) {
+            Process process;
+            while ((process = pool.idle.poll()) != null) {
+                processControl.killTree(process.toHandle());
+            }
+        }
+    }
+
+    /**
+     * 미리 띄운 인터프리터에서 실행 시작
+     * @param pb 일반 실행용 프로세스 빌더 (작업 디렉터리 / 환경 변수 / 명령을 그대로 넘긴다)
+     * @return 풀을 쓸 수 없는 명령이거나 템플릿 풀이 비어 있으면 null (호출자가 pb 로 띄운다)
+     */
+    public Process start(String template, ProcessBuilder pb) {
+        if (refiller == null) {
+            return null;
+        }
+        List<String> words = commandWords(pb.command());
+        if (words == null || pb.directory() == null) {
+            return null;
+        }
+
+        TemplatePool pool = pools.computeIfAbsent(template != null ? template : "default", TemplatePool::new);
+        try {
+            Process process;
+            while ((process = pool.idle.poll()) != null) {
+                pool.idleCount.decrementAndGet();
+                if (process.isAlive() && handOff(process, pb, words)) {
+                    hits.increment();
+                    return process;
+                }
+                processControl.killTree(process.toHandle());
+            }
+            misses.increment();
+            return null;
+        } finally {
+            refill(pool);
+        }
+    }
+
+    /** ["bash", "-c", "python app.py"] → ["python", "app.py"] */
+    private static List<String> commandWords(List<String> command) {
+        if (command.size() != 3 || !"bash".equals(command.get(0)) || !"-c".equals(command.get(1))
+                || !PYTHON_COMMAND.matcher(command.get(2)).matches()) {
+            return null;
+        }
+        return Arrays.asList(command.get(2).split(" "));
+    }
+
+    /** 실행 요청 한 줄 전달 - 표준 입력은 닫지 않는다 (일반 실행처럼 input() 은 계속 기다린다) */
+    private static boolean handOff(Process process, ProcessBuilder pb, List<String> words) {
+        try {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("cwd", pb.directory().getAbsolutePath());
+            fields.put("env", pb.environment());
+            if ("flask".equals(words.get(0))) {
+                // python -m flask --app app run ... 과 같다 (argv[0] 은 runpy 가 모듈 경로로 바꾼다)
+                fields.put("module", "flask");
+                fields.put("argv", words);
+            } else {
+                fields.put("argv", words.subList(1, words.size()));
+            }
+            String request = JSON.writeValueAsString(fields);
+            OutputStream in = process.getOutputStream();
+            in.write((request + "\n").getBytes(StandardCharsets.UTF_8));
+            in.flush();
+            return true;
+        } catch (IOException e) {
+            log.debug("Failed to hand off to warm Python interpreter {}: {}", process.pid(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void refill(TemplatePool pool) {
+        if (!pool.refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        refiller.execute(() -> {
+            try {
+                while (pool.idleCount.get() < poolSize && !Thread.currentThread().isInterrupted()) {
+                    pool.idle.add(spawn());
+                    pool.idleCount.incrementAndGet();
+                }
+            } catch (IOException e) {
+                log.warn("Failed to pre-spawn Python interpreter for template {}: {}", pool.template, e.getMessage());
+            } finally {
+                pool.refilling.set(false);
+            }
+        });
+    }
+
+    /**
+     * 공통 환경으로만 띄운다 - 실행별 환경 변수는 넘길 때 통째로 바꾼다 (시작 시에만 읽는 PYTHONUNBUFFERED 등은 여기서)
+     */
+    private Process spawn() throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(interpreter, "-c", BOOTSTRAP, preload)
+                .directory(new File(System.getProperty("java.io.tmpdir")))
+                .redirectErrorStream(true);
+        Map<String, String> env = pb.environment();
+        env.put("PYTHONUNBUFFERED", "1");
+        env.put("PYTHONIOENCODING", "UTF-8");
+        return pb.start();
+    }
+}
@@ -0,0 +1,190 @@
+package com.hackplay.hackplay.config.build;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Boot 프로젝트 실행 시 빌드 건너뛰기
+ * 소스 트리 지문이 마지막으로 성공한 빌드와 같으면 빌드 도구를 거치지 않고 보관해 둔 boot jar 를 바로 실행한다.
+ * 지문이 다르면 bootJar / package 로 jar 를 만드는 빌드만 먼저 실행하고 (빌드가 성공했을 때만 jar 와 지문을 보관),
+ * 호출자가 빌드 성공 후 launchBuilt 로 앱을 띄운다. 앱 실행은 AppCdsCache 를 거치므로 공용 CDS 아카이브를 쓴다.
+ * 보관 위치는 프로젝트 밖이므로 학생의 파일 트리나 clean 에 영향을 받지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunBuildCache {
+
+    private final SourceFingerprints sourceFingerprints;
+    private final AppCdsCache appCdsCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${run.build-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${run.build-cache.base-path:../run-cache}")
+    private String basePath;
+
+    private static final String JAR = "app.jar";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String BUILD_MILLIS = "build-millis";
+    private static final String EXPLODED = "exploded";
+
+    // 빌드 성공 후에만 jar / 빌드 시간 / 지문 순으로 기록 (지문이 마지막이어야 중간에 실패해도 잘못 재사용하지 않는다)
+    private static final String BUILD =
+            "start=$(date +%%s%%3N) && %s && "
+            + "jar=$(ls -t %s/*.jar 2>/dev/null | grep -v -- '-plain\\.jar$' | head -n 1) && [ -n \"$jar\" ] && "
+            + "cp \"$jar\" \"$HACKPLAY_CACHE_DIR/" + JAR + "\" && "
+            + "echo $(( $(date +%%s%%3N) - start )) > \"$HACKPLAY_CACHE_DIR/" + BUILD_MILLIS + "\" && "
+            + "printf %%s \"$HACKPLAY_FINGERPRINT\" > \"$HACKPLAY_CACHE_DIR/" + FINGERPRINT + "\"";
+
+    private Counter hits;
+    private Counter misses;
+    private Timer saved;
+
+    /** 실행 방법 (캐시 적중 여부와 절약한 빌드 시간) */
+    public static final class Plan {
+
+        private final ProcessBuilder processBuilder;
+        private final AppCdsCache.Launch launch;
+        private final boolean hit;
+        private final long savedMillis;
+
+        Plan(ProcessBuilder processBuilder, AppCdsCache.Launch launch, boolean hit, long savedMillis) {
+            this.processBuilder = processBuilder;
+            this.launch = launch;
+            this.hit = hit;
+            this.savedMillis = savedMillis;
+        }
+
+        public ProcessBuilder getProcessBuilder() {
+            return processBuilder;
+        }
+
+        /** 앱 실행이면 실행 방식, 빌드만 하는 단계면 null (성공하면 launchBuilt 로 이어서 실행) */
+        public AppCdsCache.Launch getLaunch() {
+            return launch;
+        }
+
+        public boolean isBuildOnly() {
+            return launch == null;
+        }
+
+        public boolean isHit() {
+            return hit;
+        }
+
+        /** 적중 시 건너뛴 마지막 빌드의 소요 시간 (모르면 0) */
+        public long getSavedMillis() {
+            return savedMillis;
+        }
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = Counter.builder("run.build.cache")
+                .description("Spring Boot runs that reused the last built jar")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("run.build.cache")
+                .description("Spring Boot runs that went through the build tool")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        saved = Timer.builder("run.build.saved")
+                .description("Build time skipped by reusing the last built jar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spring Boot 프로젝트 실행 방법 결정
+     * @return 캐시를 쓸 수 없으면 null (호출자가 기존 bootRun / spring-boot:run 으로 실행)
+     */
+    public Plan springBoot(String projectUuid, File projectDir, String template) {
+        if (!enabled) {
+            return null;
+        }
+
+        Path cacheDir = Paths.get(basePath, projectUuid).toAbsolutePath();
+        String fingerprint;
+        try {
+            fingerprint = sourceFingerprints.fingerprint(projectUuid, projectDir.toPath());
+            Files.createDirectories(cacheDir);
+        } catch (IOException e) {
+            log.warn("Build cache unavailable for project {}: {}", projectUuid, e.getMessage());
+            return null;
+        }
+
+        Path jar = cacheDir.resolve(JAR);
+        if (fingerprint.equals(read(cacheDir.resolve(FINGERPRINT))) && Files.isRegularFile(jar)) {
+            long savedMillis = parseMillis(read(cacheDir.resolve(BUILD_MILLIS)));
+            hits.increment();
+            saved.record(savedMillis, TimeUnit.MILLISECONDS);
+            log.info("⚡ Sources unchanged for project {}, reusing last build (saved ~{} ms)", projectUuid, savedMillis);
+
+            AppCdsCache.Launch launch = appCdsCache.launch(template, jar, projectDir, cacheDir.resolve(EXPLODED));
+            return new Plan(launch.getProcessBuilder(), launch, true, savedMillis);
+        }
+
+        misses.increment();
+        try {
+            // 새 jar 를 복사하다 실패해도 이전 지문과 짝지어지지 않도록 먼저 지운다
+            Files.deleteIfExists(cacheDir.resolve(FINGERPRINT));
+        } catch (IOException e) {
+            log.warn("Failed to reset build cache for project {}: {}", projectUuid, e.getMessage());
+            return null;
+        }
+
+        boolean gradle = new File(projectDir, "gradlew").exists();
+        String command = gradle
+                ? String.format(BUILD, "./gradlew bootJar", "build/libs")
+                : String.format(BUILD, "mvn -DskipTests package", "target");
+
+        ProcessBuilder pb = new ProcessBuilder("bash", "-c", command)
+                .directory(projectDir)
+                .redirectErrorStream(true);
+        Map<String, String> env = pb.environment();
+        env.put("HACKPLAY_CACHE_DIR", cacheDir.toString());
+        env.put("HACKPLAY_FINGERPRINT", fingerprint);
+        return new Plan(pb, null, false, 0);
+    }
+
+    /**
+     * 빌드 단계가 성공한 뒤 보관된 jar 로 앱 실행
+     */
+    public Plan launchBuilt(String projectUuid, File projectDir, String template) {
+        Path cacheDir = Paths.get(basePath, projectUuid).toAbsolutePath();
+        AppCdsCache.Launch launch = appCdsCache.launch(template, cacheDir.resolve(JAR), projectDir, cacheDir.resolve(EXPLODED));
+        return new Plan(launch.getProcessBuilder(), launch, false, 0);
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.isRegularFile(file) ? Files.readString(file, StandardCharsets.UTF_8).trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static long parseMillis(String value) {
+        try {
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.hackplay.hackplay.config.build;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프로젝트 소스 트리 지문 (빌드 입력 파일들의 내용 해시)
+ * 파일별 해시를 (크기, 수정 시각) 과 함께 기억해 두고, FileService / DirectoryService 가 쓰기·이동·삭제할 때마다
+ * 해당 항목만 갱신한다. 지문을 요청하면 stat 만으로 트리를 훑어 바뀐 파일(터미널에서 고친 파일 등)만 다시 해시한다.
+ * 지문을 만든 프로젝트는 WorkspaceWatcher 로 감시해, 그 뒤로 파일 API 호출도 디스크 변경 이벤트도 없었으면
+ * 트리를 훑지 않고 지난 지문을 그대로 돌려준다 (감시 프로젝트 수에는 상한이 있고, 넘으면 매번 훑는다).
+ * 빌드 산출물 / 도구 디렉터리는 입력에서 제외한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SourceFingerprints {
+
+    private final WorkspaceWatcher workspaceWatcher;
+
+    // 변경 감시를 유지할 최근 프로젝트 수 (inotify 감시 / 감시 스레드가 프로젝트마다 하나씩 든다)
+    @Value("${run.build-cache.watched-projects:256}")
+    private int maxWatchedProjects;
+
+    /** 파일 하나의 해시와 그때의 stat */
+    private static final class Entry {
+        private final long size;
+        private final long modifiedAt;
+        private final byte[] hash;
+
+        Entry(long size, long modifiedAt, byte[] hash) {
+            this.size = size;
+            this.modifiedAt = modifiedAt;
+            this.hash = hash;
+        }
+
+        boolean matches(BasicFileAttributes attrs) {
+            return size == attrs.size() && modifiedAt == attrs.lastModifiedTime().toMillis();
+        }
+    }
+
+    /** 프로젝트 하나의 파일 항목과 마지막 지문 (잠금은 이 객체로) */
+    private static final class Project {
+        // 프로젝트 루트 기준 상대 경로 -> 항목
+        private final Map<String, Entry> entries = new HashMap<>();
+        private String fingerprint;
+        // 마지막으로 훑은 뒤 파일 API 로 바뀐 적이 있는지
+        private boolean dirty = true;
+        private volatile WorkspaceWatcher.Subscription watch;
+        // 마지막으로 훑기 시작할 때의 감시 이벤트 수
+        private long seenChanges;
+    }
+
+    // projectUuid -> 프로젝트
+    private final Map<String, Project> projects = new ConcurrentHashMap<>();
+
+    // 감시 중인 프로젝트 (접근 순서 - 상한을 넘으면 가장 오래 안 쓴 프로젝트의 감시를 해제)
+    private final Map<String, Project> watched = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 현재 소스 트리 지문
+     * @return SHA-256 16진 문자열
+     */
+    public String fingerprint(String projectUuid, Path root) throws IOException {
+        Project project = projects.computeIfAbsent(projectUuid, k -> new Project());
+
+        synchronized (project) {
+            WorkspaceWatcher.Subscription watch = watch(projectUuid, root, project);
+            if (project.fingerprint != null && !project.dirty
+                    && watch != null && watch.changes() == project.seenChanges) {
+                log.debug("Project {} unchanged since last fingerprint, skipping walk", projectUuid);
+                return project.fingerprint;
+            }
+
+            // 훑는 도중에 온 이벤트는 다음 요청에서 다시 훑게 만든다
+            project.seenChanges = watch != null ? watch.changes() : 0;
+            project.dirty = false;
+            project.fingerprint = walk(projectUuid, root, project.entries);
+            return project.fingerprint;
+        }
+    }
+
+    /**
+     * 프로젝트 변경 감시 (처음 지문을 만들 때 시작 - 훑기 전에 시작해야 훑는 사이의 변경을 놓치지 않는다)
+     * @return 감시할 수 없으면 null (항상 훑는다)
+     */
+    private WorkspaceWatcher.Subscription watch(String projectUuid, Path root, Project project) {
+        WorkspaceWatcher.Subscription evicted = null;
+        synchronized (watched) {
+            if (watched.get(projectUuid) != null) {
+                return project.watch;
+            }
+            if (maxWatchedProjects <= 0) {
+                return null;
+            }
+            try {
+                project.watch = workspaceWatcher.subscribe(projectUuid, root, changed -> {});
+            } catch (IOException e) {
+                log.debug("Failed to watch project {} for fingerprints: {}", projectUuid, e.getMessage());
+                return null;
+            }
+            watched.put(projectUuid, project);
+            // 감시가 없던 동안의 변경은 알 수 없으므로 새 감시로 한 번은 훑는다
+            project.fingerprint = null;
+
+            if (watched.size() > maxWatchedProjects) {
+                Iterator<Project> eldest = watched.values().iterator();
+                Project oldest = eldest.next();
+                eldest.remove();
+                evicted = oldest.watch;
+                oldest.watch = null;
+            }
+        }
+
+        // 감시가 끊긴 프로젝트는 다음 요청에서 다시 훑고 감시를 새로 시작한다
+        if (evicted != null) {
+            evicted.cancel();
+        }
+        return project.watch;
+    }
+
+    private String walk(String projectUuid, Path root, Map<String, Entry> entries) throws IOException {
+        Map<String, Entry> current = new TreeMap<>();
+        int[] rehashed = new int[1];
+
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return !dir.equals(root) && WorkspaceWatcher.IGNORED_DIRS.contains(dir.getFileName().toString())
+                        ? FileVisitResult.SKIP_SUBTREE
+                        : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String key = key(root, file);
+                Entry entry = entries.get(key);
+                if (entry == null || !entry.matches(attrs)) {
+                    entry = hash(file, attrs);
+                    rehashed[0]++;
+                }
+                current.put(key, entry);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // 훑는 사이에 지워진 파일
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        entries.clear();
+        entries.putAll(current);
+        log.debug("Fingerprinted project {}: {} files, {} rehashed", projectUuid, current.size(), rehashed[0]);
+
+        MessageDigest digest = sha256();
+        for (Map.Entry<String, Entry> e : current.entrySet()) {
+            digest.update(e.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(e.getValue().hash);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 파일 생성 / 수정 반영 (아직 지문을 만든 적 없는 프로젝트면 무시 - 첫 요청 때 전체를 훑는다)
+     */
+    public void fileWritten(String projectUuid, Path root, Path file) {
+        Project project = projects.get(projectUuid);
+        if (project == null) {
+            return;
+        }
+
+        synchronized (project) {
+            project.dirty = true;
+            try {
+                project.entries.put(key(root, file), hash(file, Files.readAttributes(file, BasicFileAttributes.class)));
+            } catch (IOException e) {
+                // 다음 지문 계산 때 stat 비교로 다시 해시된다
+                project.entries.remove(key(root, file));
+            }
+        }
+    }
+
+    /**
+     * 파일 / 디렉터리 삭제 반영
+     */
+    public void pathRemoved(String projectUuid, Path root, Path path) {
+        Project project = projects.get(projectUuid);
+        if (project == null) {
+            return;
+        }
+
+        String prefix = key(root, path);
+        synchronized (project) {
+            project.dirty = true;
+            project.entries.keySet().removeIf(key -> key.equals(prefix) || key.startsWith(prefix + "/"));
+        }
+    }
+
+    /**
+     * 파일 / 디렉터리 이동 반영 (내용은 그대로이므로 해시를 옮긴다)
+     */
+    public void pathMoved(String projectUuid, Path root, Path source, Path target) {
+        Project project = projects.get(projectUuid);
+        if (project == null) {
+            return;
+        }
+
+        String from = key(root, source);
+        String to = key(root, target);
+        synchronized (project) {
+            project.dirty = true;
+            Map<String, Entry> entries = project.entries;
+            Map<String, Entry> moved = new HashMap<>();
+            entries.entrySet().removeIf(e -> {
+                String key = e.getKey();
+                if (key.equals(from) || key.startsWith(from + "/")) {
+                    moved.put(to + key.substring(from.length()), e.getValue());
+                    return true;
+                }
+                return false;
+            });
+            // 덮어쓴 대상 경로의 이전 항목은 새 항목으로 교체된다
+            entries.keySet().removeIf(key -> key.equals(to) || key.startsWith(to + "/"));
+            entries.putAll(moved);
+        }
+    }
+
+    private static String key(Path root, Path file) {
+        return root.toAbsolutePath().normalize()
+                .relativize(file.toAbsolutePath().normalize())
+                .toString()
+                .replace('\\', '/');
+    }
+
+    private static Entry hash(Path file, BasicFileAttributes attrs) throws IOException {
+        // 큰 파일(리소스 / 바이너리)도 통째로 메모리에 올리지 않고 흘려 보내며 해시
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return new Entry(attrs.size(), attrs.lastModifiedTime().toMillis(), digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.hackplay.hackplay.config.build;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 프로젝트 작업 공간 변경 감시
+ * 프로젝트마다 WatchService 하나를 두고 구독자(실행 세션)에게 바뀐 경로 목록을 알린다.
+ * 파일 API 로 저장한 것과 터미널에서 고친 것 모두 디스크 변경이므로 같은 경로로 들어온다.
+ * 저장 한 번에 이벤트가 여러 개 오므로 조용해질 때까지 모아서 한 번에 전달하고,
+ * 빌드 산출물 / 의존성 / 인터프리터 캐시처럼 실행 중에 앱이 스스로 쓰는 경로는 무시한다 (재시작이 다시 재시작을 부르지 않도록).
+ */
+@Slf4j
+@Component
+public class WorkspaceWatcher {
+
+    // SourceFingerprints 도 같은 디렉터리를 입력에서 뺀다 (감시하지 않는 곳의 변경을 지문이 놓치지 않도록)
+    static final Set<String> IGNORED_DIRS = Set.of(
+            "build", "target", "out", "dist", ".gradle", ".git", ".idea", "node_modules",
+            ".next", ".nuxt", ".angular", ".cache", "coverage", "__pycache__", ".venv", "venv");
+    private static final List<String> IGNORED_SUFFIXES = List.of(".pyc", ".log", ".swp", ".tmp", "~");
+
+    // 마지막 이벤트 후 이만큼 조용하면 전달
+    @Value("${run.watch.debounce-millis:300}")
+    private long debounceMillis;
+
+    /** 구독 해제 핸들 */
+    public interface Subscription {
+        void cancel();
+
+        /** 감시 시작 후 들어온 이벤트 묶음 수 (디바운스를 기다리지 않고 이벤트가 오는 즉시 늘어난다) */
+        long changes();
+    }
+
+    // projectUuid -> 감시
+    private final Map<String, ProjectWatch> watches = new HashMap<>();
+
+    /**
+     * 프로젝트 변경 구독 (같은 프로젝트의 구독자는 WatchService 하나를 공유)
+     * @param listener 프로젝트 루트 기준 상대 경로 목록을 받는다 - 감시 스레드에서 호출되므로 오래 걸려도 되며, 그동안의 변경은 다음 호출로 모인다
+     */
+    public Subscription subscribe(String projectUuid, Path root, Consumer<List<String>> listener) throws IOException {
+        ProjectWatch subscribed;
+        synchronized (watches) {
+            ProjectWatch watch = watches.get(projectUuid);
+            if (watch == null) {
+                watch = new ProjectWatch(projectUuid, root.toAbsolutePath().normalize());
+                watches.put(projectUuid, watch);
+                watch.start();
+            }
+            watch.listeners.add(listener);
+            subscribed = watch;
+        }
+
+        return new Subscription() {
+            @Override
+            public void cancel() {
+                unsubscribe(projectUuid, listener);
+            }
+
+            @Override
+            public long changes() {
+                return subscribed.events.get();
+            }
+        };
+    }
+
+    private void unsubscribe(String projectUuid, Consumer<List<String>> listener) {
+        synchronized (watches) {
+            ProjectWatch watch = watches.get(projectUuid);
+            if (watch == null || !watch.listeners.remove(listener) || !watch.listeners.isEmpty()) {
+                return;
+            }
+            watches.remove(projectUuid);
+            watch.close();
+        }
+    }
+
+    private final class ProjectWatch {
+
+        private final String projectUuid;
+        private final Path root;
+        private final WatchService service;
+        private final List<Consumer<List<String>>> listeners = new CopyOnWriteArrayList<>();
+        private final AtomicLong events = new AtomicLong();
+        // 감시 스레드만 접근 (시작 전 등록분은 Thread.start 로 전달된다)
+        private final Map<WatchKey, Path> dirs = new HashMap<>();
+
+        ProjectWatch(String projectUuid, Path root) throws IOException {
+            this.projectUuid = projectUuid;
+            this.root = root;
+            this.service = root.getFileSystem().newWatchService();
+            try {
+                registerTree(root);
+            } catch (IOException e) {
+                service.close();
+                throw e;
+            }
+        }
+
+        void start() {
+            Thread.ofVirtual().name("workspace-watch-" + projectUuid).start(this::run);
+        }
+
+        void close() {
+            try {
+                service.close();
+            } catch (IOException e) {
+                log.debug("Failed to close watch service for project {}: {}", projectUuid, e.getMessage());
+            }
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    Set<String> changed = new TreeSet<>();
+                    collect(service.take(), changed);
+
+                    // 저장 한 번에 여러 이벤트가 연달아 오므로 조용해질 때까지 모은다
+                    WatchKey key;
+                    while ((key = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                        collect(key, changed);
+                    }
+
+                    if (!changed.isEmpty()) {
+                        dispatch(List.copyOf(changed));
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                log.debug("Workspace watch ended for project {}", projectUuid);
+            }
+        }
+
+        private void dispatch(List<String> changed) {
+            for (Consumer<List<String>> listener : listeners) {
+                try {
+                    listener.accept(changed);
+                } catch (RuntimeException e) {
+                    log.warn("Workspace change listener failed for project {}: {}", projectUuid, e.getMessage());
+                }
+            }
+        }
+
+        private void collect(WatchKey key, Set<String> changed) {
+            events.incrementAndGet();
+            Path dir = dirs.get(key);
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                    // 이벤트 유실 - 어떤 파일인지 모르므로 프로젝트 전체가 바뀐 것으로 본다
+                    changed.add(".");
+                    continue;
+                }
+
+                Path path = dir.resolve((Path) event.context());
+                if (isIgnored(path)) {
+                    continue;
+                }
+
+                // 새로 생긴(또는 옮겨 온) 디렉터리는 하위까지 감시 대상에 추가
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                        && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    try {
+                        registerTree(path);
+                    } catch (IOException e) {
+                        log.debug("Failed to watch new directory {}: {}", path, e.getMessage());
+                    }
+                }
+                changed.add(root.relativize(path).toString().replace('\\', '/'));
+            }
+
+            if (!key.reset()) {
+                dirs.remove(key);
+            }
+        }
+
+        private void registerTree(Path start) throws IOException {
+            Files.walkFileTree(start, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (!dir.equals(root) && isIgnored(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    WatchKey key = dir.register(service,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE);
+                    dirs.put(key, dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        private boolean isIgnored(Path path) {
+            Path relative = root.relativize(path);
+            for (Path name : relative) {
+                if (IGNORED_DIRS.contains(name.toString())) {
+                    return true;
+                }
+            }
+
+            String fileName = path.getFileName().toString();
+            for (String suffix : IGNORED_SUFFIXES) {
+                if (fileName.endsWith(suffix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
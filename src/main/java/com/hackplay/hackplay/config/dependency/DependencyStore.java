@@ -0,0 +1,275 @@
+package com.hackplay.hackplay.config.dependency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 학생 프로젝트가 함께 쓰는 의존성 저장소
+ * node_modules 는 package-lock.json 의 해시를 키로 한 번만 저장하고, 각 프로젝트에는 하드링크로 펼친다.
+ * 같은 템플릿으로 만든 프로젝트는 lockfile 이 같으므로 수십 명이 같은 파일을 공유하게 된다.
+ * 저장소 항목은 프로젝트 파일을 복사해 만들고 읽기 전용으로 바꾼 뒤, 프로젝트 쪽을 그 복사본의 하드링크로 바꾼다.
+ * (프로젝트 파일을 그대로 링크하면 그 inode 를 함께 쓰는 다른 하드링크까지 읽기 전용이 된다)
+ * 읽기 전용 권한은 실수로 고치는 것만 막는다 - 실행은 서버와 같은 uid 로 돌기 때문에 chmod 후 쓰면 막을 수 없고,
+ * 그 경우 같은 lockfile 의 다른 프로젝트에도 번진다. 프로젝트 간 격리가 필요하면 실행을 별도 uid 로 돌려야 한다.
+ * Gradle / Maven 은 자체 캐시가 내용 기반이므로 캐시 위치만 저장소로 모은다.
+ */
+@Slf4j
+@Component
+public class DependencyStore {
+
+    // 프로젝트 node_modules 가 어떤 저장소 항목에서 왔는지 기록 (재실행 시 다시 링크하지 않도록)
+    private static final String MARKER = ".hackplay-store";
+    // npm 7+ 이 설치를 끝까지 마쳤을 때만 남기는 파일 - 없으면 저장소에 올리지 않는다
+    private static final String NPM_HIDDEN_LOCKFILE = ".package-lock.json";
+
+    @Value("${dependency-store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dependency-store.base-path:../dependency-store}")
+    private String basePath;
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 프로젝트의 node_modules 를 저장소 항목의 하드링크로 맞춘다
+     * 저장소에 항목이 없으면 프로젝트에 설치된 node_modules 를 복사해 채운다.
+     * @param template 프로젝트 템플릿 (저장소 항목에 기록만 한다 - 내용은 lockfile 이 결정)
+     * @return 저장소와 연결된 상태면 true, 연결할 수 없으면 false (프로젝트는 그대로 둔다)
+     */
+    public boolean linkNodeModules(File projectDir, String template) {
+        Path lockfile = projectDir.toPath().resolve("package-lock.json");
+        if (!enabled || !Files.isRegularFile(lockfile)) {
+            return false;
+        }
+
+        try {
+            String key = hash(lockfile);
+            Path modules = projectDir.toPath().resolve("node_modules");
+            if (key.equals(readMarker(modules))) {
+                return true;
+            }
+
+            Path entry = Paths.get(basePath, "node", key).toAbsolutePath();
+            synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+                if (!Files.isDirectory(entry)) {
+                    if (!Files.isRegularFile(modules.resolve(NPM_HIDDEN_LOCKFILE))) {
+                        return false;
+                    }
+                    populate(modules, entry, template);
+                    log.info("📦 Dependency store entry {} created from {}", key, projectDir);
+                }
+                replaceWithLinks(entry.resolve("node_modules"), modules);
+                log.info("📦 Linked shared node_modules {} into {}", key, projectDir);
+            }
+
+            writeMarker(modules, key);
+            return true;
+
+        } catch (FileSystemException e) {
+            // 다른 파일 시스템(하드링크 불가) 이거나 권한 문제 - 프로젝트 자체 node_modules 로 계속 실행
+            log.warn("Dependency store unavailable for {}: {}", projectDir, e.getMessage());
+            return false;
+        } catch (IOException e) {
+            log.warn("Failed to link shared dependencies into {}: {}", projectDir, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 빌드 도구 캐시 위치를 저장소로 지정 (프로젝트마다 빈 캐시로 시작하지 않도록)
+     */
+    public void applyBuildCaches(ProcessBuilder pb) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, String> env = pb.environment();
+        Path root = Paths.get(basePath).toAbsolutePath();
+        env.putIfAbsent("GRADLE_USER_HOME", gradleUserHome().toString());
+
+        String mavenRepo = "-Dmaven.repo.local=" + root.resolve("maven");
+        String mavenOpts = env.get("MAVEN_OPTS");
+        env.put("MAVEN_OPTS", mavenOpts == null ? mavenRepo : mavenOpts + " " + mavenRepo);
+    }
+
+    /**
+     * 실행이 함께 쓰는 Gradle 사용자 홈 (저장소를 쓰지 않으면 null - 각 프로세스의 기본 위치)
+     */
+    public Path gradleUserHome() {
+        return enabled ? Paths.get(basePath, "gradle").toAbsolutePath() : null;
+    }
+
+    /**
+     * 설치된 node_modules 를 복사해 저장소 항목을 만든다
+     * 임시 디렉터리에서 만든 뒤 이름을 바꾸므로, 다른 노드와 동시에 만들어도 완성된 항목만 보인다.
+     */
+    private void populate(Path modules, Path entry, String template) throws IOException {
+        Path staging = entry.resolveSibling(".staging-" + UUID.randomUUID());
+        try {
+            copyTree(modules, staging.resolve("node_modules"));
+            makeReadOnly(staging);
+            Files.writeString(staging.resolve("template"), template, StandardCharsets.UTF_8);
+            Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (!Files.isDirectory(entry)) {
+                throw e;
+            }
+            // 다른 노드가 먼저 만들었음 - 내용은 같은 lockfile 에서 나왔으므로 그대로 쓴다
+        } finally {
+            if (Files.exists(staging)) {
+                deleteTree(staging);
+            }
+        }
+    }
+
+    /**
+     * 프로젝트 node_modules 를 저장소 트리의 하드링크로 교체 (실패하면 원래대로 되돌림)
+     */
+    private void replaceWithLinks(Path source, Path modules) throws IOException {
+        Path backup = null;
+        if (Files.exists(modules)) {
+            backup = modules.resolveSibling("node_modules.old-" + UUID.randomUUID());
+            Files.move(modules, backup, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        try {
+            linkTree(source, modules);
+        } catch (IOException e) {
+            if (Files.exists(modules)) {
+                deleteTree(modules);
+            }
+            if (backup != null) {
+                Files.move(backup, modules, StandardCopyOption.ATOMIC_MOVE);
+            }
+            throw e;
+        }
+
+        if (backup != null) {
+            deleteTree(backup);
+        }
+    }
+
+    /**
+     * 디렉터리는 새로 만들고 파일은 하드링크, 심볼릭 링크(.bin 등)는 그대로 복제
+     */
+    private void linkTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path dest = target.resolve(source.relativize(file));
+                if (attrs.isSymbolicLink()) {
+                    Files.createSymbolicLink(dest, Files.readSymbolicLink(file));
+                } else if (!file.getFileName().toString().equals(MARKER)) {
+                    Files.createLink(dest, file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 저장소 항목용 복사 (실행 권한 등 속성 유지, 심볼릭 링크는 그대로 복제)
+     */
+    private void copyTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path dest = target.resolve(source.relativize(file));
+                if (attrs.isSymbolicLink()) {
+                    Files.createSymbolicLink(dest, Files.readSymbolicLink(file));
+                } else if (!file.getFileName().toString().equals(MARKER)) {
+                    Files.copy(file, dest, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void makeReadOnly(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                PosixFileAttributeView view = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+                if (view != null && attrs.isRegularFile()) {
+                    Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+                    permissions.remove(PosixFilePermission.OWNER_WRITE);
+                    permissions.remove(PosixFilePermission.GROUP_WRITE);
+                    permissions.remove(PosixFilePermission.OTHERS_WRITE);
+                    view.setPermissions(permissions);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void deleteTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private String readMarker(Path modules) throws IOException {
+        Path marker = modules.resolve(MARKER);
+        return Files.isRegularFile(marker) ? Files.readString(marker, StandardCharsets.UTF_8).trim() : null;
+    }
+
+    private void writeMarker(Path modules, String key) throws IOException {
+        // 기존 파일이 저장소와 링크되어 있을 수 있으므로 덮어쓰지 않고 새로 만든다
+        Path marker = modules.resolve(MARKER);
+        Files.deleteIfExists(marker);
+        Files.writeString(marker, key, StandardCharsets.UTF_8);
+    }
+
+    private String hash(Path lockfile) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(lockfile)), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -108,6 +108,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 정적/기타
         if (path.startsWith("/editor/")
             || path.startsWith("/ws/")
+            || path.startsWith("/preview/")
             || path.equals("/login.html")
             || path.equals("/projects.html")
             || path.startsWith("/js/")
@@ -0,0 +1,334 @@
+package com.hackplay.hackplay.config.preview;
+
+import com.hackplay.hackplay.config.run.RunLifecycle;
+import com.hackplay.hackplay.config.run.RunPortAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.socket.server.support.WebSocketHttpRequestHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 실행 중인 학생 개발 서버 미리보기 (/preview/{projectId}/** → 127.0.0.1:{배정 포트})
+ * HttpClient 하나를 모든 요청이 함께 써서 개발 서버로 가는 keep-alive 연결을 재사용한다 (연결 풀은 JDK HttpClient 가 관리).
+ * 요청 / 응답 본문은 버퍼에 모으지 않고 흘려보내므로 큰 파일이나 SSE 도 그대로 지나간다.
+ * WebSocket 업그레이드 요청(Vite HMR 등)은 PreviewWebSocketRelay 로 넘긴다.
+ * 개발 서버가 접두어 아래에서 응답하도록 설정하지 못한 실행은 접두어를 떼고 넘기며, 이 경우 절대 경로 자원은 깨질 수 있다.
+ * 프로젝트 주인에게 알린 주소의 토큰(?previewToken=)을 그 실행 경로 전용 쿠키로 옮기고, 토큰이 맞지 않는 요청은 개발 서버로 넘기지도
+ * 실행을 깨우거나 유지하지도 않는다 - 실행이 끝나 포트를 반납하면 토큰도 함께 무효가 된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreviewProxy implements HttpRequestHandler {
+
+    /** 업그레이드 요청의 개발 서버 주소 (ws://...) - 요청 속성에서 WebSocket 세션 속성으로 옮겨진다 */
+    static final String UPSTREAM_ATTRIBUTE = "previewUpstream";
+
+    private static final Pattern PREVIEW_PATH = Pattern.compile("^/preview/(\\d+)(/.*)?$");
+    // 접두어 아래에서 응답하는 개발 서버가 남긴 루트 <base href="/"> (Angular index.html 등)
+    private static final Pattern ROOT_BASE_HREF = Pattern.compile("(<base\\s+href=)([\"'])/\\2", Pattern.CASE_INSENSITIVE);
+    // 프록시 구간에서만 의미가 있거나 HttpClient 가 직접 정하는 헤더
+    private static final Set<String> HOP_BY_HOP = Set.of(
+            "connection", "keep-alive", "proxy-connection", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade", "host", "content-length", "expect", "http2-settings");
+
+    private final RunPortAllocator runPortAllocator;
+    private final RunLifecycle runLifecycle;
+    private final WebSocketHttpRequestHandler previewUpgradeHandler;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${run.preview.connect-timeout-millis:2000}")
+    private long connectTimeoutMillis;
+
+    // 개발 서버 연결을 풀에 남겨 두는 시간
+    @Value("${run.preview.keep-alive-seconds:30}")
+    private int keepAliveSeconds;
+
+    // 풀에 남겨 둘 유휴 연결 수 (0 이면 제한 없음)
+    @Value("${run.preview.max-idle-connections:256}")
+    private int maxIdleConnections;
+
+    private HttpClient client;
+    private Timer proxied;
+    private Timer unavailable;
+
+    @PostConstruct
+    public void start() {
+        // JDK HttpClient 연결 풀 설정은 첫 클라이언트가 만들어질 때 읽는다 - 실행 옵션으로 준 값이 있으면 그대로 둔다
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(keepAliveSeconds));
+        }
+        if (System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(maxIdleConnections));
+        }
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+
+        proxied = Timer.builder("run.preview.requests")
+                .description("Preview requests answered by a student dev server (time to response headers)")
+                .tag("outcome", "proxied")
+                .register(meterRegistry);
+        unavailable = Timer.builder("run.preview.requests")
+                .description("Preview requests that could not reach a student dev server")
+                .tag("outcome", "unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = PREVIEW_PATH.matcher(path);
+        if (!matcher.matches()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long projectId = Long.parseLong(matcher.group(1));
+        RunPortAllocator.Lease lease = runPortAllocator.lookup(projectId);
+        if (lease == null) {
+            sendText(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Project is not running\n");
+            return;
+        }
+
+        String rest = matcher.group(2);
+        String query = request.getQueryString();
+        String queryToken = queryParameter(query, RunPortAllocator.TOKEN_PARAMETER);
+        if (queryToken != null) {
+            if (!lease.acceptsToken(queryToken)) {
+                sendText(response, HttpServletResponse.SC_FORBIDDEN, "Preview link is invalid or expired - open it again from the run output\n");
+                return;
+            }
+            // 토큰은 이 실행 경로에만 보내지는 쿠키로 옮기고, 토큰을 뺀 주소로 다시 요청하게 한다 (개발 서버에는 넘기지 않음)
+            ResponseCookie cookie = ResponseCookie.from(RunPortAllocator.TOKEN_PARAMETER, queryToken)
+                    .path(request.getContextPath() + lease.getBasePath())
+                    .httpOnly(true)
+                    .secure(request.isSecure())
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            String remaining = withoutParameter(query, RunPortAllocator.TOKEN_PARAMETER);
+            response.sendRedirect(request.getContextPath() + (rest == null ? lease.getBasePath() + "/" : path)
+                    + (remaining != null ? "?" + remaining : ""));
+            return;
+        }
+        if (!hasTokenCookie(request, lease)) {
+            sendText(response, HttpServletResponse.SC_FORBIDDEN, "Preview link is invalid or expired - open it again from the run output\n");
+            return;
+        }
+
+        // 미리보기를 보는 중이면 구독자가 없어도 실행을 유지하고, 잠들어 있으면 넘기기 전에 깨운다
+        runLifecycle.previewHit(projectId);
+
+        if (rest == null) {
+            // 상대 경로 자원이 접두어 아래로 풀리도록 끝에 / 를 붙여 다시 요청하게 한다
+            response.sendRedirect(request.getContextPath() + lease.getBasePath() + "/" + (query != null ? "?" + query : ""));
+            return;
+        }
+
+        String target = "127.0.0.1:" + lease.getPort() + (lease.isPrefixed() ? path : rest)
+                + (query != null ? "?" + query : "");
+
+        if ("websocket".equalsIgnoreCase(request.getHeader("Upgrade"))) {
+            request.setAttribute(UPSTREAM_ATTRIBUTE, URI.create("ws://" + target));
+            previewUpgradeHandler.handleRequest(request, response);
+            return;
+        }
+
+        proxy(request, response, URI.create("http://" + target), lease);
+    }
+
+    private void proxy(HttpServletRequest request, HttpServletResponse response, URI target,
+                       RunPortAllocator.Lease lease) throws IOException {
+        HttpRequest.Builder upstream = HttpRequest.newBuilder(target)
+                .method(request.getMethod(), bodyOf(request));
+        // 접두어 아래에서 응답하는 서버의 HTML 은 <base href> 를 고쳐야 할 수 있으므로 압축 없이 받는다
+        boolean rewriteHtml = lease.isPrefixed() && String.valueOf(request.getHeader("Accept")).contains("text/html");
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (HOP_BY_HOP.contains(name.toLowerCase())
+                    || (rewriteHtml && "accept-encoding".equalsIgnoreCase(name))) {
+                continue;
+            }
+            for (String value : Collections.list(request.getHeaders(name))) {
+                upstream.header(name, value);
+            }
+        }
+        upstream.header("X-Forwarded-For", request.getRemoteAddr());
+        upstream.header("X-Forwarded-Proto", request.getScheme());
+        upstream.header("X-Forwarded-Host", String.valueOf(request.getHeader("Host")));
+        upstream.header("X-Forwarded-Prefix", request.getContextPath() + lease.getBasePath());
+
+        long startedAt = System.nanoTime();
+        HttpResponse<InputStream> answer;
+        try {
+            answer = client.send(upstream.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (ConnectException | HttpConnectTimeoutException e) {
+            unavailable.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            sendText(response, HttpServletResponse.SC_BAD_GATEWAY, "Project app is not accepting connections yet\n");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Preview request interrupted", e);
+        }
+        proxied.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        rewriteHtml = rewriteHtml
+                && answer.headers().firstValue("Content-Type").orElse("").startsWith("text/html")
+                && answer.headers().firstValue("Content-Encoding").isEmpty();
+
+        response.setStatus(answer.statusCode());
+        for (Map.Entry<String, List<String>> header : answer.headers().map().entrySet()) {
+            String name = header.getKey();
+            if ((HOP_BY_HOP.contains(name.toLowerCase()) && !"content-length".equalsIgnoreCase(name))
+                    || (rewriteHtml && "content-length".equalsIgnoreCase(name))) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                response.addHeader(name, rewriteLocation(name, value, request, lease));
+            }
+        }
+
+        if (rewriteHtml) {
+            byte[] html;
+            try (InputStream in = answer.body()) {
+                html = rewriteBaseHref(in.readAllBytes(), request, lease);
+            }
+            response.setContentLength(html.length);
+            response.getOutputStream().write(html);
+            return;
+        }
+
+        try (InputStream in = answer.body()) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                // 더 읽을 것이 당장 없으면 내보낸다 (SSE / 스트리밍 응답이 쌓이지 않도록)
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        }
+    }
+
+    /** 요청 본문은 읽지 않고 그대로 흘려보낸다 (길이를 알면 Content-Length 유지) */
+    private static HttpRequest.BodyPublisher bodyOf(HttpServletRequest request) {
+        long length = request.getContentLengthLong();
+        if (length == 0 || (length < 0 && request.getHeader("Transfer-Encoding") == null)) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        HttpRequest.BodyPublisher stream = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return request.getInputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return length > 0 ? HttpRequest.BodyPublishers.fromPublisher(stream, length) : stream;
+    }
+
+    /** 접두어를 떼고 넘긴 실행의 절대 경로 리다이렉트는 다시 접두어 아래로 */
+    private static String rewriteLocation(String name, String value, HttpServletRequest request, RunPortAllocator.Lease lease) {
+        if (!"location".equalsIgnoreCase(name) || lease.isPrefixed()
+                || !value.startsWith("/") || value.startsWith("//")) {
+            return value;
+        }
+        return request.getContextPath() + lease.getBasePath() + value;
+    }
+
+    /** 루트 <base href="/"> 를 접두어로 - 없으면 그대로 (문자 집합과 무관하게 ASCII 부분만 바꾼다) */
+    private static byte[] rewriteBaseHref(byte[] html, HttpServletRequest request, RunPortAllocator.Lease lease) {
+        String text = new String(html, StandardCharsets.ISO_8859_1);
+        Matcher matcher = ROOT_BASE_HREF.matcher(text);
+        if (!matcher.find()) {
+            return html;
+        }
+        String prefix = request.getContextPath() + lease.getBasePath() + "/";
+        return matcher.replaceFirst("$1$2" + Matcher.quoteReplacement(prefix) + "$2").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean hasTokenCookie(HttpServletRequest request, RunPortAllocator.Lease lease) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (RunPortAllocator.TOKEN_PARAMETER.equals(cookie.getName()) && lease.acceptsToken(cookie.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 쿼리 문자열의 값 하나 (없으면 null) - getParameter 는 폼 본문까지 읽으므로 쓰지 않는다 */
+    static String queryParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /** 쿼리 문자열에서 name 을 뺀 나머지 (남는 것이 없으면 null) */
+    static String withoutParameter(String query, String name) {
+        StringBuilder remaining = new StringBuilder();
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (pair.isEmpty() || (eq < 0 ? pair : pair.substring(0, eq)).equals(name)) {
+                continue;
+            }
+            if (!remaining.isEmpty()) {
+                remaining.append('&');
+            }
+            remaining.append(pair);
+        }
+        return remaining.isEmpty() ? null : remaining.toString();
+    }
+
+    private static void sendText(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+    }
+}
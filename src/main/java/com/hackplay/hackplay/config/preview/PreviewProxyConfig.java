@@ -0,0 +1,72 @@
+package com.hackplay.hackplay.config.preview;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.socket.server.support.WebSocketHttpRequestHandler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 미리보기 경로 연결
+ * /preview/** 는 컨트롤러 매핑보다 먼저 PreviewProxy 가 받는다 (일반 요청은 HTTP 프록시, 업그레이드 요청은 WebSocket 중계).
+ */
+@Configuration
+public class PreviewProxyConfig {
+
+    @Bean
+    public SimpleUrlHandlerMapping previewHandlerMapping(PreviewProxy previewProxy) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(Map.of("/preview/**", previewProxy));
+        mapping.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return mapping;
+    }
+
+    @Bean
+    public WebSocketHttpRequestHandler previewUpgradeHandler(PreviewWebSocketRelay previewWebSocketRelay) {
+        // 개발 서버가 어떤 서브프로토콜(vite-hmr 등)을 쓰는지 미리 알 수 없으므로 브라우저가 요청한 첫 번째 것을 받아 그대로 이어 준다
+        DefaultHandshakeHandler handshakeHandler = new DefaultHandshakeHandler() {
+            @Override
+            protected String selectProtocol(List<String> requestedProtocols, WebSocketHandler webSocketHandler) {
+                return requestedProtocols.isEmpty() ? null : requestedProtocols.get(0);
+            }
+        };
+
+        WebSocketHttpRequestHandler handler = new WebSocketHttpRequestHandler(previewWebSocketRelay, handshakeHandler);
+        handler.setHandshakeInterceptors(List.of(new UpstreamHandshakeInterceptor()));
+        handler.start();
+        return handler;
+    }
+
+    /**
+     * PreviewProxy 가 요청 속성에 남긴 개발 서버 주소를 WebSocket 세션 속성으로 옮김
+     */
+    private static class UpstreamHandshakeInterceptor implements HandshakeInterceptor {
+
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Map<String, Object> attributes) {
+            if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+                return false;
+            }
+            Object upstream = servletRequest.getServletRequest().getAttribute(PreviewProxy.UPSTREAM_ATTRIBUTE);
+            if (upstream == null) {
+                return false;
+            }
+            attributes.put(PreviewProxy.UPSTREAM_ATTRIBUTE, upstream);
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Exception exception) {
+        }
+    }
+}
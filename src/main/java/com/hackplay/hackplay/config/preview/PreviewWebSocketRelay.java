@@ -0,0 +1,163 @@
+package com.hackplay.hackplay.config.preview;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 미리보기 WebSocket 중계 (Vite HMR 등 개발 서버의 WebSocket 을 그대로 이어 줌)
+ * 브라우저 연결이 열리면 같은 경로 / 서브프로토콜로 개발 서버에 연결하고, 양쪽 메시지를 조각 단위로 그대로 넘긴다.
+ * 한쪽이 닫히면 같은 코드로 다른 쪽도 닫는다.
+ */
+@Slf4j
+@Component
+public class PreviewWebSocketRelay extends AbstractWebSocketHandler {
+
+    private static final String UPSTREAM_SOCKET = "previewUpstreamSocket";
+
+    @Value("${run.preview.connect-timeout-millis:2000}")
+    private long connectTimeoutMillis;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        URI target = (URI) session.getAttributes().get(PreviewProxy.UPSTREAM_ATTRIBUTE);
+        WebSocket.Builder builder = client.newWebSocketBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        String protocol = session.getAcceptedProtocol();
+        if (protocol != null && !protocol.isEmpty()) {
+            builder.subprotocols(protocol);
+        }
+
+        try {
+            WebSocket upstream = builder.buildAsync(target, new Upstream(session))
+                    .get(connectTimeoutMillis * 2, TimeUnit.MILLISECONDS);
+            session.getAttributes().put(UPSTREAM_SOCKET, upstream);
+        } catch (Exception e) {
+            log.debug("Preview WebSocket {} could not reach {}: {}", session.getId(), target, e.getMessage());
+            session.close(CloseStatus.SERVICE_RESTARTED.withReason("Project app is not accepting connections yet"));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        WebSocket upstream = upstream(session);
+        if (upstream != null) {
+            upstream.sendText(message.getPayload(), message.isLast()).join();
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        WebSocket upstream = upstream(session);
+        if (upstream != null) {
+            upstream.sendBinary(message.getPayload(), message.isLast()).join();
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        log.debug("Preview WebSocket {} transport error: {}", session.getId(), exception.getMessage());
+        session.close(CloseStatus.SERVER_ERROR);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocket upstream = upstream(session);
+        if (upstream == null || upstream.isOutputClosed()) {
+            return;
+        }
+        // 1005 / 1006 처럼 보낼 수 없는 코드는 정상 종료로 바꿔 전달
+        int code = isSendable(status.getCode()) ? status.getCode() : WebSocket.NORMAL_CLOSURE;
+        upstream.sendClose(code, "")
+                .orTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((ws, e) -> upstream.abort());
+    }
+
+    @Override
+    public boolean supportsPartialMessages() {
+        return true;
+    }
+
+    private static WebSocket upstream(WebSocketSession session) {
+        return (WebSocket) session.getAttributes().get(UPSTREAM_SOCKET);
+    }
+
+    private static boolean isSendable(int code) {
+        return code == WebSocket.NORMAL_CLOSURE || (code >= 3000 && code <= 4999)
+                || (code >= 1001 && code <= 1014 && code != 1004 && code != 1005 && code != 1006);
+    }
+
+    /**
+     * 개발 서버 → 브라우저 (JDK WebSocket 은 request 한 만큼만 넘겨주므로 한 번에 하나씩 보내고 다음을 요청)
+     */
+    private static final class Upstream implements WebSocket.Listener {
+
+        private final WebSocketSession session;
+
+        private Upstream(WebSocketSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            send(webSocket, new TextMessage(data, last));
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            send(webSocket, new BinaryMessage(data, last));
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            try {
+                session.close(statusCode >= 1000 && statusCode <= 4999
+                        ? new CloseStatus(statusCode, reason)
+                        : CloseStatus.NORMAL);
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("Failed to close preview WebSocket {}: {}", session.getId(), e.getMessage());
+            }
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            try {
+                session.close(CloseStatus.SERVER_ERROR);
+            } catch (IOException e) {
+                log.debug("Failed to close preview WebSocket {}: {}", session.getId(), e.getMessage());
+            }
+        }
+
+        private void send(WebSocket webSocket, WebSocketMessage<?> message) {
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(message);
+                }
+                webSocket.request(1);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Failed to relay preview message to {}: {}", session.getId(), e.getMessage());
+                webSocket.abort();
+            }
+        }
+    }
+}
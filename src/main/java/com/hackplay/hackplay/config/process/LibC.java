@@ -0,0 +1,148 @@
+package com.hackplay.hackplay.config.process;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.VarHandle;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * libc 시스템 콜 바인딩 (Foreign Function & Memory API)
+ * JDK 21 에서 FFM 은 preview API 이므로 --enable-preview 로 실행한 경우에만 이 클래스가 로드된다.
+ * 로드 실패 시 ProcessControl 이 ProcessHandle / 외부 명령 방식으로 대체한다.
+ */
+final class LibC {
+
+    static final int O_RDWR = 0x2;
+    static final int O_NOCTTY = 0x100;
+    static final int O_NONBLOCK = 0x800;
+
+    static final int EFD_NONBLOCK = 0x800;
+    static final int EFD_CLOEXEC = 0x80000;
+
+    static final short POLLIN = 0x1;
+    static final short POLLOUT = 0x4;
+    static final short POLLERR = 0x8;
+    static final short POLLHUP = 0x10;
+
+    static final int EINTR = 4;
+    static final int EIO = 5;
+    static final int EAGAIN = 11;
+
+    static final long TIOCSWINSZ = 0x5414L;
+
+    private static final Linker LINKER = Linker.nativeLinker();
+    private static final StructLayout CALL_STATE = Linker.Option.captureStateLayout();
+    private static final VarHandle ERRNO = CALL_STATE.varHandle(MemoryLayout.PathElement.groupElement("errno"));
+    private static final Linker.Option CAPTURE_ERRNO = Linker.Option.captureCallState("errno");
+
+    private static final MethodHandle KILL =
+            downcall("kill", FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT));
+    private static final MethodHandle POSIX_OPENPT =
+            downcall("posix_openpt", FunctionDescriptor.of(JAVA_INT, JAVA_INT));
+    private static final MethodHandle GRANTPT =
+            downcall("grantpt", FunctionDescriptor.of(JAVA_INT, JAVA_INT));
+    private static final MethodHandle UNLOCKPT =
+            downcall("unlockpt", FunctionDescriptor.of(JAVA_INT, JAVA_INT));
+    private static final MethodHandle PTSNAME_R =
+            downcall("ptsname_r", FunctionDescriptor.of(JAVA_INT, JAVA_INT, ADDRESS, JAVA_LONG));
+    private static final MethodHandle READ =
+            downcall("read", FunctionDescriptor.of(JAVA_LONG, JAVA_INT, ADDRESS, JAVA_LONG));
+    private static final MethodHandle WRITE =
+            downcall("write", FunctionDescriptor.of(JAVA_LONG, JAVA_INT, ADDRESS, JAVA_LONG));
+    private static final MethodHandle POLL =
+            downcall("poll", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_LONG, JAVA_INT));
+    private static final MethodHandle EVENTFD =
+            downcall("eventfd", FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT));
+    private static final MethodHandle CLOSE =
+            downcall("close", FunctionDescriptor.of(JAVA_INT, JAVA_INT));
+    // ioctl(int fd, unsigned long request, ...) - 세 번째 인자부터 가변 인자
+    private static final MethodHandle IOCTL = LINKER.downcallHandle(
+            LINKER.defaultLookup().find("ioctl").orElseThrow(),
+            FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_LONG, ADDRESS),
+            CAPTURE_ERRNO, Linker.Option.firstVariadicArg(2));
+
+    private LibC() {
+    }
+
+    private static MethodHandle downcall(String name, FunctionDescriptor descriptor) {
+        return LINKER.downcallHandle(
+                LINKER.defaultLookup().find(name).orElseThrow(() -> new UnsatisfiedLinkError(name)),
+                descriptor, CAPTURE_ERRNO);
+    }
+
+    /**
+     * errno 를 받을 호출 상태 버퍼 할당
+     */
+    static MemorySegment allocateCallState(Arena arena) {
+        return arena.allocate(CALL_STATE);
+    }
+
+    static int errno(MemorySegment callState) {
+        return (int) ERRNO.get(callState);
+    }
+
+    /**
+     * kill(2)
+     * @return 성공 시 0, 실패 시 errno
+     */
+    static int kill(long pid, int signal) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment state = allocateCallState(arena);
+            int result = (int) KILL.invokeExact(state, (int) pid, signal);
+            return result == 0 ? 0 : errno(state);
+        } catch (Throwable t) {
+            throw new IllegalStateException("kill failed", t);
+        }
+    }
+
+    static int posixOpenpt(int flags, MemorySegment state) throws Throwable {
+        return (int) POSIX_OPENPT.invokeExact(state, flags);
+    }
+
+    static int grantpt(int fd, MemorySegment state) throws Throwable {
+        return (int) GRANTPT.invokeExact(state, fd);
+    }
+
+    static int unlockpt(int fd, MemorySegment state) throws Throwable {
+        return (int) UNLOCKPT.invokeExact(state, fd);
+    }
+
+    static int ptsname(int fd, MemorySegment buffer, MemorySegment state) throws Throwable {
+        return (int) PTSNAME_R.invokeExact(state, fd, buffer, buffer.byteSize());
+    }
+
+    static long read(int fd, MemorySegment buffer, long count, MemorySegment state) throws Throwable {
+        return (long) READ.invokeExact(state, fd, buffer, count);
+    }
+
+    static long write(int fd, MemorySegment buffer, long count, MemorySegment state) throws Throwable {
+        return (long) WRITE.invokeExact(state, fd, buffer, count);
+    }
+
+    static int ioctl(int fd, long request, MemorySegment arg, MemorySegment state) throws Throwable {
+        return (int) IOCTL.invokeExact(state, fd, request, arg);
+    }
+
+    /**
+     * poll(2) - struct pollfd { int fd; short events; short revents; } 배열
+     */
+    static int poll(MemorySegment fds, long count, int timeoutMillis, MemorySegment state) throws Throwable {
+        return (int) POLL.invokeExact(state, fds, count, timeoutMillis);
+    }
+
+    static int eventfd(int initial, int flags, MemorySegment state) throws Throwable {
+        return (int) EVENTFD.invokeExact(state, initial, flags);
+    }
+
+    static int close(int fd, MemorySegment state) throws Throwable {
+        return (int) CLOSE.invokeExact(state, fd);
+    }
+}
@@ -0,0 +1,146 @@
+package com.hackplay.hackplay.config.process;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * poll(2) 기반 PtyPoller
+ * 0번 칸은 항상 eventfd 로, 다른 스레드의 wakeup() 이 여기에 써서 poll 을 깨운다.
+ * pollfd 배열은 세션 수에 맞춰 늘리고, 매 대기마다 fd 목록만 다시 쓴다.
+ */
+final class NativePoller implements PtyPoller {
+
+    // struct pollfd { int fd; short events; short revents; }
+    private static final long POLLFD_BYTES = 8;
+    private static final long EVENTS_OFFSET = 4;
+    private static final long REVENTS_OFFSET = 6;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int eventFd;
+    private final MemorySegment pollState;
+    private final MemorySegment counter;
+    private final MemorySegment wakeState;
+    private final MemorySegment wakeValue;
+
+    private MemorySegment fds;
+    private int capacity;
+    private int count;
+
+    private boolean closed;
+
+    private NativePoller(int eventFd, Arena arena) {
+        this.eventFd = eventFd;
+        this.pollState = LibC.allocateCallState(arena);
+        this.counter = arena.allocate(8);
+        this.wakeState = LibC.allocateCallState(arena);
+        this.wakeValue = arena.allocate(8);
+        this.wakeValue.set(ValueLayout.JAVA_LONG, 0, 1L);
+        grow(INITIAL_CAPACITY);
+        clear();
+    }
+
+    static PtyPoller open() throws IOException {
+        // 버퍼 수명은 GC 에 맡긴다 (eventfd 는 close() 에서 명시적으로 닫음)
+        Arena arena = Arena.ofAuto();
+        MemorySegment state = LibC.allocateCallState(arena);
+        try {
+            int fd = LibC.eventfd(0, LibC.EFD_NONBLOCK | LibC.EFD_CLOEXEC, state);
+            if (fd < 0) {
+                throw new IOException("eventfd failed, errno=" + LibC.errno(state));
+            }
+            return new NativePoller(fd, arena);
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IOException("Failed to open poller", t);
+        }
+    }
+
+    private void grow(int minimum) {
+        int grown = Math.max(minimum, capacity * 2);
+        MemorySegment segment = Arena.ofAuto().allocate(grown * POLLFD_BYTES, 8);
+        if (fds != null) {
+            MemorySegment.copy(fds, 0, segment, 0, count * POLLFD_BYTES);
+        }
+        fds = segment;
+        capacity = grown;
+    }
+
+    private void set(int index, int fd, short events) {
+        long base = index * POLLFD_BYTES;
+        fds.set(ValueLayout.JAVA_INT, base, fd);
+        fds.set(ValueLayout.JAVA_SHORT, base + EVENTS_OFFSET, events);
+        fds.set(ValueLayout.JAVA_SHORT, base + REVENTS_OFFSET, (short) 0);
+    }
+
+    @Override
+    public void clear() {
+        set(0, eventFd, LibC.POLLIN);
+        count = 1;
+    }
+
+    @Override
+    public int add(Pty pty, boolean writable) {
+        if (count == capacity) {
+            grow(count + 1);
+        }
+        set(count, ((NativePty) pty).fd(), writable ? (short) (LibC.POLLIN | LibC.POLLOUT) : LibC.POLLIN);
+        return count++ - 1;
+    }
+
+    @Override
+    public int await(int timeoutMillis) throws IOException {
+        try {
+            int ready = LibC.poll(fds, count, timeoutMillis, pollState);
+            if (ready < 0) {
+                int errno = LibC.errno(pollState);
+                if (errno == LibC.EINTR) {
+                    return 0;
+                }
+                throw new IOException("poll failed, errno=" + errno);
+            }
+            if (ready > 0 && revents(0) != 0) {
+                // 깨우기 요청 소비 (eventfd 카운터를 0 으로)
+                LibC.read(eventFd, counter, 8, pollState);
+                ready--;
+            }
+            return ready;
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IOException("poll failed", t);
+        }
+    }
+
+    private short revents(int slot) {
+        return fds.get(ValueLayout.JAVA_SHORT, slot * POLLFD_BYTES + REVENTS_OFFSET);
+    }
+
+    @Override
+    public boolean isReady(int index) {
+        return revents(index + 1) != 0;
+    }
+
+    @Override
+    public synchronized void wakeup() {
+        if (closed) {
+            return;
+        }
+        try {
+            LibC.write(eventFd, wakeValue, 8, wakeState);
+        } catch (Throwable ignored) {}
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            LibC.close(eventFd, wakeState);
+        } catch (Throwable ignored) {}
+    }
+}
@@ -0,0 +1,196 @@
+package com.hackplay.hackplay.config.process;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * posix_openpt 로 연 의사 터미널의 master 측
+ * master fd 는 O_NONBLOCK 으로 열어 펌프 스레드가 블로킹 없이 순회할 수 있다.
+ */
+final class NativePty implements Pty {
+
+    private static final int IO_BUFFER_SIZE = 16 * 1024;
+    private static final long WRITE_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long WRITE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int masterFd;
+    private final String slavePath;
+
+    // 읽기(펌프)와 쓰기(입력)는 서로 다른 스레드에서 일어나므로 버퍼와 errno 상태를 분리
+    private final MemorySegment readBuffer;
+    private final MemorySegment readState;
+    private final MemorySegment writeBuffer;
+    private final MemorySegment writeState;
+    private final MemorySegment controlState;
+    private final MemorySegment winsize;
+
+    private boolean closed;
+
+    private NativePty(int masterFd, String slavePath, Arena arena) {
+        this.masterFd = masterFd;
+        this.slavePath = slavePath;
+        this.readBuffer = arena.allocate(IO_BUFFER_SIZE);
+        this.readState = LibC.allocateCallState(arena);
+        this.writeBuffer = arena.allocate(IO_BUFFER_SIZE);
+        this.writeState = LibC.allocateCallState(arena);
+        this.controlState = LibC.allocateCallState(arena);
+        this.winsize = arena.allocate(8);
+    }
+
+    static Pty open(int cols, int rows) throws IOException {
+        // 버퍼 수명은 GC 에 맡긴다 (fd 는 close() 에서 명시적으로 닫음)
+        Arena arena = Arena.ofAuto();
+        MemorySegment state = LibC.allocateCallState(arena);
+
+        try {
+            int fd = LibC.posixOpenpt(LibC.O_RDWR | LibC.O_NOCTTY | LibC.O_NONBLOCK, state);
+            if (fd < 0) {
+                throw new IOException("posix_openpt failed, errno=" + LibC.errno(state));
+            }
+
+            MemorySegment name = arena.allocate(128);
+            if (LibC.grantpt(fd, state) != 0
+                    || LibC.unlockpt(fd, state) != 0
+                    || LibC.ptsname(fd, name, state) != 0) {
+                int errno = LibC.errno(state);
+                LibC.close(fd, state);
+                throw new IOException("Failed to prepare pty slave, errno=" + errno);
+            }
+
+            NativePty pty = new NativePty(fd, name.getUtf8String(0), arena);
+            pty.resize(cols, rows);
+            return pty;
+
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IOException("Failed to open pty", t);
+        }
+    }
+
+    int fd() {
+        return masterFd;
+    }
+
+    @Override
+    public String getSlavePath() {
+        return slavePath;
+    }
+
+    @Override
+    public synchronized int read(byte[] buffer, int length) throws IOException {
+        if (closed) {
+            return -1;
+        }
+
+        try {
+            long n = LibC.read(masterFd, readBuffer, Math.min(length, IO_BUFFER_SIZE), readState);
+            if (n > 0) {
+                MemorySegment.copy(readBuffer, ValueLayout.JAVA_BYTE, 0, buffer, 0, (int) n);
+                return (int) n;
+            }
+            if (n == 0) {
+                return -1;
+            }
+
+            int errno = LibC.errno(readState);
+            if (errno == LibC.EAGAIN || errno == LibC.EINTR) {
+                return 0;
+            }
+            if (errno == LibC.EIO) {
+                // slave 측을 연 프로세스가 모두 종료됨
+                return -1;
+            }
+            throw new IOException("pty read failed, errno=" + errno);
+
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IOException("pty read failed", t);
+        }
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        long deadline = System.nanoTime() + WRITE_TIMEOUT_NANOS;
+        int written = 0;
+
+        while (written < length) {
+            int n = tryWrite(data, offset + written, length - written);
+            if (n > 0) {
+                written += n;
+                continue;
+            }
+            // tty 입력 큐가 가득 참 - 셸이 읽어갈 때까지 잠시 대기
+            if (System.nanoTime() > deadline) {
+                throw new IOException("pty input buffer full");
+            }
+            LockSupport.parkNanos(WRITE_RETRY_NANOS);
+        }
+    }
+
+    @Override
+    public synchronized int tryWrite(byte[] data, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("pty closed");
+        }
+
+        try {
+            int chunk = Math.min(length, IO_BUFFER_SIZE);
+            MemorySegment.copy(data, offset, writeBuffer, ValueLayout.JAVA_BYTE, 0, chunk);
+            long n = LibC.write(masterFd, writeBuffer, chunk, writeState);
+            if (n >= 0) {
+                return (int) n;
+            }
+
+            int errno = LibC.errno(writeState);
+            if (errno == LibC.EAGAIN || errno == LibC.EINTR) {
+                return 0;
+            }
+            throw new IOException("pty write failed, errno=" + errno);
+
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IOException("pty write failed", t);
+        }
+    }
+
+    @Override
+    public synchronized void resize(int cols, int rows) throws IOException {
+        if (closed) {
+            return;
+        }
+
+        // struct winsize { unsigned short ws_row, ws_col, ws_xpixel, ws_ypixel; }
+        winsize.set(ValueLayout.JAVA_SHORT, 0, (short) rows);
+        winsize.set(ValueLayout.JAVA_SHORT, 2, (short) cols);
+        winsize.set(ValueLayout.JAVA_SHORT, 4, (short) 0);
+        winsize.set(ValueLayout.JAVA_SHORT, 6, (short) 0);
+
+        try {
+            if (LibC.ioctl(masterFd, LibC.TIOCSWINSZ, winsize, controlState) != 0) {
+                throw new IOException("ioctl(TIOCSWINSZ) failed, errno=" + LibC.errno(controlState));
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IOException("ioctl(TIOCSWINSZ) failed", t);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            LibC.close(masterFd, controlState);
+        } catch (Throwable ignored) {}
+    }
+}
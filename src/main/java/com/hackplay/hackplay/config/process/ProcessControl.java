@@ -0,0 +1,170 @@
+package com.hackplay.hackplay.config.process;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로세스 제어 (시그널, 프로세스 트리 종료, 의사 터미널)
+ * 시그널은 kill(2) 시스템 콜을 직접 호출하고, 트리 종료는 ProcessHandle.descendants() 로 처리하므로
+ * 키 입력이나 세션 종료마다 kill / pkill / stty 프로세스를 fork 하지 않는다.
+ * FFM API 를 쓸 수 없는 환경(--enable-preview 없이 실행 등)에서는 ProcessHandle 기반으로 대체한다.
+ */
+@Slf4j
+@Component
+public class ProcessControl {
+
+    private static final boolean NATIVE_AVAILABLE = probeNative();
+
+    private static boolean probeNative() {
+        try {
+            // LibC 클래스 초기화 시 downcall 핸들을 모두 만든다 - 실패하면 네이티브 사용 불가
+            LibC.kill(ProcessHandle.current().pid(), 0);
+            return true;
+        } catch (Throwable t) {
+            // 배포 jar 를 옵션 없이 java -jar 로 띄운 경우가 대부분 - README 의 실행 방법 참고
+            log.warn("Native process control unavailable, falling back to ProcessHandle "
+                    + "(run the JVM with --enable-preview --enable-native-access=ALL-UNNAMED): {}", t.toString());
+            return false;
+        }
+    }
+
+    public boolean isNativeAvailable() {
+        return NATIVE_AVAILABLE;
+    }
+
+    /**
+     * 프로세스에 시그널 전송
+     * @return 전송 성공 여부 (이미 종료된 프로세스면 false)
+     */
+    public boolean signal(ProcessHandle process, Signal signal) {
+        if (!process.isAlive()) {
+            return false;
+        }
+
+        if (NATIVE_AVAILABLE) {
+            int errno = LibC.kill(process.pid(), signal.getNumber());
+            if (errno != 0) {
+                log.debug("kill({}, {}) failed, errno={}", process.pid(), signal, errno);
+            }
+            return errno == 0;
+        }
+
+        switch (signal) {
+            case SIGTERM:
+                return process.destroy();
+            case SIGKILL:
+                return process.destroyForcibly();
+            default:
+                return forkKill(process.pid(), signal);
+        }
+    }
+
+    /**
+     * 프로세스 트리 전체 종료 (자식 프로세스 먼저, 그다음 부모)
+     */
+    public void killTree(ProcessHandle root) {
+        List<ProcessHandle> descendants = new ArrayList<>();
+        root.descendants().forEach(descendants::add);
+
+        // 깊은 자손부터 종료해야 중간 프로세스가 새 자식을 띄우지 못한다
+        for (int i = descendants.size() - 1; i >= 0; i--) {
+            signal(descendants.get(i), Signal.SIGKILL);
+        }
+        signal(root, Signal.SIGKILL);
+    }
+
+    /**
+     * 프로세스 트리 일시 정지 (SIGSTOP)
+     * 부모를 먼저 멈춰야 셸이 자식의 정지를 "작업 중지"로 처리하지 않는다 - 재개 시 자식을 먼저 깨우므로
+     * 셸이 다시 돌 때는 자식들이 이미 실행 중이라 정지 통지가 남지 않는다.
+     */
+    public void suspendTree(ProcessHandle root) {
+        signal(root, Signal.SIGSTOP);
+        root.descendants().forEach(p -> signal(p, Signal.SIGSTOP));
+    }
+
+    /**
+     * suspendTree 로 멈춘 프로세스 트리 재개 (깊은 자손부터, 마지막에 부모)
+     */
+    public void resumeTree(ProcessHandle root) {
+        List<ProcessHandle> descendants = new ArrayList<>();
+        root.descendants().forEach(descendants::add);
+
+        for (int i = descendants.size() - 1; i >= 0; i--) {
+            signal(descendants.get(i), Signal.SIGCONT);
+        }
+        signal(root, Signal.SIGCONT);
+    }
+
+    /**
+     * 의사 터미널 생성
+     * @return 네이티브 사용 불가 또는 생성 실패 시 null (호출자는 파이프 방식으로 대체)
+     */
+    public Pty openPty(int cols, int rows) {
+        if (!NATIVE_AVAILABLE) {
+            return null;
+        }
+
+        try {
+            return NativePty.open(cols, rows);
+        } catch (IOException e) {
+            log.warn("Failed to open pty: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * pty 읽기 대기용 poll(2) 목록 생성
+     * @return 네이티브 사용 불가 또는 생성 실패 시 null (호출자는 주기적으로 확인하는 방식으로 대체)
+     */
+    public PtyPoller openPoller() {
+        if (!NATIVE_AVAILABLE) {
+            return null;
+        }
+
+        try {
+            return NativePoller.open();
+        } catch (IOException e) {
+            log.warn("Failed to open pty poller: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * pty slave 를 제어 터미널로 갖는 프로세스 빌더
+     * 자식 셸이 setsid 로 새 세션을 만든 뒤 slave 를 직접 열기 때문에 JVM 은 제어 터미널을 갖지 않는다.
+     * setsid 는 프로세스 그룹 리더가 아니면 fork 하지 않으므로 Process.pid() 가 그대로 셸의 pid 다.
+     */
+    public ProcessBuilder ptyProcessBuilder(Pty pty, String... command) {
+        List<String> wrapped = new ArrayList<>();
+        wrapped.add("/bin/sh");
+        wrapped.add("-c");
+        wrapped.add("exec setsid -c \"$@\" <\"$0\" >\"$0\" 2>&1");
+        wrapped.add(pty.getSlavePath());
+        wrapped.addAll(List.of(command));
+
+        return new ProcessBuilder(wrapped)
+                .redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+    }
+
+    /**
+     * FFM 을 쓸 수 없을 때만 사용하는 외부 kill 명령
+     */
+    private boolean forkKill(long pid, Signal signal) {
+        try {
+            Process kill = new ProcessBuilder("kill", "-" + signal.getNumber(), String.valueOf(pid)).start();
+            return kill.waitFor(1, TimeUnit.SECONDS) && kill.exitValue() == 0;
+        } catch (Exception e) {
+            log.warn("Failed to send {} to process {}: {}", signal, pid, e.getMessage());
+            return false;
+        }
+    }
+}
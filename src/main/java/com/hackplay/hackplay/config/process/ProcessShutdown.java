@@ -0,0 +1,181 @@
+package com.hackplay.hackplay.config.process;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로세스 트리 정상 종료 (SIGTERM → 유예 → SIGKILL)
+ * 호출 스레드는 기다리지 않는다 - 시그널만 보내고 CompletableFuture 를 돌려주며, 유예 시간이 지나도 남은 프로세스는
+ * 스케줄러 스레드가 SIGKILL 로 정리한다. 부모가 먼저 끝나면 자식이 init 으로 넘어가 descendants() 에서 빠지므로
+ * 시작 시점의 트리를 기억해 두고 확전할 때 그 사이 새로 생긴 자손과 합쳐서 보낸다.
+ * 같은 프로세스에 대한 중복 요청은 진행 중인 종료를 함께 기다린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessShutdown {
+
+    private final ProcessControl processControl;
+    private final MeterRegistry meterRegistry;
+
+    // SIGTERM 후 SIGKILL 까지 기다리는 시간
+    @Value("${process.shutdown.grace-millis:3000}")
+    private long graceMillis;
+
+    // SIGKILL 후에도 남아 있으면 포기하고 완료 처리하는 시간
+    private static final long KILL_TIMEOUT_MILLIS = 2000;
+
+    /** 종료 결과 */
+    public enum Result {
+        /** 요청 시점에 이미 끝나 있었음 */
+        ALREADY_EXITED,
+        /** SIGTERM 으로 유예 시간 안에 끝남 */
+        GRACEFUL,
+        /** 유예 시간이 지나 SIGKILL 로 끝냄 */
+        FORCED
+    }
+
+    // 루트 pid -> 진행 중인 종료
+    private final Map<Long, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private Counter graceful;
+    private Counter forced;
+    private Timer duration;
+
+    @PostConstruct
+    public void start() {
+        graceful = Counter.builder("process.shutdown")
+                .description("Process trees that exited within the grace period after SIGTERM")
+                .tag("result", "graceful")
+                .register(meterRegistry);
+        forced = Counter.builder("process.shutdown")
+                .description("Process trees that had to be killed with SIGKILL")
+                .tag("result", "forced")
+                .register(meterRegistry);
+        duration = Timer.builder("process.shutdown.duration")
+                .description("Time from SIGTERM until the whole process tree exited")
+                .register(meterRegistry);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "process-shutdown");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 프로세스 트리 종료 시작 (바로 반환)
+     * @return 트리 전체가 끝나면 완료 (SIGKILL 로도 끝나지 않으면 FORCED 로 완료하고 경고만 남김)
+     */
+    public CompletableFuture<Result> terminateTree(ProcessHandle root) {
+        CompletableFuture<Result> created = new CompletableFuture<>();
+        CompletableFuture<Result> existing = inFlight.putIfAbsent(root.pid(), created);
+        if (existing != null) {
+            return existing;
+        }
+        created.whenComplete((result, e) -> inFlight.remove(root.pid(), created));
+
+        List<ProcessHandle> tree = snapshot(root);
+        if (tree.isEmpty()) {
+            created.complete(Result.ALREADY_EXITED);
+            return created;
+        }
+
+        long startedAt = System.nanoTime();
+        // 깊은 자손부터 보내야 중간 프로세스가 자식의 종료를 보고 새 자식을 띄우지 않는다
+        for (int i = tree.size() - 1; i >= 0; i--) {
+            processControl.signal(tree.get(i), Signal.SIGTERM);
+        }
+
+        CompletableFuture<Void> exited = onExit(tree);
+        ScheduledFuture<?> escalation = scheduler.schedule(
+                () -> escalate(root, tree, created, startedAt), graceMillis, TimeUnit.MILLISECONDS);
+
+        exited.thenRun(() -> {
+            if (escalation.cancel(false)) {
+                graceful.increment();
+                duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                created.complete(Result.GRACEFUL);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * 유예 시간 초과 - 남은 프로세스와 그 사이 생긴 자손에 SIGKILL (스케줄러 스레드)
+     */
+    private void escalate(ProcessHandle root, List<ProcessHandle> tree, CompletableFuture<Result> result, long startedAt) {
+        Set<ProcessHandle> remaining = new LinkedHashSet<>();
+        for (ProcessHandle process : tree) {
+            if (process.isAlive()) {
+                remaining.add(process);
+            }
+            process.descendants().forEach(remaining::add);
+        }
+        if (remaining.isEmpty()) {
+            // onExit 알림보다 먼저 깨어남
+            graceful.increment();
+            duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            result.complete(Result.GRACEFUL);
+            return;
+        }
+
+        log.info("🔪 Process tree {} ignored SIGTERM for {} ms, killing {} processes", root.pid(), graceMillis, remaining.size());
+        List<ProcessHandle> targets = new ArrayList<>(remaining);
+        for (int i = targets.size() - 1; i >= 0; i--) {
+            processControl.signal(targets.get(i), Signal.SIGKILL);
+        }
+        forced.increment();
+
+        onExit(targets)
+                .orTimeout(KILL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        log.warn("Process tree {} still alive after SIGKILL", root.pid());
+                    }
+                    duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    result.complete(Result.FORCED);
+                });
+    }
+
+    /** 루트와 자손 중 살아 있는 프로세스 (부모 다음에 자식 순) */
+    private List<ProcessHandle> snapshot(ProcessHandle root) {
+        List<ProcessHandle> tree = new ArrayList<>();
+        if (root.isAlive()) {
+            tree.add(root);
+        }
+        root.descendants().forEach(tree::add);
+        return tree;
+    }
+
+    private CompletableFuture<Void> onExit(List<ProcessHandle> processes) {
+        return CompletableFuture.allOf(processes.stream()
+                .map(ProcessHandle::onExit)
+                .toArray(CompletableFuture[]::new));
+    }
+}
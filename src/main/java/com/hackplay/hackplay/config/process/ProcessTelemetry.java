@@ -0,0 +1,352 @@
+package com.hackplay.hackplay.config.process;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 프로세스 트리 자원 사용량 수집 (/proc, 리눅스 전용)
+ * 스레드 하나가 주기마다 /proc/<pid>/stat 을 한 번만 훑어 부모 - 자식 관계를 만들고, 등록된 트리마다 루트에서 내려가며
+ * CPU 시간 / 스레드 수(stat), RSS(status), 디스크 읽기 / 쓰기 바이트(io)를 합친다.
+ * 트리마다 ProcessHandle.descendants() 를 부르면 매번 /proc 전체를 읽으므로, 실행이 늘어도 /proc 스캔은 주기당 한 번이다.
+ * 결과는 리스너로 넘기고 같은 값을 게이지(process.tree.*{project})로 내보낸다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessTelemetry {
+
+    private static final Path PROC = Paths.get("/proc");
+    // 리눅스 USER_HZ (stat 의 CPU 시간 단위) - getconf 로 한 번 읽고, 못 읽으면 일반적인 배포판 값 100
+    private static final long CLOCK_TICKS_PER_SECOND = probeClockTicks();
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${process.telemetry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${process.telemetry.interval-millis:2000}")
+    private long intervalMillis;
+
+    private final List<Tracking> trackings = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService sampler;
+
+    /** 트리 하나의 한 번 측정값 */
+    public static final class Sample {
+
+        private final double cpuPercent;
+        private final long cpuMillis;
+        private final long rssBytes;
+        private final int threads;
+        private final int processes;
+        private final long readBytes;
+        private final long writeBytes;
+
+        Sample(double cpuPercent, long cpuMillis, long rssBytes, int threads, int processes, long readBytes, long writeBytes) {
+            this.cpuPercent = cpuPercent;
+            this.cpuMillis = cpuMillis;
+            this.rssBytes = rssBytes;
+            this.threads = threads;
+            this.processes = processes;
+            this.readBytes = readBytes;
+            this.writeBytes = writeBytes;
+        }
+
+        /** 지난 측정 이후 CPU 사용률 (코어 하나 = 100) */
+        public double getCpuPercent() {
+            return cpuPercent;
+        }
+
+        /** 지난 측정 이후 쓴 CPU 시간 (모든 코어 합) */
+        public long getCpuMillis() {
+            return cpuMillis;
+        }
+
+        public long getRssBytes() {
+            return rssBytes;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getProcesses() {
+            return processes;
+        }
+
+        /** 살아 있는 프로세스들이 지금까지 디스크에서 읽은 바이트 */
+        public long getReadBytes() {
+            return readBytes;
+        }
+
+        /** 살아 있는 프로세스들이 지금까지 디스크에 쓴 바이트 */
+        public long getWriteBytes() {
+            return writeBytes;
+        }
+    }
+
+    /** 수집 등록 (cancel 로 해제, 여러 번 불러도 된다) */
+    public interface Subscription {
+        void cancel();
+    }
+
+    /** /proc/<pid>/stat 에서 쓰는 값 */
+    record Stat(long ppid, long cpuTicks, int threads) {}
+
+    private final class Tracking implements Subscription {
+
+        private final Supplier<ProcessHandle> root;
+        private final Consumer<Sample> listener;
+        private final List<Meter> meters = new ArrayList<>();
+        private volatile Sample last = new Sample(0, 0, 0, 0, 0, 0, 0);
+        private long lastRootPid = -1;
+        private long lastCpuTicks;
+        private long lastSampledAt;
+
+        private Tracking(String project, Supplier<ProcessHandle> root, Consumer<Sample> listener) {
+            this.root = root;
+            this.listener = listener;
+            gauge("process.tree.cpu", "CPU usage of the process tree (percent of one core)", project, Sample::getCpuPercent);
+            gauge("process.tree.memory", "Resident memory of the process tree", project, s -> (double) s.getRssBytes());
+            gauge("process.tree.threads", "Threads in the process tree", project, s -> (double) s.getThreads());
+            gauge("process.tree.io.read", "Bytes the live process tree has read from storage", project, s -> (double) s.getReadBytes());
+            gauge("process.tree.io.write", "Bytes the live process tree has written to storage", project, s -> (double) s.getWriteBytes());
+        }
+
+        private void gauge(String name, String description, String project, Function<Sample, Double> value) {
+            meters.add(Gauge.builder(name, this, t -> value.apply(t.last))
+                    .description(description)
+                    .tag("project", project)
+                    .register(meterRegistry));
+        }
+
+        @Override
+        public void cancel() {
+            if (trackings.remove(this)) {
+                meters.forEach(meterRegistry::remove);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !Files.isDirectory(PROC)) {
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "process-telemetry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    /**
+     * 프로세스 트리 수집 등록
+     * @param project 게이지 태그
+     * @param root 측정 때마다 현재 루트를 돌려준다 (재시작으로 바뀌어도 되고, 실행 중이 아니면 null)
+     * @param listener 수집 스레드에서 호출되므로 오래 걸리면 안 된다
+     * @return 수집을 끄면 아무것도 하지 않는 등록
+     */
+    public Subscription track(String project, Supplier<ProcessHandle> root, Consumer<Sample> listener) {
+        if (sampler == null) {
+            return () -> {};
+        }
+        Tracking tracking = new Tracking(project, root, listener);
+        trackings.add(tracking);
+        return tracking;
+    }
+
+    /**
+     * 한 주기 - /proc 스캔 한 번으로 등록된 모든 트리 측정 (수집 스레드)
+     */
+    private void sample() {
+        if (trackings.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Long, Stat> stats = new HashMap<>();
+            Map<Long, List<Long>> children = new HashMap<>();
+            scan(stats, children);
+
+            long now = System.nanoTime();
+            for (Tracking tracking : trackings) {
+                ProcessHandle root = tracking.root.get();
+                Sample sample = root != null && stats.containsKey(root.pid())
+                        ? measure(tracking, root.pid(), stats, children, now)
+                        : new Sample(0, 0, 0, 0, 0, 0, 0);
+                tracking.last = sample;
+                try {
+                    tracking.listener.accept(sample);
+                } catch (Exception e) {
+                    log.debug("Process telemetry listener failed: {}", e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Process telemetry sample failed: {}", e.getMessage());
+        }
+    }
+
+    private Sample measure(Tracking tracking, long rootPid, Map<Long, Stat> stats,
+                           Map<Long, List<Long>> children, long now) {
+        long cpuTicks = 0;
+        long rssBytes = 0;
+        int threads = 0;
+        int processes = 0;
+        long readBytes = 0;
+        long writeBytes = 0;
+
+        ArrayDeque<Long> pending = new ArrayDeque<>();
+        pending.add(rootPid);
+        while (!pending.isEmpty()) {
+            long pid = pending.poll();
+            Stat stat = stats.get(pid);
+            if (stat == null) {
+                continue;
+            }
+            processes++;
+            cpuTicks += stat.cpuTicks();
+            threads += stat.threads();
+
+            Path dir = PROC.resolve(Long.toString(pid));
+            rssBytes += readFields(dir.resolve("status"), "VmRSS:")[0] * 1024;
+            long[] io = readFields(dir.resolve("io"), "read_bytes:", "write_bytes:");
+            readBytes += io[0];
+            writeBytes += io[1];
+            pending.addAll(children.getOrDefault(pid, List.of()));
+        }
+
+        // 루트가 바뀌었으면(재시작) 이번 값은 기준으로만 쓴다, 중간 프로세스가 끝나 합이 줄어든 경우도 0 으로
+        double cpuPercent = 0;
+        long cpuMillis = 0;
+        if (tracking.lastRootPid == rootPid && now > tracking.lastSampledAt) {
+            double seconds = (now - tracking.lastSampledAt) / 1_000_000_000.0;
+            long usedTicks = Math.max(0, cpuTicks - tracking.lastCpuTicks);
+            cpuPercent = usedTicks * 100.0 / CLOCK_TICKS_PER_SECOND / seconds;
+            cpuMillis = usedTicks * 1000 / CLOCK_TICKS_PER_SECOND;
+        }
+        tracking.lastRootPid = rootPid;
+        tracking.lastCpuTicks = cpuTicks;
+        tracking.lastSampledAt = now;
+
+        return new Sample(cpuPercent, cpuMillis, rssBytes, threads, processes, readBytes, writeBytes);
+    }
+
+    /**
+     * /proc/<pid>/stat 전체 스캔 - 끝난 자식의 CPU 시간(cutime, cstime)도 포함해 짧게 살다 간 컴파일러 등도 센다
+     */
+    private void scan(Map<Long, Stat> stats, Map<Long, List<Long>> children) throws IOException {
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(PROC, entry -> isPid(entry.getFileName().toString()))) {
+            for (Path dir : dirs) {
+                Stat stat = readStat(dir.resolve("stat"));
+                if (stat == null) {
+                    continue;
+                }
+                long pid = Long.parseLong(dir.getFileName().toString());
+                stats.put(pid, stat);
+                children.computeIfAbsent(stat.ppid(), k -> new ArrayList<>()).add(pid);
+            }
+        }
+    }
+
+    /**
+     * "pid (comm) state ppid ..." - comm 에 공백 / 괄호가 들어갈 수 있으므로 마지막 ')' 뒤부터 나눈다
+     * comm 은 prctl(PR_SET_NAME) 으로 아무 바이트나 넣을 수 있으므로 디코딩이 실패하지 않는 ISO-8859-1 로 읽는다
+     * (US-ASCII 로 읽으면 예외로 프로세스가 스캔에서 빠져 CPU 시간 / 일일 한도를 피할 수 있다).
+     */
+    static Stat readStat(Path file) {
+        try {
+            String line = Files.readString(file, StandardCharsets.ISO_8859_1);
+            String[] fields = line.substring(line.lastIndexOf(')') + 2).split(" ");
+            // fields[0] = state(3번째 필드), ppid = 4, utime..cstime = 14..17, num_threads = 20
+            long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12])
+                    + Long.parseLong(fields[13]) + Long.parseLong(fields[14]);
+            return new Stat(Long.parseLong(fields[1]), ticks, Integer.parseInt(fields[17]));
+        } catch (IOException | RuntimeException e) {
+            // 스캔 중에 끝난 프로세스
+            return null;
+        }
+    }
+
+    /** "키: 값 [kB]" 형식 파일에서 키별 숫자 (없거나 읽을 수 없으면 0 - io 는 다른 사용자 프로세스면 권한이 없다) */
+    static long[] readFields(Path file, String... keys) {
+        long[] values = new long[keys.length];
+        try {
+            // status 의 Name: 줄도 comm 이다 (readStat 참고)
+            for (String line : Files.readAllLines(file, StandardCharsets.ISO_8859_1)) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (line.startsWith(keys[i])) {
+                        values[i] = Long.parseLong(line.substring(keys[i].length()).trim().split("\\s+")[0]);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+        return values;
+    }
+
+    private static long probeClockTicks() {
+        try {
+            Process getconf = new ProcessBuilder("getconf", "CLK_TCK").redirectErrorStream(true).start();
+            if (getconf.waitFor(5, TimeUnit.SECONDS) && getconf.exitValue() == 0) {
+                long ticks = Long.parseLong(new String(getconf.getInputStream().readAllBytes(), StandardCharsets.US_ASCII).trim());
+                if (ticks > 0) {
+                    return ticks;
+                }
+            }
+            getconf.destroyForcibly();
+        } catch (IOException | RuntimeException e) {
+            log.debug("getconf CLK_TCK failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Could not read CLK_TCK, assuming 100 ticks per second");
+        return 100;
+    }
+
+    private static boolean isPid(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
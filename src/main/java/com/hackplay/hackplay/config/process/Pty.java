@@ -0,0 +1,39 @@
+package com.hackplay.hackplay.config.process;
+
+import java.io.IOException;
+
+/**
+ * 의사 터미널(master 측) 핸들
+ * 구현체(NativePty)는 FFM API에 의존하므로 이 인터페이스를 통해서만 다룬다.
+ */
+public interface Pty {
+
+    /**
+     * slave 디바이스 경로 (예: /dev/pts/3)
+     */
+    String getSlavePath();
+
+    /**
+     * 논블로킹 읽기
+     * @return 읽은 바이트 수, 읽을 데이터가 없으면 0, slave 측이 모두 닫혔으면 -1
+     */
+    int read(byte[] buffer, int length) throws IOException;
+
+    /**
+     * master 에 입력 바이트 쓰기 (셸의 stdin 으로 전달됨)
+     */
+    void write(byte[] data, int offset, int length) throws IOException;
+
+    /**
+     * 논블로킹 쓰기
+     * @return 쓴 바이트 수, tty 입력 큐가 가득 차 있으면 0
+     */
+    int tryWrite(byte[] data, int offset, int length) throws IOException;
+
+    /**
+     * ioctl(TIOCSWINSZ) - 포그라운드 프로세스 그룹에 SIGWINCH 가 전달된다
+     */
+    void resize(int cols, int rows) throws IOException;
+
+    void close();
+}
@@ -0,0 +1,42 @@
+package com.hackplay.hackplay.config.process;
+
+import java.io.IOException;
+
+/**
+ * 여러 pty master 의 읽기 가능 여부를 한 번에 기다리는 poll(2) 대기 목록
+ * 펌프 스레드 하나가 소유하며, wakeup() 만 다른 스레드에서 호출할 수 있다.
+ * 구현체(NativePoller)는 FFM API에 의존하므로 이 인터페이스를 통해서만 다룬다.
+ */
+public interface PtyPoller {
+
+    /**
+     * 대기 목록 비우기 (매 대기 전에 다시 채운다)
+     */
+    void clear();
+
+    /**
+     * 대기 목록에 pty 추가
+     * @param writable tty 입력 큐에 쓸 자리가 생기는 것도 기다릴지 여부
+     * @return 목록에서의 위치 (isReady 에 사용)
+     */
+    int add(Pty pty, boolean writable);
+
+    /**
+     * 목록의 pty 중 하나가 준비되거나, wakeup() 이 호출되거나, 시간이 다 될 때까지 대기
+     * @param timeoutMillis 최대 대기 시간 (0 이면 확인만 하고 바로 반환, 음수면 무기한)
+     * @return 준비된 pty 수
+     */
+    int await(int timeoutMillis) throws IOException;
+
+    /**
+     * 마지막 await 에서 index 위치의 pty 가 준비되었는지 (읽을 데이터, 쓸 자리, 또는 slave 종료)
+     */
+    boolean isReady(int index);
+
+    /**
+     * 대기 중인 await 를 깨운다 (어느 스레드에서든 호출 가능)
+     */
+    void wakeup();
+
+    void close();
+}
@@ -0,0 +1,24 @@
+package com.hackplay.hackplay.config.process;
+
+/**
+ * 리눅스 시그널 번호 (x86_64 / aarch64 공통)
+ */
+public enum Signal {
+    SIGHUP(1),
+    SIGINT(2),
+    SIGKILL(9),
+    SIGTERM(15),
+    SIGCONT(18),
+    SIGSTOP(19),
+    SIGTSTP(20);
+
+    private final int number;
+
+    Signal(int number) {
+        this.number = number;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+}
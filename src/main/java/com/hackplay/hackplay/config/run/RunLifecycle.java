@@ -0,0 +1,349 @@
+package com.hackplay.hackplay.config.run;
+
+import com.hackplay.hackplay.config.process.ProcessControl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 실행 수명 관리 (방치된 실행 정리와 회원별 일일 CPU 사용량 제한)
+ * 구독자가 모두 나가도 실행을 바로 끝내지 않고, 구독자도 미리보기 요청도 없이 unattended 시간이 지나면 멈춘다
+ * (새로 고침이나 잠깐 닫은 탭은 같은 실행에 다시 붙는다).
+ * 탭은 열려 있지만 출력 / 입력 / 미리보기 요청이 없는 실행은 프로세스 트리를 SIGSTOP 으로 재우고,
+ * 미리보기 요청이나 새 구독자가 오면 깨운다. 잠든 채로 오래 지나면 멈춘다.
+ * CPU 시간은 ProcessTelemetry 측정값을 회원별 / 날짜별로 더해 상한을 넘으면 실행을 멈추고 그날은 새 실행을 받지 않는다 (노드별 집계).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunLifecycle {
+
+    private static final long CHECK_INTERVAL_SECONDS = 15;
+
+    private final ProcessControl processControl;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${run.lifecycle.enabled:true}")
+    private boolean enabled;
+
+    // 구독자도 미리보기 요청도 없이 이만큼 지나면 실행 종료
+    @Value("${run.lifecycle.unattended-minutes:5}")
+    private long unattendedMinutes;
+
+    // 출력 / 입력 / 미리보기 요청 없이 이만큼 지나면 동면 (0 이면 동면하지 않음)
+    @Value("${run.lifecycle.suspend-after-minutes:30}")
+    private long suspendAfterMinutes;
+
+    // 동면 후 이만큼 지나면 실행 종료 (0 이면 종료하지 않음)
+    @Value("${run.lifecycle.stop-after-suspend-minutes:60}")
+    private long stopAfterSuspendMinutes;
+
+    // 회원당 하루 CPU 시간 (모든 코어 합, 0 이면 제한 없음)
+    @Value("${run.quota.daily-cpu-seconds:3600}")
+    private long dailyCpuSeconds;
+
+    private final Map<Long, Handle> handles = new ConcurrentHashMap<>();
+    // 회원별 오늘 쓴 CPU 시간 - this 로 보호, 날짜가 바뀌면 비운다
+    private final Map<String, Long> cpuMillisToday = new HashMap<>();
+    private LocalDate today = LocalDate.now();
+
+    private ScheduledExecutorService sweeper;
+    private Counter suspended;
+    private Counter quotaRejected;
+
+    /** 수명 관리가 실행에 요청하는 동작 (수명 관리 스레드 또는 깨운 요청 스레드에서 호출) */
+    public interface Listener {
+
+        void onSuspended(long idleMinutes);
+
+        void onResumed();
+
+        /** 실행을 끝내야 함 - 호출자는 구독자에게 message 를 알리고 실행 종료 */
+        void onStop(String message);
+    }
+
+    /** 실행 하나의 등록 (close 로 해제, 여러 번 불러도 된다) */
+    public final class Handle {
+
+        private final String member;
+        private final long projectId;
+        private final Supplier<ProcessHandle> root;
+        private final Listener listener;
+        // 구독자 / 미리보기 요청이 마지막으로 있었던 때
+        private volatile long lastAttendedAt = System.nanoTime();
+        // 출력 / 입력 포함 마지막 활동
+        private volatile long lastActivityAt = lastAttendedAt;
+        private volatile int viewers;
+        private volatile long lastRssBytes;
+        // 동면 전환은 this 로 보호
+        private boolean asleep;
+        private long asleepAt;
+        private boolean closed;
+
+        private Handle(String member, long projectId, Supplier<ProcessHandle> root, Listener listener) {
+            this.member = member;
+            this.projectId = projectId;
+            this.root = root;
+            this.listener = listener;
+        }
+
+        /** 프로세스 출력 (줄마다 불러도 되도록 시각만 기록) */
+        public void outputSeen() {
+            lastActivityAt = System.nanoTime();
+        }
+
+        /** 사용자 입력 / 파일 변경 등 - 자고 있으면 깨운다 */
+        public void touch() {
+            lastActivityAt = System.nanoTime();
+            wake();
+        }
+
+        /** 구독자 수 변화 - 구독자가 들어오면 깨운다 */
+        public void viewersChanged(int count) {
+            long now = System.nanoTime();
+            viewers = count;
+            lastAttendedAt = now;
+            lastActivityAt = now;
+            if (count > 0) {
+                wake();
+            }
+        }
+
+        /** 미리보기 요청 - 자고 있으면 프록시하기 전에 깨운다 */
+        public void previewHit() {
+            long now = System.nanoTime();
+            lastAttendedAt = now;
+            lastActivityAt = now;
+            wake();
+        }
+
+        /** 측정 주기마다 CPU 사용량 / 메모리 (수집 스레드) */
+        public void sampled(long cpuMillis, long rssBytes) {
+            if (rssBytes > 0) {
+                lastRssBytes = rssBytes;
+            }
+            if (cpuMillis > 0) {
+                addCpu(member, cpuMillis);
+            }
+        }
+
+        public boolean isSuspended() {
+            synchronized (this) {
+                return asleep;
+            }
+        }
+
+        /** 등록 해제 - 자고 있던 트리는 깨워서 정상 종료 시그널을 받을 수 있게 한다 */
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                resumeTree();
+            }
+            handles.remove(projectId, this);
+        }
+
+        private void wake() {
+            synchronized (this) {
+                if (closed || !resumeTree()) {
+                    return;
+                }
+            }
+            log.info("⏰ Project {} run resumed", projectId);
+            listener.onResumed();
+        }
+
+        private boolean resumeTree() {
+            if (!asleep) {
+                return false;
+            }
+            asleep = false;
+            ProcessHandle process = root.get();
+            if (process != null) {
+                processControl.resumeTree(process);
+            }
+            return true;
+        }
+
+        private boolean suspend(long now) {
+            synchronized (this) {
+                if (closed || asleep) {
+                    return false;
+                }
+                ProcessHandle process = root.get();
+                if (process == null) {
+                    return false;
+                }
+                processControl.suspendTree(process);
+                asleep = true;
+                asleepAt = now;
+                return true;
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("run.lifecycle.runs", handles, h -> h.values().stream().filter(Handle::isSuspended).count())
+                .description("Project runs whose process tree is suspended for inactivity")
+                .tag("state", "suspended")
+                .register(meterRegistry);
+        Gauge.builder("run.lifecycle.runs", handles, h -> h.values().stream().filter(r -> r.viewers == 0).count())
+                .description("Project runs kept alive without any viewer")
+                .tag("state", "unattended")
+                .register(meterRegistry);
+        suspended = Counter.builder("run.lifecycle.suspended")
+                .description("Project runs suspended for inactivity")
+                .register(meterRegistry);
+        quotaRejected = Counter.builder("run.quota.rejected")
+                .description("Run requests refused because the member used up today's CPU time")
+                .register(meterRegistry);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "run-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * 실행 등록 (프로세스를 처음 띄울 때)
+     * @param root 현재 프로세스 트리 루트 (재시작으로 바뀌어도 되고, 실행 중이 아니면 null)
+     * @return 수명 관리를 끄면 null (구독자가 모두 나가면 바로 끝내는 기존 동작)
+     */
+    public Handle register(String member, long projectId, Supplier<ProcessHandle> root, Listener listener) {
+        if (sweeper == null) {
+            return null;
+        }
+        Handle handle = new Handle(member, projectId, root, listener);
+        handles.put(projectId, handle);
+        return handle;
+    }
+
+    /** 미리보기 요청 (실행 중이 아니면 무시) */
+    public void previewHit(long projectId) {
+        Handle handle = handles.get(projectId);
+        if (handle != null) {
+            handle.previewHit();
+        }
+    }
+
+    /**
+     * 새 실행을 받아도 되는지 - 오늘 CPU 시간을 다 쓴 회원이면 거절을 센다
+     */
+    public boolean admits(String member) {
+        if (sweeper == null || dailyCpuSeconds <= 0 || cpuMillisToday(member) < dailyCpuSeconds * 1000) {
+            return true;
+        }
+        quotaRejected.increment();
+        return false;
+    }
+
+    public long getDailyCpuSeconds() {
+        return dailyCpuSeconds;
+    }
+
+    private synchronized void addCpu(String member, long cpuMillis) {
+        rollDay();
+        cpuMillisToday.merge(member, cpuMillis, Long::sum);
+    }
+
+    private synchronized long cpuMillisToday(String member) {
+        rollDay();
+        return cpuMillisToday.getOrDefault(member, 0L);
+    }
+
+    private void rollDay() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            today = now;
+            cpuMillisToday.clear();
+        }
+    }
+
+    /**
+     * 한 주기 - 일일 사용량 초과, 방치, 동면 시간 확인 (수명 관리 스레드)
+     */
+    private void sweep() {
+        try {
+            long now = System.nanoTime();
+            long unattendedNanos = TimeUnit.MINUTES.toNanos(unattendedMinutes);
+            long suspendNanos = TimeUnit.MINUTES.toNanos(suspendAfterMinutes);
+            long stopAfterSuspendNanos = TimeUnit.MINUTES.toNanos(stopAfterSuspendMinutes);
+
+            for (Handle handle : handles.values()) {
+                if (dailyCpuSeconds > 0 && cpuMillisToday(handle.member) >= dailyCpuSeconds * 1000) {
+                    stop(handle, "quota", "⛔ Daily CPU time limit reached (" + dailyCpuSeconds + " s) - run stopped\n");
+                } else if (handle.viewers == 0 && now - handle.lastAttendedAt > unattendedNanos) {
+                    stop(handle, "unattended", "⏹️ Stopped after " + unattendedMinutes + " minutes without viewers\n");
+                } else if (stopAfterSuspendNanos > 0 && isAsleepLongerThan(handle, now, stopAfterSuspendNanos)) {
+                    stop(handle, "idle", "⏹️ Stopped after " + (suspendAfterMinutes + stopAfterSuspendMinutes)
+                            + " minutes idle - reconnect to start again\n");
+                } else if (suspendNanos > 0 && now - handle.lastActivityAt > suspendNanos && handle.suspend(now)) {
+                    suspended.increment();
+                    log.info("💤 Project {} run suspended after {} minutes idle", handle.projectId, suspendAfterMinutes);
+                    handle.listener.onSuspended(suspendAfterMinutes);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Run lifecycle sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isAsleepLongerThan(Handle handle, long now, long nanos) {
+        synchronized (handle) {
+            return handle.asleep && now - handle.asleepAt > nanos;
+        }
+    }
+
+    private void stop(Handle handle, String reason, String message) {
+        long rssBytes = handle.lastRssBytes;
+        handle.close();
+        log.info("⏹️ Project {} run stopped by lifecycle ({}, {} MB resident)", handle.projectId, reason, rssBytes / (1024 * 1024));
+
+        Counter.builder("run.lifecycle.stopped")
+                .description("Project runs stopped by the server")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        Counter.builder("run.lifecycle.reclaimed")
+                .description("Resident memory of runs stopped by the server (last sample before stopping)")
+                .baseUnit("bytes")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment(rssBytes);
+        try {
+            handle.listener.onStop(message);
+        } catch (Exception e) {
+            log.warn("Failed to stop run of project {}: {}", handle.projectId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package com.hackplay.hackplay.config.run;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 실행 출력 보관소
+ * 실행마다 {base}/{projectUuid}/{runId}/ 아래에 세그먼트 파일과 희소 색인을 두고 (RunLogWriter),
+ * 조회는 색인에서 가까운 위치를 찾은 뒤 그 지점부터 필요한 줄만 읽는다 - 파일 전체를 메모리에 올리지 않는다.
+ * runId 는 시작 시각(epoch millis)이므로 이름순이 곧 시간순이다.
+ * 오래된 실행과 전체 크기 상한을 넘는 실행은 주기적으로 지운다 (기록 중인 실행은 제외).
+ */
+@Slf4j
+@Component
+public class RunLogStore {
+
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+    // 색인 한 건 = 줄 번호, 세그먼트 내 위치, 기록 시각 (long 3개)
+    private static final int INDEX_RECORD_BYTES = 24;
+    // 줄 수와 관계없이 이 간격마다 색인을 남겨 시각으로 찾을 때의 오차를 제한
+    static final long INDEX_INTERVAL_MILLIS = 1000;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final long RETENTION_INTERVAL_MINUTES = 10;
+
+    @Value("${run.log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${run.log.base-path:../run-logs}")
+    private String basePath;
+
+    // 세그먼트 크기와 색인 간격 (줄 수)
+    @Value("${run.log.segment-bytes:8388608}")
+    private long segmentBytes;
+
+    @Value("${run.log.index-every-lines:256}")
+    private int indexEveryLines;
+
+    // 실행 하나의 기록 상한 (넘으면 이후 출력은 기록하지 않음, 0 이면 제한 없음)
+    @Value("${run.log.max-run-bytes:67108864}")
+    private long maxRunBytes;
+
+    // 보관 기간과 전체 크기 상한 (0 이면 해당 조건 없음)
+    @Value("${run.log.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${run.log.max-total-mb:2048}")
+    private long maxTotalMb;
+
+    // 기록 중인 실행 디렉터리 (정리 대상에서 제외)
+    private final Set<Path> active = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService cleaner;
+
+    /** 실행 요약 */
+    public static final class RunInfo {
+
+        private final String runId;
+        private final long startedAt;
+        private final long updatedAt;
+        private final long lines;
+        private final long bytes;
+        private final boolean active;
+
+        RunInfo(String runId, long startedAt, long updatedAt, long lines, long bytes, boolean active) {
+            this.runId = runId;
+            this.startedAt = startedAt;
+            this.updatedAt = updatedAt;
+            this.lines = lines;
+            this.bytes = bytes;
+            this.active = active;
+        }
+
+        public String getRunId() {
+            return runId;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        /** 마지막 기록 시각 (epoch millis) */
+        public long getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /** 아직 기록 중인지 */
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    /** 줄 조회 결과 (줄 번호는 0부터, 색상 코드 포함) */
+    public static final class Page {
+
+        private final String runId;
+        private final long fromLine;
+        private final long totalLines;
+        private final List<String> lines;
+
+        Page(String runId, long fromLine, long totalLines, List<String> lines) {
+            this.runId = runId;
+            this.fromLine = fromLine;
+            this.totalLines = totalLines;
+            this.lines = lines;
+        }
+
+        public String getRunId() {
+            return runId;
+        }
+
+        public long getFromLine() {
+            return fromLine;
+        }
+
+        /** 다음 페이지의 시작 줄 */
+        public long getNextLine() {
+            return fromLine + lines.size();
+        }
+
+        /** 조회 시점의 전체 줄 수 (기록 중이면 계속 늘어난다) */
+        public long getTotalLines() {
+            return totalLines;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+    }
+
+    private record Segment(long firstLine, Path log, Path index) {}
+
+    private record IndexEntry(long line, long offset, long millis) {}
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "run-log-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::enforceRetention, 1, RETENTION_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
+    }
+
+    /**
+     * 새 실행 기록 시작
+     * @return 기록을 쓸 수 없으면 null (실행은 기록 없이 계속)
+     */
+    public RunLogWriter open(String projectUuid) {
+        if (!enabled) {
+            return null;
+        }
+
+        Path projectDir = Paths.get(basePath, projectUuid).toAbsolutePath();
+        try {
+            Files.createDirectories(projectDir);
+            // 같은 밀리초에 시작한 실행이 있으면 다음 값으로
+            long runId = System.currentTimeMillis();
+            while (true) {
+                Path dir = projectDir.resolve(Long.toString(runId));
+                try {
+                    Files.createDirectory(dir);
+                    active.add(dir);
+                    return new RunLogWriter(this, dir, Long.toString(runId), segmentBytes, indexEveryLines, maxRunBytes);
+                } catch (FileAlreadyExistsException e) {
+                    runId++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Run log unavailable for project {}: {}", projectUuid, e.getMessage());
+            return null;
+        }
+    }
+
+    void closed(RunLogWriter writer) {
+        active.remove(writer.getDir());
+    }
+
+    /**
+     * 프로젝트의 실행 목록 (최근 실행부터)
+     */
+    public List<RunInfo> runs(String projectUuid) throws IOException {
+        Path projectDir = Paths.get(basePath, projectUuid).toAbsolutePath();
+        List<RunInfo> runs = new ArrayList<>();
+        for (Path dir : runDirs(projectDir)) {
+            List<Segment> segments = segments(dir);
+            long bytes = 0;
+            long updatedAt = 0;
+            for (Segment segment : segments) {
+                bytes += Files.size(segment.log());
+                updatedAt = Math.max(updatedAt, Files.getLastModifiedTime(segment.log()).toMillis());
+            }
+            long startedAt = Long.parseLong(dir.getFileName().toString());
+            runs.add(new RunInfo(dir.getFileName().toString(), startedAt, Math.max(updatedAt, startedAt),
+                    totalLines(segments), bytes, active.contains(dir)));
+        }
+        runs.sort(Comparator.comparingLong(RunInfo::getStartedAt).reversed());
+        return runs;
+    }
+
+    /**
+     * 줄 번호로 찾아 limit 줄 읽기
+     * @param runId 실행 ID 또는 "latest"
+     * @return 실행이 없으면 null
+     */
+    public Page read(String projectUuid, String runId, long fromLine, int limit) throws IOException {
+        Path dir = resolveRun(projectUuid, runId);
+        if (dir == null) {
+            return null;
+        }
+
+        List<Segment> segments = segments(dir);
+        long total = totalLines(segments);
+        long start = Math.max(0, Math.min(fromLine, total));
+        return new Page(dir.getFileName().toString(), start, total, readLines(segments, start, limit));
+    }
+
+    /**
+     * 마지막 lines 줄 읽기
+     */
+    public Page tail(String projectUuid, String runId, int lines) throws IOException {
+        Path dir = resolveRun(projectUuid, runId);
+        if (dir == null) {
+            return null;
+        }
+
+        List<Segment> segments = segments(dir);
+        long total = totalLines(segments);
+        long start = Math.max(0, total - lines);
+        return new Page(dir.getFileName().toString(), start, total, readLines(segments, start, lines));
+    }
+
+    /**
+     * 시각으로 찾아 limit 줄 읽기
+     * 줄마다 시각을 남기지 않으므로 그 시각 직전의 색인 위치(최대 1초 또는 색인 간격만큼 앞)부터 읽는다.
+     */
+    public Page readFrom(String projectUuid, String runId, long epochMillis, int limit) throws IOException {
+        Path dir = resolveRun(projectUuid, runId);
+        if (dir == null) {
+            return null;
+        }
+
+        List<Segment> segments = segments(dir);
+        long total = totalLines(segments);
+        long start = Math.min(lineAt(segments, epochMillis), total);
+        return new Page(dir.getFileName().toString(), start, total, readLines(segments, start, limit));
+    }
+
+    /* ============================================================
+        조회 - 세그먼트 이름과 색인으로 위치를 찾고 그 지점부터 스트리밍
+    ============================================================ */
+    private Path resolveRun(String projectUuid, String runId) throws IOException {
+        Path projectDir = Paths.get(basePath, projectUuid).toAbsolutePath();
+        if ("latest".equals(runId)) {
+            return runDirs(projectDir).stream()
+                    .max(Comparator.comparingLong(dir -> Long.parseLong(dir.getFileName().toString())))
+                    .orElse(null);
+        }
+        // 경로로 쓰이므로 숫자만 허용
+        if (runId == null || !runId.matches("\\d{1,19}")) {
+            return null;
+        }
+        Path dir = projectDir.resolve(runId);
+        return Files.isDirectory(dir) ? dir : null;
+    }
+
+    private List<Path> runDirs(Path projectDir) throws IOException {
+        List<Path> dirs = new ArrayList<>();
+        if (!Files.isDirectory(projectDir)) {
+            return dirs;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(projectDir)) {
+            for (Path dir : stream) {
+                if (Files.isDirectory(dir) && dir.getFileName().toString().matches("\\d{1,19}")) {
+                    dirs.add(dir);
+                }
+            }
+        }
+        return dirs;
+    }
+
+    private List<Segment> segments(Path runDir) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(runDir, "*" + LOG_SUFFIX)) {
+            for (Path log : stream) {
+                String name = log.getFileName().toString();
+                String base = name.substring(0, name.length() - LOG_SUFFIX.length());
+                try {
+                    segments.add(new Segment(Long.parseLong(base), log, runDir.resolve(base + INDEX_SUFFIX)));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        segments.sort(Comparator.comparingLong(Segment::firstLine));
+        return segments;
+    }
+
+    /**
+     * 전체 줄 수 - 마지막 세그먼트의 마지막 색인부터 끝까지만 센다 (개행으로 끝나지 않은 줄은 아직 쓰는 중이므로 제외)
+     */
+    private long totalLines(List<Segment> segments) throws IOException {
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        Segment last = segments.get(segments.size() - 1);
+        IndexEntry entry = floorByLine(last, Long.MAX_VALUE);
+
+        long lines = entry.line();
+        try (InputStream in = openAt(last.log(), entry.offset())) {
+            byte[] buffer = new byte[READ_BUFFER_BYTES];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    private List<String> readLines(List<Segment> segments, long fromLine, int limit) throws IOException {
+        List<String> lines = new ArrayList<>();
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).firstLine() <= fromLine) {
+                first = i;
+            }
+        }
+
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (int i = first; i < segments.size() && lines.size() < limit; i++) {
+            Segment segment = segments.get(i);
+            IndexEntry entry = i == first ? floorByLine(segment, fromLine) : new IndexEntry(segment.firstLine(), 0, 0);
+            long current = entry.line();
+
+            try (InputStream in = openAt(segment.log(), entry.offset())) {
+                int b;
+                while (lines.size() < limit && (b = in.read()) != -1) {
+                    if (b != '\n') {
+                        if (current >= fromLine && line.size() < MAX_LINE_BYTES) {
+                            line.write(b);
+                        }
+                        continue;
+                    }
+                    if (current >= fromLine) {
+                        lines.add(line.toString(StandardCharsets.UTF_8));
+                    }
+                    line.reset();
+                    current++;
+                }
+            }
+            line.reset();
+        }
+        return lines;
+    }
+
+    private long lineAt(List<Segment> segments, long epochMillis) throws IOException {
+        Segment target = null;
+        for (Segment segment : segments) {
+            IndexEntry first = readEntry(segment, 0);
+            if (first == null || first.millis() > epochMillis) {
+                break;
+            }
+            target = segment;
+        }
+        if (target == null) {
+            return 0;
+        }
+        return floorByTime(target, epochMillis).line();
+    }
+
+    /** line 이하인 마지막 색인 (색인이 비었으면 세그먼트 시작) */
+    private IndexEntry floorByLine(Segment segment, long line) throws IOException {
+        return floor(segment, line, true);
+    }
+
+    /** epochMillis 이하인 마지막 색인 */
+    private IndexEntry floorByTime(Segment segment, long epochMillis) throws IOException {
+        return floor(segment, epochMillis, false);
+    }
+
+    /**
+     * 색인 이진 탐색 - 필요한 레코드만 위치 지정 읽기로 가져온다 (기록 중인 마지막 레코드가 덜 써졌으면 무시)
+     */
+    private IndexEntry floor(Segment segment, long key, boolean byLine) throws IOException {
+        IndexEntry found = new IndexEntry(segment.firstLine(), 0, 0);
+        if (!Files.isRegularFile(segment.index())) {
+            return found;
+        }
+
+        try (FileChannel channel = FileChannel.open(segment.index(), StandardOpenOption.READ)) {
+            ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD_BYTES);
+            long low = 0;
+            long high = channel.size() / INDEX_RECORD_BYTES - 1;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                IndexEntry entry = readEntry(channel, record, mid);
+                if ((byLine ? entry.line() : entry.millis()) <= key) {
+                    found = entry;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+        }
+        return found;
+    }
+
+    private IndexEntry readEntry(Segment segment, long position) throws IOException {
+        if (!Files.isRegularFile(segment.index())) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(segment.index(), StandardOpenOption.READ)) {
+            if (channel.size() < (position + 1) * INDEX_RECORD_BYTES) {
+                return null;
+            }
+            return readEntry(channel, ByteBuffer.allocate(INDEX_RECORD_BYTES), position);
+        }
+    }
+
+    private IndexEntry readEntry(FileChannel channel, ByteBuffer record, long position) throws IOException {
+        record.clear();
+        long offset = position * INDEX_RECORD_BYTES;
+        while (record.hasRemaining()) {
+            if (channel.read(record, offset + record.position()) < 0) {
+                throw new IOException("Truncated run log index: " + position);
+            }
+        }
+        record.flip();
+        return new IndexEntry(record.getLong(), record.getLong(), record.getLong());
+    }
+
+    private InputStream openAt(Path log, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(log, StandardOpenOption.READ);
+        channel.position(offset);
+        return new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER_BYTES);
+    }
+
+    static String segmentName(long firstLine) {
+        return String.format("%012d", firstLine);
+    }
+
+    /* ============================================================
+        보관 정책 - 기간이 지난 실행을 지우고, 전체 크기가 넘으면 오래된 실행부터 지운다
+    ============================================================ */
+    void enforceRetention() {
+        Path base = Paths.get(basePath).toAbsolutePath();
+        if (!Files.isDirectory(base)) {
+            return;
+        }
+
+        try {
+            List<Path> dirs = new ArrayList<>();
+            try (DirectoryStream<Path> projects = Files.newDirectoryStream(base, Files::isDirectory)) {
+                for (Path projectDir : projects) {
+                    dirs.addAll(runDirs(projectDir));
+                }
+            }
+            dirs.sort(Comparator.comparingLong(dir -> Long.parseLong(dir.getFileName().toString())));
+
+            long now = System.currentTimeMillis();
+            long maxAgeMillis = TimeUnit.HOURS.toMillis(retentionHours);
+            long maxTotalBytes = maxTotalMb * 1024 * 1024;
+
+            List<Path> kept = new ArrayList<>();
+            List<Long> keptSizes = new ArrayList<>();
+            long total = 0;
+            int deleted = 0;
+            for (Path dir : dirs) {
+                long size = directorySize(dir);
+                boolean expired = retentionHours > 0 && now - lastWritten(dir) > maxAgeMillis;
+                if (expired && !active.contains(dir)) {
+                    deleteRun(dir);
+                    deleted++;
+                    continue;
+                }
+                kept.add(dir);
+                keptSizes.add(size);
+                total += size;
+            }
+
+            for (int i = 0; maxTotalMb > 0 && total > maxTotalBytes && i < kept.size(); i++) {
+                if (active.contains(kept.get(i))) {
+                    continue;
+                }
+                deleteRun(kept.get(i));
+                total -= keptSizes.get(i);
+                deleted++;
+            }
+
+            if (deleted > 0) {
+                log.info("🧹 Run log retention removed {} runs ({} MB kept)", deleted, total / (1024 * 1024));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Run log retention failed: {}", e.getMessage());
+        }
+    }
+
+    private long lastWritten(Path dir) throws IOException {
+        long latest = Long.parseLong(dir.getFileName().toString());
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                latest = Math.max(latest, Files.getLastModifiedTime(file).toMillis());
+            }
+        }
+        return latest;
+    }
+
+    private long directorySize(Path dir) throws IOException {
+        long size = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                size += Files.size(file);
+            }
+        }
+        return size;
+    }
+
+    private void deleteRun(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            log.debug("Failed to delete run log {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.hackplay.hackplay.config.run;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 실행 하나의 출력 기록 (RunLogStore.open 으로 생성)
+ * 세그먼트 파일에 이어 쓰다가 크기를 넘으면 줄 경계에서 다음 세그먼트로 넘어간다 (파일 이름 = 첫 줄 번호).
+ * 세그먼트마다 희소 색인(줄 번호, 세그먼트 내 위치, 기록 시각)을 함께 써서 전체를 읽지 않고 줄 / 시각으로 찾아간다.
+ * 실행 중에도 조회할 수 있도록 append 마다 flush 한다 (읽은 청크당 한 번이므로 쓰기 호출 수는 출력 프레임 수와 같다).
+ */
+@Slf4j
+public class RunLogWriter {
+
+    private static final String TRUNCATED = "… run log truncated (size limit reached) …\n";
+
+    private final RunLogStore store;
+    private final Path dir;
+    private final String runId;
+    private final long segmentBytes;
+    private final int indexEveryLines;
+    private final long maxRunBytes;
+
+    // 아래 상태는 모두 this 로 보호
+    private OutputStream segment;
+    private DataOutputStream index;
+    private long segmentOffset;
+    private long line;
+    private boolean atLineStart = true;
+    private long lastIndexLine = -1;
+    private long lastIndexMillis;
+    private long totalBytes;
+    private boolean truncated;
+    private boolean closed;
+
+    RunLogWriter(RunLogStore store, Path dir, String runId, long segmentBytes, int indexEveryLines, long maxRunBytes) {
+        this.store = store;
+        this.dir = dir;
+        this.runId = runId;
+        this.segmentBytes = segmentBytes;
+        this.indexEveryLines = indexEveryLines;
+        this.maxRunBytes = maxRunBytes;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    Path getDir() {
+        return dir;
+    }
+
+    public synchronized void append(byte[] bytes) {
+        if (closed || truncated || bytes.length == 0) {
+            return;
+        }
+
+        try {
+            if (maxRunBytes > 0 && totalBytes + bytes.length > maxRunBytes) {
+                truncated = true;
+                write(atLineStart ? TRUNCATED.getBytes(StandardCharsets.UTF_8)
+                        : ("\n" + TRUNCATED).getBytes(StandardCharsets.UTF_8), System.currentTimeMillis());
+            } else {
+                write(bytes, System.currentTimeMillis());
+            }
+            segment.flush();
+            index.flush();
+        } catch (IOException e) {
+            log.warn("Run log {} write failed, logging stopped: {}", dir, e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * 기록 종료 - 개행 없이 끝난 마지막 줄은 닫아 준다 (여러 번 불러도 된다)
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (segment != null) {
+                if (!atLineStart) {
+                    segment.write('\n');
+                }
+                segment.close();
+            }
+            if (index != null) {
+                index.close();
+            }
+        } catch (IOException e) {
+            log.debug("Failed to close run log {}: {}", dir, e.getMessage());
+        } finally {
+            store.closed(this);
+        }
+    }
+
+    private void write(byte[] bytes, long now) throws IOException {
+        int i = 0;
+        while (i < bytes.length) {
+            if (atLineStart) {
+                startLine(now);
+            }
+
+            int end = i;
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+            boolean lineEnded = end < bytes.length;
+            if (lineEnded) {
+                end++;
+            }
+
+            segment.write(bytes, i, end - i);
+            segmentOffset += end - i;
+            totalBytes += end - i;
+            if (lineEnded) {
+                line++;
+                atLineStart = true;
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * 줄 시작 - 세그먼트가 꽉 찼으면 다음으로 넘기고, 줄 수나 시간 간격이 벌어졌으면 색인에 기록
+     */
+    private void startLine(long now) throws IOException {
+        boolean rolled = false;
+        if (segment == null || segmentOffset >= segmentBytes) {
+            rollSegment();
+            rolled = true;
+        }
+
+        if (rolled
+                || line - lastIndexLine >= indexEveryLines
+                || now - lastIndexMillis >= RunLogStore.INDEX_INTERVAL_MILLIS) {
+            index.writeLong(line);
+            index.writeLong(segmentOffset);
+            index.writeLong(now);
+            lastIndexLine = line;
+            lastIndexMillis = now;
+        }
+        atLineStart = false;
+    }
+
+    private void rollSegment() throws IOException {
+        if (segment != null) {
+            segment.close();
+            index.close();
+        }
+
+        String name = RunLogStore.segmentName(line);
+        segment = new BufferedOutputStream(Files.newOutputStream(dir.resolve(name + RunLogStore.LOG_SUFFIX)));
+        index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dir.resolve(name + RunLogStore.INDEX_SUFFIX))));
+        segmentOffset = 0;
+    }
+}
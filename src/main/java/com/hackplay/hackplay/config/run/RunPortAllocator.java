@@ -0,0 +1,170 @@
+package com.hackplay.hackplay.config.run;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 실행별 개발 서버 포트 배정
+ * 프레임워크 기본 포트(3000 / 5173 / 8080)를 그대로 쓰면 같은 노드에서 같은 템플릿 실행이 하나밖에 뜨지 못하므로
+ * 범위 안에서 비어 있는 포트를 돌아가며 빌려 주고, 실행이 끝나 프로세스 트리가 모두 내려간 뒤에 돌려받는다.
+ * 브라우저는 포트로 직접 붙지 않고 /preview/{projectId}/** 프록시를 거친다 (PreviewProxy).
+ * 미리보기는 JWT 헤더를 붙일 수 없는 브라우저 탐색이므로 실행마다 추측할 수 없는 토큰을 만들어 프로젝트 주인인 실행 구독자(/ws/run 핸드셰이크에서 JWT 확인)에게만 알려 준다.
+ */
+@Slf4j
+@Component
+public class RunPortAllocator {
+
+    /** 미리보기 주소에 붙는 토큰 쿼리 이름 (쿠키 이름도 같다) */
+    public static final String TOKEN_PARAMETER = "previewToken";
+
+    @Value("${run.port.enabled:true}")
+    private boolean enabled;
+
+    @Value("${run.port.range-start:20000}")
+    private int rangeStart;
+
+    @Value("${run.port.range-end:29999}")
+    private int rangeEnd;
+
+    // 아래 상태는 this 로 보호
+    private final Map<Long, Lease> leases = new HashMap<>();
+    private final Set<Integer> leasedPorts = new HashSet<>();
+    private int cursor = -1;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /** 빌린 포트 (release 로 반납, 여러 번 불러도 된다) */
+    public final class Lease {
+
+        private final long projectId;
+        private final int port;
+        private final boolean prefixed;
+        private final String token;
+        private boolean released;
+
+        private Lease(long projectId, int port, boolean prefixed, String token) {
+            this.projectId = projectId;
+            this.port = port;
+            this.prefixed = prefixed;
+            this.token = token;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        /** 개발 서버가 /preview/{projectId} 아래에서 응답하는지 (아니면 프록시가 접두어를 떼고 넘긴다) */
+        public boolean isPrefixed() {
+            return prefixed;
+        }
+
+        /** 프록시 경로 접두어 (끝에 / 없음) */
+        public String getBasePath() {
+            return basePath(projectId);
+        }
+
+        /** 이 실행의 미리보기 토큰 (프로젝트 주인인 구독자에게만 알린다) */
+        public String getToken() {
+            return token;
+        }
+
+        /** 구독자에게 알려 줄 미리보기 주소 - 프록시가 토큰을 쿠키로 옮기고 토큰 없는 주소로 다시 보낸다 */
+        public String getPreviewUrl() {
+            return getBasePath() + "/?" + TOKEN_PARAMETER + "=" + token;
+        }
+
+        /** 미리보기 토큰 확인 (반납된 실행의 토큰은 받지 않는다) */
+        public boolean acceptsToken(String candidate) {
+            if (candidate == null) {
+                return false;
+            }
+            synchronized (RunPortAllocator.this) {
+                if (released) {
+                    return false;
+                }
+            }
+            return MessageDigest.isEqual(token.getBytes(StandardCharsets.US_ASCII), candidate.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        public void release() {
+            synchronized (RunPortAllocator.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                leasedPorts.remove(port);
+                leases.remove(projectId, this);
+            }
+        }
+    }
+
+    public static String basePath(long projectId) {
+        return "/preview/" + projectId;
+    }
+
+    /**
+     * 포트 빌리기 - 다른 실행이 빌렸거나 지금 누가 쓰고 있는 포트는 건너뛴다
+     * @param prefixed 개발 서버가 프록시 접두어 아래에서 응답하도록 설정되는지
+     * @return 배정을 끄거나 범위가 모두 차면 null (프레임워크 기본 포트로 실행)
+     */
+    public synchronized Lease allocate(long projectId, boolean prefixed) {
+        if (!enabled || rangeEnd < rangeStart) {
+            return null;
+        }
+
+        int size = rangeEnd - rangeStart + 1;
+        for (int i = 0; i < size; i++) {
+            cursor = (cursor + 1) % size;
+            int port = rangeStart + cursor;
+            if (leasedPorts.contains(port) || !isFree(port)) {
+                continue;
+            }
+
+            Lease lease = new Lease(projectId, port, prefixed, newToken());
+            leasedPorts.add(port);
+            Lease previous = leases.put(projectId, lease);
+            if (previous != null) {
+                // 이전 실행이 아직 트리 종료를 기다리는 중 - 포트는 그쪽이 반납한다
+                log.debug("Project {} replaced port lease {} with {}", projectId, previous.port, port);
+            }
+            return lease;
+        }
+
+        log.warn("No free run port in {}-{}", rangeStart, rangeEnd);
+        return null;
+    }
+
+    /** 프로젝트의 현재 실행 포트 (실행 중이 아니면 null) */
+    public synchronized Lease lookup(long projectId) {
+        return leases.get(projectId);
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static boolean isFree(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
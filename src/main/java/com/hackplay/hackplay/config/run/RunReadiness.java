@@ -0,0 +1,241 @@
+package com.hackplay.hackplay.config.run;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * 실행 준비 완료 감지
+ * 프로세스 출력 줄에서 프레임워크별 준비 완료 문구를 찾거나, 배정된 포트가 LISTEN 상태가 되면 (/proc/net/tcp, tcp6) 준비된 것으로 본다.
+ * 먼저 온 신호 하나로 한 번만 알리고, 프로세스 시작부터 걸린 시간을 타입 / 템플릿별 히스토그램(run.ready)으로 남긴다.
+ * 포트 확인은 스레드 하나가 주기마다 /proc/net/tcp 를 한 번 읽어 대기 중인 모든 실행에 나눠 준다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunReadiness {
+
+    private static final List<Path> PROC_NET_TCP = List.of(Paths.get("/proc/net/tcp"), Paths.get("/proc/net/tcp6"));
+    // /proc/net/tcp 의 st 열 - 0A = LISTEN
+    private static final String TCP_LISTEN = "0A";
+    private static final Pattern ANSI = Pattern.compile("\u001B\\[[0-9;?]*[A-Za-z]");
+    // Spring Boot "Started X in 2.1 seconds", Next "Ready in 1.2s" / "ready - started server on", Vite "ready in 300 ms" + "Local: http://",
+    // Express 등 "listening on", Flask "Running on http://", Django "Starting development server at", Vue CLI "App running at", Angular "Compiled successfully"
+    private static final Pattern READY_MARKER = Pattern.compile(
+            "(?i)(Started \\S+ in [0-9.]+ seconds|\\bready (?:in|on|-)|Local:\\s+https?://|listening on|"
+                    + "server (?:is )?running (?:on|at)|Running on https?://|Starting development server at|App running at|compiled successfully)");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${run.readiness.enabled:true}")
+    private boolean enabled;
+
+    // 포트 LISTEN 확인 주기
+    @Value("${run.readiness.port-probe-millis:500}")
+    private long portProbeMillis;
+
+    // 이 시간 안에 신호가 없으면 감시를 그만두고 놓친 것으로 센다
+    @Value("${run.readiness.timeout-minutes:10}")
+    private long timeoutMinutes;
+
+    private final List<Watch> pending = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService prober;
+
+    /** 준비 완료 알림 */
+    public static final class Ready {
+
+        private final long millis;
+        private final String source;
+
+        Ready(long millis, String source) {
+            this.millis = millis;
+            this.source = source;
+        }
+
+        /** 프로세스 시작부터 걸린 시간 */
+        public long getMillis() {
+            return millis;
+        }
+
+        /** 감지 방법 (log = 출력 문구, port = 포트 LISTEN) */
+        public String getSource() {
+            return source;
+        }
+    }
+
+    /** 프로세스 하나의 준비 감시 (알리거나 cancel 하면 끝) */
+    public final class Watch {
+
+        private final String type;
+        private final String template;
+        private final int port;
+        private final Consumer<Ready> listener;
+        private final long startedAt = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Watch(String type, String template, int port, Consumer<Ready> listener) {
+            this.type = type;
+            this.template = template;
+            this.port = port;
+            this.listener = listener;
+        }
+
+        public boolean isDone() {
+            return done.get();
+        }
+
+        /** 출력 한 줄 (색상 코드 포함 가능) */
+        public void onOutput(String line) {
+            if (!done.get() && READY_MARKER.matcher(ANSI.matcher(line).replaceAll("")).find()) {
+                complete("log");
+            }
+        }
+
+        /** 준비 전에 프로세스가 끝나거나 교체됨 - 놓친 것으로 센다 (이미 알렸으면 아무것도 하지 않음) */
+        public void cancel() {
+            if (done.compareAndSet(false, true)) {
+                pending.remove(this);
+                Counter.builder("run.ready.missed")
+                        .description("Runs that ended or were replaced before any readiness signal")
+                        .tag("type", type)
+                        .tag("template", template)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+
+        private void complete(String source) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            pending.remove(this);
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            Timer.builder("run.ready")
+                    .description("Time from process start until the app looked ready")
+                    .tag("type", type)
+                    .tag("template", template)
+                    .tag("source", source)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(millis, TimeUnit.MILLISECONDS);
+            log.info("✅ {} run ready in {} ms (template {}, via {})", type, millis, template, source);
+
+            try {
+                listener.accept(new Ready(millis, source));
+            } catch (Exception e) {
+                log.debug("Readiness listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "run-readiness");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prober.scheduleWithFixedDelay(this::probe, portProbeMillis, portProbeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    /**
+     * 프로세스 준비 감시 시작 (프로세스를 띄우기 직전에 호출)
+     * @param port 배정된 포트 (없으면 0 - 출력 문구로만 감지)
+     * @param listener 출력 읽기 스레드나 포트 확인 스레드에서 한 번 호출된다
+     * @return 감지를 끄면 null
+     */
+    public Watch watch(String type, String template, int port, Consumer<Ready> listener) {
+        if (prober == null) {
+            return null;
+        }
+        Watch watch = new Watch(type, template != null ? template : "unknown", port, listener);
+        pending.add(watch);
+        return watch;
+    }
+
+    /**
+     * 포트 확인 한 주기 - LISTEN 포트 목록은 한 번만 읽는다 (포트 확인 스레드)
+     */
+    private void probe() {
+        try {
+            long timeoutNanos = Duration.ofMinutes(timeoutMinutes).toNanos();
+            long now = System.nanoTime();
+            Set<Integer> listening = null;
+            for (Watch watch : pending) {
+                if (now - watch.startedAt > timeoutNanos) {
+                    watch.cancel();
+                    continue;
+                }
+                if (watch.port <= 0) {
+                    continue;
+                }
+                if (listening == null) {
+                    listening = listeningPorts();
+                }
+                if (listening.contains(watch.port)) {
+                    watch.complete("port");
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Readiness probe failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * "sl local_address rem_address st ..." - local_address 는 16진수 주소:포트
+     */
+    private static Set<Integer> listeningPorts() {
+        Set<Integer> ports = new HashSet<>();
+        for (Path file : PROC_NET_TCP) {
+            List<String> lines;
+            try {
+                lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+            } catch (IOException e) {
+                continue;
+            }
+            for (int i = 1; i < lines.size(); i++) {
+                String[] fields = lines.get(i).trim().split("\\s+");
+                if (fields.length > 3 && TCP_LISTEN.equals(fields[3])) {
+                    String local = fields[1];
+                    ports.add(Integer.parseInt(local.substring(local.lastIndexOf(':') + 1), 16));
+                }
+            }
+        }
+        return ports;
+    }
+}
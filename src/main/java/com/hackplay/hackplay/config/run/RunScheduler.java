@@ -0,0 +1,313 @@
+package com.hackplay.hackplay.config.run;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 프로젝트 실행 입장 관리
+ * 노드의 코어 수와 남은 메모리 안에서만 실행을 시작하고, 나머지는 회원별 라운드 로빈으로 줄을 세운다
+ * (한 학생이 탭을 여러 개 열어도 다른 학생보다 먼저 들어가지 않는다). 대기 중에는 순번을 알린다.
+ * 회원당 동시 실행(대기 포함) 수를 넘는 요청은 받지 않는다.
+ * 막 시작한 실행은 아직 메모리를 다 쓰지 않았으므로 warmup 동안은 예상 사용량만큼 미리 잡아 둔다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunScheduler {
+
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+    private static final long CHECK_INTERVAL_MILLIS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    // 코어당 동시 실행 수
+    @Value("${run.scheduler.runs-per-core:1.0}")
+    private double runsPerCore;
+
+    // 회원당 동시 실행 수 (대기 포함, 0 이면 제한 없음)
+    @Value("${run.scheduler.max-runs-per-member:2}")
+    private int maxRunsPerMember;
+
+    // 새 실행을 들이기 위해 남아 있어야 하는 메모리
+    @Value("${run.scheduler.min-available-memory-mb:1024}")
+    private long minAvailableMemoryMb;
+
+    // 막 시작한 실행 하나가 곧 쓸 것으로 보는 메모리와 그 기간
+    @Value("${run.scheduler.memory-per-run-mb:768}")
+    private long memoryPerRunMb;
+
+    @Value("${run.scheduler.warmup-seconds:30}")
+    private long warmupSeconds;
+
+    /** 대기 / 입장 알림 (스케줄러 스레드에서 호출) */
+    public interface Listener {
+
+        /** 대기 순번이 바뀜 (1부터) */
+        void onQueued(int position, int queued);
+
+        /** 실행 슬롯 배정 - 별도 가상 스레드에서 호출되므로 프로세스를 바로 띄워도 된다 */
+        void onAdmitted();
+    }
+
+    /** 대기 또는 실행 중인 요청 (release 로 슬롯 반납 / 대기 취소, 여러 번 불러도 된다) */
+    public final class Ticket {
+
+        private final String member;
+        private final String label;
+        private final Listener listener;
+        private final long queuedAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private long admittedAt;
+        private boolean admitted;
+        private int lastPosition;
+
+        private Ticket(String member, String label, Listener listener) {
+            this.member = member;
+            this.label = label;
+            this.listener = listener;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                RunScheduler.this.release(this);
+            }
+        }
+    }
+
+    // 아래 상태는 모두 this 로 보호
+    private final Map<String, Deque<Ticket>> queues = new HashMap<>();
+    // 다음에 차례가 오는 회원 순서 (들어간 회원은 맨 뒤로)
+    private final Deque<String> rotation = new ArrayDeque<>();
+    private final List<Ticket> running = new ArrayList<>();
+    private final Map<String, Integer> perMember = new HashMap<>();
+    private int queuedCount;
+
+    private ScheduledExecutorService scheduler;
+    private Timer waitTimer;
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("run.scheduler.runs", this, s -> s.count(true))
+                .description("Project runs holding a run slot")
+                .tag("state", "running")
+                .register(meterRegistry);
+        Gauge.builder("run.scheduler.runs", this, s -> s.count(false))
+                .description("Project runs waiting for a run slot")
+                .tag("state", "queued")
+                .register(meterRegistry);
+        waitTimer = Timer.builder("run.scheduler.wait")
+                .description("Time a project run waited for a run slot")
+                .register(meterRegistry);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "run-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 메모리가 풀리는 것은 이벤트가 없으므로 주기적으로도 확인
+        scheduler.scheduleWithFixedDelay(this::dispatch, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 실행 요청
+     * @param member 공정성 / 동시 실행 제한 단위 (회원 식별자)
+     * @return 회원의 동시 실행 제한을 넘으면 null
+     */
+    public Ticket enqueue(String member, String label, Listener listener) {
+        Ticket ticket = new Ticket(member, label, listener);
+        synchronized (this) {
+            int current = perMember.getOrDefault(member, 0);
+            if (maxRunsPerMember > 0 && current >= maxRunsPerMember) {
+                return null;
+            }
+            perMember.put(member, current + 1);
+
+            Deque<Ticket> queue = queues.computeIfAbsent(member, k -> new ArrayDeque<>());
+            if (queue.isEmpty()) {
+                rotation.addLast(member);
+            }
+            queue.addLast(ticket);
+            queuedCount++;
+        }
+        scheduler.execute(this::dispatch);
+        return ticket;
+    }
+
+    public int getMaxRunsPerMember() {
+        return maxRunsPerMember;
+    }
+
+    private void release(Ticket ticket) {
+        synchronized (this) {
+            if (ticket.admitted) {
+                running.remove(ticket);
+            } else {
+                Deque<Ticket> queue = queues.get(ticket.member);
+                if (queue != null && queue.remove(ticket)) {
+                    queuedCount--;
+                    if (queue.isEmpty()) {
+                        queues.remove(ticket.member);
+                        rotation.remove(ticket.member);
+                    }
+                }
+            }
+            perMember.computeIfPresent(ticket.member, (k, v) -> v > 1 ? v - 1 : null);
+        }
+        scheduler.execute(this::dispatch);
+    }
+
+    /**
+     * 자리가 나는 만큼 라운드 로빈으로 들이고, 남은 대기자에게 바뀐 순번을 알린다 (스케줄러 스레드 전용)
+     */
+    private void dispatch() {
+        List<Ticket> admitted = new ArrayList<>();
+        List<Ticket> moved = new ArrayList<>();
+        int queued;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (!rotation.isEmpty() && hasCapacity(now)) {
+                String member = rotation.pollFirst();
+                Deque<Ticket> queue = queues.get(member);
+                Ticket ticket = queue.pollFirst();
+                queuedCount--;
+                if (queue.isEmpty()) {
+                    queues.remove(member);
+                } else {
+                    rotation.addLast(member);
+                }
+
+                ticket.admitted = true;
+                ticket.admittedAt = now;
+                running.add(ticket);
+                admitted.add(ticket);
+            }
+
+            collectMoved(moved);
+            queued = queuedCount;
+        }
+
+        for (Ticket ticket : admitted) {
+            long waited = System.nanoTime() - ticket.queuedAt;
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+            log.info("🎟️ Run admitted: {} (member {}, waited {} ms)", ticket.label, ticket.member,
+                    TimeUnit.NANOSECONDS.toMillis(waited));
+            Thread.ofVirtual().name("run-start-" + ticket.label).start(() -> {
+                try {
+                    ticket.listener.onAdmitted();
+                } catch (RuntimeException e) {
+                    log.warn("Run start failed for {}: {}", ticket.label, e.getMessage());
+                    ticket.release();
+                }
+            });
+        }
+
+        for (Ticket ticket : moved) {
+            try {
+                ticket.listener.onQueued(ticket.lastPosition, queued);
+            } catch (RuntimeException e) {
+                log.debug("Failed to notify queue position for {}: {}", ticket.label, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 라운드 로빈 순서상의 순번 계산 - 회원 r 번째의 i 번째 요청 앞에는
+     * 모든 회원의 앞선 i 개씩과, 같은 바퀴에서 r 보다 앞선 회원의 요청이 있다
+     */
+    private void collectMoved(List<Ticket> moved) {
+        int rank = 0;
+        for (String member : rotation) {
+            int index = 0;
+            for (Ticket ticket : queues.get(member)) {
+                int position = 1;
+                int otherRank = 0;
+                for (String other : rotation) {
+                    int size = queues.get(other).size();
+                    position += Math.min(size, index + (otherRank < rank ? 1 : 0));
+                    otherRank++;
+                }
+                if (position != ticket.lastPosition) {
+                    ticket.lastPosition = position;
+                    moved.add(ticket);
+                }
+                index++;
+            }
+            rank++;
+        }
+    }
+
+    private boolean hasCapacity(long now) {
+        // 아무것도 실행 중이 아니면 자원과 관계없이 하나는 들인다 (대기열이 영원히 막히지 않도록)
+        if (running.isEmpty()) {
+            return true;
+        }
+
+        int slots = Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * runsPerCore));
+        if (running.size() >= slots) {
+            return false;
+        }
+
+        long available = availableMemoryMb();
+        if (available < 0) {
+            return true;
+        }
+
+        long warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long warming = 0;
+        for (Ticket ticket : running) {
+            if (now - ticket.admittedAt < warmupNanos) {
+                warming++;
+            }
+        }
+        return available - warming * memoryPerRunMb >= minAvailableMemoryMb;
+    }
+
+    /**
+     * /proc/meminfo 의 MemAvailable (읽을 수 없으면 -1 - 메모리 조건 없이 코어 수로만 판단)
+     */
+    private long availableMemoryMb() {
+        try {
+            for (String line : Files.readAllLines(MEMINFO)) {
+                if (line.startsWith("MemAvailable:")) {
+                    String kb = line.substring("MemAvailable:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kb) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.debug("Failed to read available memory: {}", e.getMessage());
+        }
+        return -1;
+    }
+
+    private synchronized int count(boolean runningRuns) {
+        return runningRuns ? running.size() : queuedCount;
+    }
+}
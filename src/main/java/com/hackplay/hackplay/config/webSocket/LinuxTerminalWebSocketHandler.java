@@ -1,158 +1,248 @@
 package com.hackplay.hackplay.config.webSocket;
 
+import com.hackplay.hackplay.config.process.ProcessControl;
+import com.hackplay.hackplay.config.process.Signal;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalIoEngine;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalSession;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalSessionRegistry;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalShellPool;
+import com.hackplay.hackplay.domain.Project;
+import com.hackplay.hackplay.repository.ProjectRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.*;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class LinuxTerminalWebSocketHandler extends TextWebSocketHandler {
 
-    private final Map<String, Process> processes = new ConcurrentHashMap<>();
-    private final Map<String, BufferedWriter> writers = new ConcurrentHashMap<>();
-    private final Map<String, Thread> readerThreads = new ConcurrentHashMap<>();
+    private final TerminalSessionRegistry sessionRegistry;
+    private final TerminalIoEngine ioEngine;
+    private final ProcessControl processControl;
+    private final TerminalShellPool shellPool;
+    private final ProjectRepository projectRepository;
+    private final MeterRegistry meterRegistry;
+
+    // 클라이언트 크기 변경 제어 메시지: ESC ] resize;<cols>;<rows> BEL
+    private static final String RESIZE_PREFIX = "\u001b]resize;";
+    private static final String RESIZE_SUFFIX = "\u0007";
+
+    // 클라이언트가 생성한 세션 키 형식 (UUID 등)
+    private static final Pattern SESSION_KEY_PATTERN = Pattern.compile("[A-Za-z0-9-]{8,64}");
+
+    // 연결이 끊긴 뒤 셸을 유지하는 시간 (0 이면 재접속 미지원 - 즉시 종료)
+    @Value("${terminal.session.resume-grace-seconds:60}")
+    private long resumeGraceSeconds;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        try {
-            // 리눅스 환경에서 bash 셸 시작
-            ProcessBuilder pb = new ProcessBuilder("/bin/bash", "-i")
-                    .directory(new File(System.getProperty("user.dir")))
-                    .redirectErrorStream(true);
-
-            // 환경 변수 설정 (터미널 크기, 색상 지원 등)
-            Map<String, String> env = pb.environment();
-            env.put("TERM", "xterm-256color");
-            env.put("COLUMNS", "120");
-            env.put("LINES", "30");
-            env.put("PS1", "\\u@\\h:\\w$ "); // 프롬프트 설정
-
-            Process process = pb.start();
-
-            BufferedWriter writer = new BufferedWriter(
-                    new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8)
-            );
+        // 핸드셰이크에서 토큰으로 확인한 회원 (토큰 없이 연결했으면 null - 재접속 불가)
+        String owner = stringAttribute(session, WebSocketConfig.MEMBER_ATTRIBUTE);
+        String sessionKey = stringAttribute(session, "session");
+        long offset = Math.max(0, longAttribute(session, "offset", 0));
+
+        if (owner == null || sessionKey == null || !SESSION_KEY_PATTERN.matcher(sessionKey).matches()) {
+            sessionKey = UUID.randomUUID().toString();
+            offset = 0;
+        } else if (resumeExisting(session, sessionKey, owner, offset)) {
+            return;
+        }
 
-            processes.put(session.getId(), process);
-            writers.put(session.getId(), writer);
+        long started = System.nanoTime();
+        TerminalShellPool.Shell shell = null;
+        TerminalSession terminalSession = null;
+        try {
+            int cols = intAttribute(session, "cols", 120);
+            int rows = intAttribute(session, "rows", 30);
+            File workDir = resolveWorkDir(session);
 
-            // 출력 읽기 스레드
-            Thread readerThread = new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            // 미리 띄워 둔 셸을 꺼낸다 (풀이 비었으면 새로 띄움)
+            shell = shellPool.acquire(cols, rows);
+            boolean pooled = shell.isPooled();
 
-                    char[] buffer = new char[1024];
-                    int bytesRead;
-                    
-                    while ((bytesRead = reader.read(buffer)) != -1 && session.isOpen()) {
-                        String output = new String(buffer, 0, bytesRead);
-                        session.sendMessage(new TextMessage(output));
-                    }
-                } catch (Exception e) {
-                    if (session.isOpen()) {
-                        try {
-                            session.sendMessage(new TextMessage("\r\n❌ 터미널 연결이 종료되었습니다.\r\n"));
-                        } catch (Exception ignored) {}
-                    }
-                    log.warn("Terminal reader thread ended for session {}: {}", session.getId(), e.getMessage());
-                }
-            }, "terminal-reader-" + session.getId());
-
-            readerThread.setDaemon(true);
-            readerThread.start();
-            readerThreads.put(session.getId(), readerThread);
-
-            // 프로세스 종료 감지 스레드
-            Thread processWatcher = new Thread(() -> {
-                try {
-                    int exitCode = process.waitFor();
-                    if (session.isOpen()) {
-                        session.sendMessage(new TextMessage(
-                                "\r\n🔴 Shell exited with code: " + exitCode + "\r\n"));
-                        session.close(CloseStatus.NORMAL);
-                    }
-                } catch (Exception e) {
-                    log.debug("Process watcher ended for session {}: {}", session.getId(), e.getMessage());
-                }
-            }, "process-watcher-" + session.getId());
-
-            processWatcher.setDaemon(true);
-            processWatcher.start();
+            // 이후 이 세션으로의 모든 출력은 I/O 엔진의 송신 버퍼를 거친다 (세션당 송신자 하나)
+            terminalSession = ioEngine.newSession(
+                    session, sessionKey, owner, shell.getProcess(), shell.getPty(), offset, cols, rows);
+            sessionRegistry.register(terminalSession);
 
             // 연결 성공 메시지
-            session.sendMessage(new TextMessage(
+            ioEngine.write(terminalSession,
                     "\u001b[32m🚀 Linux Terminal Connected\u001b[0m\r\n" +
-                    "\u001b[36mWorking Directory: " + System.getProperty("user.dir") + "\u001b[0m\r\n"
-            ));
+                    "\u001b[36mWorking Directory: " + workDir.getAbsolutePath() + "\u001b[0m\r\n"
+            );
+
+            // 작업 디렉터리로 이동 (준비 명령의 출력은 I/O 엔진이 걸러냄)
+            terminalSession.prepare(workDir);
 
-            log.info("🔥 Linux Terminal connected: {}", session.getId());
+            // 출력 읽기 및 종료 감지는 I/O 엔진이 담당
+            ioEngine.attach(terminalSession);
+
+            Timer.builder("terminal.connect.latency")
+                    .description("Time from WebSocket connect to an attached shell")
+                    .tag("pooled", String.valueOf(pooled))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+            log.info("🔥 Linux Terminal connected: {} (session: {}, binary: {}, pty: {}, pooled: {})",
+                    session.getId(), sessionKey, terminalSession.isBinary(), terminalSession.hasPty(), pooled);
 
         } catch (Exception e) {
             log.error("Failed to establish terminal connection for session {}: {}", session.getId(), e.getMessage());
-            session.sendMessage(new TextMessage("❌ 터미널 연결 실패: " + e.getMessage() + "\r\n"));
+            String failure = "❌ 터미널 연결 실패: " + e.getMessage() + "\r\n";
+            if (terminalSession != null) {
+                // 이미 엔진 송신자가 이 연결을 가질 수 있다 - 재접속 대상에서 빼고 안내도 송신 버퍼로 보낸다
+                ioEngine.abort(terminalSession, failure);
+                return;
+            }
+            if (shell != null) {
+                shellPool.discard(shell);
+            }
+            session.sendMessage(new TextMessage(failure));
             session.close(CloseStatus.SERVER_ERROR);
         }
     }
 
+    /**
+     * 셸 작업 디렉터리 결정
+     * projectId 가 있으면 프로젝트 워크스페이스, 없으면 workDir 파라미터, 둘 다 없으면 서버 작업 디렉터리
+     */
+    private File resolveWorkDir(WebSocketSession session) {
+        String projectId = stringAttribute(session, "projectId");
+        if (projectId != null) {
+            try {
+                Project project = projectRepository.findById(Long.parseLong(projectId)).orElse(null);
+                if (project != null) {
+                    File projectDir = new File("../projects/" + project.getUuid());
+                    if (projectDir.isDirectory()) {
+                        return projectDir;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Invalid projectId for terminal session {}: {}", session.getId(), projectId);
+            }
+        }
+
+        String workDir = stringAttribute(session, "workDir");
+        if (workDir != null) {
+            File dir = new File(URLDecoder.decode(workDir, StandardCharsets.UTF_8));
+            if (dir.isDirectory()) {
+                return dir;
+            }
+        }
+        return new File(System.getProperty("user.dir"));
+    }
+
+    /**
+     * 같은 세션 키의 셸이 살아 있으면 새 연결을 붙이고 offset 이후 출력만 다시 보낸다
+     * @return 재접속 처리 여부 (false 면 새 셸을 띄운다)
+     */
+    private boolean resumeExisting(WebSocketSession session, String sessionKey, String owner, long offset)
+            throws IOException {
+        TerminalSession existing = sessionRegistry.find(sessionKey);
+        if (existing == null) {
+            return false;
+        }
+
+        if (!Objects.equals(existing.getOwner(), owner)) {
+            log.warn("Terminal session {} resume rejected: owner mismatch", sessionKey);
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return true;
+        }
+
+        if (!existing.canResume(owner)) {
+            // 셸이 이미 끝났으면 같은 키로 새 셸을 띄운다
+            ioEngine.terminate(existing);
+            return false;
+        }
+
+        // 스냅샷이 새 클라이언트 크기로 그려지도록 먼저 맞춘다
+        existing.resize(intAttribute(session, "cols", existing.getScreen().getCols()),
+                intAttribute(session, "rows", existing.getScreen().getRows()));
+
+        WebSocketSession previous = existing.getWebSocketSession();
+        sessionRegistry.bind(session.getId(), existing);
+        ioEngine.resume(existing, session, offset);
+
+        // 끊긴 줄 모르고 남아 있던 이전 연결은 닫는다 (이미 새 연결로 교체됨)
+        if (previous != null && previous.isOpen()) {
+            try {
+                previous.close(CloseStatus.NORMAL);
+            } catch (IOException ignored) {}
+        }
+
+        log.info("🔁 Linux Terminal resumed: {} (session: {}, offset: {})", session.getId(), sessionKey, offset);
+        return true;
+    }
+
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
-        Process process = processes.get(session.getId());
-        BufferedWriter writer = writers.get(session.getId());
+        TerminalSession terminalSession = sessionRegistry.get(session.getId());
 
-        if (process == null || !process.isAlive()) {
+        if (terminalSession == null) {
             session.sendMessage(new TextMessage("❌ 터미널 세션이 종료되었습니다.\r\n"));
             return;
         }
 
-        try {
-            String input = message.getPayload();
+        if (!terminalSession.getProcess().isAlive()) {
+            ioEngine.write(terminalSession, "❌ 터미널 세션이 종료되었습니다.\r\n");
+            return;
+        }
 
-            // 특수 제어 문자 처리
-            if (handleSpecialCommands(input, process, session)) {
-                return;
-            }
+        String input = message.getPayload();
+
+        if (input.startsWith(RESIZE_PREFIX) && input.endsWith(RESIZE_SUFFIX)) {
+            handleResize(input, terminalSession);
+            return;
+        }
 
-            // 일반 입력 전송
-            writer.write(input);
-            writer.flush();
+        ioEngine.onInput(terminalSession);
 
-        } catch (IOException e) {
-            log.error("Failed to send input to terminal for session {}: {}", session.getId(), e.getMessage());
-            session.sendMessage(new TextMessage("❌ 명령어 전송 실패\r\n"));
+        // 특수 제어 문자 처리 (pty 세션은 tty 라인 디시플린이 직접 처리)
+        if (!terminalSession.hasPty() && handleSpecialCommands(input, terminalSession)) {
+            return;
         }
+
+        // 일반 입력은 대기열로 - 실제 쓰기는 I/O 엔진이 하므로 셸이 입력을 읽지 않아도 이 스레드는 막히지 않는다
+        ioEngine.queueInput(terminalSession, input);
     }
 
     /**
-     * 특수 제어 문자 처리
+     * 특수 제어 문자 처리 (pty 가 없는 파이프 세션 전용)
      */
-    private boolean handleSpecialCommands(String input, Process process, WebSocketSession session) throws IOException {
+    private boolean handleSpecialCommands(String input, TerminalSession terminalSession) {
+        Process process = terminalSession.getProcess();
         switch (input) {
             case "\u0003": // Ctrl+C
-                sendSignal(process, "SIGINT");
-                session.sendMessage(new TextMessage("^C"));
+                sendSignal(process, Signal.SIGINT);
+                ioEngine.write(terminalSession, "^C");
                 return true;
 
             case "\u001a": // Ctrl+Z
-                sendSignal(process, "SIGTSTP");
-                session.sendMessage(new TextMessage("^Z"));
+                sendSignal(process, Signal.SIGTSTP);
+                ioEngine.write(terminalSession, "^Z");
                 return true;
 
-            case "\u0004": // Ctrl+D (EOF)
-                try {
-                    writers.get(session.getId()).close();
-                } catch (Exception ignored) {}
+            case "\u0004": // Ctrl+D (EOF) - 앞서 입력한 내용을 모두 보낸 뒤 닫는다
+                ioEngine.closeInput(terminalSession);
                 return true;
 
             case "clear\r": // clear 명령 최적화
             case "clear\n":
-                session.sendMessage(new TextMessage("\u001b[2J\u001b[H"));
+                ioEngine.write(terminalSession, "\u001b[2J\u001b[H");
                 return true;
 
             default:
@@ -161,49 +251,46 @@ public class LinuxTerminalWebSocketHandler extends TextWebSocketHandler {
     }
 
     /**
-     * 프로세스에 시그널 전송 (리눅스)
+     * 포그라운드 작업에 시그널 전송 (리눅스)
+     * 파이프 세션에는 tty 가 없어 셸이 작업 제어를 하지 않으므로 실행 중인 자식 프로세스에 직접 보낸다.
      */
-    private void sendSignal(Process process, String signal) {
-        try {
-            long pid = process.pid();
-            ProcessBuilder signalBuilder = new ProcessBuilder("kill", "-" + signal, String.valueOf(pid));
-            signalBuilder.start().waitFor(1, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            log.warn("Failed to send {} to process: {}", signal, e.getMessage());
+    private void sendSignal(Process process, Signal signal) {
+        boolean delivered = false;
+        for (ProcessHandle child : process.children().toList()) {
+            delivered |= processControl.signal(child, signal);
+        }
+        if (!delivered) {
+            processControl.signal(process.toHandle(), signal);
         }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         String sessionId = session.getId();
-        
-        // 프로세스 정리
-        Process process = processes.remove(sessionId);
-        if (process != null && process.isAlive()) {
-            try {
-                // 자식 프로세스들까지 정리
-                killProcessTree(process.pid());
-                process.destroyForcibly();
-                process.waitFor(5, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                log.warn("Error cleaning up process for session {}: {}", sessionId, e.getMessage());
-            }
+
+        TerminalSession terminalSession = sessionRegistry.unbind(sessionId);
+        if (terminalSession == null) {
+            return;
         }
 
-        // Writer 정리
-        BufferedWriter writer = writers.remove(sessionId);
-        if (writer != null) {
-            try {
-                writer.close();
-            } catch (IOException ignored) {}
+        long resumeDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(resumeGraceSeconds);
+        if (!terminalSession.detach(session, resumeDeadline)) {
+            // 이미 새 연결로 재접속한 세션
+            return;
         }
 
-        // 스레드 정리
-        Thread readerThread = readerThreads.remove(sessionId);
-        if (readerThread != null && readerThread.isAlive()) {
-            readerThread.interrupt();
+        // 사용자가 직접 닫은 경우(NORMAL)가 아니면 셸을 유지하고 재접속을 기다린다
+        if (resumeGraceSeconds > 0
+                && !CloseStatus.NORMAL.equalsCode(status)
+                && terminalSession.canResume(terminalSession.getOwner())) {
+            log.info("⏸️ Linux Terminal detached: {} (session: {}, {}), keeping shell for {}s",
+                    sessionId, terminalSession.getId(), status, resumeGraceSeconds);
+            return;
         }
 
+        // 펌프에서 제외하고 자식 프로세스들까지 정리
+        ioEngine.terminate(terminalSession);
+
         log.info("❌ Linux Terminal session closed: {} ({})", sessionId, status);
     }
 
@@ -214,40 +301,63 @@ public class LinuxTerminalWebSocketHandler extends TextWebSocketHandler {
     }
 
     /**
-     * 프로세스 트리 전체 종료 (리눅스)
+     * 터미널 크기 변경 (클라이언트에서 resize 이벤트 처리용)
+     * @param connectionId WebSocket 세션 ID (재접속 후에는 새 연결의 ID)
+     */
+    public void resizeTerminal(String connectionId, int cols, int rows) {
+        TerminalSession terminalSession = sessionRegistry.get(connectionId);
+        if (terminalSession != null) {
+            resize(terminalSession, cols, rows);
+        }
+    }
+
+    /**
+     * pty 에 ioctl(TIOCSWINSZ) 를 걸어 셸의 포그라운드 프로세스가 SIGWINCH 를 받는다.
      */
-    private void killProcessTree(long pid) {
+    private void resize(TerminalSession terminalSession, int cols, int rows) {
+        if (!terminalSession.getProcess().isAlive()) {
+            return;
+        }
+        try {
+            terminalSession.resize(cols, rows);
+        } catch (IOException e) {
+            log.warn("Failed to resize terminal for session {}: {}", terminalSession.getId(), e.getMessage());
+        }
+    }
+
+    private void handleResize(String input, TerminalSession terminalSession) {
+        String[] size = input.substring(RESIZE_PREFIX.length(), input.length() - RESIZE_SUFFIX.length()).split(";");
         try {
-            // 자식 프로세스들 먼저 종료
-            ProcessBuilder childKiller = new ProcessBuilder("pkill", "-P", String.valueOf(pid));
-            Process killProcess = childKiller.start();
-            killProcess.waitFor(2, TimeUnit.SECONDS);
+            int cols = Integer.parseInt(size[0]);
+            int rows = Integer.parseInt(size[1]);
+            if (cols > 0 && rows > 0) {
+                resize(terminalSession, cols, rows);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Invalid resize message for session {}: {}", terminalSession.getId(), e.getMessage());
+        }
+    }
 
-            // 부모 프로세스 종료
-            ProcessBuilder parentKiller = new ProcessBuilder("kill", "-9", String.valueOf(pid));
-            Process killParent = parentKiller.start();
-            killParent.waitFor(2, TimeUnit.SECONDS);
+    private String stringAttribute(WebSocketSession session, String name) {
+        Object value = session.getAttributes().get(name);
+        return value != null ? value.toString() : null;
+    }
 
-        } catch (Exception e) {
-            log.warn("Failed to kill process tree for PID {}: {}", pid, e.getMessage());
+    private long longAttribute(WebSocketSession session, String name, long defaultValue) {
+        Object value = session.getAttributes().get(name);
+        try {
+            return value != null ? Long.parseLong(value.toString()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
         }
     }
 
-    /**
-     * 터미널 크기 변경 (클라이언트에서 resize 이벤트 처리용)
-     */
-    public void resizeTerminal(String sessionId, int cols, int rows) {
-        Process process = processes.get(sessionId);
-        if (process != null && process.isAlive()) {
-            try {
-                // stty를 이용한 터미널 크기 변경
-                ProcessBuilder resizeBuilder = new ProcessBuilder(
-                        "stty", "cols", String.valueOf(cols), "rows", String.valueOf(rows)
-                );
-                resizeBuilder.start().waitFor(1, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                log.warn("Failed to resize terminal for session {}: {}", sessionId, e.getMessage());
-            }
+    private int intAttribute(WebSocketSession session, String name, int defaultValue) {
+        Object value = session.getAttributes().get(name);
+        try {
+            return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * 실행 로그 한 줄의 레벨 분류기
+ * 레벨 키워드를 ASCII 대소문자 무시 Aho–Corasick 오토마톤(실패 링크를 미리 펼친 DFA)으로 한 번에 찾는다.
+ * 줄마다 소문자 문자열을 만들거나 키워드 수만큼 다시 훑지 않으며, 할당이 없다.
+ * 한 줄에 여러 레벨의 키워드가 있으면 더 심각한 레벨이 이긴다 (ERROR > WARN > INFO > DEBUG).
+ */
+final class LogLevelClassifier {
+
+    enum Level {
+        ERROR("\u001b[31m", "error", "exception", "failed"),  // 빨강
+        WARN("\u001b[33m", "warn", "warning"),                // 노랑
+        INFO("\u001b[32m", "info", "started", "ready"),       // 초록
+        DEBUG("\u001b[36m", "debug");                         // 시안
+
+        private final byte[] colorBytes;
+        private final String[] keywords;
+
+        Level(String color, String... keywords) {
+            this.colorBytes = color.getBytes(StandardCharsets.US_ASCII);
+            this.keywords = keywords;
+        }
+
+        byte[] getColorBytes() {
+            return colorBytes;
+        }
+    }
+
+    static final String RESET = "\u001b[0m";
+    static final byte[] RESET_BYTES = RESET.getBytes(StandardCharsets.US_ASCII);
+
+    private static final Level[] LEVELS = Level.values();
+
+    // 입력 기호: 0 = 영문자가 아닌 문자 (키워드에 없으므로 항상 루트로), 1~26 = a~z
+    private static final int ALPHABET = 27;
+
+    // 상태 전이표 [state * ALPHABET + symbol]
+    private static final int[] TRANSITIONS;
+    // 상태에 도달했을 때 끝나는 키워드 중 가장 심각한 레벨의 ordinal (없으면 -1)
+    private static final byte[] MATCHES;
+
+    static {
+        int maxStates = 1;
+        for (Level level : LEVELS) {
+            for (String keyword : level.keywords) {
+                maxStates += keyword.length();
+            }
+        }
+
+        int[] transitions = new int[maxStates * ALPHABET];
+        byte[] matches = new byte[maxStates];
+        Arrays.fill(transitions, -1);
+        Arrays.fill(matches, (byte) -1);
+
+        // 키워드 트라이
+        int states = 1;
+        for (Level level : LEVELS) {
+            for (String keyword : level.keywords) {
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int index = state * ALPHABET + symbol(keyword.charAt(i));
+                    if (transitions[index] < 0) {
+                        transitions[index] = states++;
+                    }
+                    state = transitions[index];
+                }
+                matches[state] = (byte) best(matches[state], level.ordinal());
+            }
+        }
+
+        // 너비 우선으로 실패 링크를 따라가며 빠진 전이와 매치 레벨을 채운다
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int next = transitions[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state] = (byte) best(matches[state], matches[fail[state]]);
+
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int index = state * ALPHABET + symbol;
+                int fallback = transitions[fail[state] * ALPHABET + symbol];
+                if (transitions[index] < 0) {
+                    transitions[index] = fallback;
+                } else {
+                    fail[transitions[index]] = fallback;
+                    queue.add(transitions[index]);
+                }
+            }
+        }
+
+        TRANSITIONS = Arrays.copyOf(transitions, states * ALPHABET);
+        MATCHES = Arrays.copyOf(matches, states);
+    }
+
+    private LogLevelClassifier() {
+    }
+
+    /**
+     * UTF-8 바이트 줄 분류 (멀티바이트 문자는 영문자가 아니므로 그대로 건너뛴다)
+     * @return 키워드가 없으면 null
+     */
+    static Level classify(byte[] line, int from, int length) {
+        int state = 0;
+        int found = -1;
+        for (int i = from; i < from + length; i++) {
+            state = TRANSITIONS[state * ALPHABET + symbol(line[i])];
+            found = best(found, MATCHES[state]);
+            if (found == 0) {
+                break; // ERROR 보다 심각한 레벨은 없다
+            }
+        }
+        return found < 0 ? null : LEVELS[found];
+    }
+
+    private static int symbol(int c) {
+        int lower = c | 0x20;
+        return lower >= 'a' && lower <= 'z' ? lower - 'a' + 1 : 0;
+    }
+
+    private static int best(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        return b < 0 ? a : Math.min(a, b);
+    }
+}
@@ -0,0 +1,123 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 세션별 출력 바이트 토큰 버킷
+ * `yes` 나 무한 console.log 처럼 출력이 폭주하면 예산을 넘는 출력은 버리고 버린 양만 요약해서 알린다.
+ * 읽기 쪽은 계속 파이프를 비우므로 자식 프로세스가 쓰기에서 막히지 않는다.
+ * 한번 버리기 시작하면 버킷이 절반 이상 다시 찰 때까지 버린다 (통과/차단이 잘게 번갈아 섞이지 않도록).
+ */
+public class OutputThrottle {
+
+    private static final long SUMMARY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long bytesPerSecond;
+    private final long burstBytes;
+
+    private double tokens;
+    private long refilledAt;
+
+    private boolean suppressing;
+    private long suppressedBytes;
+    private long lastSummaryAt;
+
+    /**
+     * @param bytesPerSecond 초당 허용 바이트 (0 이하이면 제한 없음)
+     * @param burstBytes 순간적으로 허용할 최대 바이트 (버킷 크기)
+     */
+    public OutputThrottle(long bytesPerSecond, long burstBytes) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.burstBytes = Math.max(burstBytes, bytesPerSecond);
+        this.tokens = this.burstBytes;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public boolean isEnabled() {
+        return bytesPerSecond > 0;
+    }
+
+    /**
+     * 바이트 스트림용 - 예산 안에서 통과시킬 수 있는 만큼만 허용
+     * @return 통과시킬 바이트 수 (0 ~ length), 나머지는 버려진 것으로 집계
+     */
+    public synchronized int admit(int length, long now) {
+        if (!isEnabled()) {
+            return length;
+        }
+
+        refill(now);
+        int allowed = suppressing ? 0 : (int) Math.min(length, (long) tokens);
+        tokens -= allowed;
+        if (allowed < length) {
+            suppress(length - allowed, now);
+        }
+        return allowed;
+    }
+
+    /**
+     * 줄 단위 스트림용 - 예산이 충분할 때만 통째로 허용
+     */
+    public synchronized boolean tryAcquire(int length, long now) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        refill(now);
+        if (!suppressing && tokens >= length) {
+            tokens -= length;
+            return true;
+        }
+        suppress(length, now);
+        return false;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burstBytes, tokens + (now - refilledAt) * (bytesPerSecond / 1e9));
+        refilledAt = now;
+        if (suppressing && tokens >= burstBytes / 2.0) {
+            suppressing = false;
+        }
+    }
+
+    private void suppress(long bytes, long now) {
+        if (!suppressing && suppressedBytes == 0) {
+            lastSummaryAt = now;
+        }
+        suppressing = true;
+        suppressedBytes += bytes;
+    }
+
+    /**
+     * 버린 출력 요약 문구
+     * 버리기가 끝났을 때, 또는 버리는 중이라도 1초마다 한 번 반환한다.
+     * @param force 남은 집계를 바로 내보낼지 여부 (스트림 종료 시)
+     * @return 알릴 내용이 없으면 null
+     */
+    public synchronized String takeSummary(long now, boolean force) {
+        if (suppressedBytes == 0) {
+            return null;
+        }
+        if (!force && suppressing && now - lastSummaryAt < SUMMARY_INTERVAL_NANOS) {
+            return null;
+        }
+
+        String summary = "… " + formatBytes(suppressedBytes) + " suppressed (output rate limit) …";
+        suppressedBytes = 0;
+        lastSummaryAt = now;
+        return summary;
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1024L * 1024 * 1024) {
+            return String.format("%.1f GB", bytes / (1024.0 * 1024 * 1024));
+        }
+        if (bytes >= 1024L * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        }
+        if (bytes >= 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return bytes + " bytes";
+    }
+}
@@ -0,0 +1,334 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import com.hackplay.hackplay.config.build.AppCdsCache;
+import com.hackplay.hackplay.config.build.WorkspaceWatcher;
+import com.hackplay.hackplay.config.process.ProcessTelemetry;
+import com.hackplay.hackplay.config.run.RunLifecycle;
+import com.hackplay.hackplay.config.run.RunLogWriter;
+import com.hackplay.hackplay.config.run.RunPortAllocator;
+import com.hackplay.hackplay.config.run.RunReadiness;
+import com.hackplay.hackplay.config.run.RunScheduler;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 프로젝트 하나의 실행 (프로세스 하나, 구독자 N 명)
+ * 같은 프로젝트로 /ws/run 에 붙는 연결은 새 프로세스를 띄우지 않고 이 실행을 구독한다.
+ * 최근 출력 꼬리를 보관해 두었다가 늦게 들어온 구독자에게 먼저 보낸다. 전체 출력은 실행 기록(RunLogWriter)에 남는다.
+ * 프로세스 시작 / 재시작 / 종료는 lock 으로, 출력 분배는 viewers 모니터로 직렬화한다.
+ * 시작은 가상 스레드에서 빌드 캐시 확인 / jar 풀기 / 프로세스 fork 처럼 오래 막히는 일을 하므로 모니터 대신 ReentrantLock 을 쓴다
+ * (JDK 21 에서는 모니터를 쥔 채 막히면 캐리어 스레드가 묶여 다른 가상 스레드가 돌지 못한다).
+ */
+class ProjectRun {
+
+    private final long projectId;
+    private final String projectUuid;
+    private final String member;
+    private final File projectDir;
+    private final RunWebSocketHandler.ProjectType type;
+    private final String templateType;
+    private final OutputThrottle throttle;
+    private final long maxTailBytes;
+
+    // 수명 주기 상태는 lock 으로 보호 (process / ended 는 읽기 스레드가 잠금 없이 확인)
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Process process;
+    private volatile boolean ended;
+    private RunScheduler.Ticket ticket;
+    private WorkspaceWatcher.Subscription watch;
+    private volatile boolean watchRequested;
+    // 현재 프로세스가 Spring Boot 앱이면 실행 방식 (시작 완료 시간 기록용)
+    private volatile AppCdsCache.Launch bootLaunch;
+    // 첫 프로세스 시작 때 열고 실행이 끝나면 닫는다 (감시 모드 재시작은 같은 기록에 이어 쓴다)
+    private volatile RunLogWriter runLog;
+    // 첫 프로세스 시작 때 등록하고 실행이 끝나면 해제 (재시작된 프로세스는 같은 등록이 따라간다)
+    private ProcessTelemetry.Subscription telemetry;
+    // 개발 서버 포트 - 첫 프로세스 시작 때 빌리고 프로세스 트리가 모두 끝난 뒤 반납 (재시작해도 같은 포트)
+    private volatile RunPortAllocator.Lease portLease;
+    // 현재 프로세스의 준비 감시 (프로세스를 새로 띄울 때마다 교체, 빌드 단계 → 앱 실행은 같은 감시가 이어진다)
+    private volatile RunReadiness.Watch readiness;
+    // 준비 완료 프레임 - 늦게 들어온 구조화 프레임 구독자에게 먼저 보낸다 (재시작하면 비운다, 주인용은 미리보기 토큰 포함)
+    private volatile String readyFrame;
+    private volatile String ownerReadyFrame;
+    // 첫 프로세스 시작 때 등록하고 실행이 끝나면 해제 - 등록된 실행은 구독자가 모두 나가도 수명 관리가 멈출 때까지 남는다
+    private volatile RunLifecycle.Handle lifecycle;
+
+    private final List<RunViewer> viewers = new ArrayList<>();
+    private final ArrayDeque<byte[]> tail = new ArrayDeque<>();
+    private long tailBytes;
+
+    ProjectRun(long projectId, String projectUuid, String member, File projectDir, RunWebSocketHandler.ProjectType type, String templateType,
+               OutputThrottle throttle, long maxTailBytes) {
+        this.projectId = projectId;
+        this.projectUuid = projectUuid;
+        this.member = member;
+        this.projectDir = projectDir;
+        this.type = type;
+        this.templateType = templateType;
+        this.throttle = throttle;
+        this.maxTailBytes = maxTailBytes;
+    }
+
+    long getProjectId() {
+        return projectId;
+    }
+
+    String getProjectUuid() {
+        return projectUuid;
+    }
+
+    /** 공정성 / 실행 제한 단위 (회원 식별자) */
+    String getMember() {
+        return member;
+    }
+
+    File getProjectDir() {
+        return projectDir;
+    }
+
+    RunWebSocketHandler.ProjectType getType() {
+        return type;
+    }
+
+    String getTemplateType() {
+        return templateType;
+    }
+
+    OutputThrottle getThrottle() {
+        return throttle;
+    }
+
+    Process getProcess() {
+        return process;
+    }
+
+    void setProcess(Process process) {
+        this.process = process;
+    }
+
+    /** 이 프로세스가 아직 실행의 현재 프로세스인지 (재시작 / STOP 으로 교체되면 false) */
+    boolean isCurrent(Process candidate) {
+        return !ended && process == candidate;
+    }
+
+    boolean isEnded() {
+        return ended;
+    }
+
+    void markEnded() {
+        ended = true;
+    }
+
+    RunScheduler.Ticket getTicket() {
+        return ticket;
+    }
+
+    void setTicket(RunScheduler.Ticket ticket) {
+        this.ticket = ticket;
+    }
+
+    WorkspaceWatcher.Subscription getWatch() {
+        return watch;
+    }
+
+    void setWatch(WorkspaceWatcher.Subscription watch) {
+        this.watch = watch;
+    }
+
+    boolean isWatching() {
+        return watch != null;
+    }
+
+    boolean isWatchRequested() {
+        return watchRequested;
+    }
+
+    void requestWatch() {
+        watchRequested = true;
+    }
+
+    AppCdsCache.Launch getBootLaunch() {
+        return bootLaunch;
+    }
+
+    void setBootLaunch(AppCdsCache.Launch bootLaunch) {
+        this.bootLaunch = bootLaunch;
+    }
+
+    RunLogWriter getRunLog() {
+        return runLog;
+    }
+
+    void setRunLog(RunLogWriter runLog) {
+        this.runLog = runLog;
+    }
+
+    ProcessTelemetry.Subscription getTelemetry() {
+        return telemetry;
+    }
+
+    void setTelemetry(ProcessTelemetry.Subscription telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    RunPortAllocator.Lease getPortLease() {
+        return portLease;
+    }
+
+    void setPortLease(RunPortAllocator.Lease portLease) {
+        this.portLease = portLease;
+    }
+
+    RunReadiness.Watch getReadiness() {
+        return readiness;
+    }
+
+    void setReadiness(RunReadiness.Watch readiness) {
+        this.readiness = readiness;
+    }
+
+    void setReadyFrame(String readyFrame, String ownerReadyFrame) {
+        synchronized (viewers) {
+            this.readyFrame = readyFrame;
+            this.ownerReadyFrame = ownerReadyFrame;
+        }
+    }
+
+    RunLifecycle.Handle getLifecycle() {
+        return lifecycle;
+    }
+
+    void setLifecycle(RunLifecycle.Handle lifecycle) {
+        this.lifecycle = lifecycle;
+    }
+
+    ReentrantLock getLock() {
+        return lock;
+    }
+
+    /** 자원 사용량 측정 대상 (실행 중인 프로세스가 없으면 null) */
+    ProcessHandle getProcessHandle() {
+        Process current = process;
+        return current != null && !ended ? current.toHandle() : null;
+    }
+
+    /**
+     * 구독 추가 - 보관된 꼬리를 먼저 넣으므로 이후 출력과 순서가 어긋나지 않는다
+     * @return 구독자 수
+     */
+    int join(RunViewer viewer) {
+        synchronized (viewers) {
+            for (byte[] chunk : tail) {
+                viewer.enqueueOutput(chunk);
+            }
+            // 미리보기 토큰은 꼬리에 남기지 않으므로 주인에게 따로 알린다
+            RunPortAllocator.Lease lease = portLease;
+            if (lease != null && viewer.isOwner()) {
+                viewer.enqueueStatus("🔗 Preview: " + lease.getPreviewUrl() + "\n");
+            }
+            String ready = viewer.isOwner() ? ownerReadyFrame : readyFrame;
+            if (ready != null && viewer.wantsStats()) {
+                viewer.enqueueStatus(ready);
+            }
+            viewers.add(viewer);
+            return viewers.size();
+        }
+    }
+
+    /**
+     * @return 남은 구독자 수
+     */
+    int leave(RunViewer viewer) {
+        synchronized (viewers) {
+            viewers.remove(viewer);
+            return viewers.size();
+        }
+    }
+
+    List<RunViewer> getViewers() {
+        synchronized (viewers) {
+            return List.copyOf(viewers);
+        }
+    }
+
+    /** 프로세스 출력 분배 (호출자가 넘긴 배열을 그대로 보관하므로 이후 수정하면 안 된다) */
+    void broadcastOutput(byte[] chunk) {
+        synchronized (viewers) {
+            appendTail(chunk);
+            RunLogWriter log = runLog;
+            if (log != null) {
+                log.append(chunk);
+            }
+            for (RunViewer viewer : viewers) {
+                viewer.enqueueOutput(chunk);
+            }
+        }
+    }
+
+    /** 상태 메시지 분배 (꼬리에도 남겨 늦게 들어온 구독자가 실행 경과를 볼 수 있게 한다) */
+    void broadcastStatus(String message) {
+        synchronized (viewers) {
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            appendTail(bytes);
+            RunLogWriter log = runLog;
+            if (log != null) {
+                log.append(bytes);
+            }
+            for (RunViewer viewer : viewers) {
+                viewer.enqueueStatus(message);
+            }
+        }
+    }
+
+    /**
+     * 주인과 나머지에게 다른 상태 메시지 분배 (미리보기 토큰이 든 주인용은 꼬리 / 실행 기록에 남기지 않는다)
+     */
+    void broadcastStatus(String message, String ownerMessage) {
+        synchronized (viewers) {
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            appendTail(bytes);
+            RunLogWriter log = runLog;
+            if (log != null) {
+                log.append(bytes);
+            }
+            for (RunViewer viewer : viewers) {
+                viewer.enqueueStatus(viewer.isOwner() ? ownerMessage : message);
+            }
+        }
+    }
+
+    /** 자원 사용량 프레임 분배 (요청한 구독자에게만, 꼬리 / 실행 기록에는 남기지 않는다) */
+    void broadcastStats(String frame) {
+        synchronized (viewers) {
+            for (RunViewer viewer : viewers) {
+                if (viewer.wantsStats()) {
+                    viewer.enqueueStats(frame);
+                }
+            }
+        }
+    }
+
+    /** 실행 이벤트 프레임 분배 (구조화 프레임을 요청한 구독자에게만, 자원 사용량과 달리 덮어쓰지 않는다) */
+    void broadcastEvent(String frame, String ownerFrame) {
+        synchronized (viewers) {
+            for (RunViewer viewer : viewers) {
+                if (viewer.wantsStats()) {
+                    viewer.enqueueStatus(viewer.isOwner() ? ownerFrame : frame);
+                }
+            }
+        }
+    }
+
+    private void appendTail(byte[] chunk) {
+        tail.addLast(chunk);
+        tailBytes += chunk.length;
+        while (tailBytes > maxTailBytes && tail.size() > 1) {
+            tailBytes -= tail.pollFirst().length;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalOutputBuffer.OverflowPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+
+/**
+ * 실행 출력을 구독하는 WebSocket 하나
+ * 프로세스 출력은 읽기 스레드 하나가 모든 구독자에게 나눠 주므로, 구독자마다 송신 대기열을 따로 두고
+ * 가상 스레드에서 비운다. 느린 구독자는 자기 대기열만 차고 프로세스나 다른 구독자를 막지 않는다.
+ * 대기열이 상한을 넘으면 정책에 따라 오래된 출력을 버리거나(버린 양을 알림) 연결을 끊는다. 상태 메시지는 버리지 않는다.
+ * 자원 사용량 프레임(?stats=true 로 요청한 구독자만)은 최신 하나만 보관해 밀려 있으면 덮어쓴다.
+ * 세션에 보내거나 세션을 닫는 것은 모두 이 대기열의 송신자가 한다 (WebSocketSession 은 동시 송신을 허용하지 않는다).
+ */
+@Slf4j
+class RunViewer {
+
+    private final WebSocketSession session;
+    private final boolean binary;
+    private final long maxQueuedBytes;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor sender;
+    private final boolean stats;
+    // 프로젝트 주인인지 (미리보기 토큰은 주인에게만)
+    private final boolean owner;
+
+    // byte[] = 프로세스 출력 (색상 포함, 줄 단위), String = 상태 메시지
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private long droppedBytes;
+    // 아직 보내지 못한 최신 자원 사용량 프레임 (JSON)
+    private String pendingStats;
+    private boolean draining;
+    private boolean closed;
+    // 대기열을 다 보낸 뒤 세션을 닫을 상태 (closeAfter / 느린 구독자 - 이후 들어오는 것은 받지 않는다)
+    private CloseStatus closeStatus;
+
+    RunViewer(WebSocketSession session, long maxQueuedBytes, OverflowPolicy overflowPolicy, Executor sender, boolean stats,
+              boolean owner) {
+        this.session = session;
+        this.binary = WebSocketProtocols.isBinary(session);
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.overflowPolicy = overflowPolicy;
+        this.sender = sender;
+        this.stats = stats;
+        this.owner = owner;
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    boolean wantsStats() {
+        return stats;
+    }
+
+    boolean isOwner() {
+        return owner;
+    }
+
+    void enqueueOutput(byte[] chunk) {
+        synchronized (this) {
+            if (closed || closeStatus != null) {
+                return;
+            }
+
+            if (queuedBytes + chunk.length > maxQueuedBytes) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    closeSlow();
+                    return;
+                }
+                // 대기열보다 큰 조각은 앞의 출력을 비워도 들어가지 않으므로 그것만 버린다
+                if (chunk.length > maxQueuedBytes) {
+                    droppedBytes += chunk.length;
+                    return;
+                }
+                dropOldest(chunk.length);
+            }
+
+            queue.addLast(chunk);
+            queuedBytes += chunk.length;
+        }
+        schedule();
+    }
+
+    void enqueueStatus(String message) {
+        synchronized (this) {
+            if (closed || closeStatus != null) {
+                return;
+            }
+            queue.addLast(message);
+        }
+        schedule();
+    }
+
+    /** 자원 사용량 프레임 - 이전 프레임이 아직 대기 중이면 새 값으로 바꾼다 */
+    void enqueueStats(String frame) {
+        synchronized (this) {
+            if (closed || closeStatus != null || !stats) {
+                return;
+            }
+            pendingStats = frame;
+        }
+        schedule();
+    }
+
+    /**
+     * 이미 대기 중인 출력과 마지막 메시지를 보낸 뒤 세션을 닫는다
+     */
+    void closeAfter(String message, CloseStatus status) {
+        synchronized (this) {
+            if (closed || closeStatus != null) {
+                return;
+            }
+            queue.addLast(message);
+            pendingStats = null;
+            closeStatus = status;
+        }
+        schedule();
+    }
+
+    /**
+     * 구독 해제 (보내지 않은 것은 버린다 - 세션은 이미 닫혔거나 호출자가 닫는다)
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+            queue.clear();
+            queuedBytes = 0;
+            pendingStats = null;
+        }
+    }
+
+    private void dropOldest(int needed) {
+        Iterator<Object> it = queue.iterator();
+        while (queuedBytes + needed > maxQueuedBytes && it.hasNext()) {
+            if (it.next() instanceof byte[] old) {
+                it.remove();
+                queuedBytes -= old.length;
+                droppedBytes += old.length;
+            }
+        }
+    }
+
+    private void closeSlow() {
+        log.warn("Run viewer {} too slow, disconnecting", session.getId());
+        queue.clear();
+        queuedBytes = 0;
+        droppedBytes = 0;
+        pendingStats = null;
+        closeStatus = CloseStatus.SESSION_NOT_RELIABLE;
+        // 보내는 중인 메시지가 끝난 뒤 송신자가 닫는다
+        schedule();
+    }
+
+    private void schedule() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        sender.execute(this::drain);
+    }
+
+    /**
+     * 대기열 비우기 (구독자당 한 번에 하나의 송신자만 동작)
+     */
+    private void drain() {
+        while (true) {
+            Object item;
+            CloseStatus closing = null;
+            synchronized (this) {
+                if (closed) {
+                    draining = false;
+                    return;
+                }
+                if (droppedBytes > 0) {
+                    item = String.format("… %.1f KB of output skipped (connection too slow) …\n", droppedBytes / 1024.0);
+                    droppedBytes = 0;
+                } else if (pendingStats != null) {
+                    item = pendingStats;
+                    pendingStats = null;
+                } else {
+                    item = queue.pollFirst();
+                    if (item == null) {
+                        draining = false;
+                        if (closeStatus == null) {
+                            return;
+                        }
+                        closed = true;
+                        closing = closeStatus;
+                    }
+                    if (item instanceof byte[] chunk) {
+                        queuedBytes -= chunk.length;
+                    }
+                }
+            }
+
+            if (closing != null) {
+                closeSession(closing);
+                return;
+            }
+
+            try {
+                if (!session.isOpen()) {
+                    close();
+                    continue;
+                }
+                if (item instanceof byte[] chunk) {
+                    session.sendMessage(binary
+                            ? new BinaryMessage(chunk)
+                            : new TextMessage(new String(chunk, StandardCharsets.UTF_8)));
+                } else {
+                    session.sendMessage(new TextMessage((String) item));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Failed to send run output to {}: {}", session.getId(), e.getMessage());
+                close();
+            }
+        }
+    }
+
+    private void closeSession(CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Failed to close run viewer {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
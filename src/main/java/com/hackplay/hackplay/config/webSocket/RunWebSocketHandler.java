@@ -1,40 +1,122 @@
 package com.hackplay.hackplay.config.webSocket;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import com.hackplay.hackplay.config.build.AppCdsCache;
+import com.hackplay.hackplay.config.build.GradleDaemonPool;
+import com.hackplay.hackplay.config.build.PythonInterpreterPool;
+import com.hackplay.hackplay.config.build.RunBuildCache;
+import com.hackplay.hackplay.config.build.WorkspaceWatcher;
+import com.hackplay.hackplay.config.dependency.DependencyStore;
+import com.hackplay.hackplay.config.process.ProcessShutdown;
+import com.hackplay.hackplay.config.process.ProcessTelemetry;
+import com.hackplay.hackplay.config.run.RunLifecycle;
+import com.hackplay.hackplay.config.run.RunLogStore;
+import com.hackplay.hackplay.config.run.RunLogWriter;
+import com.hackplay.hackplay.config.run.RunPortAllocator;
+import com.hackplay.hackplay.config.run.RunReadiness;
+import com.hackplay.hackplay.config.run.RunScheduler;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalOutputBuffer.OverflowPolicy;
 import com.hackplay.hackplay.domain.Project;
 import com.hackplay.hackplay.repository.ProjectRepository;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Pattern;
 
+/**
+ * 프로젝트 실행 WebSocket (/ws/run)
+ * 프로젝트마다 프로세스는 하나만 띄우고, 같은 프로젝트로 들어온 연결(두 번째 탭, 지켜보는 강사)은 그 실행을 구독한다.
+ * 출력은 읽기 스레드 하나가 색상을 입혀 구독자별 대기열로 나눠 주며, 마지막 구독자가 나가면 실행을 끝낸다.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RunWebSocketHandler extends TextWebSocketHandler {
 
-    private final Map<String, Process> runProcesses = new ConcurrentHashMap<>();
-    private final Map<String, Thread> readerThreads = new ConcurrentHashMap<>();
-    private final Map<String, Boolean> processHealthMap = new ConcurrentHashMap<>();
+    // projectUuid -> 실행 (조회 / 구독 추가 / 마지막 구독자 제거는 이 맵으로 직렬화)
+    private final Map<String, ProjectRun> runs = new HashMap<>();
+    // sessionId -> 구독
+    private final Map<String, RunViewer> viewers = new ConcurrentHashMap<>();
+    private final Map<String, ProjectRun> sessionRuns = new ConcurrentHashMap<>();
+
+    private final ExecutorService viewerSenders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("run-viewer-", 0).factory());
 
     private final ProjectRepository projectRepository;
+    private final DependencyStore dependencyStore;
+    private final RunBuildCache runBuildCache;
+    private final AppCdsCache appCdsCache;
+    private final GradleDaemonPool gradleDaemonPool;
+    private final PythonInterpreterPool pythonInterpreterPool;
+    private final WorkspaceWatcher workspaceWatcher;
+    private final RunScheduler runScheduler;
+    private final RunLogStore runLogStore;
+    private final ProcessShutdown processShutdown;
+    private final ProcessTelemetry processTelemetry;
+    private final RunPortAllocator runPortAllocator;
+    private final RunReadiness runReadiness;
+    private final RunLifecycle runLifecycle;
+
+    // 출력 폭주 제한 - 초당 송신 바이트와 순간 허용량 (0 이면 제한 없음)
+    @Value("${run.throttle.bytes-per-second:1048576}")
+    private long throttleBytesPerSecond;
+
+    @Value("${run.throttle.burst-bytes:4194304}")
+    private long throttleBurstBytes;
+
+    // 구독자별 송신 대기열 상한과 넘쳤을 때의 정책
+    @Value("${run.fanout.viewer-queue-bytes:1048576}")
+    private long viewerQueueBytes;
+
+    @Value("${run.fanout.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy viewerOverflowPolicy;
+
+    // 늦게 들어온 구독자에게 먼저 보내는 최근 출력 양
+    @Value("${run.fanout.tail-bytes:65536}")
+    private long runTailBytes;
 
-    private enum ProjectType {
+    private static final int READ_CHUNK_BYTES = 8192;
+    private static final int MAX_LINE_BYTES = 16 * 1024;
+    // 프로세스가 끝난 뒤 남은 출력을 마저 읽을 때까지 기다리는 시간 (자식이 파이프를 물고 있으면 더 기다리지 않음)
+    private static final long OUTPUT_DRAIN_MILLIS = 2000;
+
+    private static final byte[] ANSI_YELLOW = LogLevelClassifier.Level.WARN.getColorBytes();
+    private static final byte[] ANSI_RESET = LogLevelClassifier.RESET_BYTES;
+
+    private static final Pattern FLASK_IMPORT = Pattern.compile("^\\s*(from\\s+flask\\s+import\\b|import\\s+flask\\b)", Pattern.MULTILINE);
+    private static final Pattern MAIN_BLOCK = Pattern.compile("^if\\s+__name__\\s*==\\s*['\"]__main__['\"]", Pattern.MULTILINE);
+
+    enum ProjectType {
         SPRING_BOOT, NODE_JS, REACT, VUE, ANGULAR, NEXT_JS, PYTHON, UNKNOWN
     }
 
+    @PreDestroy
+    public void shutdown() {
+        viewerSenders.shutdownNow();
+    }
+
     /* ============================================================
-        연결 성립
+        연결 성립 - 실행 중인 프로젝트면 구독, 아니면 새 실행을 대기열에
     ============================================================ */
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
@@ -56,6 +138,15 @@ public class RunWebSocketHandler extends TextWebSocketHandler {
                 return;
             }
 
+            // 주인만 실행할 수 있고, 공개 프로젝트는 다른 회원도 이미 도는 실행을 볼 수만 있다 (미리보기 토큰은 주인에게만)
+            String member = (String) session.getAttributes().get(WebSocketConfig.MEMBER_ATTRIBUTE);
+            boolean owner = member != null && projectRepository.existsByIdAndMemberUuid(projectId, member);
+            if (!owner && !Boolean.TRUE.equals(project.getIsPublic())) {
+                session.sendMessage(new TextMessage("❌ Not your project\n"));
+                session.close(CloseStatus.POLICY_VIOLATION);
+                return;
+            }
+
             String projectUuid = project.getUuid();
             File projectDir = new File("../projects/" + projectUuid);
             
@@ -65,109 +156,682 @@ public class RunWebSocketHandler extends TextWebSocketHandler {
                 return;
             }
 
-            ProjectType type = detectProjectType(projectDir);
-            ProcessBuilder pb = createProcessBuilder(type, projectDir);
+            RunViewer viewer = new RunViewer(session, viewerQueueBytes, viewerOverflowPolicy, viewerSenders,
+                    isStatsRequested(session), owner);
+            ProjectRun run;
+            boolean created = false;
+            int viewerCount;
 
-            if (pb == null) {
-                session.sendMessage(new TextMessage("❌ Unsupported project type: " + type + "\n"));
-                session.close(CloseStatus.SERVER_ERROR);
-                return;
+            synchronized (runs) {
+                run = runs.get(projectUuid);
+                if (run == null && !owner) {
+                    session.sendMessage(new TextMessage("❌ Project is not running - only its owner can start it\n"));
+                    session.close(CloseStatus.POLICY_VIOLATION);
+                    return;
+                }
+                if (run == null) {
+                    ProjectType type = detectProjectType(projectDir);
+                    if (type == ProjectType.UNKNOWN) {
+                        session.sendMessage(new TextMessage("❌ Unsupported project type: " + type + "\n"));
+                        session.close(CloseStatus.SERVER_ERROR);
+                        return;
+                    }
+                    run = new ProjectRun(projectId, projectUuid, memberOf(project), projectDir, type, project.getTemplateType(),
+                            new OutputThrottle(throttleBytesPerSecond, throttleBurstBytes), runTailBytes);
+                    runs.put(projectUuid, run);
+                    created = true;
+                }
+                viewerCount = run.join(viewer);
             }
+            viewers.put(session.getId(), viewer);
+            sessionRuns.put(session.getId(), run);
 
-            // 환경 변수 설정
-            setupEnvironment(pb, type);
-
-            session.sendMessage(new TextMessage("🚀 Starting " + type + " project...\n"));
-            log.info("🚀 Starting project {} (type: {}) for session {}", projectUuid, type, session.getId());
-
-            Process process = pb.start();
-            runProcesses.put(session.getId(), process);
-            processHealthMap.put(session.getId(), true);
+            if (isWatchRequested(session)) {
+                run.requestWatch();
+            }
 
-            // STDOUT + STDERR 통합 읽기
-            Thread outputThread = createOutputReaderThread(session, process);
-            outputThread.start();
-            readerThreads.put(session.getId(), outputThread);
+            if (!created) {
+                RunLifecycle.Handle lifecycle = run.getLifecycle();
+                if (lifecycle != null) {
+                    lifecycle.viewersChanged(viewerCount);
+                }
+                viewer.enqueueStatus("📺 Joined running project (" + viewerCount + " viewers)\n");
+                log.info("📺 Session {} joined run of project {} ({} viewers)", session.getId(), projectUuid, viewerCount);
+                if (run.isWatchRequested() && run.getProcess() != null) {
+                    watchWorkspace(run);
+                }
+            } else {
+                scheduleRun(run);
+            }
 
-            // 프로세스 종료 감지
-            Thread processWatcher = createProcessWatcherThread(session, process, type);
-            processWatcher.start();
-            readerThreads.put(session.getId() + "-watcher", processWatcher);
+            // 등록 전에 연결이 끊겼으면 정리가 이미 지나갔으므로 여기서 구독 해제
+            if (!session.isOpen()) {
+                afterConnectionClosed(session, CloseStatus.GOING_AWAY);
+            }
 
         } catch (NumberFormatException e) {
             session.sendMessage(new TextMessage("❌ Invalid projectId format\n"));
             session.close(CloseStatus.BAD_DATA);
         } catch (Exception e) {
             log.error("Failed to start project for session {}: {}", session.getId(), e.getMessage(), e);
-            session.sendMessage(new TextMessage("❌ Failed to start project: " + e.getMessage() + "\n"));
-            session.close(CloseStatus.SERVER_ERROR);
+            String failure = "❌ Failed to start project: " + e.getMessage() + "\n";
+            RunViewer viewer = viewers.get(session.getId());
+            if (viewer != null) {
+                viewer.closeAfter(failure, CloseStatus.SERVER_ERROR);
+            } else {
+                session.sendMessage(new TextMessage(failure));
+                session.close(CloseStatus.SERVER_ERROR);
+            }
+        }
+    }
+
+    /**
+     * 새 실행을 스케줄러 대기열에 올림 (노드에 여유가 생기면 startAdmitted)
+     */
+    private void scheduleRun(ProjectRun run) throws IOException {
+        String member = run.getMember();
+        if (!runLifecycle.admits(member)) {
+            String message = "⛔ Daily CPU time limit reached (" + runLifecycle.getDailyCpuSeconds()
+                    + " s per member) - try again tomorrow\n";
+            endRun(run);
+            closeViewers(run, message, CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+
+        RunScheduler.Ticket ticket = runScheduler.enqueue(member, run.getProjectUuid(), new RunScheduler.Listener() {
+            @Override
+            public void onQueued(int position, int queued) {
+                run.broadcastStatus("⏳ Waiting for a free run slot - position " + position + " of " + queued + "\n");
+            }
+
+            @Override
+            public void onAdmitted() {
+                startAdmitted(run);
+            }
+        });
+
+        if (ticket == null) {
+            String message = "❌ Run limit reached (" + runScheduler.getMaxRunsPerMember()
+                    + " concurrent runs per member) - stop another run first\n";
+            endRun(run);
+            closeViewers(run, message, CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+
+        run.getLock().lock();
+        try {
+            if (!run.isEnded()) {
+                run.setTicket(ticket);
+                return;
+            }
+        } finally {
+            run.getLock().unlock();
+        }
+        // 대기열에 오르는 사이 마지막 구독자가 나감
+        ticket.release();
+    }
+
+    private static String memberOf(Project project) {
+        return project.getMember() != null
+                ? "member-" + project.getMember().getId()
+                : "project-" + project.getUuid();
+    }
+
+    /**
+     * 실행 슬롯을 배정받은 뒤 프로세스 시작 (스케줄러가 가상 스레드에서 호출)
+     */
+    private void startAdmitted(ProjectRun run) {
+        try {
+            run.getLock().lock();
+            try {
+                if (run.isEnded()) {
+                    return;
+                }
+                run.setRunLog(runLogStore.open(run.getProjectUuid()));
+                RunLifecycle.Handle lifecycle = runLifecycle.register(run.getMember(), run.getProjectId(),
+                        run::getProcessHandle, lifecycleListener(run));
+                run.setLifecycle(lifecycle);
+                if (lifecycle != null) {
+                    lifecycle.viewersChanged(run.getViewers().size());
+                }
+                run.setTelemetry(processTelemetry.track(run.getProjectUuid(), run::getProcessHandle,
+                        sample -> onSample(run, sample)));
+                RunPortAllocator.Lease portLease = runPortAllocator.allocate(run.getProjectId(),
+                        servesPreviewPrefix(run.getType(), run.getProjectDir()));
+                run.setPortLease(portLease);
+                if (portLease != null) {
+                    run.broadcastStatus("🔗 Preview: " + portLease.getBasePath() + "/ (port " + portLease.getPort() + ")\n",
+                            "🔗 Preview: " + portLease.getPreviewUrl() + " (port " + portLease.getPort() + ")\n");
+                }
+                startProcess(run);
+            } finally {
+                run.getLock().unlock();
+            }
+
+            if (run.isWatchRequested()) {
+                watchWorkspace(run);
+            }
+        } catch (Exception e) {
+            log.error("Failed to start project {}: {}", run.getProjectUuid(), e.getMessage(), e);
+            endRun(run);
+            closeViewers(run, "❌ Failed to start project: " + e.getMessage() + "\n", CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    /**
+     * 프로젝트 프로세스 시작 (최초 실행과 감시 모드 재시작 공통, run 잠금 안에서 호출)
+     */
+    private void startProcess(ProjectRun run) throws IOException {
+        ProjectType type = run.getType();
+
+        RunBuildCache.Plan plan = type == ProjectType.SPRING_BOOT
+                ? createCachedBootPlan(run)
+                : null;
+        ProcessBuilder pb = plan != null
+                ? plan.getProcessBuilder()
+                : createProcessBuilder(type, run.getProjectDir(), run.getPortLease());
+
+        run.broadcastStatus("🚀 Starting " + type + " project...\n");
+        log.info("🚀 Starting project {} (type: {})", run.getProjectUuid(), type);
+
+        watchReadiness(run);
+        launch(run, pb, plan);
+    }
+
+    /**
+     * 프로세스를 띄우고 출력 읽기 / 종료 감지 스레드 연결 (run 잠금 안에서 호출)
+     * @param plan Spring Boot 빌드 캐시 실행이면 그 계획 (빌드 단계면 성공 후 앱 실행으로 이어진다)
+     */
+    private void launch(ProjectRun run, ProcessBuilder pb, RunBuildCache.Plan plan) throws IOException {
+        // 환경 변수 설정
+        setupEnvironment(pb, run.getType(), run.getPortLease());
+        linkSharedDependencies(run, pb);
+
+        AppCdsCache.Launch bootLaunch = plan != null ? plan.getLaunch() : null;
+        if (bootLaunch != null && "shared".equals(bootLaunch.getMode())) {
+            run.broadcastStatus("🧊 Using shared class archive\n");
+        }
+
+        // Python 은 패키지를 미리 import 해 둔 인터프리터가 있으면 거기서 바로 실행
+        Process process = run.getType() == ProjectType.PYTHON
+                ? pythonInterpreterPool.start(run.getTemplateType(), pb)
+                : null;
+        if (process != null) {
+            run.broadcastStatus("🐍 Using a warm Python interpreter\n");
+        } else {
+            process = pb.start();
+        }
+        run.setProcess(process);
+        run.setBootLaunch(bootLaunch);
+        if (bootLaunch != null) {
+            appCdsCache.started(bootLaunch, process);
+        }
+
+        // STDOUT + STDERR 통합 읽기 - 구독자가 몇 명이든 읽기 스레드는 하나
+        Thread reader = createOutputReaderThread(run, process);
+        reader.start();
+
+        // 프로세스 종료 감지
+        createProcessWatcherThread(run, process, reader, plan != null && plan.isBuildOnly()).start();
+    }
+
+    /**
+     * 빌드 단계가 성공하면 만들어진 jar 로 앱 실행 (종료 감지 스레드에서 호출)
+     */
+    private void startBuiltApp(ProjectRun run, Process build) {
+        try {
+            run.getLock().lock();
+            try {
+                if (!run.isCurrent(build)) {
+                    return;
+                }
+                run.broadcastStatus("☕ Build finished, starting app...\n");
+                RunBuildCache.Plan plan = runBuildCache.launchBuilt(
+                        run.getProjectUuid(), run.getProjectDir(), run.getTemplateType());
+                launch(run, plan.getProcessBuilder(), plan);
+            } finally {
+                run.getLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("Failed to start built app for project {}: {}", run.getProjectUuid(), e.getMessage(), e);
+            run.broadcastStatus("❌ Failed to start app: " + e.getMessage() + "\n");
+            if (!run.isWatching()) {
+                endRun(run);
+            }
+        }
+    }
+
+    /**
+     * 실행 종료 - 대기 취소, 감시 해제, 프로세스 트리 종료 시작, 실행 기록 닫기 (여러 번 불러도 된다)
+     * 구독자 연결은 그대로 두므로 종료 메시지를 볼 수 있고, 이후 들어오는 연결은 새 실행을 시작한다.
+     * 프로세스가 실제로 끝날 때까지 기다리지 않으며, 실행 슬롯은 트리가 모두 끝난 뒤 반납한다.
+     * @return 프로세스 트리 종료 완료 (프로세스가 없었으면 바로 완료)
+     */
+    private CompletableFuture<ProcessShutdown.Result> endRun(ProjectRun run) {
+        synchronized (runs) {
+            runs.remove(run.getProjectUuid(), run);
+        }
+
+        RunScheduler.Ticket ticket;
+        RunPortAllocator.Lease portLease;
+        CompletableFuture<ProcessShutdown.Result> terminated;
+        run.getLock().lock();
+        try {
+            run.markEnded();
+            ticket = run.getTicket();
+            run.setTicket(null);
+
+            WorkspaceWatcher.Subscription watch = run.getWatch();
+            if (watch != null) {
+                run.setWatch(null);
+                watch.cancel();
+            }
+
+            // 동면 중이면 깨운 뒤 종료 시그널을 보낸다
+            RunLifecycle.Handle lifecycle = run.getLifecycle();
+            if (lifecycle != null) {
+                run.setLifecycle(null);
+                lifecycle.close();
+            }
+
+            Process process = run.getProcess();
+            terminated = process != null
+                    ? processShutdown.terminateTree(process.toHandle())
+                    : CompletableFuture.completedFuture(ProcessShutdown.Result.ALREADY_EXITED);
+
+            RunLogWriter runLog = run.getRunLog();
+            if (runLog != null) {
+                runLog.close();
+            }
+
+            ProcessTelemetry.Subscription telemetry = run.getTelemetry();
+            if (telemetry != null) {
+                run.setTelemetry(null);
+                telemetry.cancel();
+            }
+
+            RunReadiness.Watch readiness = run.getReadiness();
+            if (readiness != null) {
+                run.setReadiness(null);
+                readiness.cancel();
+            }
+
+            portLease = run.getPortLease();
+            run.setPortLease(null);
+        } finally {
+            run.getLock().unlock();
+        }
+
+        if (ticket != null) {
+            terminated.whenComplete((result, e) -> ticket.release());
+        }
+        if (portLease != null) {
+            // 앱이 포트를 놓은 뒤에 다른 실행에 배정되도록
+            terminated.whenComplete((result, e) -> portLease.release());
+        }
+        return terminated;
+    }
+
+    /**
+     * 구독자마다 대기 중인 출력과 마지막 메시지를 보낸 뒤 연결 종료 (구독자의 송신자가 보내고 닫는다)
+     */
+    private void closeViewers(ProjectRun run, String message, CloseStatus status) {
+        for (RunViewer viewer : run.getViewers()) {
+            viewer.closeAfter(message, status);
+        }
+    }
+
+    /**
+     * 이 연결에만 보내는 응답 - 구독 중이면 구독자 대기열을 거친다 (출력을 보내는 송신자와 겹치지 않도록)
+     */
+    private void reply(WebSocketSession session, String message) throws IOException {
+        RunViewer viewer = viewers.get(session.getId());
+        if (viewer != null) {
+            viewer.enqueueStatus(message);
+        } else {
+            session.sendMessage(new TextMessage(message));
+        }
+    }
+
+    /* ============================================================
+        감시 모드 (?watch=true) - 저장하면 소켓은 그대로 두고 앱만 다시 시작
+    ============================================================ */
+    private boolean isWatchRequested(WebSocketSession session) {
+        Object watch = session.getAttributes().get("watch");
+        return "true".equals(watch) || "1".equals(watch);
+    }
+
+    private void watchWorkspace(ProjectRun run) throws IOException {
+        run.getLock().lock();
+        try {
+            if (run.isEnded() || run.isWatching()) {
+                return;
+            }
+            run.setWatch(workspaceWatcher.subscribe(run.getProjectUuid(), run.getProjectDir().toPath(),
+                    changed -> onWorkspaceChanged(run, changed)));
+        } finally {
+            run.getLock().unlock();
+        }
+        run.broadcastStatus("👀 Watch mode on - saving a file restarts the app\n");
+    }
+
+    /**
+     * 변경 이벤트 처리 (감시 스레드에서 호출)
+     * 개발 서버(React / Vue / Angular / Next, Django runserver)는 스스로 다시 읽으므로 변경만 알리고,
+     * 그 외에는 실행 중인 프로세스만 종료 후 다시 시작한다. Spring Boot 는 빌드 캐시를 거치므로 바뀐 소스가 있을 때만 다시 빌드된다.
+     */
+    private void onWorkspaceChanged(ProjectRun run, List<String> changed) {
+        String summary = changed.size() == 1
+                ? changed.get(0)
+                : changed.get(0) + " (+" + (changed.size() - 1) + " more)";
+
+        // 저장도 활동 - 자고 있던 개발 서버가 다시 읽을 수 있게 깨운다
+        RunLifecycle.Handle lifecycle = run.getLifecycle();
+        if (lifecycle != null) {
+            lifecycle.touch();
+        }
+
+        if (reloadsItself(run.getType(), run.getProjectDir())) {
+            run.broadcastStatus("🔄 Changed: " + summary + " (reloaded by dev server)\n");
+            return;
+        }
+
+        try {
+            Process previous;
+            run.getLock().lock();
+            try {
+                // STOP 이나 마지막 구독자 이탈로 감시가 해제된 뒤 도착한 이벤트
+                if (run.isEnded() || !run.isWatching()) {
+                    return;
+                }
+
+                run.broadcastStatus("🔄 Changed: " + summary + " - restarting...\n");
+                log.info("🔄 Restarting project {} after change: {}", run.getProjectUuid(), summary);
+
+                // 먼저 교체해 두면 이전 프로세스의 출력 / 종료 감지 스레드가 조용히 물러난다
+                previous = run.getProcess();
+                run.setProcess(null);
+                RunReadiness.Watch readiness = run.getReadiness();
+                if (readiness != null) {
+                    readiness.cancel();
+                }
+            } finally {
+                run.getLock().unlock();
+            }
+
+            // 이전 앱이 포트를 놓을 때까지 기다린 뒤 시작 (감시 스레드이므로 기다려도 된다, 그동안의 변경은 다음 이벤트로 모인다)
+            if (previous != null) {
+                processShutdown.terminateTree(previous.toHandle()).join();
+            }
+
+            run.getLock().lock();
+            try {
+                if (run.isEnded() || !run.isWatching() || run.getProcess() != null) {
+                    return;
+                }
+                startProcess(run);
+            } finally {
+                run.getLock().unlock();
+            }
+        } catch (Exception e) {
+            log.warn("Restart after change failed for project {}: {}", run.getProjectUuid(), e.getMessage());
+            run.broadcastStatus("❌ Restart failed: " + e.getMessage() + "\n");
+        }
+    }
+
+    private boolean reloadsItself(ProjectType type, File projectDir) {
+        switch (type) {
+            case REACT:
+            case VUE:
+            case ANGULAR:
+            case NEXT_JS:
+                return true;
+            case PYTHON:
+                return new File(projectDir, "manage.py").exists();
+            default:
+                return false;
         }
     }
 
     /**
      * 출력 읽기 스레드 생성
+     * 바이트 단위로 줄을 나누고 색상 코드만 덧붙여 읽은 청크당 한 번 구독자들에게 나눠 준다 (디코딩은 텍스트 구독자만).
+     * 출력이 폭주하면 제한을 넘는 줄은 버리고 버린 양만 알린다 - 읽기는 계속하므로 프로세스가 쓰기에서 막히지 않는다.
      */
-    private Thread createOutputReaderThread(WebSocketSession session, Process process) {
+    private Thread createOutputReaderThread(ProjectRun run, Process process) {
         return new Thread(() -> {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-
-                String line;
-                while ((line = reader.readLine()) != null && session.isOpen() && 
-                       Boolean.TRUE.equals(processHealthMap.get(session.getId()))) {
-                    
-                    // 색상 코드와 함께 출력
-                    String coloredOutput = formatOutput(line);
-                    session.sendMessage(new TextMessage(coloredOutput + "\n"));
+            try (InputStream in = process.getInputStream()) {
+                forwardOutput(run, process, in);
+            } catch (Exception e) {
+                if (run.isCurrent(process)) {
+                    run.broadcastStatus("⚠️ Output stream ended: " + e.getMessage() + "\n");
                 }
+                log.debug("Output reader ended for project {}: {}", run.getProjectUuid(), e.getMessage());
+            }
+        }, "output-reader-" + run.getProjectUuid());
+    }
 
-            } catch (Exception e) {
-                if (session.isOpen()) {
-                    try {
-                        session.sendMessage(new TextMessage("⚠️ Output stream ended: " + e.getMessage() + "\n"));
-                    } catch (Exception ignored) {}
+    /**
+     * 출력 바이트를 줄 단위로 색상을 입혀 프레임으로 모음
+     * 줄 경계(\r, \n)는 ASCII 이므로 멀티바이트 문자가 잘리지 않는다.
+     */
+    private void forwardOutput(ProjectRun run, Process process, InputStream in) throws IOException {
+        OutputThrottle throttle = run.getThrottle();
+        byte[] chunk = new byte[READ_CHUNK_BYTES];
+        ByteBuffer line = ByteBuffer.allocate(MAX_LINE_BYTES);
+        ByteBuffer frame = ByteBuffer.allocate(MAX_LINE_BYTES * 2);
+        boolean skipLineFeed = false;
+
+        int bytesRead;
+        while ((bytesRead = in.read(chunk)) != -1 && run.isCurrent(process)) {
+            for (int i = 0; i < bytesRead; i++) {
+                byte b = chunk[i];
+
+                // \r\n 은 한 줄로 취급 (BufferedReader.readLine 과 동일)
+                if (b == '\n' && skipLineFeed) {
+                    skipLineFeed = false;
+                    continue;
                 }
-                log.debug("Output reader ended for session {}: {}", session.getId(), e.getMessage());
-            } finally {
-                processHealthMap.put(session.getId(), false);
+                skipLineFeed = b == '\r';
+
+                if (b == '\n' || b == '\r') {
+                    appendColoredLine(run, frame, line, throttle);
+                } else {
+                    if (!line.hasRemaining()) {
+                        appendColoredLine(run, frame, line, throttle);
+                    }
+                    line.put(b);
+                }
+            }
+            publishFrame(run, frame);
+        }
+
+        // 개행 없이 끝난 마지막 줄
+        if (line.position() > 0) {
+            appendColoredLine(run, frame, line, throttle);
+        }
+        appendSuppressed(run, frame, throttle.takeSummary(System.nanoTime(), true));
+        publishFrame(run, frame);
+    }
+
+    private void appendColoredLine(ProjectRun run, ByteBuffer frame, ByteBuffer line, OutputThrottle throttle) {
+        // Spring Boot 시작 완료 줄 / 준비 완료 문구 (둘 다 기록할 때까지만 디코딩)
+        AppCdsCache.Launch bootLaunch = run.getBootLaunch();
+        RunReadiness.Watch readiness = run.getReadiness();
+        boolean bootPending = bootLaunch != null && !bootLaunch.isReported();
+        boolean readyPending = readiness != null && !readiness.isDone();
+        if (bootPending || readyPending) {
+            String text = new String(line.array(), 0, line.position(), StandardCharsets.UTF_8);
+            if (bootPending) {
+                appCdsCache.recordIfStarted(bootLaunch, text);
+            }
+            if (readyPending) {
+                readiness.onOutput(text);
             }
-        }, "output-reader-" + session.getId());
+        }
+
+        long now = System.nanoTime();
+        boolean admitted = throttle.tryAcquire(line.position() + 1, now);
+        appendSuppressed(run, frame, throttle.takeSummary(now, false));
+        if (!admitted) {
+            line.clear();
+            return;
+        }
+
+        LogLevelClassifier.Level level = LogLevelClassifier.classify(line.array(), 0, line.position());
+        byte[] color = level != null ? level.getColorBytes() : null;
+        int needed = line.position() + (color != null ? color.length + ANSI_RESET.length : 0) + 1;
+        if (frame.remaining() < needed) {
+            publishFrame(run, frame);
+        }
+
+        if (color != null) {
+            frame.put(color);
+        }
+        frame.put(line.array(), 0, line.position());
+        if (color != null) {
+            frame.put(ANSI_RESET);
+        }
+        frame.put((byte) '\n');
+        line.clear();
+    }
+
+    private void appendSuppressed(ProjectRun run, ByteBuffer frame, String summary) {
+        if (summary == null) {
+            return;
+        }
+
+        byte[] text = summary.getBytes(StandardCharsets.UTF_8);
+        if (frame.remaining() < ANSI_YELLOW.length + text.length + ANSI_RESET.length + 1) {
+            publishFrame(run, frame);
+        }
+        frame.put(ANSI_YELLOW).put(text).put(ANSI_RESET).put((byte) '\n');
+    }
+
+    /**
+     * 모은 줄을 구독자들에게 넘김 - 대기열과 꼬리가 배열을 보관하므로 프레임 버퍼는 복사해서 넘긴다
+     */
+    private void publishFrame(ProjectRun run, ByteBuffer frame) {
+        if (frame.position() == 0) {
+            return;
+        }
+        run.broadcastOutput(Arrays.copyOf(frame.array(), frame.position()));
+        frame.clear();
+
+        RunLifecycle.Handle lifecycle = run.getLifecycle();
+        if (lifecycle != null) {
+            lifecycle.outputSeen();
+        }
     }
 
     /**
      * 프로세스 종료 감지 스레드
+     * 남은 출력을 읽기 스레드가 마저 넘긴 뒤에 종료를 알려야 마지막 줄이 종료 메시지보다 먼저 나가고 실행 기록에도 남는다.
      */
-    private Thread createProcessWatcherThread(WebSocketSession session, Process process, ProjectType type) {
+    private Thread createProcessWatcherThread(ProjectRun run, Process process, Thread reader, boolean buildOnly) {
         return new Thread(() -> {
             try {
                 int exitCode = process.waitFor();
-                processHealthMap.put(session.getId(), false);
-                
-                if (session.isOpen()) {
-                    String message = exitCode == 0 
-                        ? "✅ " + type + " process finished successfully\n"
-                        : "❌ " + type + " process exited with code: " + exitCode + "\n";
-                    session.sendMessage(new TextMessage(message));
+                reader.join(OUTPUT_DRAIN_MILLIS);
+                if (!run.isCurrent(process)) {
+                    // 재시작 / STOP 으로 교체됨 - 종료 알림 없음
+                    log.debug("Replaced process ended for project {} with exit code: {}", run.getProjectUuid(), exitCode);
+                    return;
                 }
-                log.info("Process ended for session {} with exit code: {}", session.getId(), exitCode);
-                
+
+                if (buildOnly && exitCode == 0) {
+                    startBuiltApp(run, process);
+                    return;
+                }
+
+                RunReadiness.Watch readiness = run.getReadiness();
+                if (readiness != null) {
+                    readiness.cancel();
+                }
+
+                ProjectType type = run.getType();
+                if (buildOnly) {
+                    run.broadcastStatus("❌ Build failed with code: " + exitCode + "\n");
+                } else {
+                    run.broadcastStatus(exitCode == 0
+                            ? "✅ " + type + " process finished successfully\n"
+                            : "❌ " + type + " process exited with code: " + exitCode + "\n");
+                }
+
+                // 감시 모드는 다음 저장에 바로 다시 시작하므로 실행(슬롯)을 유지
+                if (run.isWatching()) {
+                    run.broadcastStatus("👀 Waiting for changes to restart...\n");
+                } else {
+                    endRun(run);
+                }
+                log.info("Process ended for project {} with exit code: {}", run.getProjectUuid(), exitCode);
+
             } catch (InterruptedException e) {
-                log.debug("Process watcher interrupted for session {}", session.getId());
+                log.debug("Process watcher interrupted for project {}", run.getProjectUuid());
             } catch (Exception e) {
-                log.error("Process watcher error for session {}: {}", session.getId(), e.getMessage());
+                log.error("Process watcher error for project {}: {}", run.getProjectUuid(), e.getMessage());
             }
-        }, "process-watcher-" + session.getId());
+        }, "process-watcher-" + run.getProjectUuid());
+    }
+
+    /**
+     * 소스가 마지막 빌드 이후 그대로면 보관된 jar 를 바로 실행, 아니면 jar 빌드부터 (성공하면 startBuiltApp)
+     * @return 빌드 캐시를 쓸 수 없으면 null
+     */
+    private RunBuildCache.Plan createCachedBootPlan(ProjectRun run) {
+        RunBuildCache.Plan plan = runBuildCache.springBoot(run.getProjectUuid(), run.getProjectDir(), run.getTemplateType());
+        if (plan == null) {
+            return null;
+        }
+
+        if (plan.isHit()) {
+            run.broadcastStatus(String.format(
+                    "⚡ No changes since last build, starting cached app (saved ~%.1fs)\n", plan.getSavedMillis() / 1000.0));
+        }
+        return plan;
+    }
+
+    /**
+     * 공용 의존성 저장소 연결 (node_modules 하드링크, 빌드 도구 캐시 위치, 공용 Gradle 데몬)
+     */
+    private void linkSharedDependencies(ProjectRun run, ProcessBuilder pb) {
+        ProjectType type = run.getType();
+        switch (type) {
+            case NODE_JS:
+            case REACT:
+            case VUE:
+            case ANGULAR:
+            case NEXT_JS:
+                if (dependencyStore.linkNodeModules(run.getProjectDir(), type.name())) {
+                    run.broadcastStatus("📦 Using shared dependencies\n");
+                }
+                break;
+            case SPRING_BOOT:
+                dependencyStore.applyBuildCaches(pb);
+                if (gradleDaemonPool.apply(pb, run.getProjectDir())) {
+                    run.broadcastStatus("🐘 Reusing a warm Gradle daemon\n");
+                }
+                break;
+            default:
+                break;
+        }
     }
 
     /**
      * 환경 변수 설정
      */
-    private void setupEnvironment(ProcessBuilder pb, ProjectType type) {
+    private void setupEnvironment(ProcessBuilder pb, ProjectType type, RunPortAllocator.Lease portLease) {
         Map<String, String> env = pb.environment();
         
         // 공통 환경 변수
         env.put("FORCE_COLOR", "1");
         env.put("NODE_ENV", "development");
+
+        // 배정된 포트 (Node / Flask 등은 PORT 를 읽고, 명령줄로 받는 개발 서버는 createProcessBuilder 에서 넘긴다)
+        if (portLease != null) {
+            env.put("PORT", String.valueOf(portLease.getPort()));
+            env.put("HACKPLAY_BASE_PATH", portLease.getBasePath());
+        }
         
         // 타입별 환경 변수
         switch (type) {
@@ -180,128 +844,199 @@ public class RunWebSocketHandler extends TextWebSocketHandler {
                 break;
             case SPRING_BOOT:
                 env.put("SPRING_PROFILES_ACTIVE", "dev");
+                if (portLease != null) {
+                    env.put("SERVER_PORT", String.valueOf(portLease.getPort()));
+                    env.put("SERVER_SERVLET_CONTEXT_PATH", portLease.getBasePath());
+                }
                 break;
             case PYTHON:
                 env.put("PYTHONUNBUFFERED", "1");
                 env.put("PYTHONIOENCODING", "UTF-8");
+                if (portLease != null) {
+                    // python app.py 로 띄운 앱은 PORT 를 읽어 app.run(port=...) 에 넘겨야 배정 포트로 뜬다 (flask run 은 이 값도 읽음)
+                    env.put("FLASK_RUN_PORT", String.valueOf(portLease.getPort()));
+                }
                 break;
         }
     }
 
+    /* ============================================================
+        자원 사용량 (?stats=true) - 측정 주기마다 {"type":"stats",...} 텍스트 프레임
+    ============================================================ */
+    private boolean isStatsRequested(WebSocketSession session) {
+        Object stats = session.getAttributes().get("stats");
+        return "true".equals(stats) || "1".equals(stats);
+    }
+
+    /** 측정 주기마다 (수집 스레드) - 구독자에게 자원 사용량 프레임, 수명 관리에 CPU 사용량 */
+    private void onSample(ProjectRun run, ProcessTelemetry.Sample sample) {
+        run.broadcastStats(statsFrame(sample));
+        RunLifecycle.Handle lifecycle = run.getLifecycle();
+        if (lifecycle != null) {
+            lifecycle.sampled(sample.getCpuMillis(), sample.getRssBytes());
+        }
+    }
+
+    private String statsFrame(ProcessTelemetry.Sample sample) {
+        return String.format(Locale.ROOT,
+                "{\"type\":\"stats\",\"cpu\":%.1f,\"rssBytes\":%d,\"threads\":%d,\"processes\":%d,\"readBytes\":%d,\"writeBytes\":%d}",
+                sample.getCpuPercent(), sample.getRssBytes(), sample.getThreads(), sample.getProcesses(),
+                sample.getReadBytes(), sample.getWriteBytes());
+    }
+
+    /* ============================================================
+        준비 완료 감지 - 출력 문구나 포트 LISTEN 중 먼저 온 신호로 한 번 알림 ({"type":"ready",...} 텍스트 프레임)
+    ============================================================ */
+
     /**
-     * 출력 포매팅 (로그 레벨별 색상 적용)
+     * 새 프로세스의 준비 감시 시작 (이전 프로세스 감시는 취소, run 잠금 안에서 호출)
      */
-    private String formatOutput(String line) {
-        String lowerLine = line.toLowerCase();
-        
-        if (lowerLine.contains("error") || lowerLine.contains("exception") || lowerLine.contains("failed")) {
-            return "\u001b[31m" + line + "\u001b[0m"; // 빨강
-        } else if (lowerLine.contains("warn") || lowerLine.contains("warning")) {
-            return "\u001b[33m" + line + "\u001b[0m"; // 노랑
-        } else if (lowerLine.contains("info") || lowerLine.contains("started") || lowerLine.contains("ready")) {
-            return "\u001b[32m" + line + "\u001b[0m"; // 초록
-        } else if (lowerLine.contains("debug")) {
-            return "\u001b[36m" + line + "\u001b[0m"; // 시안
+    private void watchReadiness(ProjectRun run) {
+        RunReadiness.Watch previous = run.getReadiness();
+        if (previous != null) {
+            previous.cancel();
         }
-        
-        return line; // 기본색
+        run.setReadyFrame(null, null);
+
+        RunPortAllocator.Lease portLease = run.getPortLease();
+        run.setReadiness(runReadiness.watch(run.getType().name(), run.getTemplateType(),
+                portLease != null ? portLease.getPort() : 0,
+                ready -> onReady(run, ready)));
+    }
+
+    /**
+     * 준비 완료 알림 (출력 읽기 스레드나 포트 확인 스레드에서 호출)
+     * 교체된 감시는 cancel 로 이미 끝났으므로 다시 알리지 않는다.
+     */
+    private void onReady(ProjectRun run, RunReadiness.Ready ready) {
+        if (run.isEnded()) {
+            return;
+        }
+        RunPortAllocator.Lease portLease = run.getPortLease();
+        // 미리보기 토큰은 프로젝트 주인에게만 (나머지 구독자는 경로만)
+        String url = portLease != null ? portLease.getBasePath() + "/" : null;
+        String ownerUrl = portLease != null ? portLease.getPreviewUrl() : null;
+
+        String frame = readyFrame(ready, url);
+        String ownerFrame = readyFrame(ready, ownerUrl);
+        run.setReadyFrame(frame, ownerFrame);
+        run.broadcastStatus(readyStatus(ready, url), readyStatus(ready, ownerUrl));
+        run.broadcastEvent(frame, ownerFrame);
+    }
+
+    private static String readyFrame(RunReadiness.Ready ready, String url) {
+        return String.format(Locale.ROOT, "{\"type\":\"ready\",\"millis\":%d,\"source\":\"%s\",\"url\":%s}",
+                ready.getMillis(), ready.getSource(), url != null ? "\"" + url + "\"" : "null");
+    }
+
+    private static String readyStatus(RunReadiness.Ready ready, String url) {
+        return String.format(Locale.ROOT, "✅ App ready in %.1fs%s\n",
+                ready.getMillis() / 1000.0, url != null ? " - " + url : "");
+    }
+
+    /* ============================================================
+        수명 관리 - 방치된 실행 동면 / 종료, 일일 CPU 시간 초과 시 종료
+    ============================================================ */
+    private RunLifecycle.Listener lifecycleListener(ProjectRun run) {
+        return new RunLifecycle.Listener() {
+            @Override
+            public void onSuspended(long idleMinutes) {
+                run.broadcastStatus("💤 Suspended after " + idleMinutes + " minutes idle - open the preview or save a file to resume\n");
+            }
+
+            @Override
+            public void onResumed() {
+                run.broadcastStatus("⏰ Resumed\n");
+            }
+
+            @Override
+            public void onStop(String message) {
+                run.broadcastStatus(message);
+                endRun(run);
+            }
+        };
     }
 
     /* ============================================================
-        STOP 메시지 처리
+        STOP 메시지 처리 (구독자 누구나 - 실행 전체를 멈춘다)
     ============================================================ */
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         String payload = message.getPayload().trim();
 
         if (!"STOP".equals(payload)) {
-            session.sendMessage(new TextMessage("⚠️ Unknown command: " + payload + "\n"));
+            reply(session, "⚠️ Unknown command: " + payload + "\n");
             return;
         }
 
         log.warn("🛑 STOP requested for session {}", session.getId());
 
-        Process process = runProcesses.get(session.getId());
-        if (process == null || !process.isAlive()) {
-            session.sendMessage(new TextMessage("⚠️ No active process to stop\n"));
+        ProjectRun run = sessionRuns.get(session.getId());
+        if (run == null || run.isEnded()) {
+            reply(session, "⚠️ No active process to stop\n");
             return;
         }
 
-        try {
-            processHealthMap.put(session.getId(), false);
-            killProcessTree(process);
-            session.sendMessage(new TextMessage("🛑 Process stopped successfully\n"));
-            log.info("Process stopped for session {}", session.getId());
-        } catch (Exception e) {
-            session.sendMessage(new TextMessage("❌ Failed to stop process: " + e.getMessage() + "\n"));
-            log.error("Failed to stop process for session {}: {}", session.getId(), e.getMessage());
-        }
-    }
+        Process process = run.getProcess();
+        boolean alive = process != null && process.isAlive();
+        boolean watching = run.isWatching();
 
-    /* ============================================================
-        프로세스 트리 종료 (리눅스 최적화)
-    ============================================================ */
-    private void killProcessTree(Process process) {
         try {
-            long pid = process.pid();
-            
-            // 1. 자식 프로세스들 SIGTERM으로 우아하게 종료
-            ProcessBuilder childTerminator = new ProcessBuilder("pkill", "-TERM", "-P", String.valueOf(pid));
-            Process termProcess = childTerminator.start();
-            termProcess.waitFor(3, TimeUnit.SECONDS);
-
-            // 2. 부모 프로세스 SIGTERM
-            ProcessBuilder parentTerminator = new ProcessBuilder("kill", "-TERM", String.valueOf(pid));
-            Process termParent = parentTerminator.start();
-            termParent.waitFor(2, TimeUnit.SECONDS);
-
-            // 3. 아직 살아있으면 SIGKILL로 강제 종료
-            if (process.isAlive()) {
-                Thread.sleep(1000); // 1초 대기
-                if (process.isAlive()) {
-                    ProcessBuilder childKiller = new ProcessBuilder("pkill", "-KILL", "-P", String.valueOf(pid));
-                    childKiller.start().waitFor(2, TimeUnit.SECONDS);
-                    
-                    ProcessBuilder parentKiller = new ProcessBuilder("kill", "-KILL", String.valueOf(pid));
-                    parentKiller.start().waitFor(2, TimeUnit.SECONDS);
-                    
-                    process.destroyForcibly();
-                }
+            // 대기 중이면 대기 취소, 감시 모드면 감시도 해제 (명시적으로 멈췄으므로 저장해도 다시 시작하지 않는다)
+            // 종료는 기다리지 않고, 트리가 다 끝나면 결과를 알린다
+            CompletableFuture<ProcessShutdown.Result> terminated = endRun(run);
+            if (watching) {
+                run.broadcastStatus("👀 Watch mode off\n");
             }
-
+            if (!alive) {
+                reply(session, "⚠️ No active process to stop\n");
+                return;
+            }
+            run.broadcastStatus("🛑 Stopping...\n");
+            terminated.thenAccept(result -> {
+                run.broadcastStatus(result == ProcessShutdown.Result.FORCED
+                        ? "🛑 Process killed (did not exit in time)\n"
+                        : "🛑 Process stopped successfully\n");
+                log.info("Process of project {} stopped by session {} ({})", run.getProjectUuid(), session.getId(), result);
+            });
         } catch (Exception e) {
-            log.error("Kill process tree error: {}", e.getMessage());
-            // 최후 수단
-            process.destroyForcibly();
+            reply(session, "❌ Failed to stop process: " + e.getMessage() + "\n");
+            log.error("Failed to stop process for session {}: {}", session.getId(), e.getMessage());
         }
     }
 
     /* ============================================================
-        연결 종료 시 정리
+        연결 종료 시 정리 - 마지막 구독자면 실행도 끝낸다
     ============================================================ */
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         String sessionId = session.getId();
-        
-        processHealthMap.put(sessionId, false);
-        
-        Process process = runProcesses.remove(sessionId);
-        if (process != null && process.isAlive()) {
-            killProcessTree(process);
-        }
 
-        // 스레드 정리
-        Thread outputThread = readerThreads.remove(sessionId);
-        Thread watcherThread = readerThreads.remove(sessionId + "-watcher");
-        
-        if (outputThread != null && outputThread.isAlive()) {
-            outputThread.interrupt();
+        RunViewer viewer = viewers.remove(sessionId);
+        ProjectRun run = sessionRuns.remove(sessionId);
+        if (viewer == null || run == null) {
+            return;
         }
-        if (watcherThread != null && watcherThread.isAlive()) {
-            watcherThread.interrupt();
+        viewer.close();
+
+        int remaining;
+        boolean end;
+        synchronized (runs) {
+            remaining = run.leave(viewer);
+            // 수명 관리 중인 실행은 남겨 둔다 (다시 들어오면 같은 실행에 붙고, 아무도 오지 않으면 수명 관리가 멈춘다)
+            end = remaining == 0 && run.getLifecycle() == null;
+            if (end) {
+                runs.remove(run.getProjectUuid(), run);
+            }
         }
 
-        processHealthMap.remove(sessionId);
+        RunLifecycle.Handle lifecycle = run.getLifecycle();
+        if (lifecycle != null) {
+            lifecycle.viewersChanged(remaining);
+        }
+        if (end) {
+            endRun(run);
+        }
         
         log.info("❌ Run session closed: {} ({})", sessionId, status);
     }
@@ -371,11 +1106,13 @@ public class RunWebSocketHandler extends TextWebSocketHandler {
     /* ============================================================
         타입별 실행 설정 (리눅스 전용)
     ============================================================ */
-    private ProcessBuilder createProcessBuilder(ProjectType type, File dir) {
+    private ProcessBuilder createProcessBuilder(ProjectType type, File dir, RunPortAllocator.Lease portLease) {
+        int port = portLease != null ? portLease.getPort() : 0;
         switch (type) {
             case SPRING_BOOT:
                 if (new File(dir, "gradlew").exists()) {
-                    return new ProcessBuilder("bash", "-c", "./gradlew bootRun")
+                    // 공용 데몬에서 돌리면 앱이 데몬의 자식이 되어 실행 트리(종료 / CPU 한도 / 측정) 밖으로 나가므로 데몬 없이
+                    return new ProcessBuilder("bash", "-c", "./gradlew bootRun --no-daemon")
                             .directory(dir)
                             .redirectErrorStream(true);
                 } else {
@@ -385,18 +1122,43 @@ public class RunWebSocketHandler extends TextWebSocketHandler {
                 }
 
             case REACT:
+                // Vite - 프록시 경로 아래에서 응답하도록 base 지정 (HMR 소켓도 같은 경로로 붙는다)
+                return new ProcessBuilder("bash", "-c", port > 0
+                        ? "npm run dev -- --host 127.0.0.1 --port " + port + " --strictPort --base " + portLease.getBasePath() + "/"
+                        : "npm run dev")
+                        .directory(dir)
+                        .redirectErrorStream(true);
+
             case NEXT_JS:
-                return new ProcessBuilder("bash", "-c", "npm run dev")
+                // basePath 는 next.config 에서만 정할 수 있다 - 설정이 HACKPLAY_BASE_PATH 를 읽으면 접두어 아래에서 응답
+                return new ProcessBuilder("bash", "-c", port > 0
+                        ? "npm run dev -- --hostname 127.0.0.1 --port " + port
+                        : "npm run dev")
                         .directory(dir)
                         .redirectErrorStream(true);
 
             case VUE:
-                return new ProcessBuilder("bash", "-c", "npm run serve")
+                if (isViteProject(dir)) {
+                    // create-vue(Vite) 템플릿 - React 와 같이 --base
+                    return new ProcessBuilder("bash", "-c", port > 0
+                            ? "npm run dev -- --host 127.0.0.1 --port " + port + " --strictPort --base " + portLease.getBasePath() + "/"
+                            : "npm run dev")
+                            .directory(dir)
+                            .redirectErrorStream(true);
+                }
+                // Vue CLI - publicPath 는 vue.config.js 에서만 정할 수 있다 (HACKPLAY_BASE_PATH 를 읽으면 접두어 아래에서 응답)
+                return new ProcessBuilder("bash", "-c", port > 0
+                        ? "npm run serve -- --host 127.0.0.1 --port " + port
+                        : "npm run serve")
                         .directory(dir)
                         .redirectErrorStream(true);
 
             case ANGULAR:
-                return new ProcessBuilder("bash", "-c", "ng serve")
+                // 현재 ng serve 에는 --base-href 가 없다 - --serve-path 로 접두어 아래에서 응답하고
+                // index.html 의 <base href="/"> 는 미리보기 프록시가 접두어로 고친다
+                return new ProcessBuilder("bash", "-c", port > 0
+                        ? "ng serve --host 127.0.0.1 --port " + port + " --serve-path " + portLease.getBasePath() + "/"
+                        : "ng serve")
                         .directory(dir)
                         .redirectErrorStream(true);
 
@@ -408,12 +1170,17 @@ public class RunWebSocketHandler extends TextWebSocketHandler {
             case PYTHON:
                 if (new File(dir, "manage.py").exists()) {
                     // Django
-                    return new ProcessBuilder("bash", "-c", "python manage.py runserver")
+                    return new ProcessBuilder("bash", "-c", port > 0
+                            ? "python manage.py runserver 127.0.0.1:" + port
+                            : "python manage.py runserver")
                             .directory(dir)
                             .redirectErrorStream(true);
                 } else if (new File(dir, "app.py").exists()) {
-                    // Flask
-                    return new ProcessBuilder("bash", "-c", "python app.py")
+                    // Flask - app.run() 은 FLASK_RUN_PORT 를 읽지 않으므로 __main__ 블록이 없는 Flask 앱만 flask CLI 로 띄워 포트를 넘긴다
+                    // (블록이 있으면 그 안의 초기화 코드가 돌도록 python app.py - 스크립트가 PORT 를 읽어야 배정 포트로 뜬다)
+                    return new ProcessBuilder("bash", "-c", port > 0 && usesFlaskCli(new File(dir, "app.py"))
+                            ? "flask --app app run --host 127.0.0.1 --port " + port
+                            : "python app.py")
                             .directory(dir)
                             .redirectErrorStream(true);
                 } else {
@@ -427,4 +1194,57 @@ public class RunWebSocketHandler extends TextWebSocketHandler {
                 return null;
         }
     }
+
+    /**
+     * app.py 를 flask CLI 로 띄울지 - Flask 를 import 하고 python app.py 로만 도는 __main__ 블록이 없을 때
+     */
+    static boolean usesFlaskCli(File appPy) {
+        try {
+            String source = Files.readString(appPy.toPath());
+            return FLASK_IMPORT.matcher(source).find() && !MAIN_BLOCK.matcher(source).find();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 개발 서버를 /preview/{projectId} 아래에서 응답하도록 띄울 수 있는지 (아니면 프록시가 접두어를 떼고 넘긴다)
+     * Spring Boot 는 context path, Vite(React / Vue 템플릿)는 --base, Angular 는 --serve-path 로 지정한다.
+     * Next.js / Vue CLI 는 설정 파일에서만 정할 수 있으므로 설정이 HACKPLAY_BASE_PATH 를 읽는 프로젝트만 접두어 아래에서 응답한다.
+     */
+    private boolean servesPreviewPrefix(ProjectType type, File dir) {
+        switch (type) {
+            case SPRING_BOOT:
+            case REACT:
+            case ANGULAR:
+                return true;
+            case VUE:
+                return isViteProject(dir) || fileContains(dir, "HACKPLAY_BASE_PATH", "vue.config.js", "vue.config.cjs", "vue.config.mjs");
+            case NEXT_JS:
+                return fileContains(dir, "HACKPLAY_BASE_PATH", "next.config.js", "next.config.mjs", "next.config.cjs", "next.config.ts");
+            default:
+                return false;
+        }
+    }
+
+    private boolean isViteProject(File dir) {
+        return fileContains(dir, "\"vite\"", "package.json");
+    }
+
+    /**
+     * 프로젝트 루트의 설정 파일 중 하나라도 text 를 포함하는지
+     */
+    private boolean fileContains(File dir, String text, String... names) {
+        for (String name : names) {
+            File file = new File(dir, name);
+            try {
+                if (file.isFile() && Files.readString(file.toPath()).contains(text)) {
+                    return true;
+                }
+            } catch (IOException e) {
+                log.debug("Failed to read {}: {}", file, e.getMessage());
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
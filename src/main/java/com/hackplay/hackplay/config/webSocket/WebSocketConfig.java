@@ -1,13 +1,16 @@
 package com.hackplay.hackplay.config.webSocket;
 
+import com.hackplay.hackplay.config.jwt.TokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.*;
 import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
 import java.util.Map;
 
@@ -19,28 +22,56 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
     private final LinuxTerminalWebSocketHandler linuxTerminalHandler;
     private final RunWebSocketHandler runHandler;
+    private final TokenProvider tokenProvider;
+
+    // 핸드셰이크에서 확인한 회원 uuid 를 담는 세션 속성 (/ws/** 는 JWT 필터를 거치지 않아 Principal 이 없다)
+    static final String MEMBER_ATTRIBUTE = "memberUuid";
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
 
+        /* 바이너리 출력 서브프로토콜 협상 (요청하지 않은 클라이언트는 텍스트) */
+        DefaultHandshakeHandler handshakeHandler = new DefaultHandshakeHandler();
+        handshakeHandler.setSupportedProtocols(WebSocketProtocols.BINARY_V1);
+
         /* 리눅스 네이티브 터미널 (pty4j 없이) */
         registry.addHandler(linuxTerminalHandler, "/ws/terminal")
-                .addInterceptors(new TerminalHandshakeInterceptor())
+                .setHandshakeHandler(handshakeHandler)
+                .addInterceptors(new TerminalHandshakeInterceptor(tokenProvider))
                 .setAllowedOrigins("*")
                 .withSockJS(); // SockJS fallback 지원
 
         /* 프로젝트 실행 로그 터미널 */
         registry.addHandler(runHandler, "/ws/run")
-                .addInterceptors(new ProjectHandshakeInterceptor())
+                .setHandshakeHandler(handshakeHandler)
+                .addInterceptors(new ProjectHandshakeInterceptor(tokenProvider))
                 .setAllowedOrigins("*")
                 .withSockJS(); // SockJS fallback 지원
     }
 
+    private static String queryParam(String query, String paramName) {
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(paramName + "=")) {
+                String value = pair.substring(paramName.length() + 1);
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
     /**
      * 터미널 연결용 HandshakeInterceptor
+     * token 쿼리 파라미터(액세스 토큰)가 있으면 검증해 회원 uuid 를 세션에 남긴다 - 셸 재접속은 같은 회원만 가능하다.
+     * 브라우저 WebSocket API 는 Authorization 헤더를 보낼 수 없어 쿼리 파라미터로 받는다.
      */
     private static class TerminalHandshakeInterceptor implements HandshakeInterceptor {
-        
+
+        private final TokenProvider tokenProvider;
+
+        TerminalHandshakeInterceptor(TokenProvider tokenProvider) {
+            this.tokenProvider = tokenProvider;
+        }
+
         @Override
         public boolean beforeHandshake(
                 ServerHttpRequest request,
@@ -49,14 +80,28 @@ public class WebSocketConfig implements WebSocketConfigurer {
                 Map<String, Object> attributes) throws Exception {
 
             String query = request.getURI().getQuery();
-            log.info("🔍 Terminal WebSocket handshake - URI: {}, Query: {}", 
-                    request.getURI(), query);
+            log.info("🔍 Terminal WebSocket handshake - URI: {}", request.getURI().getPath());
+
+            // 토큰을 보냈는데 유효하지 않으면 거부 (토큰 없이 연결하면 재접속할 수 없는 익명 셸)
+            String token = query != null ? queryParam(query, "token") : null;
+            if (token != null) {
+                if (!tokenProvider.validateToken(token, false)) {
+                    log.warn("⚠️ Terminal handshake rejected: invalid token");
+                    response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                    return false;
+                }
+                attributes.put(MEMBER_ATTRIBUTE, tokenProvider.getClaims(token).getSubject());
+            }
 
             // 터미널 크기 정보 추출 (선택사항)
             if (query != null) {
                 extractQueryParam(query, "cols", attributes);
                 extractQueryParam(query, "rows", attributes);
                 extractQueryParam(query, "workDir", attributes);
+                extractQueryParam(query, "projectId", attributes);
+                // 재접속용 세션 키와 마지막으로 받은 출력 offset
+                extractQueryParam(query, "session", attributes);
+                extractQueryParam(query, "offset", attributes);
             }
 
             // 기본값 설정
@@ -95,9 +140,17 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
     /**
      * 프로젝트 실행용 HandshakeInterceptor
+     * 실행은 회원의 CPU 시간을 쓰고 미리보기 주소를 알려 주므로 token 쿼리 파라미터(액세스 토큰)가 반드시 있어야 한다.
+     * 프로젝트 주인인지는 연결 후 RunWebSocketHandler 가 확인한다.
      */
     private static class ProjectHandshakeInterceptor implements HandshakeInterceptor {
-        
+
+        private final TokenProvider tokenProvider;
+
+        ProjectHandshakeInterceptor(TokenProvider tokenProvider) {
+            this.tokenProvider = tokenProvider;
+        }
+
         @Override
         public boolean beforeHandshake(
                 ServerHttpRequest request,
@@ -106,13 +159,30 @@ public class WebSocketConfig implements WebSocketConfigurer {
                 Map<String, Object> attributes) throws Exception {
 
             String query = request.getURI().getQuery();
-            log.info("🔍 Project WebSocket handshake - URI: {}, Query: {}", 
-                    request.getURI(), query);
+            log.info("🔍 Project WebSocket handshake - URI: {}", request.getURI().getPath());
 
-            if (query != null && query.contains("projectId=")) {
+            String token = query != null ? queryParam(query, "token") : null;
+            if (token == null || !tokenProvider.validateToken(token, false)) {
+                log.warn("⚠️ Project handshake rejected: missing or invalid token");
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return false;
+            }
+            attributes.put(MEMBER_ATTRIBUTE, tokenProvider.getClaims(token).getSubject());
+
+            if (query.contains("projectId=")) {
                 String projectId = query.split("projectId=")[1].split("&")[0];
                 attributes.put("projectId", projectId);
                 log.info("✅ projectId extracted: {}", projectId);
+
+                // 감시 모드 (저장 시 앱 재시작)
+                if (query.contains("watch=")) {
+                    attributes.put("watch", query.split("watch=")[1].split("&")[0]);
+                }
+
+                // 자원 사용량 프레임 구독
+                if (query.contains("stats=")) {
+                    attributes.put("stats", query.split("stats=")[1].split("&")[0]);
+                }
                 return true;
             } else {
                 log.warn("⚠️ projectId not found in query string");
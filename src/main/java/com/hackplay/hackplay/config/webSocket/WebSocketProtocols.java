@@ -0,0 +1,24 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+/**
+ * WebSocket 서브프로토콜 정의
+ * 클라이언트가 BINARY_V1 을 요청하면 프로세스 출력을 디코딩 없이 BinaryMessage로 전달한다.
+ * 서브프로토콜을 요청하지 않은 기존 텍스트 클라이언트는 그대로 TextMessage를 받는다.
+ */
+public final class WebSocketProtocols {
+
+    public static final String BINARY_V1 = "hackplay.binary.v1";
+
+    private WebSocketProtocols() {
+    }
+
+    /**
+     * 바이너리 프레임으로 응답해도 되는 세션인지 확인 (SockJS 세션은 텍스트만 지원)
+     */
+    public static boolean isBinary(WebSocketSession session) {
+        return BINARY_V1.equals(session.getAcceptedProtocol()) && !(session instanceof SockJsSession);
+    }
+}
@@ -0,0 +1,177 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 터미널 입력 대기열
+ * WebSocket 스레드는 키 입력을 여기에 넣기만 하고, 실제 쓰기는 TerminalIoEngine 이 맡는다.
+ * 쌓인 키 입력은 꺼낼 때 한 번의 쓰기로 합쳐진다.
+ * 대기열이 가득 차면 입력을 거절하고 (클라이언트에 일시 정지를 알림), 절반 아래로 비면 다시 받는다.
+ * 인터럽트 문자(Ctrl+C, Ctrl+\, Ctrl+Z)는 용량과 관계없이 받아 맨 앞에서 보내고,
+ * tty 의 ISIG 처리처럼 아직 보내지 않은 입력은 버린다.
+ */
+public class TerminalInputQueue {
+
+    private final int maxQueuedBytes;
+
+    private final ArrayDeque<byte[]> priority = new ArrayDeque<>();
+    private final ArrayDeque<byte[]> normal = new ArrayDeque<>();
+    // normal 의 첫 항목 중 이미 꺼내간 바이트 수
+    private int headOffset;
+    private int queuedBytes;
+
+    // 인터럽트로 대기열을 비운 횟수 - 그 전에 꺼낸 입력은 되돌려 넣지 않는다
+    private long generation;
+    private long polledGeneration;
+
+    private boolean blocked;
+    private boolean eofRequested;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public TerminalInputQueue(int maxQueuedBytes) {
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    /**
+     * 단독으로 들어온 인터럽트 문자인지 여부
+     */
+    public static boolean isInterrupt(byte[] input) {
+        return input.length == 1 && (input[0] == 0x03 || input[0] == 0x1c || input[0] == 0x1a);
+    }
+
+    /**
+     * 일반 입력 추가
+     * @return 대기열이 가득 차 거절했으면 false (비어 있으면 크기와 관계없이 받는다)
+     */
+    public synchronized boolean offer(byte[] input) {
+        if (blocked || (queuedBytes > 0 && queuedBytes + input.length > maxQueuedBytes)) {
+            blocked = true;
+            return false;
+        }
+        normal.add(input);
+        queuedBytes += input.length;
+        return true;
+    }
+
+    /**
+     * 인터럽트 문자 추가 - 보내지 않은 일반 입력은 버린다
+     */
+    public synchronized void interrupt(byte[] input) {
+        normal.clear();
+        headOffset = 0;
+        queuedBytes = input.length + priorityBytes();
+        generation++;
+        priority.add(input);
+    }
+
+    /**
+     * 쌓인 입력이 모두 전달된 뒤 입력 스트림을 닫도록 예약 (파이프 방식의 Ctrl+D)
+     */
+    public synchronized void requestEof() {
+        eofRequested = true;
+    }
+
+    /**
+     * 보낼 입력을 buffer 에 합쳐 꺼낸다 (인터럽트 문자 먼저)
+     * @return 꺼낸 바이트 수 (없으면 0)
+     */
+    public synchronized int poll(byte[] buffer) {
+        int length = 0;
+
+        while (!priority.isEmpty() && priority.peek().length <= buffer.length - length) {
+            byte[] input = priority.poll();
+            System.arraycopy(input, 0, buffer, length, input.length);
+            length += input.length;
+        }
+
+        while (!normal.isEmpty() && length < buffer.length) {
+            byte[] input = normal.peek();
+            int chunk = Math.min(input.length - headOffset, buffer.length - length);
+            System.arraycopy(input, headOffset, buffer, length, chunk);
+            length += chunk;
+            headOffset += chunk;
+            if (headOffset == input.length) {
+                normal.poll();
+                headOffset = 0;
+            }
+        }
+
+        queuedBytes -= length;
+        polledGeneration = generation;
+        return length;
+    }
+
+    /**
+     * 쓰지 못한 나머지를 대기열 맨 앞으로 되돌린다
+     * 그사이 인터럽트가 들어왔으면 버려진 입력이므로 되돌리지 않는다.
+     */
+    public synchronized void requeue(byte[] buffer, int offset, int length) {
+        if (length <= 0 || polledGeneration != generation) {
+            return;
+        }
+        if (headOffset > 0) {
+            byte[] head = normal.poll();
+            normal.addFirst(Arrays.copyOfRange(head, headOffset, head.length));
+            headOffset = 0;
+        }
+        normal.addFirst(Arrays.copyOfRange(buffer, offset, offset + length));
+        queuedBytes += length;
+    }
+
+    public synchronized boolean hasPending() {
+        return queuedBytes > 0;
+    }
+
+    /**
+     * 입력을 모두 보냈고 입력 종료가 예약되어 있으면 true (한 번만)
+     */
+    public synchronized boolean takeEof() {
+        if (!eofRequested || queuedBytes > 0) {
+            return false;
+        }
+        eofRequested = false;
+        return true;
+    }
+
+    /**
+     * 거절 상태였다가 대기열이 절반 아래로 비었으면 true (한 번만) - 클라이언트에 입력 재개를 알린다
+     */
+    public synchronized boolean takeUnblocked() {
+        if (!blocked || queuedBytes > maxQueuedBytes / 2) {
+            return false;
+        }
+        blocked = false;
+        return true;
+    }
+
+    /**
+     * 쓰기 실패 시 남은 입력 폐기
+     */
+    public synchronized void clear() {
+        priority.clear();
+        normal.clear();
+        headOffset = 0;
+        queuedBytes = 0;
+        generation++;
+    }
+
+    private int priorityBytes() {
+        int bytes = 0;
+        for (byte[] input : priority) {
+            bytes += input.length;
+        }
+        return bytes;
+    }
+
+    // 파이프 방식은 블로킹 쓰기를 하므로 세션당 하나의 쓰기 작업만 돌린다
+    public boolean tryBeginDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    public void endDrain() {
+        draining.set(false);
+    }
+}
@@ -0,0 +1,947 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.hackplay.hackplay.config.process.ProcessControl;
+import com.hackplay.hackplay.config.process.Pty;
+import com.hackplay.hackplay.config.process.PtyPoller;
+import com.hackplay.hackplay.config.webSocket.OutputThrottle;
+import com.hackplay.hackplay.config.webSocket.WebSocketProtocols;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 터미널 I/O 엔진
+ * 세션마다 reader / watcher 스레드를 두는 대신, 소수의 펌프 스레드가
+ * 담당 세션들의 출력(pty master 또는 stdout)을 논블로킹으로 읽어 raw bytes 그대로 송신 버퍼에 쌓는다.
+ * 펌프는 담당 pty 들을 poll(2) 로 한꺼번에 기다리다가 읽을 수 있게 된 세션만 처리하고,
+ * 동면 / 재접속 만료 같은 시간 기반 확인은 1초마다 전체를 한 번 훑는다. (파이프 세션은 poll 할 수 없어 짧은 주기로 확인)
+ * 프레임 전송은 가상 스레드에서 수행하므로 느린 브라우저가 펌프(=셸)를 막지 않는다.
+ * 바이너리 세션은 재사용 ByteBuffer를 BinaryMessage로 그대로 보내고, 텍스트 세션은 프레임 단위로 한 번만 디코딩한다.
+ * 프로세스 종료는 Process.onExit()으로 통지받아 별도 스레드를 쓰지 않는다.
+ * 보낸 프레임은 세션의 스크롤백 링과 화면 모델에도 반영되며, WebSocket 이 분리된 동안에도 셸 출력은 계속 흘러간다.
+ * 재접속 시 놓친 양이 적으면 스크롤백을 그대로 다시 보내고, 많으면 현재 화면 스냅샷만 보낸다.
+ * 입출력이 오래 없는 세션은 프로세스 트리를 SIGSTOP 으로 재우고(동면) 버퍼를 반환하며,
+ * 동면이 더 길어지면 종료한다. 동면 중 입력이 들어오면 바로 깨운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalIoEngine {
+
+    private final TerminalSessionRegistry sessionRegistry;
+    private final ProcessControl processControl;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${terminal.io.pump-threads:2}")
+    private int pumpThreadCount;
+
+    @Value("${terminal.io.read-buffer-size:8192}")
+    private int readBufferSize;
+
+    // 파이프 세션 / 네이티브 사용 불가 시 확인 주기, 그리고 출력이 남은 세션을 다시 살펴보는 주기
+    @Value("${terminal.io.idle-park-millis:5}")
+    private long idleParkMillis;
+
+    @Value("${terminal.output.flush-window-millis:12}")
+    private long flushWindowMillis;
+
+    @Value("${terminal.output.max-frame-bytes:16384}")
+    private int maxFrameBytes;
+
+    @Value("${terminal.output.max-buffered-bytes:1048576}")
+    private int maxBufferedBytes;
+
+    @Value("${terminal.output.echo-window-millis:50}")
+    private long echoWindowMillis;
+
+    @Value("${terminal.output.echo-max-bytes:256}")
+    private int echoMaxBytes;
+
+    @Value("${terminal.output.overflow-policy:DROP_OLDEST}")
+    private TerminalOutputBuffer.OverflowPolicy overflowPolicy;
+
+    @Value("${terminal.session.scrollback-bytes:262144}")
+    private int scrollbackBytes;
+
+    // 입력 대기열 상한 - 넘으면 클라이언트에 입력 일시 정지를 알린다
+    @Value("${terminal.input.max-queued-bytes:65536}")
+    private int maxQueuedInputBytes;
+
+    // 출력 폭주 제한 - 초당 송신 바이트와 순간 허용량 (0 이면 제한 없음)
+    @Value("${terminal.throttle.bytes-per-second:2097152}")
+    private long throttleBytesPerSecond;
+
+    @Value("${terminal.throttle.burst-bytes:8388608}")
+    private long throttleBurstBytes;
+
+    // 입출력 없이 이 시간이 지나면 동면 (0 이면 사용 안 함)
+    @Value("${terminal.idle.hibernate-after-minutes:30}")
+    private long hibernateAfterMinutes;
+
+    // 동면 후 이 시간이 더 지나면 종료 (0 이면 종료하지 않음)
+    @Value("${terminal.idle.reap-after-minutes:120}")
+    private long reapAfterMinutes;
+
+    // 재접속 시 놓친 출력이 이보다 많으면 스크롤백 대신 화면 스냅샷을 보낸다 (바이너리 세션)
+    @Value("${terminal.session.snapshot-threshold-bytes:65536}")
+    private long snapshotThresholdBytes;
+
+    // 한 번의 순회에서 세션 하나가 연속으로 읽을 수 있는 최대 횟수 (세션 간 공정성)
+    private static final int MAX_READS_PER_SWEEP = 4;
+
+    // poll 대기 중에도 재접속 만료 / 동면 / 폭주 안내를 확인하기 위해 전체를 훑는 주기
+    private static final long SWEEP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // 입력 직후에는 에코를 빨리 읽기 위해 짧게 대기 (poll 을 쓸 수 없을 때)
+    private static final long ECHO_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    // 한 번의 쓰기로 합쳐 보낼 최대 입력 바이트
+    private static final int INPUT_CHUNK_BYTES = 4096;
+
+    // 유실 안내 문구가 프레임 앞에 붙을 수 있도록 여유 공간 확보
+    private static final int FRAME_HEADROOM = 128;
+
+    private final List<Pump> pumps = new ArrayList<>();
+    private final Map<String, Pump> assignments = new ConcurrentHashMap<>();
+    private final Queue<ByteBuffer> framePool = new ConcurrentLinkedQueue<>();
+    private ExecutorService senders;
+
+    private long hibernateAfterNanos;
+    private long reapAfterNanos;
+    private Counter reapedIdle;
+    private Counter reapedDetached;
+
+    @PostConstruct
+    public void start() {
+        hibernateAfterNanos = TimeUnit.MINUTES.toNanos(hibernateAfterMinutes);
+        reapAfterNanos = TimeUnit.MINUTES.toNanos(reapAfterMinutes);
+        registerMetrics();
+
+        senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("terminal-sender-", 0).factory());
+        for (int i = 0; i < Math.max(1, pumpThreadCount); i++) {
+            Pump pump = new Pump(i);
+            pumps.add(pump);
+            pump.thread.start();
+        }
+        log.info("Terminal I/O engine started with {} pump threads (poll: {})",
+                pumps.size(), pumps.get(0).poller != null);
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("terminal.sessions", sessionRegistry,
+                        r -> r.all().stream().filter(s -> !s.isHibernated() && !s.isDetached()).count())
+                .description("Terminal sessions with a connected client and a running shell")
+                .tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("terminal.sessions", sessionRegistry,
+                        r -> r.all().stream().filter(TerminalSession::isHibernated).count())
+                .description("Terminal sessions whose shell is suspended for inactivity")
+                .tag("state", "hibernated")
+                .register(meterRegistry);
+        Gauge.builder("terminal.sessions", sessionRegistry,
+                        r -> r.all().stream().filter(s -> s.isDetached() && !s.isHibernated()).count())
+                .description("Terminal sessions waiting for the client to reconnect")
+                .tag("state", "detached")
+                .register(meterRegistry);
+
+        reapedIdle = Counter.builder("terminal.sessions.reaped")
+                .description("Terminal sessions terminated by the server")
+                .tag("reason", "idle")
+                .register(meterRegistry);
+        reapedDetached = Counter.builder("terminal.sessions.reaped")
+                .description("Terminal sessions terminated by the server")
+                .tag("reason", "detached")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Pump pump : pumps) {
+            pump.running = false;
+            pump.wake(null);
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * 엔진 설정이 적용된 터미널 세션 생성
+     * @param pty 셸이 연결된 의사 터미널, 파이프 방식이면 null
+     * @param baseOffset 스크롤백 offset 시작값 (클라이언트가 이미 받은 바이트 수)
+     */
+    public TerminalSession newSession(WebSocketSession webSocketSession, String sessionKey, String owner,
+                                      Process process, Pty pty, long baseOffset, int cols, int rows) {
+        TerminalOutputBuffer output = new TerminalOutputBuffer(
+                maxBufferedBytes,
+                maxFrameBytes,
+                TimeUnit.MILLISECONDS.toNanos(flushWindowMillis),
+                TimeUnit.MILLISECONDS.toNanos(echoWindowMillis),
+                echoMaxBytes,
+                overflowPolicy
+        );
+        return new TerminalSession(sessionKey, owner, webSocketSession, process, pty,
+                new TerminalInputQueue(maxQueuedInputBytes), output,
+                new TerminalScrollback(scrollbackBytes, baseOffset), new TerminalScreen(cols, rows),
+                new OutputThrottle(throttleBytesPerSecond, throttleBurstBytes),
+                WebSocketProtocols.isBinary(webSocketSession));
+    }
+
+    /**
+     * 세션을 가장 한가한 펌프에 등록하고 프로세스 종료를 구독
+     */
+    public void attach(TerminalSession session) {
+        Pump pump = pumps.get(0);
+        for (Pump candidate : pumps) {
+            if (candidate.sessions.size() < pump.sessions.size()) {
+                pump = candidate;
+            }
+        }
+
+        Pump target = pump;
+        target.sessions.add(session);
+        assignments.put(session.getId(), target);
+        // 다음 poll 대기부터 이 세션의 pty 도 함께 기다린다
+        target.wake(session);
+
+        session.getProcess().onExit().thenAccept(p -> {
+            session.markExited(p.exitValue());
+            target.wake(session);
+        });
+    }
+
+    /**
+     * 분리된 세션에 새 WebSocket 을 붙이고 offset 이후의 출력을 다시 보낸다
+     */
+    public void resume(TerminalSession session, WebSocketSession webSocketSession, long offset) {
+        session.reattach(webSocketSession, WebSocketProtocols.isBinary(webSocketSession), offset);
+        scheduleFlush(session, System.nanoTime());
+    }
+
+    /**
+     * 셸 종료 - 펌프와 레지스트리에서 제외하고 프로세스 트리를 정리
+     */
+    public void terminate(TerminalSession session) {
+        sessionRegistry.remove(session);
+        detach(session);
+
+        WebSocketSession ws = session.getWebSocketSession();
+        if (ws != null) {
+            closeQuietly(ws, session, CloseStatus.NORMAL);
+        }
+
+        Process process = session.getProcess();
+        if (process.isAlive()) {
+            processControl.killTree(process.toHandle());
+        }
+        session.close();
+    }
+
+    /**
+     * 연결 준비 중 실패한 세션 정리 - 레지스트리 / 펌프에서 빼고 셸을 끝낸 뒤,
+     * 안내 메시지를 송신 버퍼로 보내고 (송신자는 계속 하나) 다 보내면 SERVER_ERROR 로 닫는다
+     */
+    public void abort(TerminalSession session, String message) {
+        sessionRegistry.remove(session);
+        detach(session);
+
+        Process process = session.getProcess();
+        if (process.isAlive()) {
+            processControl.killTree(process.toHandle());
+        }
+
+        session.getOutput().append(message);
+        session.requestClose();
+        senders.execute(() -> {
+            // 진행 중인 flush 가 끝나면 이 스레드가 송신자가 된다
+            while (!session.getOutput().tryBeginFlush()) {
+                LockSupport.parkNanos(ECHO_PARK_NANOS);
+            }
+            flush(session);
+            WebSocketSession ws = session.getWebSocketSession();
+            if (ws != null) {
+                closeQuietly(ws, session, CloseStatus.SERVER_ERROR);
+            }
+            session.close();
+        });
+    }
+
+    public void detach(TerminalSession session) {
+        session.markClosed();
+        Pump pump = assignments.remove(session.getId());
+        if (pump != null) {
+            pump.sessions.remove(session);
+        }
+    }
+
+    /**
+     * 사용자 입력 발생 알림 - 에코가 지연 창을 기다리지 않도록 펌프를 깨운다
+     */
+    public void onInput(TerminalSession session) {
+        long now = System.nanoTime();
+        session.touch(now);
+        if (session.isHibernated()) {
+            wake(session, now);
+        }
+
+        session.getOutput().markInput();
+        Pump pump = assignments.get(session.getId());
+        if (pump != null) {
+            pump.lastInputAt = System.nanoTime();
+            pump.wake(session);
+        }
+    }
+
+    /**
+     * 사용자 입력을 대기열에 넣는다 - WebSocket 스레드는 셸이 입력을 읽지 않아도 막히지 않는다
+     * pty 세션은 펌프가 논블로킹으로, 파이프 세션은 가상 스레드가 블로킹으로 대기열을 비운다.
+     */
+    public void queueInput(TerminalSession session, String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        TerminalInputQueue queue = session.getInput();
+
+        if (TerminalInputQueue.isInterrupt(bytes)) {
+            queue.interrupt(bytes);
+        } else if (!queue.offer(bytes)) {
+            inputBlocked(session);
+            return;
+        }
+        scheduleInput(session);
+    }
+
+    /**
+     * 쌓인 입력을 모두 보낸 뒤 셸 입력 종료 (파이프 방식의 Ctrl+D)
+     */
+    public void closeInput(TerminalSession session) {
+        session.getInput().requestEof();
+        scheduleInput(session);
+    }
+
+    private void scheduleInput(TerminalSession session) {
+        if (session.hasPty()) {
+            Pump pump = assignments.get(session.getId());
+            if (pump != null) {
+                pump.wake(session);
+            }
+        } else if (session.getInput().tryBeginDrain()) {
+            senders.execute(() -> drainPipeInput(session));
+        }
+    }
+
+    /**
+     * 파이프 세션 입력 쓰기 (가상 스레드에서 실행)
+     */
+    private void drainPipeInput(TerminalSession session) {
+        TerminalInputQueue queue = session.getInput();
+        byte[] chunk = new byte[INPUT_CHUNK_BYTES];
+        try {
+            int length;
+            while ((length = queue.poll(chunk)) > 0) {
+                session.writeInput(chunk, 0, length);
+                inputDrained(session);
+            }
+            if (queue.takeEof()) {
+                session.closeInput();
+            }
+        } catch (IOException e) {
+            inputFailed(session, e);
+        } finally {
+            queue.endDrain();
+        }
+
+        // 쓰기를 마치는 사이에 들어온 입력
+        if (queue.hasPending() && !session.isClosed()) {
+            scheduleInput(session);
+        }
+    }
+
+    /**
+     * pty 세션 입력 쓰기 (펌프 스레드) - tty 입력 큐가 가득 차면 남은 입력은 다음 순회로 미룬다
+     */
+    private void drainPtyInput(TerminalSession session, byte[] chunk) {
+        TerminalInputQueue queue = session.getInput();
+        try {
+            int length;
+            while ((length = queue.poll(chunk)) > 0) {
+                int written = session.tryWriteInput(chunk, 0, length);
+                if (written < length) {
+                    queue.requeue(chunk, written, length - written);
+                    break;
+                }
+            }
+            inputDrained(session);
+        } catch (IOException e) {
+            inputFailed(session, e);
+        }
+    }
+
+    /**
+     * 대기열이 가득 차 입력을 거절함 - 바이너리 클라이언트는 입력을 모아 두었다가 재개 알림 후 보낸다
+     */
+    private void inputBlocked(TerminalSession session) {
+        log.debug("Terminal input queue full for session {}, pausing client input", session.getId());
+        if (session.isBinary()) {
+            session.queueControl("{\"type\":\"input\",\"paused\":true}");
+            scheduleFlush(session, System.nanoTime());
+        } else {
+            write(session, "\r\n⚠️ 입력이 밀려 일부 입력이 전달되지 않았습니다\r\n");
+        }
+    }
+
+    private void inputDrained(TerminalSession session) {
+        if (session.getInput().takeUnblocked() && session.isBinary()) {
+            session.queueControl("{\"type\":\"input\",\"paused\":false}");
+            scheduleFlush(session, System.nanoTime());
+        }
+    }
+
+    private void inputFailed(TerminalSession session, IOException e) {
+        log.error("Failed to send input to terminal for session {}: {}", session.getId(), e.getMessage());
+        session.getInput().clear();
+        inputDrained(session);
+        write(session, "❌ 명령어 전송 실패\r\n");
+    }
+
+    /**
+     * 유휴 세션 동면 - 프로세스 트리를 멈추고 송신 버퍼와 스크롤백 메모리를 반환
+     * 화면 모델은 남겨 두므로 재접속은 스냅샷으로 복구된다.
+     */
+    private void hibernate(TerminalSession session, long now) {
+        synchronized (session) {
+            // 판단 직후 입력이 들어왔으면 취소
+            if (session.isHibernated() || now - session.getLastActivityAt() <= hibernateAfterNanos) {
+                return;
+            }
+            processControl.suspendTree(session.getProcess().toHandle());
+            session.markHibernated(now);
+        }
+
+        session.getOutput().trim();
+        session.getScrollback().release();
+        log.info("💤 Terminal session {} hibernated after {} minutes idle", session.getId(), hibernateAfterMinutes);
+    }
+
+    private void wake(TerminalSession session, long now) {
+        synchronized (session) {
+            if (!session.isHibernated()) {
+                return;
+            }
+            processControl.resumeTree(session.getProcess().toHandle());
+            session.markAwake(now);
+        }
+        log.info("⏰ Terminal session {} resumed from hibernation", session.getId());
+    }
+
+    /**
+     * 펌프를 거치지 않는 출력 (제어 문자 에코, 안내 메시지 등)을 송신 버퍼에 추가
+     */
+    public void write(TerminalSession session, String output) {
+        if (!session.getOutput().append(output)) {
+            overflow(session);
+            return;
+        }
+        scheduleFlush(session, System.nanoTime());
+    }
+
+    private class Pump implements Runnable {
+
+        private final Set<TerminalSession> sessions = ConcurrentHashMap.newKeySet();
+        // 입력 / 종료 / 연결 등으로 바로 살펴봐야 하는 세션 (다른 스레드가 넣고 펌프가 꺼낸다)
+        private final Queue<TerminalSession> woken = new ConcurrentLinkedQueue<>();
+        // 아래는 펌프 스레드 전용
+        // 보낼 출력이 남았거나 입력을 다 쓰지 못해 다음 대기 후에도 살펴볼 세션
+        private final Set<TerminalSession> revisit = new LinkedHashSet<>();
+        private final Set<TerminalSession> targets = new LinkedHashSet<>();
+        // 마지막 poll 대기 목록의 순서 (PtyPoller 의 index 와 같다)
+        private final List<TerminalSession> polled = new ArrayList<>();
+        private final PtyPoller poller;
+        private final Thread thread;
+        private final byte[] buffer;
+        private final byte[] inputChunk = new byte[INPUT_CHUNK_BYTES];
+        private volatile boolean running = true;
+        private volatile long lastInputAt;
+        private long lastSweepAt;
+        private boolean hasPipeSessions;
+
+        Pump(int index) {
+            this.buffer = new byte[readBufferSize];
+            this.lastInputAt = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+            this.lastSweepAt = System.nanoTime() - SWEEP_NANOS;
+            this.poller = processControl.openPoller();
+            this.thread = new Thread(this, "terminal-pump-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * 대기 중인 펌프를 깨운다
+         * @param session 깨어나서 바로 살펴볼 세션 (없으면 null)
+         */
+        void wake(TerminalSession session) {
+            if (session != null) {
+                woken.add(session);
+            }
+            if (poller != null) {
+                poller.wakeup();
+            } else {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    long now = System.nanoTime();
+                    boolean progressed = poller == null || hasPipeSessions || now - lastSweepAt >= SWEEP_NANOS
+                            ? sweep(now)
+                            : pumpReady();
+                    await(progressed);
+                }
+            } finally {
+                if (poller != null) {
+                    poller.close();
+                }
+            }
+        }
+
+        /**
+         * 담당 세션 전체 순회
+         */
+        private boolean sweep(long now) {
+            lastSweepAt = now;
+            woken.clear();
+            revisit.clear();
+
+            boolean progressed = false;
+            for (TerminalSession session : sessions) {
+                progressed |= pump(session);
+            }
+            return progressed;
+        }
+
+        /**
+         * poll 로 준비된 세션, 깨우기 요청이 온 세션, 다시 살펴볼 세션만 처리
+         */
+        private boolean pumpReady() {
+            targets.addAll(revisit);
+            revisit.clear();
+            for (int i = 0; i < polled.size(); i++) {
+                if (poller.isReady(i)) {
+                    targets.add(polled.get(i));
+                }
+            }
+            TerminalSession session;
+            while ((session = woken.poll()) != null) {
+                targets.add(session);
+            }
+
+            boolean progressed = false;
+            for (TerminalSession target : targets) {
+                progressed |= pump(target);
+            }
+            targets.clear();
+            return progressed;
+        }
+
+        private boolean pump(TerminalSession session) {
+            try {
+                boolean progressed = pumpSession(session);
+                if (needsRevisit(session)) {
+                    revisit.add(session);
+                }
+                return progressed;
+            } catch (Exception e) {
+                log.warn("Terminal pump failed for session {}: {}", session.getId(), e.getMessage());
+                sessions.remove(session);
+                terminate(session);
+                return false;
+            }
+        }
+
+        /**
+         * poll 로는 알 수 없는 할 일이 남은 세션 - 지연 창이 지나면 보낼 출력, 닫기 전 남은 전송,
+         * tty 입력 큐가 차서 못 쓴 입력, slave 가 닫혔지만 아직 종료 통지가 오지 않은 셸
+         */
+        private boolean needsRevisit(TerminalSession session) {
+            return sessions.contains(session)
+                    && (session.getOutput().hasPending()
+                    || session.isCloseRequested()
+                    || session.hasPendingControl()
+                    || (session.hasPty() && session.getInput().hasPending())
+                    || (session.isOutputEnded() && !session.isExited()));
+        }
+
+        /**
+         * 다음 할 일이 생길 때까지 대기
+         * pty 세션만 있으면 poll 로 출력 / 깨우기 요청 / 다음 순회 시각 중 먼저 오는 것을 기다린다.
+         */
+        private void await(boolean progressed) {
+            if (poller == null) {
+                park(progressed);
+                return;
+            }
+
+            poller.clear();
+            polled.clear();
+            hasPipeSessions = false;
+            for (TerminalSession session : sessions) {
+                if (!session.hasPty()) {
+                    hasPipeSessions = true;
+                } else if (!session.isHibernated() && !session.isOutputEnded()) {
+                    polled.add(session);
+                    poller.add(session.getPty(), session.getInput().hasPending());
+                }
+            }
+
+            long sinceSweep = System.nanoTime() - lastSweepAt;
+            int timeoutMillis;
+            if (progressed) {
+                timeoutMillis = 0;
+            } else if (hasPipeSessions || !revisit.isEmpty()) {
+                timeoutMillis = (int) Math.min(idleParkMillis, flushWindowMillis);
+            } else {
+                timeoutMillis = (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(SWEEP_NANOS - sinceSweep));
+            }
+
+            try {
+                poller.await(timeoutMillis);
+            } catch (IOException e) {
+                log.warn("Terminal pump poll failed: {}", e.getMessage());
+                polled.clear();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleParkMillis));
+            }
+        }
+
+        /**
+         * poll 을 쓸 수 없을 때의 대기 - 짧게 쉬었다가 다시 전체를 확인한다
+         */
+        private void park(boolean progressed) {
+            if (progressed) {
+                return;
+            }
+            long now = System.nanoTime();
+            boolean echoExpected = now - lastInputAt <= TimeUnit.MILLISECONDS.toNanos(echoWindowMillis);
+            LockSupport.parkNanos(echoExpected
+                    ? ECHO_PARK_NANOS
+                    : TimeUnit.MILLISECONDS.toNanos(Math.min(idleParkMillis, flushWindowMillis)));
+        }
+
+        /**
+         * 세션 하나의 출력을 읽을 수 있는 만큼 읽어 송신 버퍼에 쌓고, 보낼 때가 되었으면 전송을 예약
+         * @return 읽은 데이터가 있었는지 여부
+         */
+        private boolean pumpSession(TerminalSession session) throws IOException {
+            if (session.isClosed()) {
+                sessions.remove(session);
+                return false;
+            }
+
+            long now = System.nanoTime();
+
+            // 재접속 유예 시간이 지난 분리 세션 정리 (동면 중인 세션은 동면 정책을 따른다)
+            if (!session.isHibernated() && session.isResumeExpired(now)) {
+                log.info("Terminal session {} was not resumed in time, terminating", session.getId());
+                reapedDetached.increment();
+                sessions.remove(session);
+                terminate(session);
+                return false;
+            }
+
+            // 동면이 길어진 세션 정리 (동면 중 외부에서 종료된 셸은 아래 일반 경로에서 처리)
+            if (session.isHibernated() && !session.isExited()) {
+                if (reapAfterNanos > 0 && now - session.getHibernatedAt() > reapAfterNanos) {
+                    log.info("Terminal session {} reaped after {} minutes in hibernation",
+                            session.getId(), reapAfterMinutes);
+                    reapedIdle.increment();
+                    sessions.remove(session);
+                    terminate(session);
+                }
+                return false;
+            }
+
+            boolean progressed = false;
+
+            if (session.hasPty() && session.getInput().hasPending()) {
+                drainPtyInput(session, inputChunk);
+            }
+
+            if (!session.isCloseRequested()) {
+                for (int i = 0; i < MAX_READS_PER_SWEEP; i++) {
+                    int bytesRead = session.readOutput(buffer);
+                    if (bytesRead <= 0) {
+                        break;
+                    }
+
+                    progressed = true;
+                    long readAt = System.nanoTime();
+                    session.touch(readAt);
+                    int from = session.skipStartupOutput(buffer, bytesRead);
+                    int length = admit(session, buffer, from, bytesRead - from, readAt);
+                    if (!session.getOutput().append(buffer, from, length)) {
+                        overflow(session);
+                        return true;
+                    }
+                }
+
+                // 프로세스가 끝났고 남은 출력도 모두 읽었으면 종료 안내 후 닫기 예약
+                if (!progressed && session.isExited()) {
+                    appendSuppressed(session, session.getThrottle().takeSummary(now, true));
+                    session.getOutput().append("\r\n🔴 Shell exited with code: " + session.getExitCode() + "\r\n");
+                    session.requestClose();
+                } else if (!progressed) {
+                    // 폭주가 멈춘 뒤에도 버린 양은 알린다
+                    appendSuppressed(session, session.getThrottle().takeSummary(now, false));
+                }
+            }
+
+            now = System.nanoTime();
+            scheduleFlush(session, now);
+
+            // 입출력 없이 오래 지난 세션 동면
+            if (!progressed && hibernateAfterNanos > 0 && !session.isCloseRequested()
+                    && now - session.getLastActivityAt() > hibernateAfterNanos) {
+                hibernate(session, now);
+            }
+
+            // 남은 출력을 모두 보냈으면 WebSocket 종료 (분리 상태면 바로 정리)
+            if (session.isCloseRequested()
+                    && !session.getOutput().hasPending()
+                    && !session.getOutput().isFlushing()) {
+                sessions.remove(session);
+                WebSocketSession ws = session.getWebSocketSession();
+                if (ws == null) {
+                    terminate(session);
+                } else {
+                    closeQuietly(ws, session, CloseStatus.NORMAL);
+                }
+            }
+
+            return progressed;
+        }
+    }
+
+    /**
+     * 출력 폭주 제한 적용 - 예산을 넘는 출력은 버리고 (파이프는 계속 비운다) 버린 양을 안내 문구로 대신한다
+     * @return buffer[from] 부터 송신 버퍼에 넣을 바이트 수
+     */
+    private int admit(TerminalSession session, byte[] buffer, int from, int length, long now) {
+        OutputThrottle throttle = session.getThrottle();
+        int allowed = throttle.admit(length, now);
+        if (allowed < length && allowed > 0) {
+            // 잘린 멀티바이트 문자가 뒤 출력과 섞이지 않도록 문자 경계에서 자른다
+            int complete = TerminalOutputBuffer.completeLength(buffer, from, allowed);
+            allowed = complete > 0 ? complete : allowed;
+        }
+        appendSuppressed(session, throttle.takeSummary(now, false));
+        return allowed;
+    }
+
+    private void appendSuppressed(TerminalSession session, String summary) {
+        if (summary == null) {
+            return;
+        }
+        // CAN 으로 버려진 구간에서 끊긴 이스케이프 시퀀스를 취소한 뒤 속성을 초기화하고 안내
+        session.getOutput().append("\u0018\r\n\u001b[0m\u001b[33m" + summary + "\u001b[0m\r\n");
+    }
+
+    private void scheduleFlush(TerminalSession session, long now) {
+        TerminalOutputBuffer output = session.getOutput();
+        boolean due = output.isFlushDue(now)
+                || (session.isCloseRequested() && output.hasPending())
+                || session.hasPendingResume()
+                || session.hasPendingControl();
+        if (due && output.tryBeginFlush()) {
+            senders.execute(() -> flush(session));
+        }
+    }
+
+    /**
+     * 송신 버퍼를 프레임 단위로 비운다 (가상 스레드에서 실행)
+     * 세션당 flush는 하나만 진행되므로 이 메서드가 해당 세션의 유일한 송신자다.
+     * 모든 프레임은 스크롤백에 먼저 기록하고, 연결된 WebSocket 이 있으면 보낸다.
+     */
+    private void flush(TerminalSession session) {
+        TerminalOutputBuffer output = session.getOutput();
+        ByteBuffer frame = borrowFrame();
+        try {
+            while (true) {
+                // 재접속 직후라면 놓친 출력부터 보내야 새 출력과 순서가 섞이지 않는다
+                replay(session, frame);
+                sendControl(session);
+
+                if (!output.takeFrame(frame, session.isCloseRequested())) {
+                    break;
+                }
+                session.getScrollback().append(frame);
+                session.getScreen().feed(frame);
+                send(session, frame);
+            }
+        } finally {
+            framePool.offer(frame);
+            output.endFlush();
+        }
+
+        // 전송을 마치는 사이에 재접속이 들어왔으면 다시 예약
+        if (session.hasPendingResume()) {
+            scheduleFlush(session, System.nanoTime());
+        }
+    }
+
+    /**
+     * 클라이언트가 마지막으로 받은 offset 이후의 스크롤백 재전송
+     */
+    private void replay(TerminalSession session, ByteBuffer frame) {
+        long offset = session.takeResumeOffset();
+        if (offset < 0) {
+            return;
+        }
+
+        TerminalScrollback scrollback = session.getScrollback();
+        long missing = scrollback.getEndOffset() - offset;
+        if (session.isBinary() && (offset < scrollback.getStartOffset() || missing > snapshotThresholdBytes)) {
+            sendSnapshot(session, frame, scrollback.getEndOffset());
+            return;
+        }
+
+        if (offset < scrollback.getStartOffset()) {
+            log.debug("Scrollback for session {} no longer holds offset {}, resuming from {}",
+                    session.getId(), offset, scrollback.getStartOffset());
+        }
+
+        while (offset < scrollback.getEndOffset()) {
+            offset = scrollback.read(offset, frame, maxFrameBytes);
+            if (!frame.hasRemaining() || !send(session, frame)) {
+                break;
+            }
+        }
+    }
+
+    private void sendControl(TerminalSession session) {
+        String message;
+        while ((message = session.pollControl()) != null) {
+            WebSocketSession ws = session.getWebSocketSession();
+            try {
+                if (ws != null && ws.isOpen()) {
+                    ws.sendMessage(new TextMessage(message));
+                }
+            } catch (Exception e) {
+                log.debug("Failed to send control message to session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 현재 화면을 다시 그리는 스냅샷 전송
+     * 스냅샷은 출력 스트림의 일부가 아니므로, 뒤이어 텍스트 제어 메시지로 스냅샷 시점의 offset 을 알려
+     * 클라이언트가 다음 재접속 offset 을 맞추게 한다. (바이너리 세션에서 출력은 모두 BinaryMessage)
+     */
+    private void sendSnapshot(TerminalSession session, ByteBuffer frame, long offset) {
+        byte[] snapshot = session.getScreen().snapshot();
+        log.debug("Sending {} byte screen snapshot to session {} at offset {}",
+                snapshot.length, session.getId(), offset);
+
+        int position = 0;
+        while (position < snapshot.length) {
+            frame.clear();
+            int length = Math.min(snapshot.length - position, maxFrameBytes);
+            int complete = TerminalOutputBuffer.completeLength(snapshot, position, length);
+            length = complete > 0 ? complete : length;
+            frame.put(snapshot, position, length).flip();
+            if (!send(session, frame)) {
+                return;
+            }
+            position += length;
+        }
+
+        WebSocketSession ws = session.getWebSocketSession();
+        try {
+            if (ws != null && ws.isOpen()) {
+                ws.sendMessage(new TextMessage("{\"type\":\"offset\",\"offset\":" + offset + "}"));
+            }
+        } catch (Exception e) {
+            log.debug("Failed to send snapshot offset for session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 현재 연결된 WebSocket 으로 프레임 전송
+     * @return 전송 성공 여부 (분리 상태이거나 전송 실패 시 false - 출력은 스크롤백에 남아 있음)
+     */
+    private boolean send(TerminalSession session, ByteBuffer frame) {
+        WebSocketSession ws = session.getWebSocketSession();
+        if (ws == null || !ws.isOpen()) {
+            return false;
+        }
+
+        try {
+            // sendMessage는 전송 완료 후 반환하므로 frame을 바로 재사용할 수 있다
+            ws.sendMessage(outputMessage(frame, session.isBinary()));
+            return true;
+        } catch (Exception e) {
+            log.debug("Failed to send terminal output for session {}: {}", session.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 출력 프레임을 WebSocket 메시지로 - 바이너리는 frame 을 그대로 감싸고, 텍스트는 한 번 디코딩한다
+     */
+    static WebSocketMessage<?> outputMessage(ByteBuffer frame, boolean binary) {
+        if (binary) {
+            return new BinaryMessage(frame);
+        }
+        return new TextMessage(new String(
+                frame.array(), frame.arrayOffset() + frame.position(), frame.remaining(), StandardCharsets.UTF_8));
+    }
+
+    private ByteBuffer borrowFrame() {
+        ByteBuffer frame = framePool.poll();
+        return frame != null ? frame : ByteBuffer.allocate(maxFrameBytes + FRAME_HEADROOM);
+    }
+
+    /**
+     * 송신이 밀려 버퍼가 넘치면 연결만 끊는다 - 셸은 유지되므로 클라이언트는 재접속해 스크롤백으로 이어 받는다
+     */
+    private void overflow(TerminalSession session) {
+        WebSocketSession ws = session.getWebSocketSession();
+        if (ws != null && ws.isOpen()) {
+            log.warn("Terminal output buffer overflow for session {}, disconnecting", session.getId());
+            closeQuietly(ws, session, CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    private void closeQuietly(WebSocketSession ws, TerminalSession session, CloseStatus status) {
+        try {
+            if (ws.isOpen()) {
+                ws.close(status);
+            }
+        } catch (Exception e) {
+            log.debug("Failed to close terminal session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 터미널 출력 송신 버퍼
+ * 셸 출력(raw bytes)을 모았다가 지연 시간 창(flush window) 또는 프레임 크기 상한에 도달하면 한 프레임으로 보낸다.
+ * 키 입력 직후의 작은 출력(에코)은 창을 기다리지 않고 바로 보낸다.
+ * 버퍼가 가득 차면 overflow policy에 따라 오래된 출력을 버리거나 연결을 끊는다.
+ * 프레임은 항상 UTF-8 문자 경계에서 잘리므로 멀티바이트 문자가 두 프레임에 걸치지 않는다.
+ */
+public class TerminalOutputBuffer {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,  // 오래된 출력을 버리고 최신 출력을 유지
+        DISCONNECT    // 세션 종료
+    }
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final int maxBufferedBytes;
+    private final int maxFrameBytes;
+    private final long flushWindowNanos;
+    private final long echoWindowNanos;
+    private final int echoMaxBytes;
+    private final OverflowPolicy overflowPolicy;
+
+    // data[start, end) 구간이 아직 보내지 않은 출력
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int start;
+    private int end;
+
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private long firstPendingAt;
+    private long droppedBytes;
+    private volatile long lastInputAt;
+
+    public TerminalOutputBuffer(int maxBufferedBytes, int maxFrameBytes, long flushWindowNanos,
+                                long echoWindowNanos, int echoMaxBytes, OverflowPolicy overflowPolicy) {
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.maxFrameBytes = maxFrameBytes;
+        this.flushWindowNanos = flushWindowNanos;
+        this.echoWindowNanos = echoWindowNanos;
+        this.echoMaxBytes = echoMaxBytes;
+        this.overflowPolicy = overflowPolicy;
+        this.lastInputAt = System.nanoTime() - echoWindowNanos - 1;
+    }
+
+    public boolean append(String output) {
+        byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+        return append(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 출력 추가
+     * @return DISCONNECT 정책에서 버퍼가 넘치면 false
+     */
+    public synchronized boolean append(byte[] src, int offset, int length) {
+        if (length == 0) {
+            return true;
+        }
+
+        int overflow = size() + length - maxBufferedBytes;
+        if (overflow > 0) {
+            if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                return false;
+            }
+            if (length >= maxBufferedBytes) {
+                // 새 출력만으로도 버퍼를 넘치면 새 출력의 끝부분만 유지
+                int skip = skipContinuation(src, offset + length - maxBufferedBytes, offset + length);
+                droppedBytes += size() + (skip - offset);
+                start = end = 0;
+                length -= skip - offset;
+                offset = skip;
+            } else {
+                int cut = skipContinuation(data, start + overflow, end);
+                droppedBytes += cut - start;
+                start = cut;
+            }
+            firstPendingAt = System.nanoTime();
+        }
+
+        if (size() == 0) {
+            start = end = 0;
+            firstPendingAt = System.nanoTime();
+        }
+
+        ensureWritable(length);
+        System.arraycopy(src, offset, data, end, length);
+        end += length;
+        return true;
+    }
+
+    private void ensureWritable(int length) {
+        if (data.length - end >= length) {
+            return;
+        }
+
+        int size = size();
+        if (data.length - size >= length) {
+            System.arraycopy(data, start, data, 0, size);
+        } else {
+            byte[] grown = new byte[Math.max(size + length, Math.min(data.length * 2, maxBufferedBytes))];
+            System.arraycopy(data, start, grown, 0, size);
+            data = grown;
+        }
+        start = 0;
+        end = size;
+    }
+
+    /**
+     * 지금 프레임을 보내야 하는지 판단
+     * 프레임 상한 도달, 지연 창 경과, 또는 최근 입력에 대한 작은 에코
+     */
+    public synchronized boolean isFlushDue(long now) {
+        int length = size();
+        if (length == 0) {
+            return false;
+        }
+        if (length >= maxFrameBytes || now - firstPendingAt >= flushWindowNanos) {
+            return true;
+        }
+        return length <= echoMaxBytes && now - lastInputAt <= echoWindowNanos;
+    }
+
+    /**
+     * 최대 maxFrameBytes 만큼을 frame에 채운다 (UTF-8 문자 경계 기준)
+     * @param force 끝에 걸린 불완전한 문자까지 모두 내보낼지 여부 (세션 종료 직전)
+     * @return 채운 내용이 있으면 true, frame은 읽기 모드로 flip 된 상태
+     */
+    public synchronized boolean takeFrame(ByteBuffer frame, boolean force) {
+        frame.clear();
+
+        if (droppedBytes > 0 && size() > 0) {
+            frame.put(("\r\n\u001b[33m[... " + droppedBytes + " bytes dropped (slow connection) ...]\u001b[0m\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            droppedBytes = 0;
+        }
+
+        int length = Math.min(size(), Math.min(frame.remaining(), maxFrameBytes));
+        if (!force) {
+            length = completeLength(length);
+        }
+
+        if (length > 0) {
+            frame.put(data, start, length);
+            start += length;
+            if (start == end) {
+                start = end = 0;
+            }
+            firstPendingAt = System.nanoTime();
+        }
+
+        frame.flip();
+        return frame.hasRemaining();
+    }
+
+    private int completeLength(int length) {
+        return completeLength(data, start, length);
+    }
+
+    /**
+     * bytes[from, from + length) 중 마지막 문자가 완전한 UTF-8 시퀀스로 끝나는 최대 길이
+     */
+    static int completeLength(byte[] bytes, int from, int length) {
+        if (length == 0) {
+            return 0;
+        }
+
+        int lead = from + length - 1;
+        int lowest = Math.max(from, from + length - 4);
+        while (lead > lowest && isContinuation(bytes[lead])) {
+            lead--;
+        }
+
+        int expected = sequenceLength(bytes[lead]);
+        return lead + expected > from + length ? lead - from : length;
+    }
+
+    private static int skipContinuation(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to && isContinuation(bytes[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private static int sequenceLength(byte lead) {
+        if ((lead & 0x80) == 0) return 1;
+        if ((lead & 0xE0) == 0xC0) return 2;
+        if ((lead & 0xF0) == 0xE0) return 3;
+        if ((lead & 0xF8) == 0xF0) return 4;
+        return 1;
+    }
+
+    private int size() {
+        return end - start;
+    }
+
+    /**
+     * 보낼 출력이 없으면 커진 내부 배열을 초기 크기로 되돌린다 (유휴 세션 메모리 반환)
+     */
+    public synchronized void trim() {
+        if (size() == 0 && data.length > INITIAL_CAPACITY) {
+            data = new byte[INITIAL_CAPACITY];
+            start = end = 0;
+        }
+    }
+
+    public synchronized boolean hasPending() {
+        return size() > 0;
+    }
+
+    public boolean tryBeginFlush() {
+        return flushing.compareAndSet(false, true);
+    }
+
+    public void endFlush() {
+        flushing.set(false);
+    }
+
+    public boolean isFlushing() {
+        return flushing.get();
+    }
+
+    public void markInput() {
+        lastInputAt = System.nanoTime();
+    }
+
+    public long getLastInputAt() {
+        return lastInputAt;
+    }
+
+    public boolean isEchoWindowOpen(long now) {
+        return now - lastInputAt <= echoWindowNanos;
+    }
+}
@@ -0,0 +1,715 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 서버 측 VT100 / xterm 화면 상태 모델
+ * 셸 출력을 증분 파싱해 셀 격자(문자 + 속성), 커서, 스크롤 영역, 대체 화면(alt screen)을 유지한다.
+ * 재접속한 클라이언트에게 수 MB의 스크롤백 대신 현재 화면을 다시 그리는 짧은 시퀀스(snapshot)를 보낼 때 사용한다.
+ * 메모리는 출력량과 무관하게 rows × cols 에 비례한다.
+ * 화면 갱신에 필요한 시퀀스만 해석하고 나머지(키패드 모드, 문자셋 지정 등)는 무시한다.
+ */
+public class TerminalScreen {
+
+    // 속성 비트 구성: [0..25] 전경색, [26..51] 배경색, [52..] 플래그
+    // 색상 26비트 = 모드 2비트(0 기본, 1 팔레트, 2 RGB) + 값 24비트
+    private static final int COLOR_BITS = 26;
+    private static final long COLOR_MASK = (1L << COLOR_BITS) - 1;
+    private static final int BG_SHIFT = COLOR_BITS;
+    private static final int FLAG_SHIFT = COLOR_BITS * 2;
+    private static final int COLOR_PALETTE = 1 << 24;
+    private static final int COLOR_RGB = 2 << 24;
+
+    private static final long BOLD = 1L << FLAG_SHIFT;
+    private static final long DIM = 1L << (FLAG_SHIFT + 1);
+    private static final long ITALIC = 1L << (FLAG_SHIFT + 2);
+    private static final long UNDERLINE = 1L << (FLAG_SHIFT + 3);
+    private static final long BLINK = 1L << (FLAG_SHIFT + 4);
+    private static final long INVERSE = 1L << (FLAG_SHIFT + 5);
+    private static final long HIDDEN = 1L << (FLAG_SHIFT + 6);
+    private static final long STRIKE = 1L << (FLAG_SHIFT + 7);
+
+    // 빈 셀과 2칸 문자(한글 등)의 오른쪽 절반
+    private static final int EMPTY = 0;
+    private static final int WIDE_TAIL = -1;
+
+    private static final int MAX_PARAMS = 16;
+
+    private enum State { GROUND, ESCAPE, ESCAPE_SKIP, CSI, STRING, STRING_ESCAPE }
+
+    /** 화면 하나 분량의 셀 격자 */
+    private static final class Grid {
+        int[] chars;
+        long[] attrs;
+
+        Grid(int cols, int rows) {
+            chars = new int[cols * rows];
+            attrs = new long[cols * rows];
+        }
+    }
+
+    private int cols;
+    private int rows;
+    private Grid main;
+    private Grid alt;
+    private Grid grid;
+
+    private int cursorX;
+    private int cursorY;
+    private boolean wrapPending;
+    private long attr;
+    private int scrollTop;
+    private int scrollBottom;
+    private boolean autoWrap = true;
+    private boolean cursorVisible = true;
+
+    private int savedX;
+    private int savedY;
+    private long savedAttr;
+
+    // 파서 상태
+    private State state = State.GROUND;
+    private final int[] params = new int[MAX_PARAMS];
+    private int paramCount;
+    private boolean paramStarted;
+    private char privateMarker;
+
+    // UTF-8 디코딩 상태
+    private int codePoint;
+    private int utf8Remaining;
+
+    public TerminalScreen(int cols, int rows) {
+        this.cols = Math.max(1, cols);
+        this.rows = Math.max(1, rows);
+        this.main = new Grid(this.cols, this.rows);
+        this.grid = main;
+        this.scrollBottom = this.rows - 1;
+    }
+
+    /**
+     * 출력 바이트 반영 (frame 의 position / limit 은 바꾸지 않음)
+     */
+    public synchronized void feed(ByteBuffer frame) {
+        for (int i = frame.position(); i < frame.limit(); i++) {
+            feedByte(frame.get(i));
+        }
+    }
+
+    private void feedByte(byte b) {
+        int value = b & 0xFF;
+
+        if (utf8Remaining > 0) {
+            if ((value & 0xC0) == 0x80) {
+                codePoint = (codePoint << 6) | (value & 0x3F);
+                if (--utf8Remaining == 0) {
+                    print(codePoint);
+                }
+                return;
+            }
+            // 잘린 시퀀스 - 대체 문자로 처리하고 현재 바이트는 새로 해석
+            utf8Remaining = 0;
+            print(0xFFFD);
+        }
+
+        if (value < 0x80 || state != State.GROUND) {
+            feedAscii(value);
+        } else if ((value & 0xE0) == 0xC0) {
+            codePoint = value & 0x1F;
+            utf8Remaining = 1;
+        } else if ((value & 0xF0) == 0xE0) {
+            codePoint = value & 0x0F;
+            utf8Remaining = 2;
+        } else if ((value & 0xF8) == 0xF0) {
+            codePoint = value & 0x07;
+            utf8Remaining = 3;
+        } else {
+            print(0xFFFD);
+        }
+    }
+
+    private void feedAscii(int c) {
+        switch (state) {
+            case GROUND -> ground(c);
+            case ESCAPE -> escape(c);
+            case ESCAPE_SKIP -> state = State.GROUND;
+            case CSI -> csi(c);
+            case STRING -> {
+                // OSC / DCS 등 문자열 시퀀스는 BEL 또는 ST(ESC \) 까지 무시
+                if (c == 0x07) {
+                    state = State.GROUND;
+                } else if (c == 0x1B) {
+                    state = State.STRING_ESCAPE;
+                }
+            }
+            case STRING_ESCAPE -> state = c == '\\' ? State.GROUND : State.STRING;
+        }
+    }
+
+    private void ground(int c) {
+        switch (c) {
+            case 0x1B -> state = State.ESCAPE;
+            case '\r' -> {
+                cursorX = 0;
+                wrapPending = false;
+            }
+            case '\n', 0x0B, 0x0C -> {
+                lineFeed();
+                wrapPending = false;
+            }
+            case '\b' -> {
+                if (cursorX > 0) {
+                    cursorX--;
+                }
+                wrapPending = false;
+            }
+            case '\t' -> {
+                cursorX = Math.min(cols - 1, (cursorX / 8 + 1) * 8);
+                wrapPending = false;
+            }
+            default -> {
+                if (c >= 0x20 && c != 0x7F) {
+                    print(c);
+                }
+            }
+        }
+    }
+
+    private void escape(int c) {
+        state = State.GROUND;
+        switch (c) {
+            case '[' -> {
+                state = State.CSI;
+                paramCount = 0;
+                paramStarted = false;
+                privateMarker = 0;
+                Arrays.fill(params, 0);
+            }
+            case ']', 'P', '_', '^', 'X' -> state = State.STRING;
+            case '(', ')', '*', '+', '#', '%' -> state = State.ESCAPE_SKIP;
+            case '7' -> saveCursor();
+            case '8' -> restoreCursor();
+            case 'D' -> lineFeed();
+            case 'E' -> {
+                cursorX = 0;
+                lineFeed();
+            }
+            case 'M' -> reverseIndex();
+            case 'c' -> reset();
+            default -> {
+                // 키패드 모드(=, >) 등 화면에 영향 없는 시퀀스
+            }
+        }
+    }
+
+    private void csi(int c) {
+        if (c >= '0' && c <= '9') {
+            if (paramCount < MAX_PARAMS) {
+                params[paramCount] = Math.min(params[paramCount] * 10 + (c - '0'), 65535);
+                paramStarted = true;
+            }
+            return;
+        }
+        if (c == ';' || c == ':') {
+            if (paramCount < MAX_PARAMS) {
+                paramCount++;
+            }
+            paramStarted = false;
+            return;
+        }
+        if (c == '?' || c == '>' || c == '=' || c == '<') {
+            privateMarker = (char) c;
+            return;
+        }
+        if (c < 0x40) {
+            // 중간 바이트 (공백, ! 등)
+            return;
+        }
+
+        if (paramStarted || paramCount > 0) {
+            paramCount = Math.min(paramCount + 1, MAX_PARAMS);
+        }
+        state = State.GROUND;
+        dispatchCsi((char) c);
+    }
+
+    private int param(int index, int defaultValue) {
+        return index < paramCount && params[index] != 0 ? params[index] : defaultValue;
+    }
+
+    private void dispatchCsi(char command) {
+        if (privateMarker == '?') {
+            if (command == 'h' || command == 'l') {
+                for (int i = 0; i < Math.max(1, paramCount); i++) {
+                    setPrivateMode(params[i], command == 'h');
+                }
+            }
+            return;
+        }
+        if (privateMarker != 0) {
+            return;
+        }
+
+        wrapPending = false;
+        switch (command) {
+            case 'A' -> cursorY = Math.max(cursorY < scrollTop ? 0 : scrollTop, cursorY - param(0, 1));
+            case 'B' -> cursorY = Math.min(cursorY > scrollBottom ? rows - 1 : scrollBottom, cursorY + param(0, 1));
+            case 'C', 'a' -> cursorX = Math.min(cols - 1, cursorX + param(0, 1));
+            case 'D' -> cursorX = Math.max(0, cursorX - param(0, 1));
+            case 'E' -> {
+                cursorX = 0;
+                cursorY = Math.min(rows - 1, cursorY + param(0, 1));
+            }
+            case 'F' -> {
+                cursorX = 0;
+                cursorY = Math.max(0, cursorY - param(0, 1));
+            }
+            case 'G', '`' -> cursorX = clamp(param(0, 1) - 1, cols);
+            case 'd' -> cursorY = clamp(param(0, 1) - 1, rows);
+            case 'e' -> cursorY = Math.min(rows - 1, cursorY + param(0, 1));
+            case 'H', 'f' -> {
+                cursorY = clamp(param(0, 1) - 1, rows);
+                cursorX = clamp(param(1, 1) - 1, cols);
+            }
+            case 'J' -> eraseInDisplay(param(0, 0));
+            case 'K' -> eraseInLine(param(0, 0));
+            case 'L' -> insertLines(param(0, 1));
+            case 'M' -> deleteLines(param(0, 1));
+            case '@' -> insertChars(param(0, 1));
+            case 'P' -> deleteChars(param(0, 1));
+            case 'X' -> clear(cursorY, cursorX, Math.min(cols, cursorX + param(0, 1)));
+            case 'S' -> scrollUp(scrollTop, scrollBottom, param(0, 1));
+            case 'T' -> scrollDown(scrollTop, scrollBottom, param(0, 1));
+            case 'm' -> selectGraphicRendition();
+            case 'r' -> {
+                int top = clamp(param(0, 1) - 1, rows);
+                int bottom = clamp(param(1, rows) - 1, rows);
+                if (top < bottom) {
+                    scrollTop = top;
+                    scrollBottom = bottom;
+                    cursorX = 0;
+                    cursorY = 0;
+                }
+            }
+            case 's' -> saveCursor();
+            case 'u' -> restoreCursor();
+            default -> {
+                // 장치 상태 질의 등은 화면에 영향 없음
+            }
+        }
+    }
+
+    private void setPrivateMode(int mode, boolean enabled) {
+        switch (mode) {
+            case 7 -> autoWrap = enabled;
+            case 25 -> cursorVisible = enabled;
+            case 47, 1047, 1049 -> {
+                if (enabled && grid == main) {
+                    if (mode == 1049) {
+                        saveCursor();
+                    }
+                    alt = new Grid(cols, rows);
+                    grid = alt;
+                } else if (!enabled && grid == alt) {
+                    grid = main;
+                    alt = null;
+                    if (mode == 1049) {
+                        restoreCursor();
+                    }
+                }
+            }
+            default -> {
+                // 마우스 추적, bracketed paste 등은 화면 내용과 무관
+            }
+        }
+    }
+
+    private void selectGraphicRendition() {
+        if (paramCount == 0) {
+            attr = 0;
+            return;
+        }
+
+        for (int i = 0; i < paramCount; i++) {
+            int p = params[i];
+            switch (p) {
+                case 0 -> attr = 0;
+                case 1 -> attr |= BOLD;
+                case 2 -> attr |= DIM;
+                case 3 -> attr |= ITALIC;
+                case 4 -> attr |= UNDERLINE;
+                case 5 -> attr |= BLINK;
+                case 7 -> attr |= INVERSE;
+                case 8 -> attr |= HIDDEN;
+                case 9 -> attr |= STRIKE;
+                case 22 -> attr &= ~(BOLD | DIM);
+                case 23 -> attr &= ~ITALIC;
+                case 24 -> attr &= ~UNDERLINE;
+                case 25 -> attr &= ~BLINK;
+                case 27 -> attr &= ~INVERSE;
+                case 28 -> attr &= ~HIDDEN;
+                case 29 -> attr &= ~STRIKE;
+                case 39 -> attr = withForeground(0);
+                case 49 -> attr = withBackground(0);
+                case 38, 48 -> {
+                    int color = 0;
+                    if (i + 2 < paramCount && params[i + 1] == 5) {
+                        color = COLOR_PALETTE | (params[i + 2] & 0xFF);
+                        i += 2;
+                    } else if (i + 4 < paramCount && params[i + 1] == 2) {
+                        color = COLOR_RGB | ((params[i + 2] & 0xFF) << 16)
+                                | ((params[i + 3] & 0xFF) << 8) | (params[i + 4] & 0xFF);
+                        i += 4;
+                    }
+                    attr = p == 38 ? withForeground(color) : withBackground(color);
+                }
+                default -> {
+                    if (p >= 30 && p <= 37) {
+                        attr = withForeground(COLOR_PALETTE | (p - 30));
+                    } else if (p >= 40 && p <= 47) {
+                        attr = withBackground(COLOR_PALETTE | (p - 40));
+                    } else if (p >= 90 && p <= 97) {
+                        attr = withForeground(COLOR_PALETTE | (p - 90 + 8));
+                    } else if (p >= 100 && p <= 107) {
+                        attr = withBackground(COLOR_PALETTE | (p - 100 + 8));
+                    }
+                }
+            }
+        }
+    }
+
+    private long withForeground(int color) {
+        return (attr & ~COLOR_MASK) | color;
+    }
+
+    private long withBackground(int color) {
+        return (attr & ~(COLOR_MASK << BG_SHIFT)) | ((long) color << BG_SHIFT);
+    }
+
+    private void print(int c) {
+        if (c >= 0x0300 && c <= 0x036F) {
+            // 결합 문자는 셀을 차지하지 않음
+            return;
+        }
+
+        int width = isWide(c) ? 2 : 1;
+        if (wrapPending || (width == 2 && cursorX == cols - 1)) {
+            if (autoWrap) {
+                cursorX = 0;
+                lineFeed();
+            }
+            wrapPending = false;
+        }
+
+        int index = cursorY * cols + cursorX;
+        grid.chars[index] = c;
+        grid.attrs[index] = attr;
+        if (width == 2 && cursorX + 1 < cols) {
+            grid.chars[index + 1] = WIDE_TAIL;
+            grid.attrs[index + 1] = attr;
+        }
+
+        cursorX += width;
+        if (cursorX >= cols) {
+            cursorX = cols - 1;
+            wrapPending = autoWrap;
+        }
+    }
+
+    private void lineFeed() {
+        if (cursorY == scrollBottom) {
+            scrollUp(scrollTop, scrollBottom, 1);
+        } else if (cursorY < rows - 1) {
+            cursorY++;
+        }
+    }
+
+    private void reverseIndex() {
+        if (cursorY == scrollTop) {
+            scrollDown(scrollTop, scrollBottom, 1);
+        } else if (cursorY > 0) {
+            cursorY--;
+        }
+    }
+
+    private void scrollUp(int top, int bottom, int count) {
+        count = Math.min(count, bottom - top + 1);
+        int moved = (bottom - top + 1 - count) * cols;
+        System.arraycopy(grid.chars, (top + count) * cols, grid.chars, top * cols, moved);
+        System.arraycopy(grid.attrs, (top + count) * cols, grid.attrs, top * cols, moved);
+        for (int row = bottom - count + 1; row <= bottom; row++) {
+            clear(row, 0, cols);
+        }
+    }
+
+    private void scrollDown(int top, int bottom, int count) {
+        count = Math.min(count, bottom - top + 1);
+        int moved = (bottom - top + 1 - count) * cols;
+        System.arraycopy(grid.chars, top * cols, grid.chars, (top + count) * cols, moved);
+        System.arraycopy(grid.attrs, top * cols, grid.attrs, (top + count) * cols, moved);
+        for (int row = top; row < top + count; row++) {
+            clear(row, 0, cols);
+        }
+    }
+
+    private void insertLines(int count) {
+        if (cursorY >= scrollTop && cursorY <= scrollBottom) {
+            scrollDown(cursorY, scrollBottom, count);
+            cursorX = 0;
+        }
+    }
+
+    private void deleteLines(int count) {
+        if (cursorY >= scrollTop && cursorY <= scrollBottom) {
+            scrollUp(cursorY, scrollBottom, count);
+            cursorX = 0;
+        }
+    }
+
+    private void insertChars(int count) {
+        int rowStart = cursorY * cols;
+        count = Math.min(count, cols - cursorX);
+        int moved = cols - cursorX - count;
+        System.arraycopy(grid.chars, rowStart + cursorX, grid.chars, rowStart + cursorX + count, moved);
+        System.arraycopy(grid.attrs, rowStart + cursorX, grid.attrs, rowStart + cursorX + count, moved);
+        clear(cursorY, cursorX, cursorX + count);
+    }
+
+    private void deleteChars(int count) {
+        int rowStart = cursorY * cols;
+        count = Math.min(count, cols - cursorX);
+        int moved = cols - cursorX - count;
+        System.arraycopy(grid.chars, rowStart + cursorX + count, grid.chars, rowStart + cursorX, moved);
+        System.arraycopy(grid.attrs, rowStart + cursorX + count, grid.attrs, rowStart + cursorX, moved);
+        clear(cursorY, cols - count, cols);
+    }
+
+    private void eraseInDisplay(int mode) {
+        switch (mode) {
+            case 0 -> {
+                clear(cursorY, cursorX, cols);
+                for (int row = cursorY + 1; row < rows; row++) {
+                    clear(row, 0, cols);
+                }
+            }
+            case 1 -> {
+                for (int row = 0; row < cursorY; row++) {
+                    clear(row, 0, cols);
+                }
+                clear(cursorY, 0, cursorX + 1);
+            }
+            case 2, 3 -> {
+                for (int row = 0; row < rows; row++) {
+                    clear(row, 0, cols);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void eraseInLine(int mode) {
+        switch (mode) {
+            case 0 -> clear(cursorY, cursorX, cols);
+            case 1 -> clear(cursorY, 0, cursorX + 1);
+            case 2 -> clear(cursorY, 0, cols);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * row 의 [from, to) 셀 지우기 - 지운 셀은 현재 배경색을 가진다 (xterm 동작)
+     */
+    private void clear(int row, int from, int to) {
+        int start = row * cols + Math.max(0, from);
+        int end = row * cols + Math.min(cols, to);
+        if (start >= end) {
+            return;
+        }
+        Arrays.fill(grid.chars, start, end, EMPTY);
+        Arrays.fill(grid.attrs, start, end, attr & (COLOR_MASK << BG_SHIFT));
+    }
+
+    private void saveCursor() {
+        savedX = cursorX;
+        savedY = cursorY;
+        savedAttr = attr;
+    }
+
+    private void restoreCursor() {
+        cursorX = Math.min(savedX, cols - 1);
+        cursorY = Math.min(savedY, rows - 1);
+        attr = savedAttr;
+        wrapPending = false;
+    }
+
+    private void reset() {
+        main = new Grid(cols, rows);
+        alt = null;
+        grid = main;
+        cursorX = cursorY = 0;
+        savedX = savedY = 0;
+        attr = savedAttr = 0;
+        wrapPending = false;
+        scrollTop = 0;
+        scrollBottom = rows - 1;
+        autoWrap = true;
+        cursorVisible = true;
+    }
+
+    /**
+     * 화면 크기 변경 - 커서가 있는 줄이 보이도록 아래쪽 줄 기준으로 내용을 옮긴다
+     */
+    public synchronized void resize(int newCols, int newRows) {
+        newCols = Math.max(1, newCols);
+        newRows = Math.max(1, newRows);
+        if (newCols == cols && newRows == rows) {
+            return;
+        }
+
+        int shift = Math.max(0, cursorY - (newRows - 1));
+        main = copyGrid(main, newCols, newRows, shift);
+        if (alt != null) {
+            alt = copyGrid(alt, newCols, newRows, shift);
+        }
+        grid = grid == alt && alt != null ? alt : main;
+
+        cols = newCols;
+        rows = newRows;
+        cursorY -= shift;
+        cursorX = Math.min(cursorX, cols - 1);
+        savedX = Math.min(savedX, cols - 1);
+        savedY = Math.min(savedY, rows - 1);
+        scrollTop = 0;
+        scrollBottom = rows - 1;
+        wrapPending = false;
+    }
+
+    private Grid copyGrid(Grid source, int newCols, int newRows, int shift) {
+        Grid copy = new Grid(newCols, newRows);
+        int width = Math.min(cols, newCols);
+        for (int row = 0; row < newRows && row + shift < rows; row++) {
+            System.arraycopy(source.chars, (row + shift) * cols, copy.chars, row * newCols, width);
+            System.arraycopy(source.attrs, (row + shift) * cols, copy.attrs, row * newCols, width);
+        }
+        return copy;
+    }
+
+    /**
+     * 현재 화면을 그대로 다시 그리는 출력 시퀀스
+     * 일반 화면을 먼저 그리고, 대체 화면(vim, less 등)이 켜져 있으면 전환한 뒤 대체 화면을 그린다.
+     */
+    public synchronized byte[] snapshot() {
+        StringBuilder out = new StringBuilder(rows * cols + 256);
+
+        out.append("\u001b[?1049l\u001b[0m\u001b[r\u001b[H\u001b[2J");
+        render(main, out);
+        if (grid == alt) {
+            out.append("\u001b[?1049h\u001b[0m\u001b[H\u001b[2J");
+            render(alt, out);
+        }
+
+        if (scrollTop != 0 || scrollBottom != rows - 1) {
+            out.append("\u001b[").append(scrollTop + 1).append(';').append(scrollBottom + 1).append('r');
+        }
+        appendSgr(attr, out);
+        out.append("\u001b[").append(cursorY + 1).append(';').append(cursorX + 1).append('H');
+        if (!autoWrap) {
+            out.append("\u001b[?7l");
+        }
+        if (!cursorVisible) {
+            out.append("\u001b[?25l");
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void render(Grid source, StringBuilder out) {
+        long current = 0;
+        for (int row = 0; row < rows; row++) {
+            int rowStart = row * cols;
+
+            // 기본 속성의 빈 칸으로 끝나는 부분은 생략
+            int last = cols - 1;
+            while (last >= 0 && source.chars[rowStart + last] == EMPTY && source.attrs[rowStart + last] == 0) {
+                last--;
+            }
+            if (last < 0) {
+                continue;
+            }
+
+            out.append("\u001b[").append(row + 1).append(";1H");
+            for (int col = 0; col <= last; col++) {
+                int c = source.chars[rowStart + col];
+                if (c == WIDE_TAIL) {
+                    continue;
+                }
+                long cellAttr = source.attrs[rowStart + col];
+                if (cellAttr != current) {
+                    appendSgr(cellAttr, out);
+                    current = cellAttr;
+                }
+                out.appendCodePoint(c == EMPTY ? ' ' : c);
+            }
+        }
+        if (current != 0) {
+            out.append("\u001b[0m");
+        }
+    }
+
+    private static void appendSgr(long cellAttr, StringBuilder out) {
+        out.append("\u001b[0");
+        if ((cellAttr & BOLD) != 0) out.append(";1");
+        if ((cellAttr & DIM) != 0) out.append(";2");
+        if ((cellAttr & ITALIC) != 0) out.append(";3");
+        if ((cellAttr & UNDERLINE) != 0) out.append(";4");
+        if ((cellAttr & BLINK) != 0) out.append(";5");
+        if ((cellAttr & INVERSE) != 0) out.append(";7");
+        if ((cellAttr & HIDDEN) != 0) out.append(";8");
+        if ((cellAttr & STRIKE) != 0) out.append(";9");
+        appendColor((int) (cellAttr & COLOR_MASK), 38, out);
+        appendColor((int) ((cellAttr >>> BG_SHIFT) & COLOR_MASK), 48, out);
+        out.append('m');
+    }
+
+    private static void appendColor(int color, int base, StringBuilder out) {
+        int value = color & 0xFFFFFF;
+        if ((color & COLOR_RGB) != 0) {
+            out.append(';').append(base).append(";2;")
+                    .append((value >> 16) & 0xFF).append(';')
+                    .append((value >> 8) & 0xFF).append(';')
+                    .append(value & 0xFF);
+        } else if ((color & COLOR_PALETTE) != 0) {
+            out.append(';').append(base).append(";5;").append(value);
+        }
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+    /**
+     * 터미널에서 2칸을 차지하는 문자 (한글, CJK, 전각 기호, 이모지)
+     */
+    private static boolean isWide(int c) {
+        return (c >= 0x1100 && c <= 0x115F)
+                || (c >= 0x2E80 && c <= 0xA4CF && c != 0x303F)
+                || (c >= 0xAC00 && c <= 0xD7A3)
+                || (c >= 0xF900 && c <= 0xFAFF)
+                || (c >= 0xFE30 && c <= 0xFE4F)
+                || (c >= 0xFF00 && c <= 0xFF60)
+                || (c >= 0xFFE0 && c <= 0xFFE6)
+                || (c >= 0x1F300 && c <= 0x1F64F)
+                || (c >= 0x1F900 && c <= 0x1F9FF)
+                || (c >= 0x20000 && c <= 0x3FFFD);
+    }
+
+    public synchronized int getCols() {
+        return cols;
+    }
+
+    public synchronized int getRows() {
+        return rows;
+    }
+}
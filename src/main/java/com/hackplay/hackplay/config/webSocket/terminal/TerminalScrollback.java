@@ -0,0 +1,103 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 재접속용 스크롤백 링 버퍼 (off-heap)
+ * 클라이언트로 보낸 출력 바이트를 고정 크기 direct ByteBuffer 에 순환 기록한다.
+ * 각 바이트는 세션 시작부터 단조 증가하는 offset 을 가지며, 클라이언트는 마지막으로 받은 offset 을 보내
+ * 놓친 구간만 다시 받는다. 용량을 넘은 오래된 구간은 덮어쓴다.
+ */
+public class TerminalScrollback {
+
+    // 처음 기록할 때 할당하고 release() 후에는 다시 null (접속만 하고 출력이 없는 세션은 링을 갖지 않는다)
+    private ByteBuffer ring;
+    private final int capacity;
+
+    // 지금까지 기록된 바이트의 끝 offset (다음 바이트의 offset)
+    private long endOffset;
+    // 링에 남아 있을 수 있는 가장 이른 offset
+    // 새 셸이 기존 키로 열리면 클라이언트의 offset 에서 이어서 세고, release() 하면 그 시점의 끝으로 옮겨진다
+    private long baseOffset;
+
+    public TerminalScrollback(int capacity, long baseOffset) {
+        this.capacity = capacity;
+        this.baseOffset = baseOffset;
+        this.endOffset = baseOffset;
+    }
+
+    /**
+     * 링 메모리 반환 (유휴 세션 동면 시) - 이후 재접속은 화면 스냅샷으로 복구된다
+     */
+    public synchronized void release() {
+        ring = null;
+        baseOffset = endOffset;
+    }
+
+    /**
+     * 보낸 프레임 기록 (frame 의 position / limit 은 바꾸지 않음)
+     */
+    public synchronized void append(ByteBuffer frame) {
+        if (ring == null) {
+            ring = ByteBuffer.allocateDirect(capacity);
+        }
+
+        int length = frame.remaining();
+        int skip = Math.max(0, length - capacity);
+        int from = frame.position() + skip;
+        int remaining = length - skip;
+        long offset = endOffset + skip;
+
+        while (remaining > 0) {
+            int index = (int) (offset % capacity);
+            int chunk = Math.min(remaining, capacity - index);
+            ring.put(index, frame, from, chunk);
+            from += chunk;
+            offset += chunk;
+            remaining -= chunk;
+        }
+        endOffset += length;
+    }
+
+    /**
+     * offset 부터 최대 maxBytes 를 frame 에 채운다 (UTF-8 문자 경계 기준)
+     * 이미 덮어쓴 구간을 요청하면 남아 있는 가장 오래된 바이트부터 채운다.
+     * @return 다음에 읽을 offset, frame 은 읽기 모드로 flip 된 상태
+     */
+    public synchronized long read(long offset, ByteBuffer frame, int maxBytes) {
+        frame.clear();
+
+        long from = Math.min(Math.max(offset, getStartOffset()), endOffset);
+        int length = (int) Math.min(endOffset - from, Math.min(frame.remaining(), maxBytes));
+
+        int position = frame.arrayOffset() + frame.position();
+        int copied = 0;
+        while (copied < length) {
+            int index = (int) ((from + copied) % capacity);
+            int chunk = Math.min(length - copied, capacity - index);
+            ring.get(index, frame.array(), position + copied, chunk);
+            copied += chunk;
+        }
+
+        // 프레임 끝에 걸린 불완전한 문자는 다음 프레임으로 넘긴다
+        int complete = TerminalOutputBuffer.completeLength(frame.array(), position, length);
+        if (complete > 0) {
+            length = complete;
+        }
+
+        frame.position(frame.position() + length);
+        frame.flip();
+        return from + length;
+    }
+
+    /**
+     * 아직 링에 남아 있는 가장 오래된 offset
+     */
+    public synchronized long getStartOffset() {
+        return Math.max(baseOffset, endOffset - capacity);
+    }
+
+    public synchronized long getEndOffset() {
+        return endOffset;
+    }
+}
@@ -0,0 +1,391 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import com.hackplay.hackplay.config.process.Pty;
+import com.hackplay.hackplay.config.webSocket.OutputThrottle;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 터미널 세션 하나의 상태 (셸 프로세스, 입출력 스트림, WebSocket)
+ * 기존 processes / writers / readerThreads 맵을 하나로 묶은 객체
+ * pty 가 있으면 입출력은 pty master 를 거치고, 없으면 프로세스 파이프(stdin/stdout)를 쓴다.
+ * 셸은 WebSocket 연결보다 오래 살 수 있다 - 연결이 끊기면 유예 시간 동안 분리(detached) 상태로 남고,
+ * 같은 세션 키로 재접속하면 새 WebSocket 을 붙여 스크롤백에서 놓친 출력만 다시 보낸다.
+ */
+public class TerminalSession {
+
+    // 클라이언트가 정한 세션 키 (재접속 시 같은 셸을 찾는 데 사용)
+    private final String id;
+    // 세션을 연 회원 (토큰 없이 연결했으면 null - 재접속 불가) - 다른 회원이 키로 재접속하지 못하게 확인
+    private final String owner;
+    private final Process process;
+    private final InputStream stdout;
+    private final OutputStream stdin;
+    private final TerminalInputQueue input;
+    private final TerminalOutputBuffer output;
+    private final TerminalScrollback scrollback;
+    private final TerminalScreen screen;
+    // 출력 폭주 시 송신량 제한 (펌프 스레드만 사용)
+    private final OutputThrottle throttle;
+
+    // 의사 터미널 (네이티브 사용 불가 시 null - 파이프 방식)
+    private final Pty pty;
+
+    // 현재 연결된 WebSocket (분리 상태면 null)
+    private volatile WebSocketSession webSocketSession;
+
+    // 바이너리 서브프로토콜로 협상된 연결이면 stdout 바이트를 디코딩 없이 BinaryMessage로 전달
+    private volatile boolean binary;
+
+    // 다음 전송 때 보낼 텍스트 제어 메시지 (바이너리 세션 전용, 송신자는 flush 하나뿐이므로 거기서 보낸다)
+    private final Queue<String> controlMessages = new ConcurrentLinkedQueue<>();
+
+    // 재접속 직후 스크롤백에서 다시 보낼 시작 offset (없으면 -1)
+    private long resumeOffset = -1;
+
+    // 분리 상태에서 셸을 정리할 시각 (System.nanoTime 기준)
+    private volatile long resumeDeadline;
+
+    // 마지막 입력 또는 출력 시각 (System.nanoTime 기준) - 유휴 세션 동면 판단
+    private volatile long lastActivityAt = System.nanoTime();
+    // 동면(SIGSTOP) 상태 - 전환은 TerminalIoEngine 이 세션 단위로 동기화해 처리
+    private volatile boolean hibernated;
+    private volatile long hibernatedAt;
+
+    // 풀에서 꺼낸 셸에 보낸 준비 명령의 출력(명령 에코, 이전 프롬프트)은 이 표식까지 버린다
+    private static final byte[] READY_MARKER = "\u001b]777;hackplay-ready\u0007".getBytes(StandardCharsets.UTF_8);
+    private static final long READY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    // 표식과 일치한 바이트 수 (-1 이면 버리는 중이 아님)
+    private int readyMatched = -1;
+    private long readyDeadline;
+
+    // pty slave 가 모두 닫혀 읽기가 끝을 알림 (셸 종료 직전) - 펌프는 이 세션을 poll 대기에서 뺀다
+    private boolean outputEnded;
+
+    private volatile boolean exited;
+    private volatile int exitCode;
+    private volatile boolean closed;
+    private volatile boolean closeRequested;
+
+    public TerminalSession(String id, String owner, WebSocketSession webSocketSession, Process process, Pty pty,
+                           TerminalInputQueue input, TerminalOutputBuffer output, TerminalScrollback scrollback, TerminalScreen screen,
+                           OutputThrottle throttle, boolean binary) {
+        this.id = id;
+        this.owner = owner;
+        this.webSocketSession = webSocketSession;
+        this.process = process;
+        this.pty = pty;
+        this.stdout = process.getInputStream();
+        this.stdin = process.getOutputStream();
+        this.input = input;
+        this.output = output;
+        this.scrollback = scrollback;
+        this.screen = screen;
+        this.throttle = throttle;
+        this.binary = binary;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public WebSocketSession getWebSocketSession() {
+        return webSocketSession;
+    }
+
+    /**
+     * 재접속 허용 여부 - 인증된 같은 회원이고 셸이 아직 살아 있어야 한다
+     */
+    public boolean canResume(String owner) {
+        return this.owner != null && this.owner.equals(owner) && process.isAlive() && !closeRequested && !closed;
+    }
+
+    /**
+     * 새 WebSocket 연결을 붙이고, 다음 전송에서 offset 이후의 스크롤백을 먼저 보내도록 예약
+     */
+    synchronized void reattach(WebSocketSession webSocketSession, boolean binary, long offset) {
+        this.webSocketSession = webSocketSession;
+        this.binary = binary;
+        this.resumeOffset = offset;
+    }
+
+    /**
+     * 연결이 끊긴 WebSocket 분리
+     * @return 이 세션의 현재 연결이었으면 true (이미 다른 연결로 재접속했으면 false)
+     */
+    public synchronized boolean detach(WebSocketSession webSocketSession, long resumeDeadline) {
+        if (this.webSocketSession != webSocketSession) {
+            return false;
+        }
+        this.webSocketSession = null;
+        this.resumeOffset = -1;
+        this.resumeDeadline = resumeDeadline;
+        return true;
+    }
+
+    public boolean isDetached() {
+        return webSocketSession == null;
+    }
+
+    boolean isResumeExpired(long now) {
+        return isDetached() && now - resumeDeadline > 0;
+    }
+
+    synchronized boolean hasPendingResume() {
+        return resumeOffset >= 0;
+    }
+
+    /**
+     * 예약된 스크롤백 재전송 offset 을 꺼낸다
+     * @return 없으면 -1
+     */
+    synchronized long takeResumeOffset() {
+        long offset = resumeOffset;
+        resumeOffset = -1;
+        return offset;
+    }
+
+    public TerminalScrollback getScrollback() {
+        return scrollback;
+    }
+
+    public TerminalScreen getScreen() {
+        return screen;
+    }
+
+    public OutputThrottle getThrottle() {
+        return throttle;
+    }
+
+    public TerminalInputQueue getInput() {
+        return input;
+    }
+
+    void queueControl(String message) {
+        controlMessages.add(message);
+    }
+
+    String pollControl() {
+        return controlMessages.poll();
+    }
+
+    boolean hasPendingControl() {
+        return !controlMessages.isEmpty();
+    }
+
+    void touch(long now) {
+        lastActivityAt = now;
+    }
+
+    long getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    void markHibernated(long now) {
+        hibernatedAt = now;
+        hibernated = true;
+    }
+
+    void markAwake(long now) {
+        hibernated = false;
+        lastActivityAt = now;
+    }
+
+    public boolean isHibernated() {
+        return hibernated;
+    }
+
+    long getHibernatedAt() {
+        return hibernatedAt;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    public boolean hasPty() {
+        return pty != null;
+    }
+
+    Pty getPty() {
+        return pty;
+    }
+
+    /**
+     * 논블로킹 출력 읽기 (펌프 스레드 전용)
+     * @return 읽은 바이트 수, 읽을 데이터가 없으면 0, 출력 스트림이 끝났으면 -1
+     */
+    int readOutput(byte[] buffer) throws IOException {
+        if (pty != null) {
+            int read = pty.read(buffer, buffer.length);
+            outputEnded = read < 0;
+            return read;
+        }
+
+        int available = stdout.available();
+        if (available <= 0) {
+            return 0;
+        }
+        return stdout.read(buffer, 0, Math.min(available, buffer.length));
+    }
+
+    /**
+     * 마지막 읽기에서 pty 출력이 끝났는지 (펌프 스레드 전용)
+     */
+    boolean isOutputEnded() {
+        return outputEnded;
+    }
+
+    /**
+     * 셸을 작업 디렉터리로 옮기고, 그 전까지의 출력은 버리도록 준비
+     * 표식은 printf 의 8진 이스케이프로 출력하므로 에코된 명령 문자열과는 일치하지 않는다.
+     */
+    public void prepare(File workDir) throws IOException {
+        String command = " cd -- " + shellQuote(workDir.getPath()) + " 2>/dev/null; "
+                + "printf '\\033]777;hackplay-ready\\007'\n";
+        readyDeadline = System.nanoTime() + READY_TIMEOUT_NANOS;
+        readyMatched = 0;
+        writeInput(command);
+    }
+
+    /**
+     * 준비 표식 이전의 출력 건너뛰기 (펌프 스레드 전용)
+     * @return buffer 에서 실제로 내보낼 시작 위치 (length 면 모두 버림)
+     */
+    int skipStartupOutput(byte[] buffer, int length) {
+        if (readyMatched < 0) {
+            return 0;
+        }
+        if (System.nanoTime() - readyDeadline > 0) {
+            // 표식이 오지 않으면 그대로 보여준다 (셸이 예상과 다르게 동작하는 경우)
+            readyMatched = -1;
+            return 0;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == READY_MARKER[readyMatched]) {
+                if (++readyMatched == READY_MARKER.length) {
+                    readyMatched = -1;
+                    return i + 1;
+                }
+            } else {
+                readyMatched = buffer[i] == READY_MARKER[0] ? 1 : 0;
+            }
+        }
+        return length;
+    }
+
+    private static String shellQuote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    /**
+     * 셸로 직접 입력 전달 (세션 준비 명령 등 - 사용자 입력은 입력 대기열을 거친다)
+     */
+    public void writeInput(String input) throws IOException {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        writeInput(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 블로킹 쓰기 (파이프 방식은 셸이 읽어갈 때까지 기다린다)
+     */
+    void writeInput(byte[] bytes, int offset, int length) throws IOException {
+        if (pty != null) {
+            pty.write(bytes, offset, length);
+            return;
+        }
+        stdin.write(bytes, offset, length);
+        stdin.flush();
+    }
+
+    /**
+     * 논블로킹 쓰기 (pty 세션의 펌프 스레드 전용)
+     * @return 쓴 바이트 수, tty 입력 큐가 가득 차 있으면 0
+     */
+    int tryWriteInput(byte[] bytes, int offset, int length) throws IOException {
+        return pty.tryWrite(bytes, offset, length);
+    }
+
+    /**
+     * 셸 입력 종료 (파이프 방식의 Ctrl+D)
+     */
+    public void closeInput() {
+        try {
+            stdin.close();
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * 터미널 크기 변경 - 화면 모델은 항상 맞추고, pty 가 없으면 셸에 알릴 방법이 없으므로 무시
+     */
+    public void resize(int cols, int rows) throws IOException {
+        screen.resize(cols, rows);
+        if (pty != null) {
+            pty.resize(cols, rows);
+        }
+    }
+
+    /**
+     * 입력 스트림과 pty master 정리
+     */
+    public void close() {
+        closeInput();
+        if (pty != null) {
+            pty.close();
+        }
+    }
+
+    public TerminalOutputBuffer getOutput() {
+        return output;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    void markExited(int exitCode) {
+        this.exitCode = exitCode;
+        this.exited = true;
+    }
+
+    public boolean isExited() {
+        return exited;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * 남은 출력을 모두 보낸 뒤 WebSocket을 닫도록 예약
+     */
+    void requestClose() {
+        this.closeRequested = true;
+    }
+
+    boolean isCloseRequested() {
+        return closeRequested;
+    }
+
+    void markClosed() {
+        this.closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,59 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 터미널 세션 레지스트리
+ * 세션 키 → 터미널 세션, WebSocket 세션 ID → 터미널 세션 두 가지로 조회한다.
+ * 터미널 세션은 재접속으로 여러 WebSocket 연결을 거칠 수 있다.
+ */
+@Component
+public class TerminalSessionRegistry {
+
+    private final Map<String, TerminalSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, TerminalSession> connections = new ConcurrentHashMap<>();
+
+    public void register(TerminalSession session) {
+        sessions.put(session.getId(), session);
+        bind(session.getWebSocketSession().getId(), session);
+    }
+
+    /**
+     * WebSocket 세션 ID 로 조회
+     */
+    public TerminalSession get(String connectionId) {
+        return connections.get(connectionId);
+    }
+
+    /**
+     * 세션 키로 조회 (재접속용)
+     */
+    public TerminalSession find(String sessionKey) {
+        return sessions.get(sessionKey);
+    }
+
+    public void bind(String connectionId, TerminalSession session) {
+        connections.put(connectionId, session);
+    }
+
+    public TerminalSession unbind(String connectionId) {
+        return connections.remove(connectionId);
+    }
+
+    public void remove(TerminalSession session) {
+        sessions.remove(session.getId(), session);
+        connections.values().removeIf(s -> s == session);
+    }
+
+    public Collection<TerminalSession> all() {
+        return sessions.values();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
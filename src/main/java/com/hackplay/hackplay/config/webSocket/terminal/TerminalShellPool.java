@@ -0,0 +1,204 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import com.hackplay.hackplay.config.process.ProcessControl;
+import com.hackplay.hackplay.config.process.Pty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 미리 띄워 둔 유휴 셸 풀
+ * 수업 시작처럼 접속이 몰릴 때 WebSocket 핸드셰이크 스레드에서 bash 를 띄우는 비용을 없앤다.
+ * 셸을 꺼내 가면 백그라운드 스레드가 노드별 설정 크기까지 다시 채운다.
+ * 풀의 셸은 공통 환경으로만 시작하고, 세션에 묶일 때 작업 디렉터리 이동 등은 TerminalSession 이 처리한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalShellPool {
+
+    private final ProcessControl processControl;
+    private final MeterRegistry meterRegistry;
+
+    // 노드당 유지할 유휴 셸 수 (0 이면 풀 미사용 - 접속마다 새로 띄움)
+    @Value("${terminal.pool.size:4}")
+    private int poolSize;
+
+    @Value("${terminal.pool.default-cols:120}")
+    private int defaultCols;
+
+    @Value("${terminal.pool.default-rows:30}")
+    private int defaultRows;
+
+    /** 셸 프로세스와 연결된 pty (파이프 방식이면 null) */
+    public static final class Shell {
+
+        private final Process process;
+        private final Pty pty;
+        private boolean pooled;
+
+        Shell(Process process, Pty pty) {
+            this.process = process;
+            this.pty = pty;
+        }
+
+        /** 풀에서 꺼낸 셸이면 true, 풀이 비어 새로 띄웠으면 false */
+        public boolean isPooled() {
+            return pooled;
+        }
+
+        public Process getProcess() {
+            return process;
+        }
+
+        public Pty getPty() {
+            return pty;
+        }
+    }
+
+    private final Queue<Shell> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private ExecutorService refiller;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void start() {
+        hits = Counter.builder("terminal.pool.acquire")
+                .description("Terminal shells taken from the pre-warmed pool")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("terminal.pool.acquire")
+                .description("Terminal shells spawned on demand because the pool was empty")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("terminal.pool.idle", idleCount, AtomicInteger::get)
+                .description("Idle pre-warmed terminal shells")
+                .register(meterRegistry);
+
+        refiller = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "terminal-shell-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+
+    @PreDestroy
+    public void stop() {
+        refiller.shutdownNow();
+        Shell shell;
+        while ((shell = idle.poll()) != null) {
+            discard(shell);
+        }
+    }
+
+    /**
+     * 셸 하나를 꺼낸다 - 풀이 비어 있으면 호출 스레드에서 바로 띄운다
+     */
+    public Shell acquire(int cols, int rows) throws IOException {
+        Shell shell;
+        while ((shell = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            if (shell.getProcess().isAlive()) {
+                break;
+            }
+            discard(shell);
+        }
+        refill();
+
+        if (shell == null) {
+            misses.increment();
+            return spawn(cols, rows);
+        }
+
+        hits.increment();
+        shell.pooled = true;
+        if (shell.getPty() != null) {
+            shell.getPty().resize(cols, rows);
+        }
+        return shell;
+    }
+
+    private void refill() {
+        if (poolSize <= 0 || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        refiller.execute(() -> {
+            try {
+                while (idleCount.get() < poolSize && !Thread.currentThread().isInterrupted()) {
+                    idle.add(spawn(defaultCols, defaultRows));
+                    idleCount.incrementAndGet();
+                }
+            } catch (IOException e) {
+                log.warn("Failed to pre-spawn terminal shell: {}", e.getMessage());
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    private Shell spawn(int cols, int rows) throws IOException {
+        // 의사 터미널을 열 수 있으면 셸을 pty 에 연결 (크기 변경 / 시그널을 tty 가 처리)
+        Pty pty = processControl.openPty(cols, rows);
+
+        try {
+            // 리눅스 환경에서 bash 셸 시작
+            ProcessBuilder pb = (pty != null
+                    ? processControl.ptyProcessBuilder(pty, "/bin/bash", "-i")
+                    : new ProcessBuilder("/bin/bash", "-i").redirectErrorStream(true))
+                    .directory(new File(System.getProperty("user.dir")));
+
+            // 환경 변수 설정 (터미널 크기, 색상 지원 등)
+            Map<String, String> env = pb.environment();
+            env.put("TERM", "xterm-256color");
+            env.put("COLUMNS", String.valueOf(cols));
+            env.put("LINES", String.valueOf(rows));
+            env.put("PS1", "\\u@\\h:\\w$ "); // 프롬프트 설정
+            env.put("HISTCONTROL", "ignorespace"); // 세션 준비 명령은 히스토리에 남기지 않음
+
+            return new Shell(pb.start(), pty);
+
+        } catch (IOException e) {
+            if (pty != null) {
+                pty.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 세션에 묶지 못한 셸 정리
+     */
+    public void discard(Shell shell) {
+        if (shell.getProcess().isAlive()) {
+            processControl.killTree(shell.getProcess().toHandle());
+        }
+        if (shell.getPty() != null) {
+            shell.getPty().close();
+        }
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+}
@@ -0,0 +1,56 @@
+package com.hackplay.hackplay.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hackplay.hackplay.common.ApiResponse;
+import com.hackplay.hackplay.dto.RunLogPageRespDto;
+import com.hackplay.hackplay.dto.RunLogRespDto;
+import com.hackplay.hackplay.service.RunLogService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/projects/{projectId}/runs")
+public class RunLogController {
+
+    private final RunLogService runLogService;
+
+    // 실행 기록 목록 (최근 실행부터)
+    @GetMapping
+    public ApiResponse<List<RunLogRespDto>> getRuns(@PathVariable("projectId") Long projectId) {
+        return ApiResponse.success(runLogService.getRuns(projectId));
+    }
+
+    // 실행 출력 조회 - fromLine 부터, 또는 at 시각부터 limit 줄 (runId 대신 latest 사용 가능)
+    @GetMapping("/{runId}/log")
+    public ApiResponse<RunLogPageRespDto> getLog(
+            @PathVariable("projectId") Long projectId,
+            @PathVariable("runId") String runId,
+            @RequestParam(value = "fromLine", defaultValue = "0") long fromLine,
+            @RequestParam(value = "at", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(value = "limit", defaultValue = "200") int limit) {
+        if (at != null) {
+            return ApiResponse.success(runLogService.getLinesFrom(projectId, runId, at, limit));
+        }
+        return ApiResponse.success(runLogService.getLines(projectId, runId, fromLine, limit));
+    }
+
+    // 실행 출력 마지막 lines 줄
+    @GetMapping("/{runId}/log/tail")
+    public ApiResponse<RunLogPageRespDto> getTail(
+            @PathVariable("projectId") Long projectId,
+            @PathVariable("runId") String runId,
+            @RequestParam(value = "lines", defaultValue = "200") int lines) {
+        return ApiResponse.success(runLogService.getTail(projectId, runId, lines));
+    }
+}
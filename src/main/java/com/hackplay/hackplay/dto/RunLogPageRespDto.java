@@ -0,0 +1,31 @@
+package com.hackplay.hackplay.dto;
+
+import java.util.List;
+
+import com.hackplay.hackplay.config.run.RunLogStore;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RunLogPageRespDto {
+
+    private String runId;
+    private long fromLine;
+    private long nextLine;
+    private long totalLines;
+    private boolean hasMore;
+    private List<String> lines;
+
+    public static RunLogPageRespDto from(RunLogStore.Page page) {
+        return RunLogPageRespDto.builder()
+                .runId(page.getRunId())
+                .fromLine(page.getFromLine())
+                .nextLine(page.getNextLine())
+                .totalLines(page.getTotalLines())
+                .hasMore(page.getNextLine() < page.getTotalLines())
+                .lines(page.getLines())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.hackplay.hackplay.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import com.hackplay.hackplay.config.run.RunLogStore;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RunLogRespDto {
+
+    private String runId;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private long lines;
+    private long size;
+    private boolean active;
+
+    public static RunLogRespDto from(RunLogStore.RunInfo run) {
+        return RunLogRespDto.builder()
+                .runId(run.getRunId())
+                .startedAt(toLocalDateTime(run.getStartedAt()))
+                .updatedAt(toLocalDateTime(run.getUpdatedAt()))
+                .lines(run.getLines())
+                .size(run.getBytes())
+                .active(run.isActive())
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
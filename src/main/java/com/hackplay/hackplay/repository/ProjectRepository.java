@@ -17,5 +17,7 @@ public interface ProjectRepository extends JpaRepository<Project, Long>{
     Optional<Project> findByMemberAndLecture(Member member, Lecture lecture);
 
     boolean existsByMemberAndLecture(Member member, Lecture lecture);
+
+    boolean existsByIdAndMemberUuid(Long id, String memberUuid);
     
 }
@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.hackplay.hackplay.common.BaseException;
 import com.hackplay.hackplay.common.BaseResponseStatus;
+import com.hackplay.hackplay.config.build.SourceFingerprints;
 import com.hackplay.hackplay.dto.DirectoryCreateReqDto;
 import com.hackplay.hackplay.dto.DirectoryTreeRespDto;
 import com.hackplay.hackplay.dto.DirectoryMoveReqDto;
@@ -31,6 +32,7 @@ public class DirectoryServiceImpl implements DirectoryService {
 
     private final MemberRepository memberRepository;
     private final ProjectRepository projectRepository;
+    private final SourceFingerprints sourceFingerprints;
 
     @Value("${projects.base-path}")
     private String BASE_PATH;
@@ -114,6 +116,7 @@ public class DirectoryServiceImpl implements DirectoryService {
         Path target = source.resolveSibling(directoryRenameReqDto.getNewName()).normalize();
 
         performMove(basePath, source, target);
+        sourceFingerprints.pathMoved(projectUuid, basePath, source, target);
     }
 
     @Override
@@ -129,6 +132,7 @@ public class DirectoryServiceImpl implements DirectoryService {
         Path target = newParent.resolve(source.getFileName()).normalize();
 
         performMove(basePath, source, target);
+        sourceFingerprints.pathMoved(projectUuid, basePath, source, target);
     }
 
     private void performMove(Path basePath, Path source, Path target) throws IOException {
@@ -169,5 +173,6 @@ public class DirectoryServiceImpl implements DirectoryService {
                         Files.deleteIfExists(path);
                     } catch (IOException ignored) {}
                 });
+        sourceFingerprints.pathRemoved(projectUuid, projectRoot, target);
     }
 }
@@ -2,6 +2,7 @@ package com.hackplay.hackplay.service;
 
 import com.hackplay.hackplay.common.BaseException;
 import com.hackplay.hackplay.common.BaseResponseStatus;
+import com.hackplay.hackplay.config.build.SourceFingerprints;
 import com.hackplay.hackplay.dto.FileCreateReqDto;
 import com.hackplay.hackplay.dto.FileMoveReqDto;
 import com.hackplay.hackplay.dto.FileRenameReqDto;
@@ -32,6 +33,7 @@ public class FileServiceImpl implements FileService {
 
     private final MemberRepository memberRepository;
     private final ProjectRepository projectRepository;
+    private final SourceFingerprints sourceFingerprints;
 
     @Value("${projects.base-path}")
     private String BASE_PATH;
@@ -68,6 +70,7 @@ public class FileServiceImpl implements FileService {
 
         Files.writeString(filePath, fileCreateReqDto.getContent(), StandardCharsets.UTF_8,
                 StandardOpenOption.CREATE_NEW);
+        sourceFingerprints.fileWritten(projectUuid, basePath, filePath);
 
         long size = fileCreateReqDto.getContent().getBytes(StandardCharsets.UTF_8).length;
         if (size > 1048576) {
@@ -119,6 +122,7 @@ public class FileServiceImpl implements FileService {
 
         Files.writeString(filePath, fileUpdateReqDto.getContent(), StandardCharsets.UTF_8,
                 StandardOpenOption.TRUNCATE_EXISTING);
+        sourceFingerprints.fileWritten(projectUuid, Paths.get(BASE_PATH, projectUuid), filePath);
 
         long newSize = fileUpdateReqDto.getContent().getBytes(StandardCharsets.UTF_8).length;
         if (newSize > 1048576) {
@@ -138,6 +142,7 @@ public class FileServiceImpl implements FileService {
         Path target = source.resolveSibling(fileRenameReqDto.getNewName()).normalize();
 
         performMove(basePath, source, target);
+        sourceFingerprints.pathMoved(projectUuid, basePath, source, target);
     }
 
     @Override
@@ -153,6 +158,7 @@ public class FileServiceImpl implements FileService {
         Path target = newParent.resolve(source.getFileName()).normalize();
 
         performMove(basePath, source, target);
+        sourceFingerprints.pathMoved(projectUuid, basePath, source, target);
     }
 
     private void performMove(Path basePath, Path source, Path target) throws IOException {
@@ -181,6 +187,7 @@ public class FileServiceImpl implements FileService {
             throw new BaseException(BaseResponseStatus.FILE_NOT_FOUND);
         }
         Files.deleteIfExists(filePath);
+        sourceFingerprints.pathRemoved(projectUuid, Paths.get(BASE_PATH, projectUuid), filePath);
     }
     
     /**
@@ -21,6 +21,7 @@ import com.hackplay.hackplay.common.BaseException;
 import com.hackplay.hackplay.common.BaseResponseStatus;
 import com.hackplay.hackplay.common.CommonEnums;
 import com.hackplay.hackplay.common.CommonEnums.WeekProgressStatus;
+import com.hackplay.hackplay.config.dependency.DependencyStore;
 import com.hackplay.hackplay.domain.Member;
 import com.hackplay.hackplay.domain.MemberProgress;
 import com.hackplay.hackplay.domain.Project;
@@ -45,6 +46,7 @@ public class ProjectServiceImpl implements ProjectService {
     private final ProjectRepository projectRepository;
     private final MemberRepository memberRepository;
     private final MemberProgressRepository memberProgressRepository;
+    private final DependencyStore dependencyStore;
 
     @Value("${projects.base-path}")
     private String projectsBasePath;
@@ -158,6 +160,9 @@ public class ProjectServiceImpl implements ProjectService {
             throw new BaseException(BaseResponseStatus.PROJECT_CREATION_FAILED);
         }
 
+        // 스캐폴드가 설치한 node_modules 를 공용 저장소와 공유 (실패해도 프로젝트는 그대로 사용 가능)
+        dependencyStore.linkNodeModules(projectPath.toFile(), projectCreateReqDto.getTemplateType());
+
         log.info("Project created successfully");
     }
 
@@ -0,0 +1,17 @@
+package com.hackplay.hackplay.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.hackplay.hackplay.dto.RunLogPageRespDto;
+import com.hackplay.hackplay.dto.RunLogRespDto;
+
+public interface RunLogService {
+    List<RunLogRespDto> getRuns(Long projectId);
+
+    RunLogPageRespDto getLines(Long projectId, String runId, long fromLine, int limit);
+
+    RunLogPageRespDto getLinesFrom(Long projectId, String runId, LocalDateTime at, int limit);
+
+    RunLogPageRespDto getTail(Long projectId, String runId, int lines);
+}
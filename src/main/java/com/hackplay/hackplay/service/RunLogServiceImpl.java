@@ -0,0 +1,97 @@
+package com.hackplay.hackplay.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hackplay.hackplay.common.BaseException;
+import com.hackplay.hackplay.common.BaseResponseStatus;
+import com.hackplay.hackplay.config.run.RunLogStore;
+import com.hackplay.hackplay.domain.Project;
+import com.hackplay.hackplay.dto.RunLogPageRespDto;
+import com.hackplay.hackplay.dto.RunLogRespDto;
+import com.hackplay.hackplay.repository.ProjectRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RunLogServiceImpl implements RunLogService {
+
+    // 한 번에 돌려주는 최대 줄 수
+    private static final int MAX_LINES = 1000;
+
+    private final ProjectRepository projectRepository;
+    private final RunLogStore runLogStore;
+
+    @Override
+    public List<RunLogRespDto> getRuns(Long projectId) {
+        String projectUuid = getProjectUuid(projectId);
+        try {
+            return runLogStore.runs(projectUuid).stream()
+                    .map(RunLogRespDto::from)
+                    .toList();
+        } catch (IOException e) {
+            log.error("Failed to list run logs of project {}: {}", projectUuid, e.getMessage());
+            throw new BaseException(BaseResponseStatus.RUN_LOG_READ_FAILED);
+        }
+    }
+
+    @Override
+    public RunLogPageRespDto getLines(Long projectId, String runId, long fromLine, int limit) {
+        String projectUuid = getProjectUuid(projectId);
+        try {
+            return toPage(runLogStore.read(projectUuid, runId, fromLine, clamp(limit)));
+        } catch (IOException e) {
+            log.error("Failed to read run log {} of project {}: {}", runId, projectUuid, e.getMessage());
+            throw new BaseException(BaseResponseStatus.RUN_LOG_READ_FAILED);
+        }
+    }
+
+    @Override
+    public RunLogPageRespDto getLinesFrom(Long projectId, String runId, LocalDateTime at, int limit) {
+        String projectUuid = getProjectUuid(projectId);
+        long epochMillis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        try {
+            return toPage(runLogStore.readFrom(projectUuid, runId, epochMillis, clamp(limit)));
+        } catch (IOException e) {
+            log.error("Failed to read run log {} of project {}: {}", runId, projectUuid, e.getMessage());
+            throw new BaseException(BaseResponseStatus.RUN_LOG_READ_FAILED);
+        }
+    }
+
+    @Override
+    public RunLogPageRespDto getTail(Long projectId, String runId, int lines) {
+        String projectUuid = getProjectUuid(projectId);
+        try {
+            return toPage(runLogStore.tail(projectUuid, runId, clamp(lines)));
+        } catch (IOException e) {
+            log.error("Failed to read run log {} of project {}: {}", runId, projectUuid, e.getMessage());
+            throw new BaseException(BaseResponseStatus.RUN_LOG_READ_FAILED);
+        }
+    }
+
+    private String getProjectUuid(Long projectId) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new BaseException(BaseResponseStatus.PROJECT_NOT_FOUND));
+        return project.getUuid();
+    }
+
+    private RunLogPageRespDto toPage(RunLogStore.Page page) {
+        if (page == null) {
+            throw new BaseException(BaseResponseStatus.RUN_LOG_NOT_FOUND);
+        }
+        return RunLogPageRespDto.from(page);
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LINES));
+    }
+}
@@ -1,6 +1,12 @@
 (function () {
 
   const FitAddon = window.FitAddon?.FitAddon;
+  const BINARY_PROTOCOL = "hackplay.binary.v1";
+  // 서버가 입력 일시 정지를 알린 동안 모아 둘 최대 입력 길이
+  const MAX_PENDING_INPUT = 64 * 1024;
+
+  // 브라우저 WebSocket 은 Authorization 헤더를 못 보내므로 액세스 토큰을 쿼리로 넘김
+  const accessToken = () => encodeURIComponent((localStorage.getItem("token") || "").replace(/^Bearer\s+/, ""));
 
   let terminals = {};
   let terminalCounter = 0;
@@ -73,23 +79,95 @@
       PTY TERMINAL SOCKET
   ================================= */
   function connectPtySocket(term, id) {
-    const ws = new WebSocket(`ws://${location.host}/ws/terminal`);
+    // 재접속용 세션 키와 지금까지 받은 출력 바이트 수 (서버 스크롤백 offset)
+    const conn = { key: newSessionKey(), offset: 0, ws: null, retries: 0, paused: false, pending: "" };
+    const encoder = new TextEncoder();
+
+    // 서버 pty 크기 동기화 (ESC ] resize;cols;rows BEL)
+    const sendResize = () => {
+      if (conn.ws?.readyState === WebSocket.OPEN) conn.ws.send(`\x1b]resize;${term.cols};${term.rows}\x07`);
+    };
 
-    ws.onopen = () => {
-      term.writeln("\x1b[32m[PTY connected]\x1b[0m");
+    const open = () => {
+      // 바이너리 서브프로토콜: 서버가 출력 바이트를 디코딩 없이 그대로 보냄
+      const ws = new WebSocket(
+        `ws://${location.host}/ws/terminal?cols=${term.cols}&rows=${term.rows}` +
+        `&session=${conn.key}&offset=${conn.offset}&token=${accessToken()}` +
+        (window.projectId ? `&projectId=${window.projectId}` : ""), [BINARY_PROTOCOL]);
+      ws.binaryType = "arraybuffer";
+      conn.ws = ws;
+      if (terminals[id]) terminals[id].ws = ws;
+
+      ws.onopen = () => {
+        term.writeln(conn.retries > 0
+          ? "\x1b[32m[PTY reconnected]\x1b[0m"
+          : "\x1b[32m[PTY connected]\x1b[0m");
+        conn.retries = 0;
+        sendResize();
+        // 끊기기 전에 일시 정지로 모아 둔 입력
+        conn.paused = false;
+        flushPending();
+      };
+
+      ws.onmessage = e => {
+        if (e.data instanceof ArrayBuffer) {
+          conn.offset += e.data.byteLength;
+          term.write(new Uint8Array(e.data));
+        } else if (ws.protocol === BINARY_PROTOCOL) {
+          // 바이너리 세션의 텍스트 프레임은 제어 메시지 (화면 스냅샷 이후의 출력 offset)
+          const control = JSON.parse(e.data);
+          if (control.type === "offset") conn.offset = control.offset;
+          // 서버 입력 대기열이 가득 차면 입력을 모아 두었다가 재개 알림 후 보냄
+          if (control.type === "input") {
+            conn.paused = control.paused;
+            if (!conn.paused) flushPending();
+          }
+        } else {
+          conn.offset += encoder.encode(e.data).length;
+          term.write(e.data);
+        }
+      };
+
+      ws.onclose = e => {
+        // 탭을 닫았거나 셸이 정상 종료(1000)된 경우가 아니면 같은 세션으로 재접속
+        if (!terminals[id] || terminals[id].ws !== ws) return;
+        if (e.code === 1000 || e.code === 1008) {
+          term.writeln("\n\x1b[31m[PTY disconnected]\x1b[0m");
+          return;
+        }
+        const delay = Math.min(1000 * 2 ** conn.retries, 10000);
+        conn.retries++;
+        term.writeln(`\r\n\x1b[33m[PTY connection lost, reconnecting in ${delay / 1000}s...]\x1b[0m`);
+        setTimeout(() => { if (terminals[id]) open(); }, delay);
+      };
     };
 
-    ws.onmessage = e => term.write(e.data);
+    term.onResize(sendResize);
 
-    ws.onclose = () => {
-      term.writeln("\n\x1b[31m[PTY disconnected]\x1b[0m");
+    const flushPending = () => {
+      if (!conn.pending || conn.ws?.readyState !== WebSocket.OPEN) return;
+      conn.ws.send(conn.pending);
+      conn.pending = "";
     };
 
     term.onData(data => {
-      if (ws.readyState === WebSocket.OPEN) ws.send(data);
+      if (conn.ws?.readyState !== WebSocket.OPEN) return;
+      if (!conn.paused || data === "\x03") {
+        // Ctrl+C 는 서버가 항상 받으며, 밀린 입력은 버린다
+        if (data === "\x03") conn.pending = "";
+        conn.ws.send(data);
+      } else if (conn.pending.length < MAX_PENDING_INPUT) {
+        conn.pending += data;
+      }
     });
 
-    return ws;
+    open();
+    return conn.ws;
+  }
+
+  function newSessionKey() {
+    if (window.crypto?.randomUUID) return crypto.randomUUID();
+    return Array.from({ length: 4 }, () => Math.random().toString(36).slice(2, 10)).join("-");
   }
 
   /* ================================
@@ -101,7 +179,12 @@ function connectRunSocket(term, id) {
     return null;
   }
 
-  const ws = new WebSocket(`ws://${location.host}/ws/run?projectId=${window.projectId}`);
+  // watch=true: 파일을 저장하면 서버가 앱만 다시 시작 (Ctrl+C 로 멈추면 감시도 해제)
+  const ws = new WebSocket(`ws://${location.host}/ws/run?projectId=${window.projectId}&watch=true&token=${accessToken()}`, [BINARY_PROTOCOL]);
+  ws.binaryType = "arraybuffer";
+
+  // 프레임 경계에 걸친 멀티바이트 문자를 위해 stream 모드로 디코딩
+  const decoder = new TextDecoder("utf-8");
 
   ws.onopen = () => {
     term.writeln("\x1b[36m[Run Terminal Connected]\x1b[0m");
@@ -121,7 +204,10 @@ function connectRunSocket(term, id) {
   let buffer = "";
 
   ws.onmessage = e => {
-    const cleaned = sanitizeTerminalOutput(e.data);
+    const text = e.data instanceof ArrayBuffer
+      ? decoder.decode(new Uint8Array(e.data), { stream: true })
+      : e.data;
+    const cleaned = sanitizeTerminalOutput(text);
     buffer += cleaned;
 
     let lines = buffer.split("\n");
@@ -197,7 +283,8 @@ function connectRunSocket(term, id) {
     const t = terminals[id];
     if (!t) return;
 
-    if (t.ws) t.ws.close();
+    // 1000(정상 종료): 서버가 셸을 재접속용으로 남겨두지 않고 바로 정리
+    if (t.ws) t.ws.close(1000);
     t.term.dispose();
     t.pane.remove();
     t.tab.remove();
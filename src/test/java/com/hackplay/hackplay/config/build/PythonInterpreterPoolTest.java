@@ -0,0 +1,150 @@
+package com.hackplay.hackplay.config.build;
+
+import com.hackplay.hackplay.config.process.ProcessControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PythonInterpreterPoolTest {
+
+    private static final String TEMPLATE = "test";
+
+    @TempDir
+    Path project;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PythonInterpreterPool pool;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(pythonAvailable(), "python is not installed");
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new PythonInterpreterPool(new ProcessControl(), meterRegistry);
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "poolSize", 1);
+        ReflectionTestUtils.setField(pool, "interpreter", "python");
+        ReflectionTestUtils.setField(pool, "preload", "json,textwrap");
+        pool.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.stop();
+        }
+    }
+
+    @Test
+    void projectModuleShadowsPreloadedOneLikeInAColdRun() throws Exception {
+        Files.writeString(project.resolve("json.py"), "WHO = 'project'\n");
+        Files.writeString(project.resolve("main.py"), """
+                import json, os, sys, textwrap
+                print(getattr(json, "WHO", "stdlib"), json.__file__ == os.path.abspath("json.py"))
+                print(textwrap.__name__, hasattr(textwrap, "dedent"))
+                print(__name__, sys.argv, os.environ.get("GREETING"), os.getcwd() == sys.path[0])
+                """);
+
+        String cold = run(pb("python main.py a b").start());
+        String pooled = run(startPooled(pb("python main.py a b")));
+
+        assertTrue(cold.startsWith("project True\n"), cold);
+        assertEquals(cold, pooled);
+    }
+
+    @Test
+    void flaskCommandRunsTheModuleLikePythonDashM() throws Exception {
+        // 프로젝트 안의 가짜 flask 패키지 - python -m flask 와 같은 argv / __name__ / sys.path 를 받는지만 본다
+        Files.createDirectories(project.resolve("flask"));
+        Files.writeString(project.resolve("flask/__init__.py"), "");
+        Files.writeString(project.resolve("flask/__main__.py"), """
+                import os, sys
+                print(__name__, sys.argv[0] == os.path.abspath(__file__), sys.argv[1:])
+                print(sys.path[0] == os.getcwd(), os.environ.get("GREETING"))
+                """);
+
+        String cold = run(pb("python -m flask --app app run --host 127.0.0.1 --port 20001").start());
+        String pooled = run(startPooled(pb("flask --app app run --host 127.0.0.1 --port 20001")));
+
+        assertTrue(cold.startsWith("__main__ True ['--app', 'app', 'run', '--host', '127.0.0.1', '--port', '20001']\n"), cold);
+        assertEquals(cold, pooled);
+    }
+
+    @Test
+    void plainAppPyRunsItsMainBlockOnTheLeasedPort() throws Exception {
+        // flask CLI 를 쓰지 않는 app.py - __main__ 블록의 초기화가 돌고 PORT 를 읽는다
+        Files.writeString(project.resolve("app.py"), """
+                import os
+                print("module", __name__)
+                if __name__ == "__main__":
+                    print("setup ran, port", os.environ["PORT"], os.environ["FLASK_RUN_PORT"])
+                """);
+
+        ProcessBuilder cold = pb("python app.py");
+        ProcessBuilder warm = pb("python app.py");
+        for (ProcessBuilder builder : new ProcessBuilder[] {cold, warm}) {
+            builder.environment().put("PORT", "20002");
+            builder.environment().put("FLASK_RUN_PORT", "20002");
+        }
+
+        String coldOutput = run(cold.start());
+        String pooledOutput = run(startPooled(warm));
+
+        assertEquals("module __main__\nsetup ran, port 20002 20002\n", coldOutput);
+        assertEquals(coldOutput, pooledOutput);
+    }
+
+    @Test
+    void shellSyntaxFallsBackToAColdStart() {
+        assertNull(pool.start(TEMPLATE, pb("python main.py && echo done")));
+        assertNull(pool.start(TEMPLATE, pb("python3 main.py")));
+    }
+
+    private ProcessBuilder pb(String command) {
+        ProcessBuilder pb = new ProcessBuilder("bash", "-c", command)
+                .directory(project.toFile())
+                .redirectErrorStream(true);
+        pb.environment().put("GREETING", "hello");
+        pb.environment().put("PYTHONUNBUFFERED", "1");
+        return pb;
+    }
+
+    /** 첫 요청은 풀이 비어 있어 채우기만 한다 - 인터프리터가 준비되면 그 자리에서 시작 */
+    private Process startPooled(ProcessBuilder pb) throws InterruptedException {
+        assertNull(pool.start(TEMPLATE, pb));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("run.python.pool.idle").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Process process = pool.start(TEMPLATE, pb);
+        assertNotNull(process, "no warm interpreter");
+        return process;
+    }
+
+    private static String run(Process process) throws Exception {
+        assertTrue(process.waitFor(10, TimeUnit.SECONDS), "python did not exit");
+        return new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static boolean pythonAvailable() {
+        try {
+            return new ProcessBuilder("python", "--version").start().waitFor(5, TimeUnit.SECONDS);
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+}
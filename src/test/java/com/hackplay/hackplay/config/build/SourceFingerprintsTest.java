@@ -0,0 +1,103 @@
+package com.hackplay.hackplay.config.build;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SourceFingerprintsTest {
+
+    @TempDir
+    Path root;
+
+    private SourceFingerprints fingerprints;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        WorkspaceWatcher watcher = new WorkspaceWatcher();
+        ReflectionTestUtils.setField(watcher, "debounceMillis", 20L);
+        fingerprints = new SourceFingerprints(watcher);
+        ReflectionTestUtils.setField(fingerprints, "maxWatchedProjects", 4);
+
+        Files.createDirectories(root.resolve("src/main/java"));
+        Files.createDirectories(root.resolve("build/libs"));
+        Files.writeString(root.resolve("build.gradle"), "plugins { id 'java' }");
+        Files.writeString(root.resolve("src/main/java/App.java"), "class App {}");
+        Files.writeString(root.resolve("build/libs/app.jar"), "jar");
+    }
+
+    /** 감시 스레드가 이벤트를 가져갈 때까지 기다리며 지문이 바뀌는지 확인 */
+    private String awaitChange(String before) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String current;
+        while ((current = fingerprints.fingerprint("p", root)).equals(before)) {
+            assertTrue(System.currentTimeMillis() < deadline, "fingerprint did not change");
+            Thread.sleep(10);
+        }
+        return current;
+    }
+
+    @Test
+    void unchangedProjectIsNotWalkedAgain() throws IOException {
+        String first = fingerprints.fingerprint("p", root);
+
+        // 다시 훑는다면 없는 경로라 빈 트리의 지문이 나온다 - 감시 중이고 바뀐 게 없으므로 지난 지문을 그대로 돌려준다
+        assertEquals(first, fingerprints.fingerprint("p", root.resolve("missing")));
+    }
+
+    @Test
+    void editOutsideFileApiIsPickedUpByWatch() throws Exception {
+        String first = fingerprints.fingerprint("p", root);
+
+        // 터미널에서 고친 것처럼 훅 없이 디스크만 바꾼다
+        Files.writeString(root.resolve("src/main/java/App.java"), "class App { int x; }");
+
+        assertNotEquals(first, awaitChange(first));
+    }
+
+    @Test
+    void fileApiHookForcesWalkImmediately() throws IOException {
+        String first = fingerprints.fingerprint("p", root);
+
+        Path file = root.resolve("src/main/java/Other.java");
+        Files.writeString(file, "class Other {}");
+        fingerprints.fileWritten("p", root, file);
+
+        assertNotEquals(first, fingerprints.fingerprint("p", root));
+    }
+
+    @Test
+    void buildOutputIsNotAnInput() throws Exception {
+        String first = fingerprints.fingerprint("p", root);
+        Files.writeString(root.resolve("build/libs/app.jar"), "rebuilt jar");
+        Path file = root.resolve("build/libs/app.jar");
+        fingerprints.fileWritten("p", root, file);
+
+        assertEquals(first, fingerprints.fingerprint("p", root));
+    }
+
+    @Test
+    void sameContentGivesSameFingerprintAcrossProjects(@TempDir Path other) throws IOException {
+        Files.createDirectories(other.resolve("src/main/java"));
+        Files.writeString(other.resolve("build.gradle"), "plugins { id 'java' }");
+        Files.writeString(other.resolve("src/main/java/App.java"), "class App {}");
+
+        assertEquals(fingerprints.fingerprint("p", root), fingerprints.fingerprint("q", other));
+    }
+
+    @Test
+    void unwatchedProjectIsWalkedEveryTime() throws IOException {
+        ReflectionTestUtils.setField(fingerprints, "maxWatchedProjects", 0);
+        String first = fingerprints.fingerprint("p", root);
+
+        assertNotEquals(first, fingerprints.fingerprint("p", root.resolve("missing")));
+    }
+}
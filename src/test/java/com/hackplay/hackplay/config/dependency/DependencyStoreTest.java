@@ -0,0 +1,82 @@
+package com.hackplay.hackplay.config.dependency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyStoreTest {
+
+    @TempDir
+    Path root;
+
+    private DependencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new DependencyStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "basePath", root.resolve("store").toString());
+    }
+
+    private Path project(String name) throws IOException {
+        Path dir = root.resolve(name);
+        Path modules = dir.resolve("node_modules");
+        Files.createDirectories(modules.resolve("left-pad"));
+        Files.writeString(dir.resolve("package-lock.json"), "{\"lockfileVersion\": 3}");
+        Files.writeString(modules.resolve(".package-lock.json"), "{}");
+        Files.writeString(modules.resolve("left-pad/index.js"), "module.exports = 1;");
+        return dir;
+    }
+
+    private static boolean writable(Path file) throws IOException {
+        return Files.getPosixFilePermissions(file).contains(PosixFilePermission.OWNER_WRITE);
+    }
+
+    @Test
+    void seedingDoesNotChangeInodesSharedOutsideTheProject() throws IOException {
+        Path first = project("first");
+        // npm 캐시 / pnpm 스토어처럼 프로젝트 밖에서 같은 inode 를 쓰는 파일
+        Path outside = root.resolve("outside.js");
+        Files.createLink(outside, first.resolve("node_modules/left-pad/index.js"));
+
+        assertTrue(store.linkNodeModules(first.toFile(), "react"));
+
+        assertTrue(writable(outside));
+        Path linked = first.resolve("node_modules/left-pad/index.js");
+        assertFalse(Files.isSameFile(outside, linked));
+        assertFalse(writable(linked));
+        assertEquals("module.exports = 1;", Files.readString(linked));
+    }
+
+    @Test
+    void projectsWithSameLockfileShareStoreFiles() throws IOException {
+        Path first = project("first");
+        Path second = project("second");
+
+        assertTrue(store.linkNodeModules(first.toFile(), "react"));
+        assertTrue(store.linkNodeModules(second.toFile(), "react"));
+
+        assertTrue(Files.isSameFile(
+                first.resolve("node_modules/left-pad/index.js"),
+                second.resolve("node_modules/left-pad/index.js")));
+    }
+
+    @Test
+    void incompleteInstallIsNotSeeded() throws IOException {
+        Path first = project("first");
+        Files.delete(first.resolve("node_modules/.package-lock.json"));
+
+        assertFalse(store.linkNodeModules(first.toFile(), "react"));
+        assertTrue(writable(first.resolve("node_modules/left-pad/index.js")));
+    }
+}
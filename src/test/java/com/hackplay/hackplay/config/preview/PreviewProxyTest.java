@@ -0,0 +1,25 @@
+package com.hackplay.hackplay.config.preview;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PreviewProxyTest {
+
+    @Test
+    void readsTokenFromQueryWithoutTouchingTheBody() {
+        assertEquals("abc", PreviewProxy.queryParameter("previewToken=abc", "previewToken"));
+        assertEquals("a-b_c", PreviewProxy.queryParameter("x=1&previewToken=a-b_c&y", "previewToken"));
+        assertEquals("a b", PreviewProxy.queryParameter("previewToken=a%20b", "previewToken"));
+        assertNull(PreviewProxy.queryParameter("xpreviewToken=abc&previewToken", "previewToken"));
+        assertNull(PreviewProxy.queryParameter(null, "previewToken"));
+    }
+
+    @Test
+    void redirectKeepsTheRestOfTheQuery() {
+        assertNull(PreviewProxy.withoutParameter("previewToken=abc", "previewToken"));
+        assertEquals("x=1&y", PreviewProxy.withoutParameter("x=1&previewToken=abc&y", "previewToken"));
+        assertEquals("x=1", PreviewProxy.withoutParameter("previewToken&&x=1", "previewToken"));
+    }
+}
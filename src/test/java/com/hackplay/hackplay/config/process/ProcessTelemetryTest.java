@@ -0,0 +1,58 @@
+package com.hackplay.hackplay.config.process;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ProcessTelemetryTest {
+
+    // prctl(PR_SET_NAME) 로 넣을 수 있는 UTF-8 이 아닌 바이트와 괄호 / 공백
+    private static final byte[] HOSTILE_COMM = {'w', (byte) 0xff, ')', ' ', '(', (byte) 0xc3, (byte) 0xa9, 'x'};
+
+    @TempDir
+    Path dir;
+
+    private static byte[] concat(String before, byte[] middle, String after) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(before.getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(middle);
+        out.writeBytes(after.getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+
+    @Test
+    void statWithNonAsciiCommIsStillCounted() throws Exception {
+        Path stat = dir.resolve("stat");
+        Files.write(stat, concat("4242 (", HOSTILE_COMM,
+                ") R 4200 4242 4200 0 -1 4194304 81 0 0 0 700 50 3 2 20 0 9 0 1151594 2703360 314 18446744073709551615\n"));
+
+        ProcessTelemetry.Stat parsed = ProcessTelemetry.readStat(stat);
+
+        assertNotNull(parsed);
+        assertEquals(4200L, parsed.ppid());
+        assertEquals(755L, parsed.cpuTicks());
+        assertEquals(9, parsed.threads());
+    }
+
+    @Test
+    void statusWithNonAsciiNameStillReportsRss() throws Exception {
+        Path status = dir.resolve("status");
+        Files.write(status, concat("Name:\t", HOSTILE_COMM, "\nState:\tR (running)\nVmRSS:\t   12345 kB\nThreads:\t9\n"));
+
+        assertEquals(12345L, ProcessTelemetry.readFields(status, "VmRSS:")[0]);
+    }
+
+    @Test
+    void readsOwnStatFromProc() {
+        ProcessTelemetry.Stat self = ProcessTelemetry.readStat(Path.of("/proc/self/stat"));
+        assertNotNull(self);
+        assertEquals((long) ProcessHandle.current().parent().map(ProcessHandle::pid).orElse(0L), self.ppid());
+    }
+}
@@ -0,0 +1,237 @@
+package com.hackplay.hackplay.config.run;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunLogStoreTest {
+
+    private static final String PROJECT = "project";
+
+    @TempDir
+    Path base;
+
+    private RunLogStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RunLogStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "basePath", base.toString());
+        ReflectionTestUtils.setField(store, "segmentBytes", 100L);
+        ReflectionTestUtils.setField(store, "indexEveryLines", 4);
+        ReflectionTestUtils.setField(store, "maxRunBytes", 0L);
+        ReflectionTestUtils.setField(store, "retentionHours", 0L);
+        ReflectionTestUtils.setField(store, "maxTotalMb", 0L);
+    }
+
+    private static String line(int n) {
+        return String.format("line %03d", n);
+    }
+
+    /** 줄 from ~ from+count-1 을 여러 줄씩 묶어 기록 (청크 경계가 줄 경계와 어긋나도록) */
+    private static void writeLines(RunLogWriter writer, int from, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < from + count; i++) {
+            text.append(line(i)).append('\n');
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += 13) {
+            byte[] chunk = new byte[Math.min(13, bytes.length - offset)];
+            System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+            writer.append(chunk);
+        }
+    }
+
+    private static List<String> expected(int from, int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            lines.add(line(i));
+        }
+        return lines;
+    }
+
+    private static long count(Path dir, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+
+    @Test
+    void segmentsRollOverAtLineBoundaries() throws IOException {
+        RunLogWriter writer = store.open(PROJECT);
+        writeLines(writer, 0, 50);
+        writer.close();
+
+        Path dir = base.resolve(PROJECT).resolve(writer.getRunId());
+        // 9 바이트 줄 50개를 100 바이트 세그먼트에 - 12줄(108 바이트)마다 다음 세그먼트
+        assertEquals(5, count(dir, RunLogStore.LOG_SUFFIX));
+        assertEquals(5, count(dir, RunLogStore.INDEX_SUFFIX));
+        assertTrue(Files.isRegularFile(dir.resolve(RunLogStore.segmentName(12) + RunLogStore.LOG_SUFFIX)));
+
+        RunLogStore.Page page = store.read(PROJECT, writer.getRunId(), 0, 1000);
+        assertEquals(50, page.getTotalLines());
+        assertEquals(expected(0, 50), page.getLines());
+    }
+
+    @Test
+    void readSeeksThroughIndexAcrossSegments() throws IOException {
+        RunLogWriter writer = store.open(PROJECT);
+        writeLines(writer, 0, 50);
+
+        RunLogStore.Page page = store.read(PROJECT, writer.getRunId(), 21, 5);
+        assertEquals(21, page.getFromLine());
+        assertEquals(26, page.getNextLine());
+        assertEquals(expected(21, 5), page.getLines());
+
+        RunLogStore.Page tail = store.tail(PROJECT, "latest", 3);
+        assertEquals(47, tail.getFromLine());
+        assertEquals(expected(47, 3), tail.getLines());
+
+        RunLogStore.Page past = store.read(PROJECT, writer.getRunId(), 80, 5);
+        assertEquals(50, past.getFromLine());
+        assertTrue(past.getLines().isEmpty());
+        writer.close();
+    }
+
+    @Test
+    void unfinishedLineIsCountedOnlyAfterClose() throws IOException {
+        RunLogWriter writer = store.open(PROJECT);
+        writer.append("done\npartial".getBytes(StandardCharsets.UTF_8));
+
+        RunLogStore.Page running = store.read(PROJECT, "latest", 0, 10);
+        assertEquals(1, running.getTotalLines());
+        assertEquals(List.of("done"), running.getLines());
+        assertTrue(store.runs(PROJECT).get(0).isActive());
+
+        writer.close();
+        assertEquals(List.of("done", "partial"), store.read(PROJECT, "latest", 0, 10).getLines());
+        assertFalse(store.runs(PROJECT).get(0).isActive());
+    }
+
+    @Test
+    void readFromTimeStartsAtIndexedLine() throws Exception {
+        ReflectionTestUtils.setField(store, "indexEveryLines", 1000);
+        RunLogWriter writer = store.open(PROJECT);
+        long beforeFirst = System.currentTimeMillis() - 1;
+        writeLines(writer, 0, 5);
+        // 색인 시간 간격보다 오래 쉬어 다음 줄에 시각 색인이 남도록
+        Thread.sleep(RunLogStore.INDEX_INTERVAL_MILLIS + 100);
+        long beforeSecond = System.currentTimeMillis() - 1;
+        writeLines(writer, 5, 5);
+        writer.close();
+
+        assertEquals(0, store.readFrom(PROJECT, writer.getRunId(), beforeFirst - 60_000, 1).getFromLine());
+        assertEquals(0, store.readFrom(PROJECT, writer.getRunId(), beforeSecond, 1).getFromLine());
+        RunLogStore.Page second = store.readFrom(PROJECT, writer.getRunId(), System.currentTimeMillis(), 2);
+        assertEquals(5, second.getFromLine());
+        assertEquals(expected(5, 2), second.getLines());
+    }
+
+    @Test
+    void runStopsRecordingAtSizeLimit() throws IOException {
+        ReflectionTestUtils.setField(store, "maxRunBytes", 40L);
+        RunLogWriter writer = store.open(PROJECT);
+        writer.append("0123456789\n0123456789\n".getBytes(StandardCharsets.UTF_8));
+        writer.append("0123456789\n0123456789\n".getBytes(StandardCharsets.UTF_8));
+        writer.append("more\n".getBytes(StandardCharsets.UTF_8));
+        writer.close();
+
+        assertEquals(List.of("0123456789", "0123456789", "… run log truncated (size limit reached) …"),
+                store.read(PROJECT, "latest", 0, 10).getLines());
+    }
+
+    @Test
+    void runIdsArePlainNumbersAndLatestIsNewest() throws IOException {
+        RunLogWriter first = store.open(PROJECT);
+        writeLines(first, 0, 1);
+        first.close();
+        RunLogWriter second = store.open(PROJECT);
+        writeLines(second, 7, 1);
+        second.close();
+
+        assertEquals(second.getRunId(), store.read(PROJECT, "latest", 0, 1).getRunId());
+        assertEquals(List.of(line(0)), store.read(PROJECT, first.getRunId(), 0, 1).getLines());
+        assertEquals(List.of(second.getRunId(), first.getRunId()),
+                store.runs(PROJECT).stream().map(RunLogStore.RunInfo::getRunId).toList());
+        assertNull(store.read(PROJECT, "../" + first.getRunId(), 0, 1));
+        assertNull(store.read("other", "latest", 0, 1));
+    }
+
+    @Test
+    void retentionRemovesExpiredRuns() throws IOException {
+        ReflectionTestUtils.setField(store, "retentionHours", 1L);
+        RunLogWriter expired = store.open(PROJECT);
+        writeLines(expired, 0, 1);
+        expired.close();
+        RunLogWriter recent = store.open(PROJECT);
+        writeLines(recent, 0, 1);
+        recent.close();
+
+        // 실행 ID 는 시작 시각이므로 디렉터리 이름을 옛 시각으로 바꿔 오래된 실행을 만든다
+        Path expiredDir = ageRun(expired.getRunId(), System.currentTimeMillis() - 2 * 3600_000L);
+
+        store.enforceRetention();
+
+        assertFalse(Files.exists(expiredDir));
+        assertTrue(Files.exists(base.resolve(PROJECT).resolve(recent.getRunId())));
+    }
+
+    @Test
+    void retentionDeletesOldestRunsOverTotalSizeExceptActiveOnes() throws IOException {
+        ReflectionTestUtils.setField(store, "segmentBytes", 8L * 1024 * 1024);
+        ReflectionTestUtils.setField(store, "maxTotalMb", 1L);
+        byte[] chunk = ("x".repeat(1023) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        // 가장 오래된 실행은 아직 기록 중
+        List<RunLogWriter> writers = new ArrayList<>();
+        for (int run = 0; run < 4; run++) {
+            RunLogWriter writer = store.open(PROJECT);
+            for (int i = 0; i < 400; i++) {
+                writer.append(chunk);
+            }
+            writers.add(writer);
+        }
+        for (int run = 1; run < 4; run++) {
+            writers.get(run).close();
+        }
+
+        store.enforceRetention();
+
+        // 400 KB 씩 네 실행 - 1 MB 아래로 내려갈 때까지 기록 중인 실행을 건너뛰고 오래된 실행부터 지운다
+        assertEquals(List.of(writers.get(3).getRunId(), writers.get(0).getRunId()),
+                store.runs(PROJECT).stream().map(RunLogStore.RunInfo::getRunId).toList());
+        writers.get(0).close();
+    }
+
+    private Path ageRun(String runId, long startedAt) throws IOException {
+        Path dir = base.resolve(PROJECT).resolve(runId);
+        Path aged = dir.resolveSibling(Long.toString(startedAt));
+        Files.move(dir, aged);
+        setModified(aged, startedAt);
+        return aged;
+    }
+
+    private static void setModified(Path dir, long millis) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(millis));
+            }
+        }
+    }
+}
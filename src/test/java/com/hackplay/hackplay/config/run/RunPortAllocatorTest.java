@@ -0,0 +1,116 @@
+package com.hackplay.hackplay.config.run;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunPortAllocatorTest {
+
+    private static final int RANGE_START = 41700;
+    private static final int RANGE_END = 41703;
+
+    private RunPortAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new RunPortAllocator();
+        ReflectionTestUtils.setField(allocator, "enabled", true);
+        ReflectionTestUtils.setField(allocator, "rangeStart", RANGE_START);
+        ReflectionTestUtils.setField(allocator, "rangeEnd", RANGE_END);
+    }
+
+    @Test
+    void leasesDistinctPortsUntilTheRangeIsFull() {
+        Set<Integer> ports = new HashSet<>();
+        for (long projectId = 1; projectId <= 4; projectId++) {
+            RunPortAllocator.Lease lease = allocator.allocate(projectId, true);
+            assertNotNull(lease);
+            assertTrue(lease.getPort() >= RANGE_START && lease.getPort() <= RANGE_END);
+            ports.add(lease.getPort());
+        }
+        assertEquals(4, ports.size());
+
+        // 범위가 모두 차면 기본 포트로 실행
+        assertNull(allocator.allocate(5, true));
+    }
+
+    @Test
+    void skipsPortsSomeoneElseIsListeningOn() throws Exception {
+        try (ServerSocket busy = new ServerSocket()) {
+            busy.bind(new InetSocketAddress(RANGE_START));
+
+            RunPortAllocator.Lease lease = allocator.allocate(1, false);
+            assertNotNull(lease);
+            assertNotEquals(RANGE_START, lease.getPort());
+        }
+    }
+
+    @Test
+    void releasedPortIsLentAgainAndDoubleReleaseIsHarmless() {
+        RunPortAllocator.Lease[] leases = new RunPortAllocator.Lease[4];
+        for (int i = 0; i < 4; i++) {
+            leases[i] = allocator.allocate(i + 1, true);
+        }
+        int freed = leases[1].getPort();
+
+        leases[1].release();
+        leases[1].release();
+        assertNull(allocator.lookup(2));
+
+        RunPortAllocator.Lease again = allocator.allocate(9, true);
+        assertNotNull(again);
+        assertEquals(freed, again.getPort());
+        assertNull(allocator.allocate(10, true));
+    }
+
+    @Test
+    void replacedLeaseKeepsItsPortUntilReleasedWithoutDroppingTheNewOne() {
+        RunPortAllocator.Lease first = allocator.allocate(7, true);
+        RunPortAllocator.Lease second = allocator.allocate(7, true);
+        assertNotEquals(first.getPort(), second.getPort());
+        assertSame(second, allocator.lookup(7));
+
+        // 이전 실행의 트리가 내려가 반납해도 새 실행의 배정은 남는다
+        first.release();
+        assertSame(second, allocator.lookup(7));
+        assertEquals("/preview/7", second.getBasePath());
+    }
+
+    @Test
+    void previewTokenIsPerRunAndDiesWithTheLease() {
+        RunPortAllocator.Lease first = allocator.allocate(3, true);
+        RunPortAllocator.Lease second = allocator.allocate(4, true);
+
+        assertNotEquals(first.getToken(), second.getToken());
+        assertTrue(first.getToken().length() >= 32);
+        assertEquals("/preview/3/?previewToken=" + first.getToken(), first.getPreviewUrl());
+
+        assertTrue(first.acceptsToken(first.getToken()));
+        assertFalse(first.acceptsToken(second.getToken()));
+        assertFalse(first.acceptsToken(null));
+        assertFalse(first.acceptsToken(""));
+
+        first.release();
+        assertFalse(first.acceptsToken(first.getToken()));
+    }
+
+    @Test
+    void disabledAllocatorLeavesFrameworkDefaults() {
+        ReflectionTestUtils.setField(allocator, "enabled", false);
+        assertNull(allocator.allocate(1, true));
+        assertNull(allocator.lookup(1));
+    }
+}
@@ -0,0 +1,167 @@
+package com.hackplay.hackplay.config.run;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RunSchedulerTest {
+
+    private RunScheduler scheduler;
+
+    // 입장한 실행 라벨 (입장 순서대로)
+    private final BlockingQueue<String> admitted = new LinkedBlockingQueue<>();
+    // 라벨 -> 마지막으로 알린 대기 순번
+    private final Map<String, Integer> positions = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new RunScheduler(new SimpleMeterRegistry());
+        // 코어 수와 관계없이 동시 실행 하나, 메모리 조건 없음
+        ReflectionTestUtils.setField(scheduler, "runsPerCore", 0.0);
+        ReflectionTestUtils.setField(scheduler, "maxRunsPerMember", 3);
+        ReflectionTestUtils.setField(scheduler, "minAvailableMemoryMb", 0L);
+        ReflectionTestUtils.setField(scheduler, "memoryPerRunMb", 0L);
+        ReflectionTestUtils.setField(scheduler, "warmupSeconds", 0L);
+        scheduler.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    private RunScheduler.Ticket enqueue(String member, String label) {
+        return scheduler.enqueue(member, label, new RunScheduler.Listener() {
+            @Override
+            public void onQueued(int position, int queued) {
+                positions.put(label, position);
+            }
+
+            @Override
+            public void onAdmitted() {
+                admitted.add(label);
+            }
+        });
+    }
+
+    private String nextAdmitted() throws InterruptedException {
+        String label = admitted.poll(5, TimeUnit.SECONDS);
+        assertNotNull(label, "no run admitted");
+        return label;
+    }
+
+    private void assertNoneAdmitted() throws InterruptedException {
+        assertNull(admitted.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    /** 스케줄러 스레드가 앞선 작업을 모두 처리할 때까지 대기 */
+    private void settle() throws Exception {
+        ScheduledExecutorService executor = (ScheduledExecutorService) ReflectionTestUtils.getField(scheduler, "scheduler");
+        executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void membersTakeTurnsRegardlessOfArrivalOrder() throws InterruptedException {
+        RunScheduler.Ticket a1 = enqueue("alice", "a1");
+        assertEquals("a1", nextAdmitted());
+
+        RunScheduler.Ticket a2 = enqueue("alice", "a2");
+        RunScheduler.Ticket a3 = enqueue("alice", "a3");
+        RunScheduler.Ticket b1 = enqueue("bob", "b1");
+        assertNoneAdmitted();
+
+        a1.release();
+        assertEquals("a2", nextAdmitted());
+        a2.release();
+        // alice 가 방금 들어갔으므로 먼저 온 a3 보다 bob 이 앞선다
+        assertEquals("b1", nextAdmitted());
+        b1.release();
+        assertEquals("a3", nextAdmitted());
+        a3.release();
+    }
+
+    @Test
+    void queuePositionsFollowRoundRobinOrder() throws Exception {
+        enqueue("alice", "a1");
+        assertEquals("a1", nextAdmitted());
+
+        enqueue("alice", "a2");
+        enqueue("alice", "a3");
+        enqueue("bob", "b1");
+        enqueue("carol", "c1");
+        settle();
+
+        assertEquals(1, (int) positions.get("a2"));
+        assertEquals(2, (int) positions.get("b1"));
+        assertEquals(3, (int) positions.get("c1"));
+        assertEquals(4, (int) positions.get("a3"));
+    }
+
+    @Test
+    void memberCapCountsQueuedAndRunningRuns() throws InterruptedException {
+        ReflectionTestUtils.setField(scheduler, "maxRunsPerMember", 2);
+
+        RunScheduler.Ticket a1 = enqueue("alice", "a1");
+        assertEquals("a1", nextAdmitted());
+        RunScheduler.Ticket a2 = enqueue("alice", "a2");
+        assertNotNull(a2);
+
+        assertNull(enqueue("alice", "a3"));
+        assertNotNull(enqueue("bob", "b1"));
+
+        a1.release();
+        // 이미 반납한 표를 다시 반납해도 자리가 두 번 풀리지 않는다
+        a1.release();
+        assertNotNull(enqueue("alice", "a4"));
+        assertNull(enqueue("alice", "a5"));
+    }
+
+    @Test
+    void releasedWaitingTicketIsNeverAdmitted() throws Exception {
+        RunScheduler.Ticket a1 = enqueue("alice", "a1");
+        assertEquals("a1", nextAdmitted());
+
+        RunScheduler.Ticket b1 = enqueue("bob", "b1");
+        enqueue("carol", "c1");
+        settle();
+        assertEquals(2, (int) positions.get("c1"));
+
+        b1.release();
+        settle();
+        assertEquals(1, (int) positions.get("c1"));
+
+        a1.release();
+        assertEquals("c1", nextAdmitted());
+        assertNoneAdmitted();
+    }
+
+    @Test
+    void failedStartGivesTheSlotToTheNextRun() throws InterruptedException {
+        scheduler.enqueue("alice", "broken", new RunScheduler.Listener() {
+            @Override
+            public void onQueued(int position, int queued) {
+            }
+
+            @Override
+            public void onAdmitted() {
+                throw new IllegalStateException("spawn failed");
+            }
+        });
+        enqueue("bob", "b1");
+
+        assertEquals("b1", nextAdmitted());
+    }
+}
@@ -0,0 +1,178 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import com.hackplay.hackplay.config.process.ProcessControl;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalEngines;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalIoEngine;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalSession;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalSessionRegistry;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalShellPool;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinuxTerminalWebSocketHandlerTest {
+
+    private static final String SESSION_KEY = "resume-test-key";
+
+    @TempDir
+    Path workDir;
+
+    private final ProcessControl processControl = new ProcessControl();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TerminalSessionRegistry registry = new TerminalSessionRegistry();
+    private TerminalIoEngine engine;
+    private TerminalShellPool shellPool;
+    private LinuxTerminalWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        engine = TerminalEngines.start(registry, processControl, meterRegistry);
+        shellPool = new TerminalShellPool(processControl, meterRegistry);
+        ReflectionTestUtils.setField(shellPool, "poolSize", 0);
+        shellPool.start();
+        handler = new LinuxTerminalWebSocketHandler(registry, engine, processControl, shellPool, null, meterRegistry);
+        ReflectionTestUtils.setField(handler, "resumeGraceSeconds", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (TerminalSession session : new ArrayList<>(registry.all())) {
+            engine.terminate(session);
+        }
+        engine.stop();
+        shellPool.stop();
+    }
+
+    private RecordingWebSocketSession connect(String member) throws Exception {
+        RecordingWebSocketSession ws = new RecordingWebSocketSession();
+        ws.getAttributes().put("session", SESSION_KEY);
+        ws.getAttributes().put("cols", "80");
+        ws.getAttributes().put("rows", "24");
+        ws.getAttributes().put("workDir", workDir.toString());
+        if (member != null) {
+            ws.getAttributes().put(WebSocketConfig.MEMBER_ATTRIBUTE, member);
+        }
+        handler.afterConnectionEstablished(ws);
+        return ws;
+    }
+
+    /** 작업 디렉터리로 옮긴 뒤의 프롬프트 (사용자@호스트:작업 디렉터리) */
+    private void awaitPrompt(RecordingWebSocketSession ws) throws InterruptedException {
+        awaitOutput(ws, ":" + workDir);
+    }
+
+    private static void awaitOutput(RecordingWebSocketSession ws, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!ws.getReceivedText().contains(expected)) {
+            assertTrue(System.nanoTime() < deadline, "no \"" + expected + "\" in: " + ws.getReceivedText());
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void resizeAfterReconnectReachesTheShell() throws Exception {
+        assertTrue(processControl.isNativeAvailable(), "pty 테스트는 --enable-preview 로 실행해야 한다");
+
+        RecordingWebSocketSession first = connect("member-1");
+        TerminalSession session = registry.find(SESSION_KEY);
+        assertNotNull(session);
+        awaitPrompt(first);
+
+        handler.afterConnectionClosed(first, CloseStatus.GOING_AWAY);
+        RecordingWebSocketSession second = connect("member-1");
+        assertSame(session, registry.get(second.getId()));
+
+        handler.handleTextMessage(second, new TextMessage("\u001b]resize;100;40\u0007"));
+        assertEquals(100, session.getScreen().getCols());
+        assertEquals(40, session.getScreen().getRows());
+
+        // 셸이 보는 tty 크기도 바뀌었는지 확인
+        handler.handleTextMessage(second, new TextMessage("stty size\r"));
+        awaitOutput(second, "40 100");
+    }
+
+    @Test
+    void resizeBeforeReconnectAlsoReachesTheShell() throws Exception {
+        assertTrue(processControl.isNativeAvailable(), "pty 테스트는 --enable-preview 로 실행해야 한다");
+
+        RecordingWebSocketSession ws = connect("member-1");
+        awaitPrompt(ws);
+        handler.handleTextMessage(ws, new TextMessage("\u001b]resize;90;33\u0007"));
+        handler.handleTextMessage(ws, new TextMessage("stty size\r"));
+        awaitOutput(ws, "33 90");
+    }
+
+    @Test
+    void anotherMemberCannotResumeTheShell() throws Exception {
+        RecordingWebSocketSession first = connect("member-1");
+        handler.afterConnectionClosed(first, CloseStatus.GOING_AWAY);
+
+        RecordingWebSocketSession intruder = connect("member-2");
+        assertEquals(CloseStatus.POLICY_VIOLATION, intruder.getCloseStatus());
+        assertNull(registry.get(intruder.getId()));
+    }
+
+    @Test
+    void anonymousShellIsNotKeptForResume() throws Exception {
+        RecordingWebSocketSession ws = connect(null);
+        // 익명 연결은 클라이언트 키를 쓰지 않으므로 같은 키로 찾을 수 없다
+        assertNull(registry.find(SESSION_KEY));
+        assertEquals(1, registry.size());
+
+        handler.afterConnectionClosed(ws, CloseStatus.GOING_AWAY);
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void failureAfterAttachLeavesNoResumableSession() throws Exception {
+        // 셸을 붙인 뒤 (지연 시간 기록) 실패하도록
+        SimpleMeterRegistry failing = new SimpleMeterRegistry() {
+            @Override
+            protected Timer newTimer(Meter.Id id, DistributionStatisticConfig config, PauseDetector pauseDetector) {
+                throw new IllegalStateException("meter registry is down");
+            }
+        };
+        handler = new LinuxTerminalWebSocketHandler(registry, engine, processControl, shellPool, null, failing);
+
+        RecordingWebSocketSession ws = connect("member-1");
+
+        assertNull(registry.find(SESSION_KEY));
+        assertNull(registry.get(ws.getId()));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (ws.isOpen()) {
+            assertTrue(System.nanoTime() < deadline, "connection was not closed");
+            Thread.sleep(20);
+        }
+        assertEquals(CloseStatus.SERVER_ERROR, ws.getCloseStatus());
+        assertTrue(ws.getReceivedText().contains("❌ 터미널 연결 실패: meter registry is down"), ws.getReceivedText());
+        assertEquals(0, ws.getConcurrentSends());
+
+        // 같은 키로 다시 붙으면 죽은 셸이 아니라 새 셸을 받는다
+        handler = new LinuxTerminalWebSocketHandler(registry, engine, processControl, shellPool, null, meterRegistry);
+        RecordingWebSocketSession retry = connect("member-1");
+        TerminalSession fresh = registry.get(retry.getId());
+        assertNotNull(fresh);
+        assertTrue(fresh.getProcess().isAlive());
+        assertNull(retry.getCloseStatus());
+    }
+}
@@ -0,0 +1,92 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 로그 레벨 분류기와 예전 toLowerCase / contains 규칙의 처리량과 할당량 비교
+ * 표본 로그(src/test/resources/run-logs)의 줄을 미리 나눠 두고 분류만 반복해서 잰다.
+ * 예전 규칙은 문자열 줄, 분류기는 UTF-8 바이트 줄을 받는다 (각자 실제로 받던 형태).
+ * gradle test --tests '*LogLevelClassifierBenchmarkTest' -Drun.classifier.passes=2000
+ */
+@EnabledIfSystemProperty(named = "run.classifier.passes", matches = "\\d+")
+class LogLevelClassifierBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LogLevelClassifierBenchmarkTest.class);
+
+    private static final int WARMUP_PASSES = 500;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private record Result(double megabytesPerSecond, double nanosPerLine, long allocatedBytes, long checksum) {}
+
+    @Test
+    void classifierIsAllocationFreeOnSampleLogs() throws Exception {
+        int passes = Integer.getInteger("run.classifier.passes");
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "JVM 이 스레드별 할당량을 지원해야 한다");
+
+        for (String name : LogLevelClassifierTest.SAMPLE_LOGS) {
+            List<String> lines = LogLevelClassifierTest.sampleLines(name);
+            byte[][] encoded = new byte[lines.size()][];
+            long bytes = 0;
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = lines.get(i).getBytes(StandardCharsets.UTF_8);
+                bytes += encoded[i].length;
+            }
+
+            IntUnaryOperator legacy = i -> ordinal(LogLevelClassifierTest.legacy(lines.get(i)));
+            IntUnaryOperator classifier = i -> ordinal(LogLevelClassifier.classify(encoded[i], 0, encoded[i].length));
+            measure(legacy, encoded.length, bytes, WARMUP_PASSES);
+            measure(classifier, encoded.length, bytes, WARMUP_PASSES);
+
+            Result old = measure(legacy, encoded.length, bytes, passes);
+            Result current = measure(classifier, encoded.length, bytes, passes);
+            log.info("{} ({} lines, {}KB) x{}: toLowerCase/contains={}MB/s {}ns/line ({}B/line allocated) "
+                            + "classifier={}MB/s {}ns/line ({}B/line allocated)",
+                    name, encoded.length, bytes / 1024, passes,
+                    String.format("%.0f", old.megabytesPerSecond()), String.format("%.0f", old.nanosPerLine()),
+                    old.allocatedBytes() / ((long) passes * encoded.length),
+                    String.format("%.0f", current.megabytesPerSecond()), String.format("%.0f", current.nanosPerLine()),
+                    current.allocatedBytes() / ((long) passes * encoded.length));
+
+            assertEquals(old.checksum(), current.checksum(), name + " classified differently");
+            // 측정 호출 자체의 몇 바이트 외에는 줄 수와 상관없이 할당이 없어야 한다
+            assertTrue(current.allocatedBytes() < 1024, "classifier allocated " + current.allocatedBytes() + "B");
+        }
+    }
+
+    /** 줄 번호로 분류해 레벨 순서를 체크섬에 섞는다 (JIT 가 분류를 없애지 못하게) */
+    private Result measure(IntUnaryOperator classify, int lineCount, long bytesPerPass, int passes) {
+        long thread = Thread.currentThread().threadId();
+
+        long checksum = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long started = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            for (int i = 0; i < lineCount; i++) {
+                checksum = checksum * 31 + classify.applyAsInt(i);
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        double seconds = elapsed / 1e9;
+        return new Result(bytesPerPass * passes / 1048576.0 / seconds,
+                (double) elapsed / ((long) passes * lineCount), allocated, checksum);
+    }
+
+    private static int ordinal(LogLevelClassifier.Level level) {
+        return level != null ? level.ordinal() : -1;
+    }
+}
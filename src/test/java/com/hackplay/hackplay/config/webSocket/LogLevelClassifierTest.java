@@ -0,0 +1,110 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LogLevelClassifierTest {
+
+    // 키워드 조각 / 대소문자 / 한글 / 이모지를 섞어 키워드가 겹치거나 끊기는 줄을 만든다
+    private static final String[] FRAGMENTS = {
+            "err", "or", "ERR", "Exc", "eption", "fail", "ed", "FAILED", "war", "n", "ing", "WARN",
+            "inf", "o", "start", "STARTED", "rea", "dy", "deb", "ug", "DEBUG", "e", "r",
+            " ", ":", "[", "]", "-", "0", "7", "에러", "경고", "시작", "🚀", "é", "\t"
+    };
+
+    // 실제 실행 출력 표본 (src/test/resources/run-logs)
+    static final String[] SAMPLE_LOGS = {"gradle-bootrun.log", "npm-vite.log"};
+
+    /** 예전 formatOutput 의 분류 규칙 그대로 */
+    static LogLevelClassifier.Level legacy(String line) {
+        String lowerLine = line.toLowerCase();
+        if (lowerLine.contains("error") || lowerLine.contains("exception") || lowerLine.contains("failed")) {
+            return LogLevelClassifier.Level.ERROR;
+        } else if (lowerLine.contains("warn") || lowerLine.contains("warning")) {
+            return LogLevelClassifier.Level.WARN;
+        } else if (lowerLine.contains("info") || lowerLine.contains("started") || lowerLine.contains("ready")) {
+            return LogLevelClassifier.Level.INFO;
+        } else if (lowerLine.contains("debug")) {
+            return LogLevelClassifier.Level.DEBUG;
+        }
+        return null;
+    }
+
+    private static LogLevelClassifier.Level classify(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return LogLevelClassifier.classify(bytes, 0, bytes.length);
+    }
+
+    static List<String> sampleLines(String name) throws IOException {
+        try (InputStream in = LogLevelClassifierTest.class.getResourceAsStream("/run-logs/" + name)) {
+            assertNotNull(in, name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+
+    @Test
+    void matchesLegacyRulesOnSampleLogs() throws IOException {
+        for (String name : SAMPLE_LOGS) {
+            for (String line : sampleLines(name)) {
+                assertEquals(legacy(line), classify(line), name + ": " + line);
+            }
+        }
+    }
+
+    @Test
+    void matchesLegacyRulesOnRandomLines() {
+        Random random = new Random(20261018L);
+        StringBuilder line = new StringBuilder();
+        for (int n = 0; n < 200_000; n++) {
+            line.setLength(0);
+            int parts = random.nextInt(12);
+            for (int i = 0; i < parts; i++) {
+                line.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String text = line.toString();
+            assertEquals(legacy(text), classify(text), "line: " + text);
+        }
+    }
+
+    @Test
+    void moreSevereKeywordWinsRegardlessOfPosition() {
+        assertEquals(LogLevelClassifier.Level.ERROR, classify("DEBUG retry ready, then Failed"));
+        assertEquals(LogLevelClassifier.Level.WARN, classify("info: deprecated api (Warning)"));
+        assertEquals(LogLevelClassifier.Level.INFO, classify("debug: server Started"));
+        assertEquals(LogLevelClassifier.Level.DEBUG, classify("[dEbUg] 연결 확인"));
+    }
+
+    @Test
+    void overlappingKeywordsAreFound() {
+        // "errerror" 처럼 실패 링크를 타야 찾을 수 있는 경우
+        assertEquals(LogLevelClassifier.Level.ERROR, classify("errerror"));
+        assertEquals(LogLevelClassifier.Level.ERROR, classify("exexception"));
+        assertEquals(LogLevelClassifier.Level.WARN, classify("wawarn"));
+        assertEquals(LogLevelClassifier.Level.INFO, classify("readready"));
+    }
+
+    @Test
+    void keywordSplitByNonLetterDoesNotMatch() {
+        assertNull(classify("err or"));
+        assertNull(classify("in-fo"));
+        assertNull(classify("de🚀bug"));
+        assertNull(classify(""));
+    }
+
+    @Test
+    void onlyGivenRangeIsClassified() {
+        byte[] bytes = "error|ready|tail".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(LogLevelClassifier.Level.INFO, LogLevelClassifier.classify(bytes, 6, 5));
+        assertNull(LogLevelClassifier.classify(bytes, 12, 4));
+        assertNull(LogLevelClassifier.classify(bytes, 0, 4));
+    }
+}
@@ -0,0 +1,81 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutputThrottleTest {
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+
+    @Test
+    void disabledThrottlePassesEverything() {
+        OutputThrottle throttle = new OutputThrottle(0, 0);
+        long now = System.nanoTime();
+        assertFalse(throttle.isEnabled());
+        assertEquals(1 << 20, throttle.admit(1 << 20, now));
+        assertTrue(throttle.tryAcquire(1 << 20, now));
+        assertNull(throttle.takeSummary(now, true));
+    }
+
+    @Test
+    void burstPassesThenExcessIsDropped() {
+        OutputThrottle throttle = new OutputThrottle(1000, 4000);
+        long t0 = System.nanoTime();
+
+        assertEquals(4000, throttle.admit(5000, t0));
+        // 버리기 시작하면 토큰이 조금 차도 계속 버린다
+        assertEquals(0, throttle.admit(100, t0 + millis(500)));
+    }
+
+    @Test
+    void resumesOnlyAfterBucketRefillsToHalf() {
+        OutputThrottle throttle = new OutputThrottle(1000, 4000);
+        long t0 = System.nanoTime();
+        throttle.admit(5000, t0);
+
+        assertEquals(0, throttle.admit(10, t0 + millis(1900)));
+        assertEquals(10, throttle.admit(10, t0 + millis(2100)));
+    }
+
+    @Test
+    void summaryIsRateLimitedWhileSuppressingAndFlushedWhenForced() {
+        OutputThrottle throttle = new OutputThrottle(1000, 4000);
+        long t0 = System.nanoTime();
+        throttle.admit(4000 + 2048, t0);
+
+        assertNull(throttle.takeSummary(t0 + millis(500), false));
+        assertEquals("… 2.0 KB suppressed (output rate limit) …", throttle.takeSummary(t0 + millis(1000), false));
+        assertNull(throttle.takeSummary(t0 + millis(1001), true));
+
+        throttle.admit(3 * 1024 * 1024, t0 + millis(1100));
+        assertEquals("… 3.0 MB suppressed (output rate limit) …", throttle.takeSummary(t0 + millis(1200), true));
+    }
+
+    @Test
+    void summaryIsReportedOnceSuppressionEnds() {
+        OutputThrottle throttle = new OutputThrottle(1000, 4000);
+        long t0 = System.nanoTime();
+        throttle.admit(4100, t0);
+        // 버킷이 절반 이상 다시 차면 버리기가 끝나므로 1초를 기다리지 않는다
+        assertEquals(10, throttle.admit(10, t0 + millis(2500)));
+        assertEquals("… 100 bytes suppressed (output rate limit) …", throttle.takeSummary(t0 + millis(2500), false));
+    }
+
+    @Test
+    void tryAcquireTakesWholeLinesOnly() {
+        OutputThrottle throttle = new OutputThrottle(1000, 4000);
+        long t0 = System.nanoTime();
+
+        assertTrue(throttle.tryAcquire(3000, t0));
+        assertFalse(throttle.tryAcquire(1536, t0));
+        assertEquals("… 1.5 KB suppressed (output rate limit) …", throttle.takeSummary(t0, true));
+    }
+}
@@ -0,0 +1,73 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import com.hackplay.hackplay.config.run.RunPortAllocator;
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalOutputBuffer.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.util.ArrayDeque;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectRunTest {
+
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+    private final ProjectRun run = new ProjectRun(7, "uuid-7", "member-1", new File("."),
+            RunWebSocketHandler.ProjectType.REACT, "react", new OutputThrottle(0, 0), 64 * 1024);
+
+    private RunViewer join(RecordingWebSocketSession session, boolean owner) {
+        RunViewer viewer = new RunViewer(session, 1 << 20, OverflowPolicy.DROP_OLDEST, tasks::add, true, owner);
+        run.join(viewer);
+        return viewer;
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private RunPortAllocator.Lease lease() {
+        RunPortAllocator allocator = new RunPortAllocator();
+        ReflectionTestUtils.setField(allocator, "enabled", true);
+        ReflectionTestUtils.setField(allocator, "rangeStart", 41710);
+        ReflectionTestUtils.setField(allocator, "rangeEnd", 41719);
+        return allocator.allocate(7, true);
+    }
+
+    @Test
+    void previewTokenReachesOwnersOnlyAndNeverTheTail() {
+        RunPortAllocator.Lease lease = lease();
+        run.setPortLease(lease);
+        RecordingWebSocketSession owner = new RecordingWebSocketSession();
+        RecordingWebSocketSession guest = new RecordingWebSocketSession();
+        join(owner, true);
+        join(guest, false);
+
+        run.broadcastStatus("🔗 Preview: /preview/7/\n", "🔗 Preview: " + lease.getPreviewUrl() + "\n");
+        run.setReadyFrame("{\"url\":\"/preview/7/\"}", "{\"url\":\"" + lease.getPreviewUrl() + "\"}");
+        run.broadcastEvent("{\"url\":\"/preview/7/\"}", "{\"url\":\"" + lease.getPreviewUrl() + "\"}");
+        runTasks();
+
+        assertTrue(owner.getReceivedText().contains(lease.getToken()));
+        assertFalse(guest.getReceivedText().contains(lease.getToken()), guest.getReceivedText());
+        assertTrue(guest.getReceivedText().contains("/preview/7/"));
+
+        // 늦게 들어온 구독자는 꼬리와 준비 프레임을 받는다 - 토큰은 주인에게만 다시 알린다
+        RecordingWebSocketSession lateGuest = new RecordingWebSocketSession();
+        RecordingWebSocketSession lateOwner = new RecordingWebSocketSession();
+        join(lateGuest, false);
+        join(lateOwner, true);
+        runTasks();
+
+        assertFalse(lateGuest.getReceivedText().contains(lease.getToken()), lateGuest.getReceivedText());
+        assertTrue(lateGuest.getReceivedText().contains("{\"url\":\"/preview/7/\"}"));
+        assertTrue(lateOwner.getReceivedText().contains("🔗 Preview: " + lease.getPreviewUrl()));
+        assertTrue(lateOwner.getReceivedText().contains("{\"url\":\"" + lease.getPreviewUrl() + "\"}"));
+        lease.release();
+    }
+}
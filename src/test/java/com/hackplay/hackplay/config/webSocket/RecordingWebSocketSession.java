@@ -0,0 +1,214 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 보낸 메시지를 기록하는 테스트용 WebSocket 세션
+ * sendDelayMillis 로 느린 클라이언트를 흉내 내고, 동시에 sendMessage 가 겹치면 concurrentSends 로 센다.
+ */
+public class RecordingWebSocketSession implements WebSocketSession {
+
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private final String id = "ws-" + IDS.incrementAndGet();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<WebSocketMessage<?>> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger sending = new AtomicInteger();
+    private final AtomicInteger concurrentSends = new AtomicInteger();
+    private final String acceptedProtocol;
+    private volatile Principal principal;
+    private volatile boolean open = true;
+    private volatile CloseStatus closeStatus;
+    private volatile long sendDelayMillis;
+
+    public RecordingWebSocketSession() {
+        this(null);
+    }
+
+    public RecordingWebSocketSession(String acceptedProtocol) {
+        this.acceptedProtocol = acceptedProtocol;
+    }
+
+    public void setPrincipal(Principal principal) {
+        this.principal = principal;
+    }
+
+    public void setSendDelayMillis(long sendDelayMillis) {
+        this.sendDelayMillis = sendDelayMillis;
+    }
+
+    public List<WebSocketMessage<?>> getMessages() {
+        return messages;
+    }
+
+    /** 텍스트 메시지만 순서대로 */
+    public List<String> getTexts() {
+        List<String> texts = new ArrayList<>();
+        for (WebSocketMessage<?> message : messages) {
+            if (message instanceof TextMessage text) {
+                texts.add(text.getPayload());
+            }
+        }
+        return texts;
+    }
+
+    /** 받은 출력 전체 (텍스트는 UTF-8 로, 바이너리는 그대로 이어 붙임) */
+    public byte[] getReceivedBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (WebSocketMessage<?> message : messages) {
+            if (message instanceof TextMessage text) {
+                out.writeBytes(text.getPayload().getBytes(StandardCharsets.UTF_8));
+            } else if (message instanceof BinaryMessage binary) {
+                ByteBuffer payload = binary.getPayload().duplicate();
+                byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                out.writeBytes(bytes);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public String getReceivedText() {
+        return new String(getReceivedBytes(), StandardCharsets.UTF_8);
+    }
+
+    /** sendMessage 가 다른 호출과 겹친 횟수 (Tomcat 은 이 경우 IllegalStateException 을 던진다) */
+    public int getConcurrentSends() {
+        return concurrentSends.get();
+    }
+
+    public CloseStatus getCloseStatus() {
+        return closeStatus;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (!open) {
+            throw new IOException("closed");
+        }
+        if (sending.incrementAndGet() > 1) {
+            concurrentSends.incrementAndGet();
+        }
+        try {
+            if (sendDelayMillis > 0) {
+                Thread.sleep(sendDelayMillis);
+            }
+            // 보내는 쪽이 버퍼를 재사용하므로 바이너리는 복사해 둔다
+            if (message instanceof BinaryMessage binary) {
+                ByteBuffer payload = binary.getPayload().duplicate();
+                ByteBuffer copy = ByteBuffer.allocate(payload.remaining()).put(payload).flip();
+                messages.add(new BinaryMessage(copy));
+            } else {
+                messages.add(message);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } finally {
+            sending.decrementAndGet();
+        }
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public URI getUri() {
+        return URI.create("ws://localhost/ws/test");
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+        return new HttpHeaders();
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Principal getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return null;
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+        return acceptedProtocol;
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+        return List.of();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+        // 보내는 도중에 닫는 것도 동시 사용이다
+        if (sending.get() > 0) {
+            concurrentSends.incrementAndGet();
+        }
+        closeStatus = status;
+        open = false;
+    }
+}
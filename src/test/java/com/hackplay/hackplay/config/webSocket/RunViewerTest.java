@@ -0,0 +1,150 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import com.hackplay.hackplay.config.webSocket.terminal.TerminalOutputBuffer.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunViewerTest {
+
+    // 송신 작업을 쌓아 두었다가 직접 돌린다 (송신 시점을 테스트가 정한다)
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private final RecordingWebSocketSession session = new RecordingWebSocketSession();
+
+    private RunViewer viewer(long maxQueuedBytes, OverflowPolicy policy, boolean stats) {
+        return new RunViewer(session, maxQueuedBytes, policy, tasks::add, stats, true);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static byte[] chunk(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String line(char c, int length) {
+        return String.valueOf(c).repeat(length - 1) + "\n";
+    }
+
+    @Test
+    void dropOldestKeepsNewestOutputAndReportsSkippedBytes() {
+        RunViewer viewer = viewer(100, OverflowPolicy.DROP_OLDEST, false);
+        for (char c = 'a'; c <= 'e'; c++) {
+            viewer.enqueueOutput(chunk(line(c, 40)));
+        }
+        runTasks();
+
+        assertEquals(List.of(
+                "… 0.1 KB of output skipped (connection too slow) …\n",
+                line('d', 40),
+                line('e', 40)), session.getTexts());
+    }
+
+    @Test
+    void statusMessagesSurviveOverflowInOrder() {
+        RunViewer viewer = viewer(100, OverflowPolicy.DROP_OLDEST, false);
+        viewer.enqueueOutput(chunk(line('a', 60)));
+        viewer.enqueueStatus("⏳ queued\n");
+        viewer.enqueueOutput(chunk(line('b', 60)));
+        runTasks();
+
+        assertEquals(List.of(
+                "… 0.1 KB of output skipped (connection too slow) …\n",
+                "⏳ queued\n",
+                line('b', 60)), session.getTexts());
+    }
+
+    @Test
+    void chunkLargerThanQueueIsDroppedWithoutEvictingOlderOutput() {
+        RunViewer viewer = viewer(100, OverflowPolicy.DROP_OLDEST, false);
+        viewer.enqueueOutput(chunk(line('a', 40)));
+        viewer.enqueueOutput(chunk(line('b', 300)));
+        runTasks();
+
+        assertEquals(List.of(
+                "… 0.3 KB of output skipped (connection too slow) …\n",
+                line('a', 40)), session.getTexts());
+    }
+
+    @Test
+    void disconnectPolicyClosesWithoutSendingBacklog() {
+        RunViewer viewer = viewer(100, OverflowPolicy.DISCONNECT, false);
+        viewer.enqueueOutput(chunk(line('a', 60)));
+        viewer.enqueueOutput(chunk(line('b', 60)));
+        viewer.enqueueStatus("late\n");
+        runTasks();
+
+        assertTrue(session.getTexts().isEmpty());
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE, session.getCloseStatus());
+    }
+
+    @Test
+    void closeAfterSendsQueuedOutputThenCloses() {
+        RunViewer viewer = viewer(1024, OverflowPolicy.DROP_OLDEST, false);
+        viewer.enqueueOutput(chunk("one\n"));
+        viewer.enqueueOutput(chunk("two\n"));
+        viewer.closeAfter("❌ Run limit reached\n", CloseStatus.POLICY_VIOLATION);
+        viewer.enqueueStatus("ignored\n");
+        assertNull(session.getCloseStatus());
+
+        runTasks();
+
+        assertEquals(List.of("one\n", "two\n", "❌ Run limit reached\n"), session.getTexts());
+        assertEquals(CloseStatus.POLICY_VIOLATION, session.getCloseStatus());
+    }
+
+    @Test
+    void statsFrameKeepsOnlyLatestAndOnlyWhenRequested() {
+        RunViewer viewer = viewer(1024, OverflowPolicy.DROP_OLDEST, true);
+        viewer.enqueueStats("{\"cpu\":1}");
+        viewer.enqueueStats("{\"cpu\":2}");
+        runTasks();
+        assertEquals(List.of("{\"cpu\":2}"), session.getTexts());
+
+        RunViewer plain = new RunViewer(new RecordingWebSocketSession(), 1024, OverflowPolicy.DROP_OLDEST, tasks::add, false, true);
+        plain.enqueueStats("{\"cpu\":3}");
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void closeNeverOverlapsAnInFlightSend() throws InterruptedException {
+        session.setSendDelayMillis(2);
+        ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+        RunViewer viewer = new RunViewer(session, 1 << 20, OverflowPolicy.DROP_OLDEST, sender, false, true);
+
+        Thread producer = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < 200; i++) {
+                viewer.enqueueOutput(chunk("line " + i + "\n"));
+            }
+        });
+        Thread.sleep(20);
+        viewer.closeAfter("bye\n", CloseStatus.NORMAL);
+        producer.join();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (session.getCloseStatus() == null) {
+            assertTrue(System.currentTimeMillis() < deadline, "viewer was not closed");
+            Thread.sleep(5);
+        }
+        sender.shutdown();
+        assertTrue(sender.awaitTermination(5, TimeUnit.SECONDS));
+
+        List<String> texts = session.getTexts();
+        assertEquals("bye\n", texts.get(texts.size() - 1));
+        assertEquals(0, session.getConcurrentSends());
+    }
+}
@@ -0,0 +1,48 @@
+package com.hackplay.hackplay.config.webSocket;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunWebSocketHandlerTest {
+
+    @TempDir
+    Path project;
+
+    private boolean usesFlaskCli(String source) throws Exception {
+        File appPy = project.resolve("app.py").toFile();
+        Files.writeString(appPy.toPath(), source);
+        return RunWebSocketHandler.usesFlaskCli(appPy);
+    }
+
+    @Test
+    void flaskCliOnlyForFlaskAppsWithoutAMainBlock() throws Exception {
+        assertTrue(usesFlaskCli("""
+                from flask import Flask
+                app = Flask(__name__)
+                """));
+        assertTrue(usesFlaskCli("import flask\napp = flask.Flask(__name__)\n"));
+
+        // __main__ 블록의 초기화 / app.run 옵션이 돌아야 한다
+        assertFalse(usesFlaskCli("""
+                from flask import Flask
+                app = Flask(__name__)
+
+                if __name__ == "__main__":
+                    db.create_all()
+                    app.run(debug=True)
+                """));
+        assertFalse(usesFlaskCli("from flask import Flask\nif __name__ == '__main__':\n    app.run()\n"));
+
+        // Flask 가 아닌 app.py
+        assertFalse(usesFlaskCli("import http.server\nprint('serving')\n"));
+        assertFalse(usesFlaskCli("import flask_like\n"));
+        assertFalse(RunWebSocketHandler.usesFlaskCli(project.resolve("missing.py").toFile()));
+    }
+}
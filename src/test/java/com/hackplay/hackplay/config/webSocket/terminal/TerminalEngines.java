@@ -0,0 +1,36 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import com.hackplay.hackplay.config.process.ProcessControl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * application.properties 와 같은 설정으로 TerminalIoEngine 을 만드는 테스트 도우미
+ */
+public final class TerminalEngines {
+
+    private TerminalEngines() {
+    }
+
+    public static TerminalIoEngine start(TerminalSessionRegistry registry, ProcessControl processControl, MeterRegistry meterRegistry) {
+        TerminalIoEngine engine = new TerminalIoEngine(registry, processControl, meterRegistry);
+        ReflectionTestUtils.setField(engine, "pumpThreadCount", 2);
+        ReflectionTestUtils.setField(engine, "readBufferSize", 8192);
+        ReflectionTestUtils.setField(engine, "idleParkMillis", 5L);
+        ReflectionTestUtils.setField(engine, "flushWindowMillis", 12L);
+        ReflectionTestUtils.setField(engine, "maxFrameBytes", 16384);
+        ReflectionTestUtils.setField(engine, "maxBufferedBytes", 1048576);
+        ReflectionTestUtils.setField(engine, "echoWindowMillis", 50L);
+        ReflectionTestUtils.setField(engine, "echoMaxBytes", 256);
+        ReflectionTestUtils.setField(engine, "overflowPolicy", TerminalOutputBuffer.OverflowPolicy.DROP_OLDEST);
+        ReflectionTestUtils.setField(engine, "scrollbackBytes", 262144);
+        ReflectionTestUtils.setField(engine, "maxQueuedInputBytes", 65536);
+        ReflectionTestUtils.setField(engine, "throttleBytesPerSecond", 2097152L);
+        ReflectionTestUtils.setField(engine, "throttleBurstBytes", 8388608L);
+        ReflectionTestUtils.setField(engine, "hibernateAfterMinutes", 30L);
+        ReflectionTestUtils.setField(engine, "reapAfterMinutes", 120L);
+        ReflectionTestUtils.setField(engine, "snapshotThresholdBytes", 65536L);
+        engine.start();
+        return engine;
+    }
+}
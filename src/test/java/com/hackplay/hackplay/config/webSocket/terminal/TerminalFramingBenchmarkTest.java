@@ -0,0 +1,121 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 텍스트 / 바이너리 프레이밍의 처리량(MB/s)과 할당량 비교
+ * 펌프처럼 읽은 만큼 송신 버퍼에 넣고, flush 처럼 프레임을 꺼내 WebSocket 메시지로 만드는 데까지를 한 스레드에서 잰다.
+ * (텍스트 메시지는 전송할 때 컨테이너가 다시 UTF-8 로 인코딩하므로 실제 차이는 이보다 크다)
+ * gradle test --tests '*TerminalFramingBenchmarkTest' -Dterminal.framing.megabytes=512
+ */
+@EnabledIfSystemProperty(named = "terminal.framing.megabytes", matches = "\\d+")
+class TerminalFramingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TerminalFramingBenchmarkTest.class);
+
+    // application.properties 의 terminal.io.read-buffer-size / terminal.output.max-frame-bytes
+    private static final int READ_BYTES = 8192;
+    private static final int MAX_FRAME_BYTES = 16384;
+    private static final int WARMUP_MEGABYTES = 64;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private long sink;
+
+    private record Result(double megabytesPerSecond, long allocatedBytes) {}
+
+    @Test
+    void binaryFramingAllocatesLessThanText() {
+        long megabytes = Long.getLong("terminal.framing.megabytes");
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "JVM 이 스레드별 할당량을 지원해야 한다");
+
+        for (boolean multibyte : new boolean[] {false, true}) {
+            byte[] sample = sample(multibyte);
+            measure(sample, false, WARMUP_MEGABYTES);
+            measure(sample, true, WARMUP_MEGABYTES);
+
+            Result text = measure(sample, false, megabytes);
+            Result binary = measure(sample, true, megabytes);
+            log.info("output={} {}MB text={}MB/s ({}B/MB allocated) binary={}MB/s ({}B/MB allocated)",
+                    multibyte ? "utf-8" : "ascii", megabytes,
+                    String.format("%.0f", text.megabytesPerSecond()), text.allocatedBytes() / megabytes,
+                    String.format("%.0f", binary.megabytesPerSecond()), binary.allocatedBytes() / megabytes);
+
+            // 바이너리는 프레임마다 감싸는 객체만, 텍스트는 프레임만큼의 문자열을 새로 만든다
+            assertTrue(binary.allocatedBytes() * 10 < text.allocatedBytes(),
+                    "binary " + binary.allocatedBytes() + "B vs text " + text.allocatedBytes() + "B");
+        }
+    }
+
+    private Result measure(byte[] sample, boolean binary, long megabytes) {
+        TerminalOutputBuffer output = new TerminalOutputBuffer(1048576, MAX_FRAME_BYTES,
+                TimeUnit.MILLISECONDS.toNanos(12), TimeUnit.MILLISECONDS.toNanos(50), 256,
+                TerminalOutputBuffer.OverflowPolicy.DROP_OLDEST);
+        ByteBuffer frame = ByteBuffer.allocate(MAX_FRAME_BYTES + 128);
+        long total = megabytes * 1024 * 1024;
+        long thread = Thread.currentThread().threadId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long started = System.nanoTime();
+        long written = 0;
+        int pending = 0;
+        int position = 0;
+        while (written < total) {
+            int length = Math.min(READ_BYTES, sample.length - position);
+            output.append(sample, position, length);
+            position = (position + length) % sample.length;
+            written += length;
+            pending += length;
+
+            if (pending >= MAX_FRAME_BYTES) {
+                while (output.takeFrame(frame, false)) {
+                    consume(TerminalIoEngine.outputMessage(frame, binary));
+                }
+                pending = 0;
+            }
+        }
+        while (output.takeFrame(frame, true)) {
+            consume(TerminalIoEngine.outputMessage(frame, binary));
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        return new Result(written / 1048576.0 / (elapsed / 1e9), allocated);
+    }
+
+    /** 메시지 내용을 읽어 JIT 가 메시지 생성을 없애지 못하게 한다 */
+    private void consume(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage text) {
+            sink += text.getPayload().length();
+        } else {
+            sink += ((BinaryMessage) message).getPayload().remaining();
+        }
+    }
+
+    /** 색이 들어간 빌드 로그 - multibyte 면 한글 / 기호가 섞인다 (프레임 경계에서 문자가 잘리는 경우 포함) */
+    private static byte[] sample(boolean multibyte) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 2000; i++) {
+            String line = multibyte
+                    ? "\u001b[32m✔\u001b[0m 컴파일 완료 src/main/java/com/example/Service" + i + ".java (" + (i % 97) + "ms) ─ 경고 없음\r\n"
+                    : "\u001b[32m+\u001b[0m compiled src/main/java/com/example/Service" + i + ".java (" + (i % 97) + "ms) - no warnings\r\n";
+            out.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
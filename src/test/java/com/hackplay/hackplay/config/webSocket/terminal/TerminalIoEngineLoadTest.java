@@ -0,0 +1,128 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import com.hackplay.hackplay.config.process.ProcessControl;
+import com.hackplay.hackplay.config.process.Pty;
+import com.hackplay.hackplay.config.webSocket.RecordingWebSocketSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 세션 수에 따른 스레드 수 / RSS / 유휴 CPU / 에코 지연 측정
+ * 실제 pty 와 프로세스를 세션 수만큼 띄우므로 기본 빌드에서는 돌지 않는다.
+ * gradle test --tests '*TerminalIoEngineLoadTest' -Dterminal.load.sessions=1000,5000
+ * (/proc/sys/kernel/pty/max 가 세션 수보다 커야 한다)
+ */
+@EnabledIfSystemProperty(named = "terminal.load.sessions", matches = "\\d+(,\\d+)*")
+class TerminalIoEngineLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TerminalIoEngineLoadTest.class);
+
+    private static final int PUMP_THREADS = 2;
+    private static final long IDLE_WINDOW_MILLIS = 5000;
+    private static final int ECHO_SAMPLES = 200;
+    private static final long ECHO_TIMEOUT_MILLIS = 5000;
+
+    private final ProcessControl processControl = new ProcessControl();
+
+    @Test
+    void threadsAndIdleCpuStayFlatAsSessionsGrow() throws Exception {
+        assertTrue(processControl.isNativeAvailable(), "측정에는 --enable-preview 로 켠 pty 가 필요하다");
+        for (String count : System.getProperty("terminal.load.sessions").split(",")) {
+            measure(Integer.parseInt(count));
+        }
+    }
+
+    private void measure(int count) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        TerminalSessionRegistry registry = new TerminalSessionRegistry();
+        TerminalIoEngine engine = TerminalEngines.start(registry, processControl, new SimpleMeterRegistry());
+        int threadsBefore = threads.getThreadCount();
+        long rssBefore = rssKilobytes();
+
+        List<TerminalSession> sessions = new ArrayList<>();
+        List<RecordingWebSocketSession> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                Pty pty = processControl.openPty(80, 24);
+                assertNotNull(pty, "pty " + i + " (/proc/sys/kernel/pty/max)");
+                // sleep 은 tty 를 읽지 않으므로 입력은 라인 디시플린의 에코로만 돌아온다
+                Process process = processControl.ptyProcessBuilder(pty, "sleep", "600").start();
+                RecordingWebSocketSession client = new RecordingWebSocketSession();
+                TerminalSession session = engine.newSession(client, "load-" + i, null, process, pty, 0, 80, 24);
+                registry.register(session);
+                engine.attach(session);
+                sessions.add(session);
+                clients.add(client);
+            }
+            Thread.sleep(2000);
+
+            long cpuStart = os.getProcessCpuTime();
+            Thread.sleep(IDLE_WINDOW_MILLIS);
+            double idleCpu = (double) (os.getProcessCpuTime() - cpuStart) / TimeUnit.MILLISECONDS.toNanos(IDLE_WINDOW_MILLIS);
+
+            double[] echo = new double[Math.min(ECHO_SAMPLES, count)];
+            for (int i = 0; i < echo.length; i++) {
+                TerminalSession session = sessions.get(i * count / echo.length);
+                RecordingWebSocketSession client = clients.get(i * count / echo.length);
+                int before = client.getMessages().size();
+                long sentAt = System.nanoTime();
+                long deadline = sentAt + TimeUnit.MILLISECONDS.toNanos(ECHO_TIMEOUT_MILLIS);
+                engine.onInput(session);
+                engine.queueInput(session, "x");
+                while (client.getMessages().size() == before) {
+                    assertTrue(System.nanoTime() < deadline,
+                            "no echo from " + session.getId() + " within " + ECHO_TIMEOUT_MILLIS + "ms (sample " + i + ")");
+                    Thread.onSpinWait();
+                }
+                echo[i] = (System.nanoTime() - sentAt) / 1e6;
+            }
+            Arrays.sort(echo);
+
+            int pumps = (int) Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().startsWith("terminal-pump-")).count();
+            log.info("sessions={} threads={} (+{}, pumps={}, reapers={}) rss={}MB (+{}MB) idle-cpu={}% echo p50={}ms p99={}ms",
+                    count, threads.getThreadCount(), threads.getThreadCount() - threadsBefore, pumps,
+                    Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().startsWith("process reaper")).count(),
+                    rssKilobytes() / 1024, (rssKilobytes() - rssBefore) / 1024, String.format("%.1f", idleCpu * 100),
+                    String.format("%.2f", echo[echo.length / 2]), String.format("%.2f", echo[echo.length * 99 / 100]));
+
+            // 세션 수와 상관없이 펌프 스레드만 돌고, 유휴 상태에서는 거의 CPU 를 쓰지 않는다
+            assertEquals(PUMP_THREADS, pumps);
+            assertTrue(idleCpu < 0.05, "idle CPU " + idleCpu);
+        } finally {
+            for (TerminalSession session : sessions) {
+                engine.terminate(session);
+            }
+            engine.stop();
+        }
+    }
+
+    private static long rssKilobytes() throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return 0;
+    }
+}
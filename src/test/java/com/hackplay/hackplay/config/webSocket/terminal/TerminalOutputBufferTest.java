@@ -0,0 +1,129 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TerminalOutputBufferTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(12);
+
+    private static TerminalOutputBuffer buffer(int maxBuffered, int maxFrame) {
+        return new TerminalOutputBuffer(maxBuffered, maxFrame, WINDOW, TimeUnit.MILLISECONDS.toNanos(50), 256,
+                TerminalOutputBuffer.OverflowPolicy.DROP_OLDEST);
+    }
+
+    /** 프레임을 모두 꺼내며 각 프레임이 그 자체로 올바른 UTF-8 인지 확인 */
+    private static byte[] drainStrict(TerminalOutputBuffer output, int frameCapacity) throws CharacterCodingException {
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        ByteBuffer frame = ByteBuffer.allocate(frameCapacity);
+        while (output.takeFrame(frame, false)) {
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(frame.duplicate());
+            all.write(frame.array(), 0, frame.limit());
+        }
+        return all.toByteArray();
+    }
+
+    @Test
+    void framesNeverSplitMultibyteCharacters() throws Exception {
+        // 1, 2, 3, 4 바이트 문자를 섞어 프레임 경계가 문자 중간 어디에나 걸리게 한다
+        String text = "a한é🙂".repeat(200);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        for (int maxFrame = 1; maxFrame <= 13; maxFrame++) {
+            TerminalOutputBuffer output = buffer(1 << 20, Math.max(4, maxFrame));
+            assertTrue(output.append(bytes, 0, bytes.length));
+            assertArrayEquals(bytes, drainStrict(output, Math.max(4, maxFrame) + 128), "frame size " + maxFrame);
+        }
+    }
+
+    @Test
+    void characterSplitAcrossReadsIsHeldUntilComplete() throws Exception {
+        byte[] han = "한".getBytes(StandardCharsets.UTF_8);
+        TerminalOutputBuffer output = buffer(1 << 20, 16384);
+
+        output.append(new byte[]{'x', han[0], han[1]}, 0, 3);
+        ByteBuffer frame = ByteBuffer.allocate(256);
+        assertTrue(output.takeFrame(frame, false));
+        assertEquals("x", StandardCharsets.UTF_8.decode(frame).toString());
+        // 뒤 바이트가 오기 전에는 불완전한 문자를 보내지 않는다
+        assertFalse(output.takeFrame(frame, false));
+
+        output.append(han, 2, 1);
+        assertTrue(output.takeFrame(frame, false));
+        assertEquals("한", StandardCharsets.UTF_8.decode(frame).toString());
+    }
+
+    @Test
+    void forceFlushesTrailingIncompleteCharacter() {
+        byte[] han = "한".getBytes(StandardCharsets.UTF_8);
+        TerminalOutputBuffer output = buffer(1 << 20, 16384);
+        output.append(han, 0, 2);
+
+        ByteBuffer frame = ByteBuffer.allocate(256);
+        assertFalse(output.takeFrame(frame, false));
+        assertTrue(output.takeFrame(frame, true));
+        assertEquals(2, frame.remaining());
+        assertFalse(output.hasPending());
+    }
+
+    @Test
+    void completeLengthStopsBeforeIncompleteSequence() {
+        byte[] bytes = "ab🙂".getBytes(StandardCharsets.UTF_8); // 2 + 4 바이트
+        assertEquals(6, TerminalOutputBuffer.completeLength(bytes, 0, 6));
+        for (int cut = 3; cut <= 5; cut++) {
+            assertEquals(2, TerminalOutputBuffer.completeLength(bytes, 0, cut), "cut " + cut);
+        }
+        assertEquals(0, TerminalOutputBuffer.completeLength(bytes, 2, 3));
+        assertEquals(1, TerminalOutputBuffer.completeLength(bytes, 1, 1));
+    }
+
+    @Test
+    void dropOldestKeepsCharacterBoundaryAndReportsDroppedBytes() throws Exception {
+        TerminalOutputBuffer output = buffer(64, 16384);
+        byte[] first = "가".repeat(20).getBytes(StandardCharsets.UTF_8); // 60 바이트
+        byte[] second = "나".repeat(5).getBytes(StandardCharsets.UTF_8); // 15 바이트
+        output.append(first, 0, first.length);
+        output.append(second, 0, second.length);
+
+        String sent = new String(drainStrict(output, 16384 + 128), StandardCharsets.UTF_8);
+        assertTrue(sent.contains("bytes dropped"), sent);
+        assertTrue(sent.endsWith("나".repeat(5)), sent);
+        assertFalse(sent.contains("�"), sent);
+    }
+
+    @Test
+    void disconnectPolicyRejectsOverflow() {
+        TerminalOutputBuffer output = new TerminalOutputBuffer(8, 16384, WINDOW, 0, 0,
+                TerminalOutputBuffer.OverflowPolicy.DISCONNECT);
+        assertTrue(output.append("12345678"));
+        assertFalse(output.append("9"));
+    }
+
+    @Test
+    void smallOutputRightAfterInputIsFlushedWithoutWaitingForWindow() {
+        TerminalOutputBuffer output = buffer(1 << 20, 16384);
+        output.markInput();
+        output.append("l");
+        assertTrue(output.isFlushDue(System.nanoTime()));
+
+        TerminalOutputBuffer idle = buffer(1 << 20, 16384);
+        idle.append("l");
+        long now = System.nanoTime();
+        assertFalse(idle.isFlushDue(now));
+        assertTrue(idle.isFlushDue(now + WINDOW));
+    }
+}
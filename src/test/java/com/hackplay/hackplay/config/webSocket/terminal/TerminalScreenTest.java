@@ -0,0 +1,164 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TerminalScreenTest {
+
+    private static final Pattern ROW = Pattern.compile("\u001b\\[(\\d+);1H");
+    private static final Pattern SGR = Pattern.compile("\u001b\\[[0-9;]*m");
+    private static final String ALT_ON = "\u001b[?1049h";
+
+    private static void feed(TerminalScreen screen, String text) {
+        feed(screen, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void feed(TerminalScreen screen, byte[] bytes) {
+        screen.feed(ByteBuffer.wrap(bytes));
+    }
+
+    private static String snapshot(TerminalScreen screen) {
+        return new String(screen.snapshot(), StandardCharsets.UTF_8);
+    }
+
+    /** 스냅샷에서 화면 줄 내용만 뽑는다 (alt 가 true 면 대체 화면) */
+    private static String[] rows(TerminalScreen screen, boolean alt) {
+        String snapshot = snapshot(screen);
+        int altStart = snapshot.indexOf(ALT_ON, 1);
+        String body = alt ? snapshot.substring(altStart) : altStart > 0 ? snapshot.substring(0, altStart) : snapshot;
+
+        String[] rows = new String[screen.getRows()];
+        Arrays.fill(rows, "");
+        Matcher m = ROW.matcher(body);
+        int row = -1;
+        int from = 0;
+        while (m.find()) {
+            if (row >= 0) {
+                rows[row] = text(body.substring(from, m.start()));
+            }
+            row = Integer.parseInt(m.group(1)) - 1;
+            from = m.end();
+        }
+        if (row >= 0) {
+            // 마지막 줄 뒤에는 커서 위치 등 상태 복원 시퀀스가 붙는다
+            String tail = body.substring(from);
+            int esc = tail.replaceAll(SGR.pattern(), "").indexOf('\u001b');
+            String plain = tail.replaceAll(SGR.pattern(), "");
+            rows[row] = esc >= 0 ? plain.substring(0, esc) : plain;
+        }
+        return rows;
+    }
+
+    private static String text(String segment) {
+        return SGR.matcher(segment).replaceAll("");
+    }
+
+    @Test
+    void longLineWrapsAtRightMargin() {
+        TerminalScreen screen = new TerminalScreen(10, 4);
+        feed(screen, "0123456789abcdefghijXYZ");
+
+        assertArrayEquals(new String[]{"0123456789", "abcdefghij", "XYZ", ""}, rows(screen, false));
+        assertTrue(snapshot(screen).endsWith("\u001b[3;4H"), "cursor after XYZ");
+    }
+
+    @Test
+    void exactlyFullLineDefersWrapUntilNextCharacter() {
+        TerminalScreen screen = new TerminalScreen(5, 3);
+        feed(screen, "abcde");
+        // 마지막 칸에 쓴 뒤 커서는 줄 끝에 머문다 (다음 문자가 와야 줄바꿈)
+        assertTrue(snapshot(screen).endsWith("\u001b[1;5H"));
+        feed(screen, "\r\nx");
+        assertArrayEquals(new String[]{"abcde", "x", ""}, rows(screen, false));
+    }
+
+    @Test
+    void lineFeedAtBottomScrollsUp() {
+        TerminalScreen screen = new TerminalScreen(8, 3);
+        feed(screen, "one\r\ntwo\r\nthree\r\nfour");
+        assertArrayEquals(new String[]{"two", "three", "four"}, rows(screen, false));
+    }
+
+    @Test
+    void scrollRegionKeepsLinesOutsideIt() {
+        TerminalScreen screen = new TerminalScreen(8, 4);
+        feed(screen, "head\u001b[2;3r\u001b[2;1Ha\r\nb\r\nc\u001b[4;1Hfoot");
+        assertArrayEquals(new String[]{"head", "b", "c", "foot"}, rows(screen, false));
+    }
+
+    @Test
+    void wideCharacterAtLastColumnWrapsWhole() {
+        TerminalScreen screen = new TerminalScreen(5, 2);
+        feed(screen, "abcd한");
+        assertArrayEquals(new String[]{"abcd", "한"}, rows(screen, false));
+    }
+
+    @Test
+    void sequencesSplitAcrossFramesAreParsed() {
+        byte[] han = "한".getBytes(StandardCharsets.UTF_8);
+        TerminalScreen screen = new TerminalScreen(10, 2);
+        feed(screen, "\u001b[3");
+        feed(screen, "1mR");
+        feed(screen, new byte[]{han[0], han[1]});
+        feed(screen, new byte[]{han[2]});
+
+        String snapshot = snapshot(screen);
+        assertTrue(snapshot.contains("\u001b[0;38;5;1mR한"), snapshot);
+    }
+
+    @Test
+    void alternateScreenIsRestoredOnTopOfMainScreen() {
+        TerminalScreen screen = new TerminalScreen(10, 3);
+        feed(screen, "$ vim\r\n");
+        feed(screen, "\u001b[?1049h\u001b[H\u001b[2J~\r\n~ file");
+
+        String snapshot = snapshot(screen);
+        assertTrue(snapshot.indexOf(ALT_ON) > snapshot.indexOf("$ vim"), snapshot);
+        assertArrayEquals(new String[]{"$ vim", "", ""}, rows(screen, false));
+        assertArrayEquals(new String[]{"~", "~ file", ""}, rows(screen, true));
+
+        // vim 종료 후에는 대체 화면을 다시 그리지 않는다
+        feed(screen, "\u001b[?1049l");
+        assertFalse(snapshot(screen).contains(ALT_ON));
+    }
+
+    @Test
+    void snapshotRedrawsTheSameScreen() {
+        TerminalScreen screen = new TerminalScreen(20, 5);
+        feed(screen, "\u001b[1;32mok\u001b[0m plain\r\n\u001b[48;2;10;20;30mrgb\u001b[0m 한글\r\n"
+                + "\u001b[2;4r\u001b[?25l\u001b[7minv");
+
+        TerminalScreen replayed = new TerminalScreen(20, 5);
+        feed(replayed, screen.snapshot());
+        assertEquals(snapshot(screen), snapshot(replayed));
+    }
+
+    @Test
+    void resizeKeepsCursorLineVisible() {
+        TerminalScreen screen = new TerminalScreen(10, 4);
+        feed(screen, "a\r\nb\r\nc\r\nd");
+        screen.resize(6, 2);
+
+        assertEquals(6, screen.getCols());
+        assertEquals(2, screen.getRows());
+        assertArrayEquals(new String[]{"c", "d"}, rows(screen, false));
+        assertTrue(snapshot(screen).endsWith("\u001b[2;2H"));
+    }
+
+    @Test
+    void eraseInDisplayClearsScreen() {
+        TerminalScreen screen = new TerminalScreen(10, 3);
+        feed(screen, "junk\r\nmore\u001b[2J\u001b[Hnew");
+        assertArrayEquals(new String[]{"new", "", ""}, rows(screen, false));
+    }
+}
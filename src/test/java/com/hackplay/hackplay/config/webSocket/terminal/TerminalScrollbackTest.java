@@ -0,0 +1,96 @@
+package com.hackplay.hackplay.config.webSocket.terminal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TerminalScrollbackTest {
+
+    private static void append(TerminalScrollback scrollback, String text) {
+        scrollback.append(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** offset 부터 끝까지 frameBytes 단위로 읽는다 */
+    private static String readFrom(TerminalScrollback scrollback, long offset, int frameBytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer frame = ByteBuffer.allocate(frameBytes + 8);
+        while (offset < scrollback.getEndOffset()) {
+            long next = scrollback.read(offset, frame, frameBytes);
+            if (next == offset) {
+                break;
+            }
+            out.write(frame.array(), 0, frame.limit());
+            offset = next;
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void readsBackFromAnyOffsetBeforeWraparound() {
+        TerminalScrollback scrollback = new TerminalScrollback(64, 0);
+        append(scrollback, "hello ");
+        append(scrollback, "world");
+
+        assertEquals(11, scrollback.getEndOffset());
+        assertEquals("hello world", readFrom(scrollback, 0, 4));
+        assertEquals("world", readFrom(scrollback, 6, 64));
+    }
+
+    @Test
+    void wraparoundKeepsOnlyTheLastCapacityBytes() {
+        TerminalScrollback scrollback = new TerminalScrollback(16, 0);
+        for (int i = 0; i < 10; i++) {
+            append(scrollback, "line" + i + "\n"); // 6 바이트씩
+        }
+
+        assertEquals(60, scrollback.getEndOffset());
+        assertEquals(44, scrollback.getStartOffset());
+        assertEquals("ne7\nline8\nline9\n", readFrom(scrollback, 44, 5));
+        // 덮어쓴 구간을 요청하면 남아 있는 가장 오래된 바이트부터
+        assertEquals("ne7\nline8\nline9\n", readFrom(scrollback, 3, 16));
+    }
+
+    @Test
+    void frameLargerThanCapacityKeepsItsTail() {
+        TerminalScrollback scrollback = new TerminalScrollback(8, 0);
+        append(scrollback, "0123456789abcdef");
+        assertEquals(16, scrollback.getEndOffset());
+        assertEquals("89abcdef", readFrom(scrollback, 0, 8));
+    }
+
+    @Test
+    void offsetsContinueFromBaseOffset() {
+        TerminalScrollback scrollback = new TerminalScrollback(32, 1000);
+        assertEquals(1000, scrollback.getStartOffset());
+        append(scrollback, "resumed");
+        assertEquals(1007, scrollback.getEndOffset());
+        assertEquals("sumed", readFrom(scrollback, 1002, 32));
+    }
+
+    @Test
+    void readNeverEndsFrameInsideMultibyteCharacter() {
+        TerminalScrollback scrollback = new TerminalScrollback(64, 0);
+        append(scrollback, "가나다라");
+        ByteBuffer frame = ByteBuffer.allocate(64);
+        long next = scrollback.read(0, frame, 4);
+        assertEquals(3, next);
+        assertEquals("가", StandardCharsets.UTF_8.decode(frame).toString());
+        assertEquals("가나다라", readFrom(scrollback, 0, 4));
+    }
+
+    @Test
+    void releaseDropsHistoryAndContinuesOffsets() {
+        TerminalScrollback scrollback = new TerminalScrollback(32, 0);
+        append(scrollback, "before");
+        scrollback.release();
+
+        assertEquals(6, scrollback.getStartOffset());
+        assertEquals("", readFrom(scrollback, 0, 32));
+        append(scrollback, "after");
+        assertEquals("after", readFrom(scrollback, 0, 32));
+    }
+}